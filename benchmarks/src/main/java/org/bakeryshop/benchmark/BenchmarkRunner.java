@@ -0,0 +1,60 @@
+package org.bakeryshop.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Runs the single threaded benchmarks once and the contended ones for every thread count
+ * of the {@code bakery.benchmark.threads} system property (comma separated, default {@code 2,4,8}),
+ * always reporting the allocation rates of the {@link GCProfiler}.
+ * <p>
+ * The benchmarked methods are selected by the {@code bakery.benchmark.methods} system property
+ * (a regular expression, default all of them). The command line arguments are the regular JMH options
+ * without include patterns, e.g. {@code -p openOrders=100 -i 10}.
+ */
+public final class BenchmarkRunner {
+
+    private static final String THREADS_PROPERTY = "bakery.benchmark.threads";
+    private static final String METHODS_PROPERTY = "bakery.benchmark.methods";
+
+    private BenchmarkRunner() {
+        super();
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        final var commandLineOptions = new CommandLineOptions(args);
+        final var methods = System.getProperty(METHODS_PROPERTY, ".*");
+
+        final Collection<RunResult> results = new ArrayList<>(new Runner(new OptionsBuilder()
+                .parent(commandLineOptions)
+                .include(SingleThreadedPancakeServiceBenchmark.class.getSimpleName() + "\\.(" + methods + ")$")
+                .addProfiler(GCProfiler.class)
+                .build()).run());
+
+        for (final int threads : threadCounts()) {
+            results.addAll(new Runner(new OptionsBuilder()
+                    .parent(commandLineOptions)
+                    .include(ContendedPancakeServiceBenchmark.class.getSimpleName() + "\\.(" + methods + ")$")
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .build()).run());
+        }
+        System.out.printf("%d benchmark runs finished%n", results.size());
+    }
+
+    private static int[] threadCounts() {
+        return Arrays.stream(System.getProperty(THREADS_PROPERTY, "2,4,8").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+}
@@ -0,0 +1,12 @@
+package org.bakeryshop.benchmark;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * The {@link PancakeServiceBenchmark} with all threads sharing the same service and open orders.
+ * <p>
+ * Runs on all available processors by default, {@link BenchmarkRunner} repeats it for every configured thread count.
+ */
+@Threads(Threads.MAX)
+public class ContendedPancakeServiceBenchmark extends PancakeServiceBenchmark {
+}
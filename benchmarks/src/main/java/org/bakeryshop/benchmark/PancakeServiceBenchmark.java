@@ -0,0 +1,111 @@
+package org.bakeryshop.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per {@link org.bakeryshop.service.PancakeService} method.
+ * <p>
+ * The commands which would exhaust the open orders (cancel, prepare, deliver) run on orders created
+ * by the benchmark itself, so their scores include the creation of those orders.
+ * The thread count is chosen by the subclasses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class PancakeServiceBenchmark {
+
+    private static final int DELIVERY_BATCH_SIZE = 8;
+
+    @Benchmark
+    public void createOrder(PancakeServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.pancakeService.createOrder(PancakeServiceState.BUILDING_NR, state.anyRoom()));
+    }
+
+    @Benchmark
+    public void addPancakes(PancakeServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.pancakeService.addPancakes(state.anyCreatedOrderId(), 1, PancakeServiceState.INGREDIENTS));
+    }
+
+    /**
+     * Adds the removed pancake back, so the open orders keep their size.
+     */
+    @Benchmark
+    public void removePancakes(PancakeServiceState state, Blackhole blackhole) {
+        final var orderId = state.anyCreatedOrderId();
+        blackhole.consume(state.pancakeService.removePancakes(orderId, state.pancakeDescription, 1));
+        blackhole.consume(state.pancakeService.addPancakes(orderId, 1, PancakeServiceState.INGREDIENTS));
+    }
+
+    @Benchmark
+    public void cancelOrder(PancakeServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.pancakeService.cancelOrder(state.newOrder()));
+    }
+
+    /**
+     * Completes the already completed orders again, so the completed orders are not exhausted either.
+     */
+    @Benchmark
+    public void completeOrder(PancakeServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.pancakeService.completeOrder(state.anyCompletedOrderId()));
+    }
+
+    @Benchmark
+    public void prepareOrder(PancakeServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.pancakeService.prepareOrder(state.newCompletedOrder()));
+    }
+
+    @Benchmark
+    public void deliverOrder(PancakeServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.pancakeService.deliverOrder(state.newPreparedOrders(1).get(0)));
+    }
+
+    @Benchmark
+    public void deliverOrders(PancakeServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.pancakeService.deliverOrders(state.newPreparedOrders(DELIVERY_BATCH_SIZE)));
+    }
+
+    @Benchmark
+    public void viewOrder(PancakeServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.pancakeService.viewOrder(state.anyCreatedOrderId()));
+    }
+
+    @Benchmark
+    public void listCompletedOrders(PancakeServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.pancakeService.listCompletedOrders());
+    }
+
+    @Benchmark
+    public void listPreparedOrders(PancakeServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.pancakeService.listPreparedOrders());
+    }
+
+    /**
+     * Completes a completed order again first, so there is always a completed order to take.
+     */
+    @Benchmark
+    public void takeCompletedOrder(PancakeServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.pancakeService.completeOrder(state.anyCompletedOrderId()));
+        blackhole.consume(state.pancakeService.takeCompletedOrder(Duration.ZERO));
+    }
+
+    /**
+     * Prepares a new order first, so there is always a prepared order to take.
+     */
+    @Benchmark
+    public void takePreparedOrder(PancakeServiceState state, Blackhole blackhole) {
+        blackhole.consume(state.pancakeService.prepareOrder(state.newCompletedOrder()));
+        blackhole.consume(state.pancakeService.takePreparedOrder(Duration.ZERO));
+    }
+}
@@ -0,0 +1,128 @@
+package org.bakeryshop.benchmark;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.SimplePancakeService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * The service shared by all benchmark threads, filled with the open orders before every iteration.
+ * <p>
+ * Every third open order is completed, every third prepared, so the listings have something to return.
+ * The orders of every state are kept in a pool of their own, so a benchmark picking an order of one state
+ * never moves an order of another state.
+ */
+@State(Scope.Benchmark)
+public class PancakeServiceState {
+
+    static final int BUILDING_NR = 10;
+    static final int AMOUNT_OF_ROOMS = 20;
+    static final Set<PancakeIngredient> INGREDIENTS = Set.of(PancakeIngredient.DARK_CHOCOLATE, PancakeIngredient.HAZELNUTS);
+
+    @Param({"100", "10000"})
+    public int openOrders;
+
+    @Param({"1", "10"})
+    public int pancakesPerOrder;
+
+    PancakeService pancakeService;
+    UUID[] createdOrderIds;
+    UUID[] completedOrderIds;
+    String pancakeDescription;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        pancakeService = new SimplePancakeService(
+                new InMemoryPancakesOrderRepository(Duration.ofSeconds(1L)),
+                new FixedSetBuildingRepository(Set.of(new Building(BUILDING_NR, AMOUNT_OF_ROOMS)))
+        );
+        final List<UUID> createdIds = new ArrayList<>(openOrders / 3 + 1);
+        final List<UUID> completedIds = new ArrayList<>(openOrders / 3 + 1);
+        for (int i = 0; i < openOrders; i++) {
+            final var orderId = pancakeService.createOrder(BUILDING_NR, 1 + i % AMOUNT_OF_ROOMS).requireOrder().id();
+            pancakeService.addPancakes(orderId, pancakesPerOrder, INGREDIENTS);
+            switch (i % 3) {
+                case 0 -> createdIds.add(orderId);
+                case 1 -> {
+                    pancakeService.completeOrder(orderId);
+                    completedIds.add(orderId);
+                }
+                default -> {
+                    pancakeService.completeOrder(orderId);
+                    pancakeService.prepareOrder(orderId);
+                }
+            }
+        }
+        createdOrderIds = createdIds.toArray(UUID[]::new);
+        completedOrderIds = completedIds.toArray(UUID[]::new);
+        pancakeDescription = pancakeService.viewOrder(createdOrderIds[0]).get(0);
+    }
+
+    /**
+     * @return an open order which is neither completed nor prepared
+     */
+    UUID anyCreatedOrderId() {
+        return anyOf(createdOrderIds);
+    }
+
+    /**
+     * @return an open order which is completed, completing it again keeps it completed
+     */
+    UUID anyCompletedOrderId() {
+        return anyOf(completedOrderIds);
+    }
+
+    int anyRoom() {
+        return 1 + ThreadLocalRandom.current().nextInt(AMOUNT_OF_ROOMS);
+    }
+
+    /**
+     * Creates an order having the configured amount of pancakes, it is not part of the open orders.
+     */
+    UUID newOrder() {
+        final var orderId = pancakeService.createOrder(BUILDING_NR, anyRoom()).requireOrder().id();
+        pancakeService.addPancakes(orderId, pancakesPerOrder, INGREDIENTS);
+        return orderId;
+    }
+
+    /**
+     * Creates a completed order which is not part of the open orders.
+     */
+    UUID newCompletedOrder() {
+        final var orderId = newOrder();
+        pancakeService.completeOrder(orderId);
+        return orderId;
+    }
+
+    /**
+     * Creates the given amount of prepared orders which are not part of the open orders.
+     */
+    List<UUID> newPreparedOrders(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(any -> {
+                    final var orderId = newCompletedOrder();
+                    pancakeService.prepareOrder(orderId);
+                    return orderId;
+                })
+                .toList();
+    }
+
+    private static UUID anyOf(UUID[] orderIds) {
+        return orderIds[ThreadLocalRandom.current().nextInt(orderIds.length)];
+    }
+}
@@ -0,0 +1,10 @@
+package org.bakeryshop.benchmark;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * The {@link PancakeServiceBenchmark} without contention, the baseline of the contended runs.
+ */
+@Threads(1)
+public class SingleThreadedPancakeServiceBenchmark extends PancakeServiceBenchmark {
+}
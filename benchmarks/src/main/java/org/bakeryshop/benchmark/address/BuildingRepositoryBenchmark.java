@@ -0,0 +1,123 @@
+package org.bakeryshop.benchmark.address;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.address.MappedBuildingCatalog;
+import org.bakeryshop.domain.repository.address.ReloadableBuildingCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building lookups of the {@link FixedSetBuildingRepository} against the {@link MappedBuildingCatalog}
+ * and the {@link ReloadableBuildingCatalog},
+ * of {@code buildings} buildings numbered every {@code step}, {@code step} 1 being dense and 1009 sparse,
+ * and the load time of the catalog file.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.openjdk.jmh.Main BuildingRepositoryBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BuildingRepositoryBenchmark {
+
+    private static final int LOOKUPS = 1_024;
+
+    @Param({"50000"})
+    int buildings;
+
+    @Param({"1", "1009"})
+    int step;
+
+    private Path file;
+    private FixedSetBuildingRepository fixedSetRepository;
+    private MappedBuildingCatalog catalog;
+    private ReloadableBuildingCatalog reloadableCatalog;
+    private int[] buildingNrs;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final var buildingSet = new HashSet<Building>();
+        for (int i = 1; i <= buildings; i++) {
+            buildingSet.add(new Building(i * step, 1 + i % 64));
+        }
+        file = Files.createTempFile("buildings", ".catalog");
+        MappedBuildingCatalog.write(buildingSet, file);
+        fixedSetRepository = new FixedSetBuildingRepository(buildingSet);
+        catalog = MappedBuildingCatalog.load(file);
+        reloadableCatalog = new ReloadableBuildingCatalog(file);
+        buildingNrs = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            final int hit = (1 + i * 7919 % buildings) * step;
+            // every eighth lookup misses, past the dense numbers or between the sparse ones
+            buildingNrs[i] = i % 8 != 0 ? hit : hit + (step == 1 ? buildings : step / 2);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int findFixedSet() {
+        int rooms = 0;
+        for (final int buildingNr : buildingNrs) {
+            rooms += roomsOf(fixedSetRepository.find(buildingNr));
+        }
+        return rooms;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int findCatalog() {
+        int rooms = 0;
+        for (final int buildingNr : buildingNrs) {
+            rooms += roomsOf(catalog.find(buildingNr));
+        }
+        return rooms;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int findReloadableCatalog() {
+        int rooms = 0;
+        for (final int buildingNr : buildingNrs) {
+            rooms += roomsOf(reloadableCatalog.find(buildingNr));
+        }
+        return rooms;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public MappedBuildingCatalog loadCatalog() {
+        return MappedBuildingCatalog.load(file);
+    }
+
+    private static int roomsOf(Optional<Building> building) {
+        return building.isPresent() ? building.get().amountOfRooms() : 0;
+    }
+}
@@ -0,0 +1,121 @@
+package org.bakeryshop.benchmark.analytics;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.address.OrderAddress;
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.model.pancakes.PancakeRecipe;
+import org.bakeryshop.service.analytics.OrderOutcome;
+import org.bakeryshop.service.analytics.RecipeSales;
+import org.bakeryshop.service.analytics.SalesAnalytics;
+import org.bakeryshop.service.analytics.SalesQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Latency of the aggregates of {@link SalesAnalytics} scanning {@code orders} captured orders of two pancakes each,
+ * sealed to segment files in a temporary directory.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.openjdk.jmh.Main SalesAnalyticsBenchmark -p orders=1000000
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SalesAnalyticsBenchmark {
+
+    private static final int BUILDINGS = 100;
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Param({"100000", "1000000"})
+    int orders;
+
+    private Path directory;
+    private SalesAnalytics salesAnalytics;
+    private SalesQuery lastWeek;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("sales-benchmark");
+        final var random = new SplittableRandom(42L);
+        final var ingredients = PancakeIngredient.values();
+        final var buildings = new ArrayList<Building>(BUILDINGS);
+        for (int buildingNr = 1; buildingNr <= BUILDINGS; buildingNr++) {
+            buildings.add(new Building(buildingNr, 20));
+        }
+        try (var capturing = SalesAnalytics.open(directory, Clock.fixed(START, ZoneOffset.UTC))) {
+            for (int order = 0; order < orders; order++) {
+                final var orderId = new UUID(0L, order);
+                final var pancake = PancakeRecipe.of(orderId, PancakeIngredient.ofMask(1 + random.nextInt(15)));
+                final var other = PancakeRecipe.of(orderId, Set.of(ingredients[random.nextInt(ingredients.length)]));
+                final var address = new OrderAddress(buildings.get(random.nextInt(BUILDINGS)), 1 + random.nextInt(20));
+                capturing.capture(new PancakesOrderSnapshot(orderId, OrderState.PREPARED, address, List.of(pancake, other)),
+                        random.nextInt(10) == 0 ? OrderOutcome.CANCELLED : OrderOutcome.DELIVERED);
+            }
+        }
+        salesAnalytics = SalesAnalytics.open(directory);
+        lastWeek = SalesQuery.all().between(START.minus(Duration.ofDays(7L)), START.plusSeconds(1L));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        salesAnalytics.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (final var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long pancakes() {
+        return salesAnalytics.pancakes(lastWeek.withOutcome(OrderOutcome.DELIVERED));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> pancakesByBuilding() {
+        return salesAnalytics.pancakesByBuilding(lastWeek);
+    }
+
+    @Benchmark
+    public List<RecipeSales> topRecipesOfBuilding() {
+        return salesAnalytics.topRecipes(lastWeek.inBuilding(BUILDINGS / 2), 3);
+    }
+
+    @Benchmark
+    public Map<Instant, Long> pancakesByHour() {
+        return salesAnalytics.pancakesByWindow(lastWeek, Duration.ofHours(1L));
+    }
+}
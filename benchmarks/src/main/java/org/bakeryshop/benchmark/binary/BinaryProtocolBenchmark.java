@@ -0,0 +1,119 @@
+package org.bakeryshop.benchmark.binary;
+
+import org.bakeryshop.api.binary.BinaryProtocolClient;
+import org.bakeryshop.api.binary.BinaryProtocolServer;
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.SimplePancakeService;
+import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local throughput of the {@link BinaryProtocolServer} over one loopback connection shared by the benchmark threads,
+ * sending {@value #PIPELINED_REQUESTS} requests before awaiting their responses against one call per request.
+ * The scores count requests and include the client side, compare them with the {@code HttpApiBenchmark}.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.openjdk.jmh.Main BinaryProtocolBenchmark -t 8
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class BinaryProtocolBenchmark {
+
+    private static final int BUILDING_NR = 10;
+    private static final int AMOUNT_OF_ROOMS = 20;
+    private static final int OPEN_ORDERS = 1_000;
+    private static final int PIPELINED_REQUESTS = 64;
+    private static final Set<PancakeIngredient> INGREDIENTS = Set.of(PancakeIngredient.HAZELNUTS);
+
+    @State(Scope.Benchmark)
+    public static class ServerState {
+
+        BinaryProtocolServer server;
+        BinaryProtocolClient client;
+        UUID[] orderIds;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            final var pancakeService = new SimplePancakeService(
+                    new InMemoryPancakesOrderRepository(Duration.ofSeconds(1L)),
+                    new FixedSetBuildingRepository(Set.of(new Building(BUILDING_NR, AMOUNT_OF_ROOMS)))
+            );
+            server = BinaryProtocolServer.start(pancakeService, new InetSocketAddress("localhost", 0));
+            client = BinaryProtocolClient.connect(server.address());
+            orderIds = new UUID[OPEN_ORDERS];
+            for (int i = 0; i < OPEN_ORDERS; i++) {
+                orderIds[i] = pancakeService.createOrder(BUILDING_NR, 1 + i % AMOUNT_OF_ROOMS).requireOrder().id();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            client.close();
+            server.close();
+        }
+
+        UUID anyOrder() {
+            return orderIds[ThreadLocalRandom.current().nextInt(OPEN_ORDERS)];
+        }
+    }
+
+    @Benchmark
+    public AddPancakeResult addPancakes(ServerState state) {
+        return state.client.addPancakes(state.anyOrder(), 1, INGREDIENTS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINED_REQUESTS)
+    public Object addPancakesPipelined(ServerState state) {
+        final var results = new CompletableFuture<?>[PIPELINED_REQUESTS];
+        for (int i = 0; i < PIPELINED_REQUESTS; i++) {
+            results[i] = state.client.addPancakesAsync(null, state.anyOrder(), 1, INGREDIENTS);
+        }
+        return CompletableFuture.allOf(results).join();
+    }
+
+    @Benchmark
+    public List<String> viewOrder(ServerState state) {
+        return state.client.viewOrder(state.anyOrder());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINED_REQUESTS)
+    public Object viewOrderPipelined(ServerState state) {
+        final var results = new CompletableFuture<?>[PIPELINED_REQUESTS];
+        for (int i = 0; i < PIPELINED_REQUESTS; i++) {
+            results[i] = state.client.viewOrderAsync(state.anyOrder());
+        }
+        return CompletableFuture.allOf(results).join();
+    }
+}
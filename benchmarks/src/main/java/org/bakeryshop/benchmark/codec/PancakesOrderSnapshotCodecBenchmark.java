@@ -0,0 +1,110 @@
+package org.bakeryshop.benchmark.codec;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.address.OrderAddress;
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshotCodec;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.model.pancakes.PancakeRecipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@link PancakesOrderSnapshotCodec} against Java serialization, encoding and decoding one snapshot
+ * with {@code pancakes} pancakes of 3 kinds. The encoded sizes are printed once per trial.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.openjdk.jmh.Main PancakesOrderSnapshotCodecBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PancakesOrderSnapshotCodecBenchmark {
+
+    private static final Set<PancakeIngredient>[] KINDS = kinds();
+
+    @Param({"1", "10", "100"})
+    int pancakes;
+
+    private PancakesOrderSnapshot snapshot;
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final var orderId = UUID.randomUUID();
+        final var recipes = new ArrayList<PancakeRecipe>(pancakes);
+        for (int i = 0; i < pancakes; i++) {
+            recipes.add(PancakeRecipe.of(orderId, KINDS[i * KINDS.length / pancakes]));
+        }
+        snapshot = new PancakesOrderSnapshot(orderId, OrderState.COMPLETED, new OrderAddress(new Building(42, 100), 7), recipes);
+        buffer = ByteBuffer.allocate(PancakesOrderSnapshotCodec.encodedLength(snapshot));
+        encoded = ByteBuffer.allocate(buffer.capacity());
+        PancakesOrderSnapshotCodec.encode(snapshot, encoded);
+        encoded.flip();
+        serialized = serialize();
+        System.out.printf("%nCodec: %d bytes, Java serialization: %d bytes%n", encoded.remaining(), serialized.length);
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        PancakesOrderSnapshotCodec.encode(snapshot, buffer.clear());
+        return buffer;
+    }
+
+    @Benchmark
+    public PancakesOrderSnapshot decode() {
+        return PancakesOrderSnapshotCodec.decode(encoded.rewind());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        final var bytes = new ByteArrayOutputStream(256);
+        try (var output = new ObjectOutputStream(bytes)) {
+            output.writeObject(snapshot);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException, ClassNotFoundException {
+        try (var input = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return input.readObject();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<PancakeIngredient>[] kinds() {
+        return (Set<PancakeIngredient>[]) new Set<?>[]{
+                Set.of(PancakeIngredient.HAZELNUTS),
+                Set.of(PancakeIngredient.DARK_CHOCOLATE, PancakeIngredient.WHIPPED_CREAM),
+                Set.of(PancakeIngredient.MILK_CHOCOLATE, PancakeIngredient.HAZELNUTS, PancakeIngredient.WHIPPED_CREAM)
+        };
+    }
+}
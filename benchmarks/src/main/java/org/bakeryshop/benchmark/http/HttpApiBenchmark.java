@@ -0,0 +1,114 @@
+package org.bakeryshop.benchmark.http;
+
+import org.bakeryshop.api.http.HttpApiServer;
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.SimplePancakeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local throughput of the {@link HttpApiServer} over kept alive loopback connections,
+ * the scores include the client side of the requests.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.openjdk.jmh.Main HttpApiBenchmark -t 8
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class HttpApiBenchmark {
+
+    private static final int BUILDING_NR = 10;
+    private static final int AMOUNT_OF_ROOMS = 20;
+    private static final int OPEN_ORDERS = 1_000;
+
+    @State(Scope.Benchmark)
+    public static class ServerState {
+
+        HttpApiServer server;
+        HttpClient httpClient;
+        URI[] orderUris;
+        URI[] addPancakesUris;
+        URI createOrderUri;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            final var pancakeService = new SimplePancakeService(
+                    new InMemoryPancakesOrderRepository(Duration.ofSeconds(1L)),
+                    new FixedSetBuildingRepository(Set.of(new Building(BUILDING_NR, AMOUNT_OF_ROOMS)))
+            );
+            server = HttpApiServer.start(pancakeService, new InetSocketAddress("localhost", 0));
+            httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .build();
+            final var baseUri = "http://localhost:%d".formatted(server.address().getPort());
+            createOrderUri = URI.create(baseUri + "/orders?building=%d&room=1".formatted(BUILDING_NR));
+            orderUris = new URI[OPEN_ORDERS];
+            addPancakesUris = new URI[OPEN_ORDERS];
+            for (int i = 0; i < OPEN_ORDERS; i++) {
+                final var orderId = pancakeService.createOrder(BUILDING_NR, 1 + i % AMOUNT_OF_ROOMS).requireOrder().id();
+                orderUris[i] = URI.create(baseUri + "/orders/" + orderId);
+                addPancakesUris[i] = URI.create(baseUri + "/orders/" + orderId + "/pancakes?count=1&ingredients=HAZELNUTS");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            server.close();
+        }
+
+        int anyOrder() {
+            return ThreadLocalRandom.current().nextInt(OPEN_ORDERS);
+        }
+    }
+
+    @Benchmark
+    public String createOrder(ServerState state) throws IOException, InterruptedException {
+        return send(state, HttpRequest.newBuilder(state.createOrderUri).POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    @Benchmark
+    public String addPancakes(ServerState state) throws IOException, InterruptedException {
+        return send(state, HttpRequest.newBuilder(state.addPancakesUris[state.anyOrder()]).POST(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    @Benchmark
+    public String viewOrder(ServerState state) throws IOException, InterruptedException {
+        return send(state, HttpRequest.newBuilder(state.orderUris[state.anyOrder()]).GET());
+    }
+
+    private static String send(ServerState state, HttpRequest.Builder request) throws IOException, InterruptedException {
+        final var response = state.httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("Request failed with %d: %s".formatted(response.statusCode(), response.body()));
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,71 @@
+package org.bakeryshop.benchmark.id;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.order.OrderIdGenerator;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.SimplePancakeService;
+import org.bakeryshop.service.usecase.create.CreateOrderResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@code random} {@link UUID#randomUUID()} ids against the {@code time-ordered} UUID version 7 ids,
+ * generated alone and by {@code createOrder} of a service shared by all threads, 16 by default.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.openjdk.jmh.Main OrderIdGeneratorBenchmark -t 64
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderIdGeneratorBenchmark {
+
+    private static final int BUILDING_NR = 10;
+
+    @Param({"random", "time-ordered"})
+    String generator;
+
+    private OrderIdGenerator orderIdGenerator;
+    private PancakeService pancakeService;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        orderIdGenerator = generator.equals("random") ? OrderIdGenerator.random() : OrderIdGenerator.timeOrdered();
+        pancakeService = new SimplePancakeService(
+                new InMemoryPancakesOrderRepository(Duration.ofSeconds(1L), false, 1 << 20, orderIdGenerator),
+                new FixedSetBuildingRepository(Set.of(new Building(BUILDING_NR, 1)))
+        );
+    }
+
+    @Benchmark
+    public UUID nextId() {
+        return orderIdGenerator.nextId();
+    }
+
+    @Benchmark
+    public CreateOrderResult createOrder() {
+        return pancakeService.createOrder(BUILDING_NR, 1);
+    }
+}
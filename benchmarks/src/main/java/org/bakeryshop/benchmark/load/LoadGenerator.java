@@ -0,0 +1,143 @@
+package org.bakeryshop.benchmark.load;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.PancakeServiceProvider;
+import org.bakeryshop.service.SimplePancakeService;
+import org.bakeryshop.service.admission.AdmissionControl;
+import org.bakeryshop.service.admission.AdmissionControlledPancakeService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Drives an open-loop workload against a {@link PancakeService} and prints the throughput
+ * and the coordinated omission corrected latency percentiles by operation.
+ * <p>
+ * The workload is either synthetic or replayed from a trace file, and can be recorded to a trace file, e.g.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.bakeryshop.benchmark.load.LoadGenerator \
+ *     --rate=5000 --duration=60 --buildings=100 --record=peak.trace
+ * java -cp benchmarks/target/benchmarks.jar org.bakeryshop.benchmark.load.LoadGenerator \
+ *     --buildings=100 --replay=peak.trace --speed=2
+ * </pre>
+ * The clients are virtual threads when the runtime supports them, otherwise a pool of {@code --clients} threads.
+ */
+public final class LoadGenerator {
+
+    private static final Building PROVIDER_BUILDING = new Building(10, 20);
+
+    private LoadGenerator() {
+        super();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final var options = LoadOptions.parse(args);
+        final var buildings = buildings(options);
+        try (var replay = options.replay().isPresent() ? Files.newBufferedReader(options.replay().get()) : null;
+             var record = options.record().isPresent() ? Files.newBufferedWriter(options.record().get()) : null) {
+            final var events = replay != null ? traceOf(replay) : new SyntheticWorkload(options, buildings);
+            final var report = new WorkloadRunner(pancakeService(options, buildings), clients(options), recorderOf(record))
+                    .run(events, replay != null ? options.speed() : 1.0d);
+            report.print(System.out);
+        }
+    }
+
+    private static List<Building> buildings(LoadOptions options) {
+        if (options.buildings() == 0) {
+            return List.of(PROVIDER_BUILDING);
+        }
+        return IntStream.rangeClosed(1, options.buildings())
+                .mapToObj(buildingNr -> new Building(buildingNr, options.roomsPerBuilding()))
+                .toList();
+    }
+
+    /**
+     * Without buildings the service of the provider is used, otherwise an equally configured one with the buildings.
+     */
+    private static PancakeService pancakeService(LoadOptions options, List<Building> buildings) {
+        if (options.buildings() == 0) {
+            return PancakeServiceProvider.pancakeService();
+        }
+        final var pancakesOrderRepository = new InMemoryPancakesOrderRepository(Duration.ofMillis(100L));
+        return new AdmissionControlledPancakeService(
+                new SimplePancakeService(pancakesOrderRepository, new FixedSetBuildingRepository(new HashSet<>(buildings))),
+                pancakesOrderRepository,
+                new AdmissionControl(256, 32, Duration.ofMillis(10L))
+        );
+    }
+
+    private static ExecutorService clients(LoadOptions options) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(options.clients());
+        }
+    }
+
+    private static Consumer<TraceEvent> recorderOf(BufferedWriter record) throws IOException {
+        if (record == null) {
+            return any -> {
+            };
+        }
+        record.write(TraceEvent.HEADER);
+        record.newLine();
+        return event -> {
+            try {
+                record.write(event.format());
+                record.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static Iterator<TraceEvent> traceOf(BufferedReader reader) {
+        return new Iterator<>() {
+            private TraceEvent next = read();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public TraceEvent next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                final var event = next;
+                next = read();
+                return event;
+            }
+
+            private TraceEvent read() {
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.isBlank() && !line.startsWith("#")) {
+                            return TraceEvent.parse(line);
+                        }
+                    }
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+}
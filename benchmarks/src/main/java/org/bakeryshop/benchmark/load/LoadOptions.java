@@ -0,0 +1,92 @@
+package org.bakeryshop.benchmark.load;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The command line options of the {@link LoadGenerator}, given as {@code --name=value}.
+ *
+ * @param durationSeconds      The duration of the synthetic workload
+ * @param ratePerSecond        The arrival rate of the operations, independent of the response times
+ * @param poissonArrivals      true for exponentially distributed inter-arrival times, false for fixed ones
+ * @param clients              The amount of client threads when virtual threads are not available
+ * @param buildings            The amount of buildings, 0 uses the service of the PancakeServiceProvider
+ * @param roomsPerBuilding     The amount of rooms of every building
+ * @param buildingSkew         The Zipf exponent of the building popularity
+ * @param orderSkew            The Zipf exponent of the order popularity, the most recent orders being the most popular
+ * @param popularOrders        The amount of most recent orders the operations are applied to
+ * @param mix                  The weights of the operations
+ * @param seed                 The seed of the synthetic workload
+ * @param record               The trace file to record the workload to
+ * @param replay               The trace file to replay instead of the synthetic workload
+ * @param speed                The replay speed factor, 2 replays a trace twice as fast
+ */
+record LoadOptions(double durationSeconds,
+                   double ratePerSecond,
+                   boolean poissonArrivals,
+                   int clients,
+                   int buildings,
+                   int roomsPerBuilding,
+                   double buildingSkew,
+                   double orderSkew,
+                   int popularOrders,
+                   Map<Operation, Integer> mix,
+                   long seed,
+                   Optional<Path> record,
+                   Optional<Path> replay,
+                   double speed) {
+
+    private static final Set<String> NAMES = Set.of(
+            "duration", "rate", "poisson", "clients", "buildings", "rooms", "building-skew", "order-skew",
+            "popular-orders", "mix", "seed", "record", "replay", "speed");
+
+    static final String DEFAULT_MIX = "create:15,add:30,remove:5,complete:10,prepare:10,deliver:10,cancel:5,list:15";
+
+    static LoadOptions parse(String... args) {
+        final var values = new HashMap<String, String>();
+        for (final var arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got '%s'".formatted(arg));
+            }
+            final var separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        final var options = new LoadOptions(
+                Double.parseDouble(values.getOrDefault("duration", "30")),
+                Double.parseDouble(values.getOrDefault("rate", "1000")),
+                Boolean.parseBoolean(values.getOrDefault("poisson", "true")),
+                Integer.parseInt(values.getOrDefault("clients", "64")),
+                Integer.parseInt(values.getOrDefault("buildings", "0")),
+                Integer.parseInt(values.getOrDefault("rooms", "20")),
+                Double.parseDouble(values.getOrDefault("building-skew", "1.1")),
+                Double.parseDouble(values.getOrDefault("order-skew", "1.1")),
+                Integer.parseInt(values.getOrDefault("popular-orders", "1024")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Optional.ofNullable(values.get("record")).map(Path::of),
+                Optional.ofNullable(values.get("replay")).map(Path::of),
+                Double.parseDouble(values.getOrDefault("speed", "1"))
+        );
+        values.keySet().removeAll(NAMES);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options %s".formatted(values.keySet()));
+        }
+        return options;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        final var weights = new EnumMap<Operation, Integer>(Operation.class);
+        for (final var entry : mix.split(",")) {
+            final var nameAndWeight = entry.split(":");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got '%s'".formatted(entry));
+            }
+            weights.put(Operation.valueOf(nameAndWeight[0].trim().toUpperCase()), Integer.parseInt(nameAndWeight[1].trim()));
+        }
+        return weights;
+    }
+}
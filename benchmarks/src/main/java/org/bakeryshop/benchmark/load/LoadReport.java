@@ -0,0 +1,95 @@
+package org.bakeryshop.benchmark.load;
+
+import org.bakeryshop.service.metrics.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The outcomes and latencies of a workload run by operation.
+ * <p>
+ * The latencies are measured from the intended start of every operation, not from its actual start,
+ * so the time an operation waited for a client is not omitted when the service falls behind.
+ */
+final class LoadReport {
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final OperationStats total = new OperationStats();
+    private volatile long elapsedNanos;
+
+    LoadReport() {
+        for (final var operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    void record(Operation operation, Outcome outcome, long latencyNanos) {
+        for (final var operationStats : new OperationStats[]{stats.get(operation), total}) {
+            operationStats.latencies.record(latencyNanos);
+            operationStats.outcomes.get(outcome).increment();
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    void print(PrintStream out) {
+        final var seconds = elapsedNanos / 1e9d;
+        out.printf("%-9s %9s %10s %9s %9s %9s %11s %11s %11s %11s%n",
+                "operation", "count", "ops/s", "failed", "errors", "skipped", "p50 us", "p99 us", "p99.9 us", "max us");
+        stats.forEach((operation, operationStats) -> printLine(out, operation.name(), seconds, operationStats));
+        printLine(out, "total", seconds, total);
+    }
+
+    private static void printLine(PrintStream out, String name, double seconds, OperationStats operationStats) {
+        final var latencies = operationStats.latencies.snapshot();
+        final var count = latencies.count();
+        if (count == 0L) {
+            return;
+        }
+        out.printf("%-9s %9d %10.1f %9d %9d %9d %11.1f %11.1f %11.1f %11.1f%n",
+                name,
+                count,
+                count / seconds,
+                operationStats.outcomes.get(Outcome.FAILED).sum(),
+                operationStats.outcomes.get(Outcome.ERROR).sum(),
+                operationStats.outcomes.get(Outcome.SKIPPED).sum(),
+                latencies.valueAt(50.0d) / 1e3d,
+                latencies.valueAt(99.0d) / 1e3d,
+                latencies.valueAt(99.9d) / 1e3d,
+                latencies.max() / 1e3d);
+    }
+
+    enum Outcome {
+        /**
+         * The service returned a result without failure.
+         */
+        SUCCEEDED,
+        /**
+         * The service returned a result with failure, e.g. the order was delivered already.
+         */
+        FAILED,
+        /**
+         * The service threw an exception, e.g. a timeout or an overload.
+         */
+        ERROR,
+        /**
+         * The targeted order could not be created, so the operation was not executed.
+         */
+        SKIPPED
+    }
+
+    private static final class OperationStats {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+
+        private OperationStats() {
+            for (final var outcome : Outcome.values()) {
+                outcomes.put(outcome, new LongAdder());
+            }
+        }
+    }
+}
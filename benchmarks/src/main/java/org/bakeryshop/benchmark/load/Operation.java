@@ -0,0 +1,29 @@
+package org.bakeryshop.benchmark.load;
+
+/**
+ * The operations of a workload, each mapped to a {@link org.bakeryshop.service.PancakeService} call.
+ */
+public enum Operation {
+
+    CREATE(false),
+    ADD(true),
+    REMOVE(true),
+    COMPLETE(true),
+    PREPARE(true),
+    DELIVER(true),
+    CANCEL(true),
+    LIST(false);
+
+    private final boolean targetsOrder;
+
+    Operation(boolean targetsOrder) {
+        this.targetsOrder = targetsOrder;
+    }
+
+    /**
+     * @return true when the operation is applied to an order created earlier in the workload
+     */
+    public boolean targetsOrder() {
+        return targetsOrder;
+    }
+}
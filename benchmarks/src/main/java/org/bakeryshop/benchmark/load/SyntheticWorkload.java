@@ -0,0 +1,100 @@
+package org.bakeryshop.benchmark.load;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Generates the operations of an open-loop workload: the operations arrive at the configured rate
+ * whatever the response times of the service are.
+ * <p>
+ * The buildings of the created orders and the orders the other operations are applied to are Zipf distributed,
+ * the most recent orders being the most popular ones.
+ */
+final class SyntheticWorkload implements Iterator<TraceEvent> {
+
+    private final List<Building> buildings;
+    private final long durationNanos;
+    private final double meanInterArrivalNanos;
+    private final boolean poissonArrivals;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final ZipfDistribution buildingPopularity;
+    private final ZipfDistribution orderPopularity;
+    private final SplittableRandom random;
+
+    private double nextOffsetNanos;
+    private long createdOrders;
+
+    SyntheticWorkload(LoadOptions options, List<Building> buildings) {
+        ParameterArguments.requireNotNullParameterArgument(options, "options");
+        ParameterArguments.requireNotEmptyParameterArgument(buildings, "buildings");
+        if (options.ratePerSecond() <= 0.0d) {
+            throw new IllegalArgumentException("rate should be positive");
+        }
+        this.buildings = buildings;
+        this.durationNanos = (long) (options.durationSeconds() * 1e9d);
+        this.meanInterArrivalNanos = 1e9d / options.ratePerSecond();
+        this.poissonArrivals = options.poissonArrivals();
+        this.operations = options.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += options.mix().get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        ParameterArguments.requirePositiveParameterArgument(sum, "mix");
+        this.buildingPopularity = new ZipfDistribution(buildings.size(), options.buildingSkew());
+        this.orderPopularity = new ZipfDistribution(options.popularOrders(), options.orderSkew());
+        this.random = new SplittableRandom(options.seed());
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextOffsetNanos < durationNanos;
+    }
+
+    @Override
+    public TraceEvent next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final var offsetNanos = (long) nextOffsetNanos;
+        nextOffsetNanos += poissonArrivals
+                ? -Math.log(1.0d - random.nextDouble()) * meanInterArrivalNanos
+                : meanInterArrivalNanos;
+
+        var operation = nextOperation();
+        if (operation.targetsOrder() && createdOrders == 0L) {
+            operation = Operation.CREATE;
+        }
+        return switch (operation) {
+            case CREATE -> {
+                final var building = buildings.get(buildingPopularity.sample(random));
+                yield new TraceEvent(offsetNanos, operation, building.buildingNr(),
+                        1 + random.nextInt(building.amountOfRooms()), createdOrders++, 0);
+            }
+            case ADD, REMOVE -> new TraceEvent(offsetNanos, operation, 0, 0, popularOrder(), 1 + random.nextInt(3));
+            case LIST -> new TraceEvent(offsetNanos, operation, 0, 0, -1L, 0);
+            default -> new TraceEvent(offsetNanos, operation, 0, 0, popularOrder(), 0);
+        };
+    }
+
+    private Operation nextOperation() {
+        final var weight = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (weight < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("weight %d out of range".formatted(weight));
+    }
+
+    private long popularOrder() {
+        return Math.max(0L, createdOrders - 1L - orderPopularity.sample(random));
+    }
+}
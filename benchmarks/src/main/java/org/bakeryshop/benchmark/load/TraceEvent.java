@@ -0,0 +1,44 @@
+package org.bakeryshop.benchmark.load;
+
+import org.bakeryshop.util.ParameterArguments;
+
+/**
+ * One operation of a workload, as written to and read from a trace file.
+ * <p>
+ * The orders are referenced by the sequence number of the {@link Operation#CREATE} which created them,
+ * so a trace replays against fresh order ids.
+ *
+ * @param offsetNanos The intended start of the operation relative to the start of the workload
+ * @param operation   The operation
+ * @param buildingNr  The building of the created order, 0 for other operations
+ * @param room        The room of the created order, 0 for other operations
+ * @param orderRef    The reference of the created or the targeted order, -1 when the operation targets no order
+ * @param count       The amount of pancakes to add or remove, 0 for other operations
+ */
+public record TraceEvent(long offsetNanos, Operation operation, int buildingNr, int room, long orderRef, int count) {
+
+    static final String HEADER = "# offsetNanos,operation,buildingNr,room,orderRef,count";
+
+    public TraceEvent {
+        ParameterArguments.requireNotNullParameterArgument(operation, "operation");
+    }
+
+    static TraceEvent parse(String line) {
+        final var fields = line.split(",");
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Malformed trace line '%s'".formatted(line));
+        }
+        return new TraceEvent(
+                Long.parseLong(fields[0]),
+                Operation.valueOf(fields[1]),
+                Integer.parseInt(fields[2]),
+                Integer.parseInt(fields[3]),
+                Long.parseLong(fields[4]),
+                Integer.parseInt(fields[5])
+        );
+    }
+
+    String format() {
+        return offsetNanos + "," + operation + "," + buildingNr + "," + room + "," + orderRef + "," + count;
+    }
+}
@@ -0,0 +1,120 @@
+package org.bakeryshop.benchmark.load;
+
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.model.pancakes.PancakeRecipe;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.usecase.Result;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Dispatches the operations of a workload to the clients at their intended start times.
+ * <p>
+ * The dispatching never waits for the service, so a slow service builds up a backlog of operations
+ * whose waiting time is part of their latency.
+ */
+final class WorkloadRunner {
+
+    private static final Set<PancakeIngredient> INGREDIENTS = Set.of(PancakeIngredient.DARK_CHOCOLATE);
+    private static final String DESCRIPTION = PancakeRecipe.of(new UUID(0L, 0L), INGREDIENTS).description();
+
+    private final PancakeService pancakeService;
+    private final ExecutorService clients;
+    private final Consumer<TraceEvent> recorder;
+
+    private final Map<Long, CompletableFuture<UUID>> orders = new ConcurrentHashMap<>();
+    private final LoadReport report = new LoadReport();
+
+    WorkloadRunner(PancakeService pancakeService, ExecutorService clients, Consumer<TraceEvent> recorder) {
+        ParameterArguments.requireNotNullParameterArgument(pancakeService, "pancakeService");
+        ParameterArguments.requireNotNullParameterArgument(clients, "clients");
+        ParameterArguments.requireNotNullParameterArgument(recorder, "recorder");
+        this.pancakeService = pancakeService;
+        this.clients = clients;
+        this.recorder = recorder;
+    }
+
+    /**
+     * @param events The operations ordered by their offsets
+     * @param speed  The speed factor applied to the offsets
+     * @return the report of the finished workload
+     */
+    LoadReport run(Iterator<TraceEvent> events, double speed) throws InterruptedException {
+        final var start = System.nanoTime();
+        while (events.hasNext()) {
+            final var event = events.next();
+            final var intendedStart = start + (long) (event.offsetNanos() / speed);
+            for (long delay = intendedStart - System.nanoTime(); delay > 0L; delay = intendedStart - System.nanoTime()) {
+                LockSupport.parkNanos(delay);
+            }
+            recorder.accept(event);
+            clients.execute(() -> execute(event, intendedStart));
+        }
+        clients.shutdown();
+        if (!clients.awaitTermination(1L, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Clients did not finish the workload within a minute");
+        }
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    private void execute(TraceEvent event, long intendedStart) {
+        LoadReport.Outcome outcome;
+        try {
+            outcome = call(event);
+        } catch (RuntimeException e) {
+            outcome = LoadReport.Outcome.ERROR;
+        }
+        report.record(event.operation(), outcome, System.nanoTime() - intendedStart);
+    }
+
+    private LoadReport.Outcome call(TraceEvent event) {
+        if (event.operation() == Operation.CREATE) {
+            final var order = orders.computeIfAbsent(event.orderRef(), any -> new CompletableFuture<>());
+            try {
+                final var result = pancakeService.createOrder(event.buildingNr(), event.room());
+                order.complete(result.hasFailure() ? null : result.requireOrder().id());
+                return outcomeOf(result);
+            } catch (RuntimeException e) {
+                order.complete(null);
+                throw e;
+            }
+        }
+        if (event.operation() == Operation.LIST) {
+            pancakeService.listCompletedOrders();
+            pancakeService.listPreparedOrders();
+            return LoadReport.Outcome.SUCCEEDED;
+        }
+        // the create of the order was dispatched earlier, so it is either done or being executed by another client,
+        // the timeout only protects against traces referencing orders they never created
+        final var orderId = orders.computeIfAbsent(event.orderRef(), any -> new CompletableFuture<>())
+                .completeOnTimeout(null, 10L, TimeUnit.SECONDS)
+                .join();
+        if (orderId == null) {
+            return LoadReport.Outcome.SKIPPED;
+        }
+        return outcomeOf(switch (event.operation()) {
+            case ADD -> pancakeService.addPancakes(orderId, event.count(), INGREDIENTS);
+            case REMOVE -> pancakeService.removePancakes(orderId, DESCRIPTION, event.count());
+            case COMPLETE -> pancakeService.completeOrder(orderId);
+            case PREPARE -> pancakeService.prepareOrder(orderId);
+            case DELIVER -> pancakeService.deliverOrder(orderId);
+            case CANCEL -> pancakeService.cancelOrder(orderId);
+            default -> throw new IllegalStateException("Unexpected operation " + event.operation());
+        });
+    }
+
+    private static LoadReport.Outcome outcomeOf(Result<?> result) {
+        return result.hasFailure() ? LoadReport.Outcome.FAILED : LoadReport.Outcome.SUCCEEDED;
+    }
+}
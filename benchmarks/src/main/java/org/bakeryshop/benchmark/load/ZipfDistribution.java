@@ -0,0 +1,36 @@
+package org.bakeryshop.benchmark.load;
+
+import org.bakeryshop.util.ParameterArguments;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples ranks {@code 0..n-1}, rank {@code k} with a probability proportional to {@code 1 / (k + 1)^exponent}.
+ * An exponent of 0 is the uniform distribution.
+ */
+final class ZipfDistribution {
+
+    private final double[] cumulativeProbabilities;
+
+    ZipfDistribution(int n, double exponent) {
+        ParameterArguments.requirePositiveParameterArgument(n, "n");
+        if (exponent < 0.0d) {
+            throw new IllegalArgumentException("exponent should not be negative");
+        }
+        cumulativeProbabilities = new double[n];
+        double sum = 0.0d;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0d / Math.pow(rank + 1, exponent);
+            cumulativeProbabilities[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulativeProbabilities[rank] /= sum;
+        }
+    }
+
+    int sample(RandomGenerator random) {
+        final var index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulativeProbabilities.length - 1);
+    }
+}
@@ -0,0 +1,137 @@
+package org.bakeryshop.api.binary;
+
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshotCodec;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The length prefixed binary protocol of the {@link org.bakeryshop.service.PancakeOrderOperations}, big endian:
+ * <pre>
+ * request     = length:int32 correlationId:int32 opcode:int8 [requestId:string] payload
+ * response    = length:int32 correlationId:int32 status:int8 payload
+ * string      = length:uint16 bytes:utf8
+ * orderId     = mostSignificantBits:int64 leastSignificantBits:int64
+ * ingredients = mask:int32, see {@link PancakeIngredient#maskOf(Set)}
+ * order       = length:int32 snapshot, see {@link PancakesOrderSnapshotCodec}
+ * members     = count:int32 (nodeId:string host:string port:int32)*
+ * </pre>
+ * The length counts the bytes following it. The opcodes having the {@link #IDEMPOTENT} bit carry a request id.
+ * A connection may send requests without waiting for the responses (pipelining),
+ * the responses are sent in request order and carry the correlation id of their request.
+ * <p>
+ * The payload of a {@link #FAILURE} response is the failure code, the one of an {@link #ERROR} response
+ * the error code ({@code bad_request}, {@code overloaded}, {@code timeout}, {@code wrong_owner} or
+ * {@code internal_error}) and the message.
+ * <p>
+ * The {@link #IMPORT_ORDER}, {@link #UPDATE_MEMBERS} and {@link #MEMBERS} opcodes carry the {@link ClusterCommands}
+ * of an order and of the members, they are answered with {@code bad_request} by a server without cluster commands.
+ * A cluster node answers the calls of the orders it does not own with {@code wrong_owner}, without executing them.
+ */
+final class BinaryProtocol {
+
+    static final int MAX_FRAME_LENGTH = 1 << 20;
+
+    static final byte CREATE_ORDER = 1;
+    static final byte ADD_PANCAKES = 2;
+    static final byte REMOVE_PANCAKES = 3;
+    static final byte CANCEL_ORDER = 4;
+    static final byte COMPLETE_ORDER = 5;
+    static final byte PREPARE_ORDER = 6;
+    static final byte DELIVER_ORDER = 7;
+    static final byte DELIVER_ORDERS = 8;
+    static final byte VIEW_ORDER = 9;
+    static final byte LIST_COMPLETED_ORDERS = 10;
+    static final byte LIST_PREPARED_ORDERS = 11;
+    static final byte IMPORT_ORDER = 12;
+    static final byte UPDATE_MEMBERS = 13;
+    static final byte MEMBERS = 14;
+
+    static final byte IDEMPOTENT = (byte) 0x80;
+
+    static final byte SUCCESS = 0;
+    static final byte FAILURE = 1;
+    static final byte ERROR = 2;
+
+    static final String BAD_REQUEST = "bad_request";
+    static final String OVERLOADED = "overloaded";
+    static final String TIMEOUT = "timeout";
+    static final String WRONG_OWNER = "wrong_owner";
+    static final String INTERNAL_ERROR = "internal_error";
+
+    private BinaryProtocol() {
+        super();
+    }
+
+    static void putOrderId(ByteBuffer buffer, UUID orderId) {
+        buffer.putLong(orderId.getMostSignificantBits());
+        buffer.putLong(orderId.getLeastSignificantBits());
+    }
+
+    static UUID getOrderId(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Writes the string with at most 65535 UTF-8 bytes.
+     */
+    static void putString(FrameWriter writer, String string) {
+        final var bytes = string.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("String of %d bytes is too long.".formatted(bytes.length));
+        }
+        writer.ensureRemaining(2 + bytes.length)
+                .putShort((short) bytes.length)
+                .put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        final int length = Short.toUnsignedInt(buffer.getShort());
+        final var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void putOrder(FrameWriter writer, PancakesOrderSnapshot order) {
+        final int length = PancakesOrderSnapshotCodec.encodedLength(order);
+        final var buffer = writer.ensureRemaining(4 + length).putInt(length);
+        PancakesOrderSnapshotCodec.encode(order, buffer);
+    }
+
+    static void putMembers(FrameWriter writer, Map<String, InetSocketAddress> members) {
+        writer.ensureRemaining(4).putInt(members.size());
+        for (final var member : members.entrySet()) {
+            putString(writer, member.getKey());
+            putString(writer, member.getValue().getHostString());
+            writer.ensureRemaining(4).putInt(member.getValue().getPort());
+        }
+    }
+
+    static Map<String, InetSocketAddress> getMembers(ByteBuffer buffer) {
+        final int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / 8) {
+            throw new IllegalArgumentException("Invalid member count %d.".formatted(count));
+        }
+        final var members = new LinkedHashMap<String, InetSocketAddress>();
+        for (int i = 0; i < count; i++) {
+            final var nodeId = getString(buffer);
+            final var host = getString(buffer);
+            members.put(nodeId, new InetSocketAddress(host, buffer.getInt()));
+        }
+        return members;
+    }
+
+    static PancakesOrderSnapshot getOrder(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        final var order = PancakesOrderSnapshotCodec.decode(buffer.slice(buffer.position(), length));
+        buffer.position(buffer.position() + length);
+        return order;
+    }
+}
@@ -0,0 +1,588 @@
+package org.bakeryshop.api.binary;
+
+import org.bakeryshop.common.OverloadedException;
+import org.bakeryshop.common.TimeoutException;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.service.PancakeOrderOperations;
+import org.bakeryshop.service.usecase.cancel.CancelOrderResult;
+import org.bakeryshop.service.usecase.complete.CompleteOrderResult;
+import org.bakeryshop.service.usecase.create.CreateOrderResult;
+import org.bakeryshop.service.usecase.delivery.BatchDeliveryResult;
+import org.bakeryshop.service.usecase.delivery.OrderDeliveryResult;
+import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
+import org.bakeryshop.service.usecase.pancake.RemovePancakeResult;
+import org.bakeryshop.service.usecase.prepare.PrepareOrderResult;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Client of a {@link BinaryProtocolServer}, sharing one connection between all threads.
+ * <p>
+ * The {@code ...Async} methods send the request without waiting for the response, so a thread can pipeline many
+ * requests and join them afterwards. Their futures are completed by the reader thread of the connection.
+ * The {@link PancakeOrderOperations} methods send the request and wait for its response, they rethrow the
+ * {@link OverloadedException}, {@link TimeoutException}, {@link WrongOwnerException} and {@link IllegalArgumentException}
+ * of the server.
+ * The blocking hand-offs and the order listeners are not part of the protocol, so the client does not offer them.
+ * <p>
+ * A request not answered within the response timeout, {@link #DEFAULT_RESPONSE_TIMEOUT} unless configured, fails with
+ * {@link TimeoutException}. The pending requests are checked a few times per timeout, so a request may wait up to
+ * a quarter of the timeout longer. A late response is dropped.
+ */
+public final class BinaryProtocolClient implements PancakeOrderOperations, AutoCloseable {
+
+    public static final Duration DEFAULT_RESPONSE_TIMEOUT = Duration.ofSeconds(30L);
+
+    private static final int BUFFER_CAPACITY = 64 * 1024;
+
+    private static final long MIN_TIMEOUT_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(10L);
+
+    private static final ScheduledExecutorService timeoutChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final var thread = new Thread(runnable, "binary-protocol-client-timeouts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final SocketChannel channel;
+    private final FrameWriter requestWriter = new FrameWriter(BUFFER_CAPACITY);
+    private final Map<Integer, PendingRequest<?>> pendingRequests = new ConcurrentHashMap<>();
+    private final AtomicInteger correlationIds = new AtomicInteger();
+    private final Thread reader;
+    private final long responseTimeoutNanos;
+    private ScheduledFuture<?> timeoutCheck;
+
+    private volatile boolean closed;
+
+    private BinaryProtocolClient(SocketChannel channel, Duration responseTimeout) {
+        this.channel = channel;
+        this.responseTimeoutNanos = responseTimeout.toNanos();
+        this.reader = new Thread(this::read, "binary-protocol-client-reader");
+        this.reader.setDaemon(true);
+    }
+
+    public static BinaryProtocolClient connect(InetSocketAddress address) throws IOException {
+        return connect(address, DEFAULT_RESPONSE_TIMEOUT);
+    }
+
+    /**
+     * @param responseTimeout The longest wait for the response of a request
+     */
+    public static BinaryProtocolClient connect(InetSocketAddress address, Duration responseTimeout) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(address, "address");
+        ParameterArguments.requireNotNullParameterArgument(responseTimeout, "responseTimeout");
+        if (responseTimeout.isNegative() || responseTimeout.isZero()) {
+            throw new IllegalArgumentException("Response timeout should be positive.");
+        }
+        final var channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        final var client = new BinaryProtocolClient(channel, responseTimeout);
+        final long checkPeriod = Math.max(client.responseTimeoutNanos / 4L, MIN_TIMEOUT_CHECK_NANOS);
+        client.timeoutCheck = timeoutChecks.scheduleAtFixedRate(
+                client::failExpiredRequests, checkPeriod, checkPeriod, TimeUnit.NANOSECONDS);
+        client.reader.start();
+        return client;
+    }
+
+    public CompletableFuture<CreateOrderResult> createOrderAsync(String requestId, int buildingNr, int room) {
+        return send(BinaryProtocol.CREATE_ORDER, requestId,
+                buffer -> buffer.putInt(buildingNr).putInt(room),
+                response -> CreateOrderResult.of(BinaryProtocol.getOrder(response)),
+                code -> switch (code) {
+                    case "invalid_address" -> CreateOrderResult.invalidAddress();
+                    case "overloaded" -> CreateOrderResult.overloaded();
+                    default -> null;
+                });
+    }
+
+    public CompletableFuture<AddPancakeResult> addPancakesAsync(String requestId,
+                                                                UUID orderId,
+                                                                int count,
+                                                                Set<PancakeIngredient> ingredients) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        ParameterArguments.requireNotNullParameterArgument(ingredients, "ingredients");
+        return send(BinaryProtocol.ADD_PANCAKES, requestId,
+                buffer -> {
+                    BinaryProtocol.putOrderId(buffer, orderId);
+                    buffer.putInt(count).putInt(PancakeIngredient.maskOf(ingredients));
+                },
+                response -> AddPancakeResult.success(),
+                code -> switch (code) {
+                    case "order_not_found" -> AddPancakeResult.orderNotFound();
+                    case "overloaded" -> AddPancakeResult.overloaded();
+                    case "insufficient_stock" -> AddPancakeResult.insufficientStock();
+                    default -> null;
+                });
+    }
+
+    public CompletableFuture<RemovePancakeResult> removePancakesAsync(String requestId,
+                                                                      UUID orderId,
+                                                                      String description,
+                                                                      int count) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        ParameterArguments.requireNotNullParameterArgument(description, "description");
+        return sendWithWriter(BinaryProtocol.REMOVE_PANCAKES, requestId,
+                writer -> {
+                    BinaryProtocol.putOrderId(writer.ensureRemaining(20), orderId);
+                    writer.ensureRemaining(4).putInt(count);
+                    BinaryProtocol.putString(writer, description);
+                },
+                response -> RemovePancakeResult.success(),
+                code -> switch (code) {
+                    case "order_not_found" -> RemovePancakeResult.orderNotFound();
+                    case "overloaded" -> RemovePancakeResult.overloaded();
+                    default -> null;
+                });
+    }
+
+    public CompletableFuture<CancelOrderResult> cancelOrderAsync(String requestId, UUID orderId) {
+        return send(BinaryProtocol.CANCEL_ORDER, requestId, orderId(orderId),
+                response -> CancelOrderResult.success(),
+                code -> switch (code) {
+                    case "order_not_found" -> CancelOrderResult.orderNotFound();
+                    case "overloaded" -> CancelOrderResult.overloaded();
+                    default -> null;
+                });
+    }
+
+    public CompletableFuture<CompleteOrderResult> completeOrderAsync(String requestId, UUID orderId) {
+        return send(BinaryProtocol.COMPLETE_ORDER, requestId, orderId(orderId),
+                response -> CompleteOrderResult.success(),
+                code -> switch (code) {
+                    case "order_not_found" -> CompleteOrderResult.orderNotFound();
+                    case "overloaded" -> CompleteOrderResult.overloaded();
+                    default -> null;
+                });
+    }
+
+    public CompletableFuture<PrepareOrderResult> prepareOrderAsync(String requestId, UUID orderId) {
+        return send(BinaryProtocol.PREPARE_ORDER, requestId, orderId(orderId),
+                response -> PrepareOrderResult.success(),
+                code -> switch (code) {
+                    case "order_not_completed" -> PrepareOrderResult.ORDER_NOT_COMPLETED_RESULT;
+                    case "order_not_found" -> PrepareOrderResult.ORDER_NOT_FOUND_RESULT;
+                    case "overloaded" -> PrepareOrderResult.overloaded();
+                    default -> null;
+                });
+    }
+
+    public CompletableFuture<OrderDeliveryResult> deliverOrderAsync(String requestId, UUID orderId) {
+        return send(BinaryProtocol.DELIVER_ORDER, requestId, orderId(orderId),
+                response -> OrderDeliveryResult.of(BinaryProtocol.getOrder(response)),
+                BinaryProtocolClient::orderDeliveryFailure);
+    }
+
+    public CompletableFuture<BatchDeliveryResult> deliverOrdersAsync(String requestId, Collection<UUID> orderIds) {
+        ParameterArguments.requireNotNullParameterArgument(orderIds, "orderIds");
+        return send(BinaryProtocol.DELIVER_ORDERS, requestId,
+                buffer -> {
+                    buffer.putInt(orderIds.size());
+                    orderIds.forEach(orderId -> BinaryProtocol.putOrderId(buffer, orderId));
+                },
+                16 * orderIds.size(),
+                BinaryProtocolClient::batchDelivery,
+                code -> null);
+    }
+
+    public CompletableFuture<List<String>> viewOrderAsync(UUID orderId) {
+        return send(BinaryProtocol.VIEW_ORDER, null, orderId(orderId),
+                response -> {
+                    final int count = response.getInt();
+                    final var descriptions = new ArrayList<String>(count);
+                    for (int i = 0; i < count; i++) {
+                        descriptions.add(BinaryProtocol.getString(response));
+                    }
+                    return List.copyOf(descriptions);
+                },
+                code -> null);
+    }
+
+    public CompletableFuture<Set<UUID>> listCompletedOrdersAsync() {
+        return send(BinaryProtocol.LIST_COMPLETED_ORDERS, null, buffer -> {
+        }, BinaryProtocolClient::orderIds, code -> null);
+    }
+
+    public CompletableFuture<Set<UUID>> listPreparedOrdersAsync() {
+        return send(BinaryProtocol.LIST_PREPARED_ORDERS, null, buffer -> {
+        }, BinaryProtocolClient::orderIds, code -> null);
+    }
+
+    /**
+     * Sends an order to a cluster node, see {@link ClusterCommands#importOrder(PancakesOrderSnapshot)}.
+     */
+    public CompletableFuture<Void> importOrderAsync(PancakesOrderSnapshot order) {
+        ParameterArguments.requireNotNullParameterArgument(order, "order");
+        return sendWithWriter(BinaryProtocol.IMPORT_ORDER, null,
+                writer -> BinaryProtocol.putOrder(writer, order),
+                response -> null,
+                code -> null);
+    }
+
+    /**
+     * Sends the members to a cluster node, see {@link ClusterCommands#updateMembers(Map)}.
+     */
+    public CompletableFuture<Void> updateMembersAsync(Map<String, InetSocketAddress> members) {
+        ParameterArguments.requireNotNullParameterArgument(members, "members");
+        return sendWithWriter(BinaryProtocol.UPDATE_MEMBERS, null,
+                writer -> BinaryProtocol.putMembers(writer, members),
+                response -> null,
+                code -> null);
+    }
+
+    /**
+     * Asks a cluster node for its members, see {@link ClusterCommands#members()}.
+     */
+    public CompletableFuture<Map<String, InetSocketAddress>> membersAsync() {
+        return send(BinaryProtocol.MEMBERS, null, buffer -> {
+        }, response -> Map.copyOf(BinaryProtocol.getMembers(response)), code -> null);
+    }
+
+    public void importOrder(PancakesOrderSnapshot order) {
+        join(importOrderAsync(order));
+    }
+
+    public void updateMembers(Map<String, InetSocketAddress> members) {
+        join(updateMembersAsync(members));
+    }
+
+    public Map<String, InetSocketAddress> members() {
+        return join(membersAsync());
+    }
+
+    @Override
+    public CreateOrderResult createOrder(int buildingNr, int room) {
+        return join(createOrderAsync(null, buildingNr, room));
+    }
+
+    @Override
+    public CreateOrderResult createOrder(String requestId, int buildingNr, int room) {
+        return join(createOrderAsync(requireRequestId(requestId), buildingNr, room));
+    }
+
+    @Override
+    public AddPancakeResult addPancakes(UUID orderId, int count, Set<PancakeIngredient> ingredients) {
+        return join(addPancakesAsync(null, orderId, count, ingredients));
+    }
+
+    @Override
+    public AddPancakeResult addPancakes(String requestId, UUID orderId, int count, Set<PancakeIngredient> ingredients) {
+        return join(addPancakesAsync(requireRequestId(requestId), orderId, count, ingredients));
+    }
+
+    @Override
+    public RemovePancakeResult removePancakes(UUID orderId, String description, int count) {
+        return join(removePancakesAsync(null, orderId, description, count));
+    }
+
+    @Override
+    public RemovePancakeResult removePancakes(String requestId, UUID orderId, String description, int count) {
+        return join(removePancakesAsync(requireRequestId(requestId), orderId, description, count));
+    }
+
+    @Override
+    public CancelOrderResult cancelOrder(UUID orderId) {
+        return join(cancelOrderAsync(null, orderId));
+    }
+
+    @Override
+    public CancelOrderResult cancelOrder(String requestId, UUID orderId) {
+        return join(cancelOrderAsync(requireRequestId(requestId), orderId));
+    }
+
+    @Override
+    public CompleteOrderResult completeOrder(UUID orderId) {
+        return join(completeOrderAsync(null, orderId));
+    }
+
+    @Override
+    public CompleteOrderResult completeOrder(String requestId, UUID orderId) {
+        return join(completeOrderAsync(requireRequestId(requestId), orderId));
+    }
+
+    @Override
+    public PrepareOrderResult prepareOrder(UUID orderId) {
+        return join(prepareOrderAsync(null, orderId));
+    }
+
+    @Override
+    public PrepareOrderResult prepareOrder(String requestId, UUID orderId) {
+        return join(prepareOrderAsync(requireRequestId(requestId), orderId));
+    }
+
+    @Override
+    public OrderDeliveryResult deliverOrder(UUID orderId) {
+        return join(deliverOrderAsync(null, orderId));
+    }
+
+    @Override
+    public OrderDeliveryResult deliverOrder(String requestId, UUID orderId) {
+        return join(deliverOrderAsync(requireRequestId(requestId), orderId));
+    }
+
+    @Override
+    public BatchDeliveryResult deliverOrders(Collection<UUID> orderIds) {
+        return join(deliverOrdersAsync(null, orderIds));
+    }
+
+    @Override
+    public BatchDeliveryResult deliverOrders(String requestId, Collection<UUID> orderIds) {
+        return join(deliverOrdersAsync(requireRequestId(requestId), orderIds));
+    }
+
+    @Override
+    public List<String> viewOrder(UUID orderId) {
+        return join(viewOrderAsync(orderId));
+    }
+
+    @Override
+    public Set<UUID> listCompletedOrders() {
+        return join(listCompletedOrdersAsync());
+    }
+
+    @Override
+    public Set<UUID> listPreparedOrders() {
+        return join(listPreparedOrdersAsync());
+    }
+
+    /**
+     * @return the amount of requests waiting for their response
+     */
+    public int pendingRequests() {
+        return pendingRequests.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        timeoutCheck.cancel(false);
+        try {
+            channel.close();
+            reader.join();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while closing the client.");
+        }
+    }
+
+    private <R> CompletableFuture<R> send(byte opcode,
+                                          String requestId,
+                                          Consumer<ByteBuffer> payload,
+                                          Function<ByteBuffer, R> success,
+                                          Function<String, R> failure) {
+        return send(opcode, requestId, payload, 16, success, failure);
+    }
+
+    private <R> CompletableFuture<R> send(byte opcode,
+                                          String requestId,
+                                          Consumer<ByteBuffer> payload,
+                                          int payloadBytes,
+                                          Function<ByteBuffer, R> success,
+                                          Function<String, R> failure) {
+        return sendWithWriter(opcode, requestId,
+                writer -> payload.accept(writer.ensureRemaining(4 + payloadBytes)),
+                success, failure);
+    }
+
+    private <R> CompletableFuture<R> sendWithWriter(byte opcode,
+                                                    String requestId,
+                                                    Consumer<FrameWriter> payload,
+                                                    Function<ByteBuffer, R> success,
+                                                    Function<String, R> failure) {
+        final int correlationId = correlationIds.incrementAndGet();
+        final var pendingRequest = new PendingRequest<>(success, failure);
+        pendingRequests.put(correlationId, pendingRequest);
+        try {
+            synchronized (requestWriter) {
+                requestWriter.clear();
+                requestWriter.beginFrame(correlationId, requestId == null ? opcode : (byte) (opcode | BinaryProtocol.IDEMPOTENT));
+                if (requestId != null) {
+                    BinaryProtocol.putString(requestWriter, requestId);
+                }
+                payload.accept(requestWriter);
+                requestWriter.endFrame();
+                final var frame = requestWriter.frames();
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            pendingRequests.remove(correlationId);
+            pendingRequest.result.completeExceptionally(e);
+        }
+        return pendingRequest.result;
+    }
+
+    private void read() {
+        var buffer = ByteBuffer.allocate(BUFFER_CAPACITY);
+        try {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.remaining() >= 4 && buffer.remaining() >= 4 + buffer.getInt(buffer.position())) {
+                    final int length = buffer.getInt();
+                    final var frame = buffer.slice(buffer.position(), length);
+                    buffer.position(buffer.position() + length);
+                    complete(frame);
+                }
+                buffer.compact();
+                if (!buffer.hasRemaining()) {
+                    final var grown = ByteBuffer.allocate(buffer.capacity() * 2);
+                    grown.put(buffer.flip());
+                    buffer = grown;
+                }
+            }
+            failPendingRequests(new IllegalStateException("Connection closed by the server."));
+        } catch (IOException e) {
+            failPendingRequests(closed
+                    ? new IllegalStateException("Client is closed.")
+                    : new UncheckedIOException(e));
+        }
+    }
+
+    private void complete(ByteBuffer frame) {
+        final var pendingRequest = pendingRequests.remove(frame.getInt());
+        if (pendingRequest != null) {
+            pendingRequest.complete(frame.get(), frame);
+        }
+    }
+
+    private void failExpiredRequests() {
+        final long now = System.nanoTime();
+        for (final var pending : pendingRequests.entrySet()) {
+            final var pendingRequest = pending.getValue();
+            if (now - pendingRequest.sentNanos > responseTimeoutNanos
+                    && pendingRequests.remove(pending.getKey(), pendingRequest)) {
+                pendingRequest.result.completeExceptionally(new TimeoutException(
+                        "No response to request %d within %d ms.".formatted(pending.getKey(),
+                                TimeUnit.NANOSECONDS.toMillis(responseTimeoutNanos))));
+            }
+        }
+    }
+
+    private void failPendingRequests(RuntimeException cause) {
+        for (final var correlationId : List.copyOf(pendingRequests.keySet())) {
+            final var pendingRequest = pendingRequests.remove(correlationId);
+            if (pendingRequest != null) {
+                pendingRequest.result.completeExceptionally(cause);
+            }
+        }
+    }
+
+    private static Consumer<ByteBuffer> orderId(UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        return buffer -> BinaryProtocol.putOrderId(buffer, orderId);
+    }
+
+    private static String requireRequestId(String requestId) {
+        ParameterArguments.requireNotBlankParameterArgument(requestId, "requestId");
+        return requestId;
+    }
+
+    private static OrderDeliveryResult orderDeliveryFailure(String code) {
+        return switch (code) {
+            case "order_not_found" -> OrderDeliveryResult.orderNotFound();
+            case "overloaded" -> OrderDeliveryResult.overloaded();
+            case "order_not_prepared" -> OrderDeliveryResult.notPrepared();
+            case "order_concurrently_delivered" -> OrderDeliveryResult.concurrentlyDelivered();
+            default -> null;
+        };
+    }
+
+    private static BatchDeliveryResult batchDelivery(ByteBuffer response) {
+        final int deliveredCount = response.getInt();
+        final var deliveredOrders = new ArrayList<PancakesOrderSnapshot>(deliveredCount);
+        for (int i = 0; i < deliveredCount; i++) {
+            deliveredOrders.add(BinaryProtocol.getOrder(response));
+        }
+        final int failureCount = response.getInt();
+        final var failures = new HashMap<UUID, OrderDeliveryResult.OrderDeliveryFailure>();
+        for (int i = 0; i < failureCount; i++) {
+            final var orderId = BinaryProtocol.getOrderId(response);
+            failures.put(orderId, orderDeliveryFailure(BinaryProtocol.getString(response)).requireFailure());
+        }
+        return new BatchDeliveryResult(deliveredOrders, failures);
+    }
+
+    private static Set<UUID> orderIds(ByteBuffer response) {
+        final int count = response.getInt();
+        final var orderIds = new HashSet<UUID>(count * 2);
+        for (int i = 0; i < count; i++) {
+            orderIds.add(BinaryProtocol.getOrderId(response));
+        }
+        return Collections.unmodifiableSet(orderIds);
+    }
+
+    private static <R> R join(CompletableFuture<R> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class PendingRequest<R> {
+
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+        private final long sentNanos = System.nanoTime();
+        private final Function<ByteBuffer, R> success;
+        private final Function<String, R> failure;
+
+        private PendingRequest(Function<ByteBuffer, R> success, Function<String, R> failure) {
+            this.success = success;
+            this.failure = failure;
+        }
+
+        private void complete(byte status, ByteBuffer response) {
+            try {
+                switch (status) {
+                    case BinaryProtocol.SUCCESS -> result.complete(success.apply(response));
+                    case BinaryProtocol.FAILURE -> {
+                        final var code = BinaryProtocol.getString(response);
+                        final var failed = failure.apply(code);
+                        if (failed == null) {
+                            throw new IllegalStateException("Unknown failure %s.".formatted(code));
+                        }
+                        result.complete(failed);
+                    }
+                    case BinaryProtocol.ERROR -> result.completeExceptionally(error(
+                            BinaryProtocol.getString(response), BinaryProtocol.getString(response)));
+                    default -> throw new IllegalStateException("Unknown response status %d.".formatted(status));
+                }
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private static RuntimeException error(String code, String message) {
+            return switch (code) {
+                case BinaryProtocol.BAD_REQUEST -> new IllegalArgumentException(message);
+                case BinaryProtocol.OVERLOADED -> new OverloadedException(message);
+                case BinaryProtocol.TIMEOUT -> new TimeoutException(message);
+                case BinaryProtocol.WRONG_OWNER -> new WrongOwnerException(message);
+                default -> new IllegalStateException(message);
+            };
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package org.bakeryshop.api.binary;
+
+import org.bakeryshop.service.PancakeOrderOperations;
+import org.bakeryshop.util.ParameterArguments;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves a {@link PancakeOrderOperations} over the {@link BinaryProtocol}.
+ * <p>
+ * A single selector thread reads and writes all connections without blocking.
+ * The requests of a connection are executed in order, one batch of pipelined requests per read,
+ * on a virtual thread when the runtime supports them, otherwise by a pool of {@value #FALLBACK_THREADS} threads.
+ * The responses of a batch are written back as one buffer.
+ * A connection having more than {@value #MAX_PENDING_RESPONSE_BYTES} bytes of unwritten responses is not read
+ * until the client catches up, nor is a connection having more than {@value #MAX_PENDING_REQUEST_BYTES} bytes
+ * of requests waiting for their execution until the workers catch up.
+ */
+public final class BinaryProtocolServer implements AutoCloseable {
+
+    static final int FALLBACK_THREADS = 64;
+
+    static final int MAX_PENDING_RESPONSE_BYTES = 1 << 20;
+
+    static final int MAX_PENDING_REQUEST_BYTES = 1 << 20;
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryProtocolServer.class);
+
+    private static final int READ_BUFFER_CAPACITY = 64 * 1024;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final ExecutorService workers;
+    private final BinaryRequestHandler requestHandler;
+    private final Queue<Connection> writableConnections = new ConcurrentLinkedQueue<>();
+    private final Thread selectorThread;
+
+    private volatile boolean running = true;
+
+    private BinaryProtocolServer(ServerSocketChannel serverChannel,
+                                 Selector selector,
+                                 ExecutorService workers,
+                                 BinaryRequestHandler requestHandler) {
+        this.serverChannel = serverChannel;
+        this.selector = selector;
+        this.workers = workers;
+        this.requestHandler = requestHandler;
+        this.selectorThread = new Thread(this::run, "binary-protocol-selector");
+    }
+
+    /**
+     * @param address The address to listen on, port 0 picks a free port
+     */
+    public static BinaryProtocolServer start(PancakeOrderOperations pancakeService, InetSocketAddress address) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(pancakeService, "pancakeService");
+        return start(new BinaryRequestHandler(pancakeService), address);
+    }
+
+    /**
+     * Serves a node of a cluster, answering the {@link ClusterCommands} of the other nodes too.
+     *
+     * @param address The address to listen on, port 0 picks a free port
+     */
+    public static BinaryProtocolServer start(PancakeOrderOperations pancakeService,
+                                             ClusterCommands clusterCommands,
+                                             InetSocketAddress address) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(pancakeService, "pancakeService");
+        ParameterArguments.requireNotNullParameterArgument(clusterCommands, "clusterCommands");
+        return start(new BinaryRequestHandler(pancakeService, clusterCommands), address);
+    }
+
+    private static BinaryProtocolServer start(BinaryRequestHandler requestHandler, InetSocketAddress address) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(address, "address");
+
+        final var selector = Selector.open();
+        final var serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+        final var server = new BinaryProtocolServer(
+                serverChannel, selector, requestExecutor(), requestHandler);
+        server.selectorThread.start();
+        return server;
+    }
+
+    public InetSocketAddress address() {
+        try {
+            return (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            throw new IllegalStateException("Server is closed.", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while closing the server.");
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(FALLBACK_THREADS);
+        }
+    }
+
+    private void run() {
+        try (selector; serverChannel) {
+            while (running) {
+                selector.select();
+                Connection writable;
+                while ((writable = writableConnections.poll()) != null) {
+                    writable.write();
+                }
+                for (final var it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+                    final var key = it.next();
+                    it.remove();
+                    try {
+                        handle(key);
+                    } catch (RuntimeException e) {
+                        // a failure of one connection does not stop serving the others
+                        logger.warn("Closing connection failed to be served.", e);
+                        if (key.attachment() instanceof Connection connection) {
+                            connection.close();
+                        }
+                    }
+                }
+            }
+            for (final var key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection) {
+                    connection.close();
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            logger.error("Binary protocol server stopped.", e);
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        final var connection = (Connection) key.attachment();
+        if (key.isWritable()) {
+            connection.write();
+        }
+        if (key.isValid() && key.isReadable()) {
+            connection.read();
+        }
+    }
+
+    /**
+     * A failed accept, e.g. when out of file descriptors or of a connection reset right away, is logged,
+     * the server keeps accepting.
+     */
+    private void accept() {
+        final SocketChannel channel;
+        try {
+            channel = serverChannel.accept();
+        } catch (IOException e) {
+            logger.warn("Failed to accept a connection.", e);
+            return;
+        }
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            final var connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        } catch (IOException e) {
+            logger.warn("Failed to set up an accepted connection.", e);
+            try {
+                channel.close();
+            } catch (IOException closeFailure) {
+                logger.debug("Failed to close connection.", closeFailure);
+            }
+        }
+    }
+
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private SelectionKey key;
+
+        private ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_CAPACITY);
+
+        private final Queue<byte[]> requestBatches = new ConcurrentLinkedQueue<>();
+        private final AtomicLong pendingRequestBytes = new AtomicLong();
+        private final AtomicBoolean executing = new AtomicBoolean();
+        private final FrameWriter responseWriter = new FrameWriter(READ_BUFFER_CAPACITY);
+
+        private final Queue<ByteBuffer> responses = new ConcurrentLinkedQueue<>();
+        private final AtomicLong pendingResponseBytes = new AtomicLong();
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Reads the available bytes and hands the complete frames to the workers, keeps the incomplete rest.
+         */
+        private void read() {
+            final int read;
+            try {
+                read = channel.read(readBuffer);
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            if (read < 0) {
+                close();
+                return;
+            }
+            readBuffer.flip();
+            int completeFrames = 0;
+            while (readBuffer.remaining() - completeFrames >= 4) {
+                final int length = readBuffer.getInt(readBuffer.position() + completeFrames);
+                if (length < 5 || length > BinaryProtocol.MAX_FRAME_LENGTH) {
+                    logger.warn("Closing connection sending a frame of {} bytes.", length);
+                    close();
+                    return;
+                }
+                if (readBuffer.remaining() - completeFrames < 4 + length) {
+                    break;
+                }
+                completeFrames += 4 + length;
+            }
+            if (completeFrames > 0) {
+                final var batch = new byte[completeFrames];
+                readBuffer.get(batch);
+                pendingRequestBytes.addAndGet(completeFrames);
+                requestBatches.offer(batch);
+                scheduleExecution();
+                if (backlogged()) {
+                    // read again by the write of the responses bringing the backlog down
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                }
+            }
+            readBuffer.compact();
+            if (!readBuffer.hasRemaining()) {
+                final var grown = ByteBuffer.allocate(readBuffer.capacity() * 2);
+                readBuffer.flip();
+                grown.put(readBuffer);
+                readBuffer = grown;
+            }
+        }
+
+        private void scheduleExecution() {
+            if (executing.compareAndSet(false, true)) {
+                workers.execute(this::execute);
+            }
+        }
+
+        /**
+         * Executes the request batches in order, on one worker at a time.
+         */
+        private void execute() {
+            try {
+                byte[] batch;
+                while ((batch = requestBatches.poll()) != null) {
+                    responseWriter.clear();
+                    requestHandler.handle(ByteBuffer.wrap(batch), responseWriter);
+                    pendingRequestBytes.addAndGet(-batch.length);
+                    final var frames = responseWriter.frames();
+                    final var response = ByteBuffer.allocate(frames.remaining()).put(frames).flip();
+                    responses.offer(response);
+                    pendingResponseBytes.addAndGet(response.remaining());
+                    writableConnections.offer(this);
+                    selector.wakeup();
+                }
+            } finally {
+                executing.set(false);
+                if (!requestBatches.isEmpty()) {
+                    scheduleExecution();
+                }
+            }
+        }
+
+        private void write() {
+            if (!key.isValid()) {
+                return;
+            }
+            try {
+                ByteBuffer response;
+                while ((response = responses.peek()) != null) {
+                    final int written = channel.write(response);
+                    pendingResponseBytes.addAndGet(-written);
+                    if (response.hasRemaining()) {
+                        break;
+                    }
+                    responses.poll();
+                }
+            } catch (IOException e) {
+                close();
+                return;
+            }
+            key.interestOps((responses.isEmpty() ? 0 : SelectionKey.OP_WRITE) | (backlogged() ? 0 : SelectionKey.OP_READ));
+        }
+
+        private boolean backlogged() {
+            return pendingResponseBytes.get() > MAX_PENDING_RESPONSE_BYTES
+                    || pendingRequestBytes.get() > MAX_PENDING_REQUEST_BYTES;
+        }
+
+        private void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close connection.", e);
+            }
+        }
+    }
+}
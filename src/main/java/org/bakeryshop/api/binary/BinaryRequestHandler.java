@@ -0,0 +1,262 @@
+package org.bakeryshop.api.binary;
+
+import org.bakeryshop.common.OverloadedException;
+import org.bakeryshop.common.TimeoutException;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.service.PancakeOrderOperations;
+import org.bakeryshop.service.usecase.Result;
+import org.bakeryshop.util.ParameterArguments;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Decodes the request frames of the {@link BinaryProtocol}, calls the {@link PancakeOrderOperations} and encodes the responses.
+ */
+final class BinaryRequestHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryRequestHandler.class);
+
+    private final PancakeOrderOperations pancakeService;
+    private final ClusterCommands clusterCommands;
+
+    BinaryRequestHandler(PancakeOrderOperations pancakeService) {
+        this(pancakeService, null);
+    }
+
+    /**
+     * @param clusterCommands The commands of the cluster node, null when the server is not a cluster node
+     */
+    BinaryRequestHandler(PancakeOrderOperations pancakeService, ClusterCommands clusterCommands) {
+        ParameterArguments.requireNotNullParameterArgument(pancakeService, "pancakeService");
+        this.pancakeService = pancakeService;
+        this.clusterCommands = clusterCommands;
+    }
+
+    /**
+     * @param frames    The complete request frames, in request order
+     * @param responses The writer the responses are appended to, in request order
+     */
+    void handle(ByteBuffer frames, FrameWriter responses) {
+        while (frames.hasRemaining()) {
+            final int length = frames.getInt();
+            final var frame = frames.slice(frames.position(), length);
+            frames.position(frames.position() + length);
+            handleFrame(frame, responses);
+        }
+    }
+
+    private void handleFrame(ByteBuffer frame, FrameWriter responses) {
+        final int correlationId = frame.getInt();
+        try {
+            final byte header = frame.get();
+            final var requestId = (header & BinaryProtocol.IDEMPOTENT) != 0 ? BinaryProtocol.getString(frame) : null;
+            execute((byte) (header & ~BinaryProtocol.IDEMPOTENT), requestId, frame, correlationId, responses);
+        } catch (BufferUnderflowException e) {
+            error(responses, correlationId, BinaryProtocol.BAD_REQUEST, "Truncated request.");
+        } catch (IllegalArgumentException e) {
+            error(responses, correlationId, BinaryProtocol.BAD_REQUEST, e.getMessage());
+        } catch (OverloadedException e) {
+            error(responses, correlationId, BinaryProtocol.OVERLOADED, e.getMessage());
+        } catch (TimeoutException e) {
+            error(responses, correlationId, BinaryProtocol.TIMEOUT, e.getMessage());
+        } catch (WrongOwnerException e) {
+            error(responses, correlationId, BinaryProtocol.WRONG_OWNER, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warn("Request {} failed.", correlationId, e);
+            error(responses, correlationId, BinaryProtocol.INTERNAL_ERROR, "Internal error");
+        }
+    }
+
+    private void execute(byte opcode, String requestId, ByteBuffer request, int correlationId, FrameWriter responses) {
+        switch (opcode) {
+            case BinaryProtocol.CREATE_ORDER -> {
+                final int buildingNr = request.getInt();
+                final int room = request.getInt();
+                final var result = requestId == null
+                        ? pancakeService.createOrder(buildingNr, room)
+                        : pancakeService.createOrder(requestId, buildingNr, room);
+                if (!failure(responses, correlationId, result)) {
+                    responses.beginFrame(correlationId, BinaryProtocol.SUCCESS);
+                    BinaryProtocol.putOrder(responses, result.requireOrder());
+                    responses.endFrame();
+                }
+            }
+            case BinaryProtocol.ADD_PANCAKES -> {
+                final var orderId = getOwnedOrderId(request);
+                final int count = request.getInt();
+                final var ingredients = PancakeIngredient.ofMask(request.getInt());
+                respond(responses, correlationId, requestId == null
+                        ? pancakeService.addPancakes(orderId, count, ingredients)
+                        : pancakeService.addPancakes(requestId, orderId, count, ingredients));
+            }
+            case BinaryProtocol.REMOVE_PANCAKES -> {
+                final var orderId = getOwnedOrderId(request);
+                final int count = request.getInt();
+                final var description = BinaryProtocol.getString(request);
+                respond(responses, correlationId, requestId == null
+                        ? pancakeService.removePancakes(orderId, description, count)
+                        : pancakeService.removePancakes(requestId, orderId, description, count));
+            }
+            case BinaryProtocol.CANCEL_ORDER -> {
+                final var orderId = getOwnedOrderId(request);
+                respond(responses, correlationId, requestId == null
+                        ? pancakeService.cancelOrder(orderId)
+                        : pancakeService.cancelOrder(requestId, orderId));
+            }
+            case BinaryProtocol.COMPLETE_ORDER -> {
+                final var orderId = getOwnedOrderId(request);
+                respond(responses, correlationId, requestId == null
+                        ? pancakeService.completeOrder(orderId)
+                        : pancakeService.completeOrder(requestId, orderId));
+            }
+            case BinaryProtocol.PREPARE_ORDER -> {
+                final var orderId = getOwnedOrderId(request);
+                respond(responses, correlationId, requestId == null
+                        ? pancakeService.prepareOrder(orderId)
+                        : pancakeService.prepareOrder(requestId, orderId));
+            }
+            case BinaryProtocol.DELIVER_ORDER -> {
+                final var orderId = getOwnedOrderId(request);
+                final var result = requestId == null
+                        ? pancakeService.deliverOrder(orderId)
+                        : pancakeService.deliverOrder(requestId, orderId);
+                if (!failure(responses, correlationId, result)) {
+                    responses.beginFrame(correlationId, BinaryProtocol.SUCCESS);
+                    BinaryProtocol.putOrder(responses, result.requireOrder());
+                    responses.endFrame();
+                }
+            }
+            case BinaryProtocol.DELIVER_ORDERS -> {
+                final var orderIds = getOrderIds(request);
+                // the whole batch is refused, so a retry by other members does not deliver twice
+                orderIds.forEach(this::requireOwned);
+                final var result = requestId == null
+                        ? pancakeService.deliverOrders(orderIds)
+                        : pancakeService.deliverOrders(requestId, orderIds);
+                responses.beginFrame(correlationId, BinaryProtocol.SUCCESS);
+                responses.ensureRemaining(4).putInt(result.deliveredOrders().size());
+                for (final var deliveredOrder : result.deliveredOrders()) {
+                    BinaryProtocol.putOrder(responses, deliveredOrder);
+                }
+                responses.ensureRemaining(4).putInt(result.failures().size());
+                for (final var failure : result.failures().entrySet()) {
+                    BinaryProtocol.putOrderId(responses.ensureRemaining(16), failure.getKey());
+                    BinaryProtocol.putString(responses, failure.getValue().code());
+                }
+                responses.endFrame();
+            }
+            case BinaryProtocol.VIEW_ORDER -> {
+                final var descriptions = pancakeService.viewOrder(getOwnedOrderId(request));
+                responses.beginFrame(correlationId, BinaryProtocol.SUCCESS);
+                responses.ensureRemaining(4).putInt(descriptions.size());
+                for (final var description : descriptions) {
+                    BinaryProtocol.putString(responses, description);
+                }
+                responses.endFrame();
+            }
+            case BinaryProtocol.LIST_COMPLETED_ORDERS -> respondOrderIds(responses, correlationId, owned(pancakeService.listCompletedOrders()));
+            case BinaryProtocol.LIST_PREPARED_ORDERS -> respondOrderIds(responses, correlationId, owned(pancakeService.listPreparedOrders()));
+            case BinaryProtocol.IMPORT_ORDER -> {
+                requireClusterCommands().importOrder(BinaryProtocol.getOrder(request));
+                responses.beginFrame(correlationId, BinaryProtocol.SUCCESS).endFrame();
+            }
+            case BinaryProtocol.UPDATE_MEMBERS -> {
+                requireClusterCommands().updateMembers(BinaryProtocol.getMembers(request));
+                responses.beginFrame(correlationId, BinaryProtocol.SUCCESS).endFrame();
+            }
+            case BinaryProtocol.MEMBERS -> {
+                final var members = requireClusterCommands().members();
+                responses.beginFrame(correlationId, BinaryProtocol.SUCCESS);
+                BinaryProtocol.putMembers(responses, members);
+                responses.endFrame();
+            }
+            default -> throw new IllegalArgumentException("Unknown opcode %d.".formatted(opcode));
+        }
+    }
+
+    private ClusterCommands requireClusterCommands() {
+        if (clusterCommands == null) {
+            throw new IllegalArgumentException("Server is not a cluster node.");
+        }
+        return clusterCommands;
+    }
+
+    private UUID getOwnedOrderId(ByteBuffer request) {
+        final var orderId = BinaryProtocol.getOrderId(request);
+        requireOwned(orderId);
+        return orderId;
+    }
+
+    private void requireOwned(UUID orderId) {
+        if (clusterCommands != null && !clusterCommands.owns(orderId)) {
+            throw new WrongOwnerException("Order %s is owned by another node.".formatted(orderId));
+        }
+    }
+
+    /**
+     * @return the orders of the node's partition, a cluster node may hold an order it failed to move
+     */
+    private Collection<UUID> owned(Set<UUID> orderIds) {
+        if (clusterCommands == null) {
+            return orderIds;
+        }
+        return orderIds.stream().filter(clusterCommands::owns).toList();
+    }
+
+    private static Collection<UUID> getOrderIds(ByteBuffer request) {
+        final int count = request.getInt();
+        if (count < 0 || count > request.remaining() / 16) {
+            throw new IllegalArgumentException("Invalid order count %d.".formatted(count));
+        }
+        final var orderIds = new ArrayList<UUID>(count);
+        for (int i = 0; i < count; i++) {
+            orderIds.add(BinaryProtocol.getOrderId(request));
+        }
+        return orderIds;
+    }
+
+    private static void respond(FrameWriter responses, int correlationId, Result<?> result) {
+        if (!failure(responses, correlationId, result)) {
+            responses.beginFrame(correlationId, BinaryProtocol.SUCCESS).endFrame();
+        }
+    }
+
+    /**
+     * @return true when the result failed and the failure response was written
+     */
+    private static boolean failure(FrameWriter responses, int correlationId, Result<?> result) {
+        final var failure = result.getFailure();
+        if (failure.isEmpty()) {
+            return false;
+        }
+        responses.beginFrame(correlationId, BinaryProtocol.FAILURE);
+        BinaryProtocol.putString(responses, failure.get().code());
+        responses.endFrame();
+        return true;
+    }
+
+    private static void respondOrderIds(FrameWriter responses, int correlationId, Collection<UUID> orderIds) {
+        responses.beginFrame(correlationId, BinaryProtocol.SUCCESS);
+        final var buffer = responses.ensureRemaining(4 + 16 * orderIds.size());
+        buffer.putInt(orderIds.size());
+        for (final var orderId : orderIds) {
+            BinaryProtocol.putOrderId(buffer, orderId);
+        }
+        responses.endFrame();
+    }
+
+    private static void error(FrameWriter responses, int correlationId, String code, String message) {
+        responses.abandonFrame();
+        responses.beginFrame(correlationId, BinaryProtocol.ERROR);
+        BinaryProtocol.putString(responses, code);
+        BinaryProtocol.putString(responses, message == null ? code : message);
+        responses.endFrame();
+    }
+}
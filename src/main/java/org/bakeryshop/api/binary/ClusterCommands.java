@@ -0,0 +1,37 @@
+package org.bakeryshop.api.binary;
+
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The commands the nodes of a cluster send each other over the {@link BinaryProtocol},
+ * next to the {@link org.bakeryshop.service.PancakeOrderOperations}.
+ */
+public interface ClusterCommands {
+
+    /**
+     * Takes over an order moved from another node, keeping its id and state. An order of the same id held already
+     * was imported before, e.g. by a move sent again after its response was lost, and is kept as it is.
+     */
+    void importOrder(PancakesOrderSnapshot order);
+
+    /**
+     * Replaces the members of the cluster, moving the orders the node does not own anymore to their owners.
+     *
+     * @param members The addresses of the nodes by node id
+     */
+    void updateMembers(Map<String, InetSocketAddress> members);
+
+    /**
+     * @return the addresses of the nodes by node id, empty until the members are updated
+     */
+    Map<String, InetSocketAddress> members();
+
+    /**
+     * @return whether the order belongs to the partition of the node
+     */
+    boolean owns(UUID orderId);
+}
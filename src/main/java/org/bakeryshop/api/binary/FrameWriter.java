@@ -0,0 +1,81 @@
+package org.bakeryshop.api.binary;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Writes frames of the {@link BinaryProtocol} into a growing buffer, reused after {@link #clear()}.
+ */
+final class FrameWriter {
+
+    private ByteBuffer buffer;
+    private int frameStart = -1;
+
+    FrameWriter(int initialCapacity) {
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+    }
+
+    /**
+     * Starts a frame, its length is written by {@link #endFrame()}.
+     *
+     * @param header The opcode of a request or the status of a response
+     */
+    FrameWriter beginFrame(int correlationId, byte header) {
+        if (frameStart >= 0) {
+            throw new IllegalStateException("Frame started at %d was not ended.".formatted(frameStart));
+        }
+        frameStart = ensureRemaining(9).position();
+        buffer.putInt(0)
+                .putInt(correlationId)
+                .put(header);
+        return this;
+    }
+
+    FrameWriter endFrame() {
+        final int length = buffer.position() - frameStart - 4;
+        if (length > BinaryProtocol.MAX_FRAME_LENGTH) {
+            throw new IllegalArgumentException("Frame of %d bytes exceeds the maximal frame length.".formatted(length));
+        }
+        buffer.putInt(frameStart, length);
+        frameStart = -1;
+        return this;
+    }
+
+    /**
+     * Drops the started frame, e.g. when its encoding failed.
+     */
+    void abandonFrame() {
+        if (frameStart >= 0) {
+            buffer.position(frameStart);
+            frameStart = -1;
+        }
+    }
+
+    /**
+     * @return the buffer having at least the given remaining capacity, to write the next bytes to
+     */
+    ByteBuffer ensureRemaining(int bytes) {
+        if (buffer.remaining() < bytes) {
+            final var grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+        return buffer;
+    }
+
+    /**
+     * @return the written frames, ready to be written to a channel
+     */
+    ByteBuffer frames() {
+        return buffer.duplicate().flip();
+    }
+
+    boolean isEmpty() {
+        return buffer.position() == 0;
+    }
+
+    void clear() {
+        buffer.clear();
+        frameStart = -1;
+    }
+}
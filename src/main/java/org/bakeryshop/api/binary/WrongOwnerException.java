@@ -0,0 +1,11 @@
+package org.bakeryshop.api.binary;
+
+/**
+ * Thrown for a call of an order the cluster node does not own, the caller routed it by other members.
+ */
+public class WrongOwnerException extends RuntimeException {
+
+    public WrongOwnerException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package org.bakeryshop.api.http;
+
+/**
+ * The request could not be mapped to a {@link org.bakeryshop.service.PancakeService} call, answered with 400.
+ */
+final class BadRequestException extends RuntimeException {
+
+    BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,73 @@
+package org.bakeryshop.api.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP/JSON facade of a {@link PancakeService}, see {@link PancakeServiceHandler} for the resources.
+ * <p>
+ * Every request gets its own virtual thread when the runtime supports them,
+ * otherwise the requests are executed by a pool of {@value #FALLBACK_THREADS} threads.
+ * The responses have a fixed length, so the connections are kept alive.
+ */
+public final class HttpApiServer implements AutoCloseable {
+
+    static final int FALLBACK_THREADS = 64;
+
+    /**
+     * Without it the JDK server sends the headers and the body of a response in separate segments, the body waits
+     * for the delayed acknowledgement of the headers. The server reads it once, so it must be set before the first server
+     * of the JVM is created, otherwise it has to be passed as {@code -Dsun.net.httpserver.nodelay=true}.
+     */
+    static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private HttpApiServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * @param address The address to listen on, port 0 picks a free port
+     */
+    public static HttpApiServer start(PancakeService pancakeService, InetSocketAddress address) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(pancakeService, "pancakeService");
+        ParameterArguments.requireNotNullParameterArgument(address, "address");
+
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+            System.setProperty(NO_DELAY_PROPERTY, "true");
+        }
+        final var server = HttpServer.create(address, 0);
+        final var executor = requestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", new PancakeServiceHandler(pancakeService));
+        server.start();
+        return new HttpApiServer(server, executor);
+    }
+
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(FALLBACK_THREADS);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package org.bakeryshop.api.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.bakeryshop.api.json.JsonWriter;
+import org.bakeryshop.common.OverloadedException;
+import org.bakeryshop.common.TimeoutException;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.usecase.Failure;
+import org.bakeryshop.service.usecase.Result;
+import org.bakeryshop.util.ParameterArguments;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Maps the requests to the {@link PancakeService} methods:
+ * <pre>
+ * POST   /orders?building=&amp;room=                      createOrder
+ * GET    /orders?state=COMPLETED|PREPARED               listCompletedOrders, listPreparedOrders
+ * GET    /orders/{id}                                   viewOrder
+ * DELETE /orders/{id}                                   cancelOrder
+ * POST   /orders/{id}/pancakes?count=&amp;ingredients=a,b  addPancakes
+ * DELETE /orders/{id}/pancakes?description=&amp;count=     removePancakes
+ * POST   /orders/{id}/complete                          completeOrder
+ * POST   /orders/{id}/prepare                           prepareOrder
+ * POST   /orders/{id}/deliver                           deliverOrder
+ * POST   /deliveries?orders=id,id                       deliverOrders
+ * POST   /hand-offs/completed?timeoutMillis=            takeCompletedOrder
+ * POST   /hand-offs/prepared?timeoutMillis=             takePreparedOrder
+ * </pre>
+ * The commands having an {@value #IDEMPOTENCY_KEY} header call the idempotent overloads.
+ * The successful commands without result are answered with {@code {}}, the result failures with their code and reason,
+ * {@code order_not_found} as 404, {@code overloaded} as 503, {@code invalid_address} as 422 and the others as 409.
+ */
+final class PancakeServiceHandler implements HttpHandler {
+
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /**
+     * The longest hand-off wait, so a request can not occupy its thread for long.
+     */
+    static final long MAX_TAKE_TIMEOUT_MILLIS = 30_000L;
+
+    private static final Logger logger = LoggerFactory.getLogger(PancakeServiceHandler.class);
+
+    private static final String JSON = "application/json";
+
+    private final PancakeService pancakeService;
+
+    PancakeServiceHandler(PancakeService pancakeService) {
+        ParameterArguments.requireNotNullParameterArgument(pancakeService, "pancakeService");
+        this.pancakeService = pancakeService;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (BadRequestException | IllegalArgumentException e) {
+                respond(exchange, 400, json -> json.failure("bad_request", e.getMessage()));
+            } catch (OverloadedException | TimeoutException e) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 503, json -> json.failure("overloaded", e.getMessage()));
+            } catch (RuntimeException e) {
+                logger.warn("Request {} {} failed.", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+                respond(exchange, 500, json -> json.failure("internal_error", "Internal error"));
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        final var path = exchange.getRequestURI().getRawPath();
+        final var method = exchange.getRequestMethod();
+        final var parameters = QueryParameters.parse(exchange.getRequestURI().getRawQuery());
+        final var requestId = exchange.getRequestHeaders().getFirst(IDEMPOTENCY_KEY);
+
+        if (path.equals("/orders")) {
+            switch (method) {
+                case "POST" -> createOrder(exchange, parameters, requestId);
+                case "GET" -> listOrders(exchange, parameters);
+                default -> methodNotAllowed(exchange);
+            }
+        } else if (path.startsWith("/orders/")) {
+            final int idEnd = path.indexOf('/', "/orders/".length());
+            final var orderId = orderIdOf(path.substring("/orders/".length(), idEnd < 0 ? path.length() : idEnd));
+            final var action = idEnd < 0 ? "" : path.substring(idEnd + 1);
+            routeOrder(exchange, method, action, orderId, parameters, requestId);
+        } else if (path.equals("/deliveries")) {
+            if (!method.equals("POST")) {
+                methodNotAllowed(exchange);
+                return;
+            }
+            final var orderIds = new ArrayList<UUID>();
+            for (final var orderId : parameters.require("orders").split(",")) {
+                orderIds.add(orderIdOf(orderId));
+            }
+            final var result = requestId == null
+                    ? pancakeService.deliverOrders(orderIds)
+                    : pancakeService.deliverOrders(requestId, orderIds);
+            respond(exchange, 200, json -> json.batch(result));
+        } else if (path.equals("/hand-offs/completed") || path.equals("/hand-offs/prepared")) {
+            if (!method.equals("POST")) {
+                methodNotAllowed(exchange);
+                return;
+            }
+            final var timeout = Duration.ofMillis(
+                    Math.min(Math.max(0L, parameters.getLong("timeoutMillis", 0L)), MAX_TAKE_TIMEOUT_MILLIS));
+            final var orderId = path.endsWith("/completed")
+                    ? pancakeService.takeCompletedOrder(timeout)
+                    : pancakeService.takePreparedOrder(timeout);
+            respond(exchange, 200, json -> json.orderId(orderId.orElse(null)));
+        } else {
+            respond(exchange, 404, json -> json.failure("not_found", "No such resource"));
+        }
+    }
+
+    private void routeOrder(HttpExchange exchange,
+                            String method,
+                            String action,
+                            UUID orderId,
+                            QueryParameters parameters,
+                            String requestId) throws IOException {
+        switch (method + ' ' + action) {
+            case "GET " -> {
+                final var descriptions = pancakeService.viewOrder(orderId);
+                respond(exchange, 200, json -> json.strings(descriptions));
+            }
+            case "DELETE " -> respond(exchange, requestId == null
+                    ? pancakeService.cancelOrder(orderId)
+                    : pancakeService.cancelOrder(requestId, orderId));
+            case "POST pancakes" -> {
+                final int count = parameters.requireInt("count");
+                final var ingredients = ingredientsOf(parameters.get("ingredients", ""));
+                respond(exchange, requestId == null
+                        ? pancakeService.addPancakes(orderId, count, ingredients)
+                        : pancakeService.addPancakes(requestId, orderId, count, ingredients));
+            }
+            case "DELETE pancakes" -> {
+                final var description = parameters.require("description");
+                final int count = parameters.requireInt("count");
+                respond(exchange, requestId == null
+                        ? pancakeService.removePancakes(orderId, description, count)
+                        : pancakeService.removePancakes(requestId, orderId, description, count));
+            }
+            case "POST complete" -> respond(exchange, requestId == null
+                    ? pancakeService.completeOrder(orderId)
+                    : pancakeService.completeOrder(requestId, orderId));
+            case "POST prepare" -> respond(exchange, requestId == null
+                    ? pancakeService.prepareOrder(orderId)
+                    : pancakeService.prepareOrder(requestId, orderId));
+            case "POST deliver" -> {
+                final var result = requestId == null
+                        ? pancakeService.deliverOrder(orderId)
+                        : pancakeService.deliverOrder(requestId, orderId);
+                if (result.hasFailure()) {
+                    respond(exchange, result);
+                } else {
+                    respond(exchange, 200, json -> json.order(result.requireOrder()));
+                }
+            }
+            case "GET complete", "GET prepare", "GET deliver", "GET pancakes", "POST " -> methodNotAllowed(exchange);
+            default -> respond(exchange, 404, json -> json.failure("not_found", "No such resource"));
+        }
+    }
+
+    private void createOrder(HttpExchange exchange, QueryParameters parameters, String requestId) throws IOException {
+        final int buildingNr = parameters.requireInt("building");
+        final int room = parameters.requireInt("room");
+        final var result = requestId == null
+                ? pancakeService.createOrder(buildingNr, room)
+                : pancakeService.createOrder(requestId, buildingNr, room);
+        if (result.hasFailure()) {
+            respond(exchange, result);
+            return;
+        }
+        respond(exchange, 201, json -> json.order(result.requireOrder()));
+    }
+
+    private void listOrders(HttpExchange exchange, QueryParameters parameters) throws IOException {
+        final Set<UUID> orderIds = switch (parameters.require("state")) {
+            case "COMPLETED" -> pancakeService.listCompletedOrders();
+            case "PREPARED" -> pancakeService.listPreparedOrders();
+            default -> throw new BadRequestException("Query parameter 'state' should be COMPLETED or PREPARED.");
+        };
+        respond(exchange, 200, json -> json.orderIds(orderIds));
+    }
+
+    private static void respond(HttpExchange exchange, Result<?> result) throws IOException {
+        final var failure = result.getFailure();
+        if (failure.isEmpty()) {
+            respond(exchange, 200, JsonWriter::emptyObject);
+            return;
+        }
+        respond(exchange, statusOf(failure.get()), json -> json.failure(failure.get()));
+    }
+
+    private static int statusOf(Failure failure) {
+        return switch (failure.code()) {
+            case "order_not_found" -> 404;
+            case "overloaded" -> 503;
+            case "invalid_address" -> 422;
+            default -> 409;
+        };
+    }
+
+    private static void methodNotAllowed(HttpExchange exchange) throws IOException {
+        respond(exchange, 405, json -> json.failure("method_not_allowed", "Method not allowed"));
+    }
+
+    /**
+     * Streams the body through a {@link JsonWriter}. A body fitting into its buffer is sent with a fixed length,
+     * a longer one, e.g. a listing of many orders, chunked as it is written.
+     * Every response has a body, as the JDK 17 server closes the connection after a 204 response.
+     */
+    private static void respond(HttpExchange exchange, int status, JsonBody body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        final var responseBody = new ResponseBody(exchange, status);
+        final var json = JsonWriter.to(responseBody);
+        body.writeTo(json);
+        responseBody.last = true;
+        json.flush();
+    }
+
+    private static UUID orderIdOf(String orderId) {
+        try {
+            return UUID.fromString(orderId);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("'%s' is not an order id.".formatted(orderId));
+        }
+    }
+
+    private static Set<PancakeIngredient> ingredientsOf(String ingredients) {
+        if (ingredients.isEmpty()) {
+            return Set.of();
+        }
+        final var ingredientSet = EnumSet.noneOf(PancakeIngredient.class);
+        for (final var ingredient : ingredients.split(",")) {
+            try {
+                ingredientSet.add(PancakeIngredient.valueOf(ingredient));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("'%s' is not an ingredient.".formatted(ingredient));
+            }
+        }
+        return Set.copyOf(ingredientSet);
+    }
+
+    @FunctionalInterface
+    private interface JsonBody {
+
+        void writeTo(JsonWriter json) throws IOException;
+    }
+
+    /**
+     * Sends the headers with the first chunk, with the length of the body when it is the last one.
+     */
+    private static final class ResponseBody implements JsonWriter.Sink {
+
+        private final HttpExchange exchange;
+        private final int status;
+        private boolean headersSent;
+        private boolean last;
+
+        private ResponseBody(HttpExchange exchange, int status) {
+            this.exchange = exchange;
+            this.status = status;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (!headersSent) {
+                exchange.sendResponseHeaders(status, last ? length : 0L);
+                headersSent = true;
+            }
+            exchange.getResponseBody().write(bytes, offset, length);
+        }
+    }
+}
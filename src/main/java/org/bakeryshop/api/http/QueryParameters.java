@@ -0,0 +1,87 @@
+package org.bakeryshop.api.http;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The parameters of a request query, the first value of a repeated parameter wins.
+ */
+final class QueryParameters {
+
+    private final Map<String, String> parameters;
+
+    private QueryParameters(Map<String, String> parameters) {
+        this.parameters = parameters;
+    }
+
+    static QueryParameters parse(String rawQuery) {
+        final var parameters = new HashMap<String, String>();
+        if (rawQuery != null) {
+            int from = 0;
+            while (from < rawQuery.length()) {
+                int to = rawQuery.indexOf('&', from);
+                if (to < 0) {
+                    to = rawQuery.length();
+                }
+                final int separator = rawQuery.indexOf('=', from);
+                if (separator > from && separator < to) {
+                    parameters.putIfAbsent(decode(rawQuery.substring(from, separator)),
+                            decode(rawQuery.substring(separator + 1, to)));
+                } else if (to > from) {
+                    parameters.putIfAbsent(decode(rawQuery.substring(from, to)), "");
+                }
+                from = to + 1;
+            }
+        }
+        return new QueryParameters(parameters);
+    }
+
+    /**
+     * @throws BadRequestException when the parameter is missing
+     */
+    String require(String name) {
+        final var value = parameters.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new BadRequestException("Missing query parameter '%s'.".formatted(name));
+        }
+        return value;
+    }
+
+    String get(String name, String defaultValue) {
+        final var value = parameters.get(name);
+        return value == null || value.isEmpty() ? defaultValue : value;
+    }
+
+    /**
+     * @throws BadRequestException when the parameter is missing or not a number
+     */
+    int requireInt(String name) {
+        final var value = require(name);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Query parameter '%s' is not a number.".formatted(name));
+        }
+    }
+
+    /**
+     * @throws BadRequestException when the parameter is not a number
+     */
+    long getLong(String name, long defaultValue) {
+        final var value = parameters.get(name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Query parameter '%s' is not a number.".formatted(name));
+        }
+    }
+
+    private static String decode(String value) {
+        return value.indexOf('%') < 0 && value.indexOf('+') < 0 ? value : URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
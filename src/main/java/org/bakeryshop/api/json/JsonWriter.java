@@ -0,0 +1,455 @@
+package org.bakeryshop.api.json;
+
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.model.pancakes.PancakeRecipe;
+import org.bakeryshop.service.usecase.Failure;
+import org.bakeryshop.service.usecase.delivery.BatchDeliveryResult;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams the JSON of the model and result types as UTF-8 to a {@link Sink}, without intermediate strings.
+ * <p>
+ * The constant fragments, the states, the pancake descriptions and the failures of the failure enums,
+ * are encoded once per JVM. The bytes are buffered up to the buffer size and then handed to the sink,
+ * so a listing of millions of ids is streamed in chunks. The chunks end at character boundaries.
+ * A writer is not thread safe.
+ */
+public final class JsonWriter implements Flushable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * The longest unit written at once, a quoted id.
+     */
+    static final int MIN_BUFFER_SIZE = 38;
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[][] STATES = states();
+
+    /**
+     * The JSON strings of the descriptions by ingredient mask.
+     */
+    private static final byte[][] DESCRIPTIONS_BY_MASK = descriptionsByMask();
+
+    private static final Map<String, byte[]> DESCRIPTIONS = descriptions();
+
+    /**
+     * The JSON objects of the failure enum constants, the other failures are encoded on every write.
+     */
+    private static final Map<Failure, byte[]> FAILURES = new ConcurrentHashMap<>();
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] STATE = ascii(",\"state\":");
+    private static final byte[] BUILDING = ascii(",\"building\":");
+    private static final byte[] ROOM = ascii(",\"room\":");
+    private static final byte[] PANCAKES = ascii(",\"pancakes\":[");
+    private static final byte[] CODE = ascii("{\"code\":");
+    private static final byte[] REASON = ascii(",\"reason\":");
+    private static final byte[] DELIVERED = ascii("{\"delivered\":[");
+    private static final byte[] FAILURES_FIELD = ascii("],\"failures\":{");
+    private static final byte[] NULL = ascii("null");
+
+    private final Sink sink;
+    private final byte[] buffer;
+    private int position;
+
+    private JsonWriter(Sink sink, int bufferSize) {
+        ParameterArguments.requireNotNullParameterArgument(sink, "sink");
+        ParameterArguments.requirePositiveParameterArgument(bufferSize, "bufferSize");
+        this.sink = sink;
+        this.buffer = new byte[Math.max(bufferSize, MIN_BUFFER_SIZE)];
+    }
+
+    /**
+     * The destination of the encoded bytes.
+     */
+    @FunctionalInterface
+    public interface Sink {
+
+        void write(byte[] bytes, int offset, int length) throws IOException;
+    }
+
+    public static JsonWriter to(Sink sink) {
+        return new JsonWriter(sink, DEFAULT_BUFFER_SIZE);
+    }
+
+    public static JsonWriter to(Sink sink, int bufferSize) {
+        return new JsonWriter(sink, bufferSize);
+    }
+
+    public static JsonWriter to(OutputStream outputStream) {
+        ParameterArguments.requireNotNullParameterArgument(outputStream, "outputStream");
+        return new JsonWriter(outputStream::write, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * The chunks are decoded before they are written, a writer of bytes should be preferred.
+     */
+    public static JsonWriter to(Writer writer) {
+        ParameterArguments.requireNotNullParameterArgument(writer, "writer");
+        return new JsonWriter(
+                (bytes, offset, length) -> writer.write(new String(bytes, offset, length, StandardCharsets.UTF_8)),
+                DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @throws java.nio.BufferOverflowException on flush, when the JSON does not fit into the buffer
+     */
+    public static JsonWriter to(ByteBuffer byteBuffer) {
+        ParameterArguments.requireNotNullParameterArgument(byteBuffer, "byteBuffer");
+        return new JsonWriter((bytes, offset, length) -> byteBuffer.put(bytes, offset, length), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * {@code {"id":"...","state":"NEW","building":1,"room":2,"pancakes":["..."]}}
+     */
+    public JsonWriter order(PancakesOrderSnapshot order) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(order, "order");
+        write(ID);
+        uuid(order.id());
+        write(STATE);
+        write(STATES[order.state().ordinal()]);
+        write(BUILDING);
+        number(order.address().buildingNr());
+        write(ROOM);
+        number(order.address().room());
+        write(PANCAKES);
+        final var pancakes = order.pancakes();
+        for (int i = 0; i < pancakes.size(); i++) {
+            if (i > 0) {
+                write((byte) ',');
+            }
+            description(pancakes.get(i));
+        }
+        write((byte) ']');
+        write((byte) '}');
+        return this;
+    }
+
+    /**
+     * {@code {"code":"order_not_found","reason":"Order is missing"}}
+     */
+    public JsonWriter failure(Failure failure) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(failure, "failure");
+        if (failure instanceof Enum<?>) {
+            write(FAILURES.computeIfAbsent(failure, JsonWriter::encode));
+            return this;
+        }
+        return failure(failure.code(), failure.reason());
+    }
+
+    public JsonWriter failure(String code, String reason) throws IOException {
+        write(CODE);
+        string(code);
+        write(REASON);
+        string(reason);
+        write((byte) '}');
+        return this;
+    }
+
+    /**
+     * {@code {"delivered":[order...],"failures":{"<id>":{"code":...,"reason":...}}}}
+     */
+    public JsonWriter batch(BatchDeliveryResult result) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(result, "result");
+        write(DELIVERED);
+        final var deliveredOrders = result.deliveredOrders();
+        for (int i = 0; i < deliveredOrders.size(); i++) {
+            if (i > 0) {
+                write((byte) ',');
+            }
+            order(deliveredOrders.get(i));
+        }
+        write(FAILURES_FIELD);
+        boolean first = true;
+        for (final var failure : result.failures().entrySet()) {
+            if (!first) {
+                write((byte) ',');
+            }
+            first = false;
+            uuid(failure.getKey());
+            write((byte) ':');
+            failure(failure.getValue());
+        }
+        write((byte) '}');
+        write((byte) '}');
+        return this;
+    }
+
+    /**
+     * {@code ["...","..."]}, the pancake descriptions are written from their preencoded form
+     */
+    public JsonWriter strings(Collection<String> strings) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(strings, "strings");
+        write((byte) '[');
+        boolean first = true;
+        for (final var string : strings) {
+            if (!first) {
+                write((byte) ',');
+            }
+            first = false;
+            final var description = DESCRIPTIONS.get(string);
+            if (description != null) {
+                write(description);
+            } else {
+                string(string);
+            }
+        }
+        write((byte) ']');
+        return this;
+    }
+
+    /**
+     * {@code ["<id>","<id>"]}, the ids are streamed while the iterable is iterated
+     */
+    public JsonWriter orderIds(Iterable<UUID> orderIds) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(orderIds, "orderIds");
+        write((byte) '[');
+        boolean first = true;
+        for (final var orderId : orderIds) {
+            if (!first) {
+                write((byte) ',');
+            }
+            first = false;
+            uuid(orderId);
+        }
+        write((byte) ']');
+        return this;
+    }
+
+    /**
+     * {@code {"id":"<id>"}} or {@code {"id":null}} for no order
+     */
+    public JsonWriter orderId(UUID orderId) throws IOException {
+        write(ID);
+        if (orderId == null) {
+            write(NULL);
+        } else {
+            uuid(orderId);
+        }
+        write((byte) '}');
+        return this;
+    }
+
+    /**
+     * {@code {}}
+     */
+    public JsonWriter emptyObject() throws IOException {
+        write((byte) '{');
+        write((byte) '}');
+        return this;
+    }
+
+    /**
+     * Writes the JSON string of the text, escaping the quotes, backslashes and control characters.
+     */
+    public JsonWriter string(String text) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(text, "text");
+        write((byte) '"');
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                write((byte) c);
+            } else if (c < 0x80) {
+                escape(c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                codePoint(Character.toCodePoint(c, text.charAt(++i)));
+            } else {
+                codePoint(Character.isSurrogate(c) ? '?' : c);
+            }
+        }
+        write((byte) '"');
+        return this;
+    }
+
+    /**
+     * @return the amount of bytes buffered and not yet handed to the sink
+     */
+    public int buffered() {
+        return position;
+    }
+
+    /**
+     * Hands the buffered bytes to the sink.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (position > 0) {
+            sink.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void description(PancakeRecipe pancake) throws IOException {
+        write(DESCRIPTIONS_BY_MASK[PancakeIngredient.maskOf(pancake.ingredients())]);
+    }
+
+    private void uuid(UUID uuid) throws IOException {
+        ensureCapacity(38);
+        buffer[position++] = '"';
+        final long mostSignificantBits = uuid.getMostSignificantBits();
+        final long leastSignificantBits = uuid.getLeastSignificantBits();
+        hex(mostSignificantBits >>> 32, 8);
+        buffer[position++] = '-';
+        hex(mostSignificantBits >>> 16, 4);
+        buffer[position++] = '-';
+        hex(mostSignificantBits, 4);
+        buffer[position++] = '-';
+        hex(leastSignificantBits >>> 48, 4);
+        buffer[position++] = '-';
+        hex(leastSignificantBits, 12);
+        buffer[position++] = '"';
+    }
+
+    private void hex(long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[position + i] = HEX_DIGITS[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        position += digits;
+    }
+
+    private void number(int value) throws IOException {
+        ensureCapacity(11);
+        long remaining = value;
+        if (remaining < 0) {
+            buffer[position++] = '-';
+            remaining = -remaining;
+        }
+        int digits = 1;
+        for (long bound = 10L; bound <= remaining; bound *= 10L) {
+            digits++;
+        }
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[position + i] = (byte) ('0' + remaining % 10L);
+            remaining /= 10L;
+        }
+        position += digits;
+    }
+
+    private void escape(char c) throws IOException {
+        ensureCapacity(6);
+        buffer[position++] = '\\';
+        switch (c) {
+            case '"' -> buffer[position++] = '"';
+            case '\\' -> buffer[position++] = '\\';
+            case '\n' -> buffer[position++] = 'n';
+            case '\r' -> buffer[position++] = 'r';
+            case '\t' -> buffer[position++] = 't';
+            default -> {
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX_DIGITS[c >> 4];
+                buffer[position++] = HEX_DIGITS[c & 0xF];
+            }
+        }
+    }
+
+    private void codePoint(int codePoint) throws IOException {
+        ensureCapacity(4);
+        if (codePoint < 0x800) {
+            buffer[position++] = (byte) (0xC0 | codePoint >> 6);
+        } else if (codePoint < 0x10000) {
+            buffer[position++] = (byte) (0xE0 | codePoint >> 12);
+            buffer[position++] = (byte) (0x80 | (codePoint >> 6 & 0x3F));
+        } else {
+            buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+            buffer[position++] = (byte) (0x80 | (codePoint >> 12 & 0x3F));
+            buffer[position++] = (byte) (0x80 | (codePoint >> 6 & 0x3F));
+        }
+        buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+    }
+
+    private void write(byte b) throws IOException {
+        if (position == buffer.length) {
+            flush();
+        }
+        buffer[position++] = b;
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flush();
+            if (bytes.length > buffer.length) {
+                sink.write(bytes, 0, bytes.length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            flush();
+        }
+    }
+
+    private static byte[] encode(Failure failure) {
+        final var json = new ByteArrayOutputStream(64);
+        try {
+            to(json).failure(failure.code(), failure.reason()).flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode failure " + failure.code(), e);
+        }
+        return json.toByteArray();
+    }
+
+    private static byte[] encodeString(String string) {
+        final var json = new ByteArrayOutputStream(64);
+        try {
+            to(json).string(string).flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode " + string, e);
+        }
+        return json.toByteArray();
+    }
+
+    private static byte[][] states() {
+        final var states = OrderState.values();
+        final var encoded = new byte[states.length][];
+        for (final var state : states) {
+            encoded[state.ordinal()] = ascii('"' + state.name() + '"');
+        }
+        return encoded;
+    }
+
+    private static byte[][] descriptionsByMask() {
+        final var descriptions = new byte[1 << PancakeIngredient.values().length][];
+        final var anyOrderId = new UUID(0L, 0L);
+        for (int mask = 1; mask < descriptions.length; mask++) {
+            descriptions[mask] = encodeString(PancakeRecipe.of(anyOrderId, PancakeIngredient.ofMask(mask)).description());
+        }
+        return descriptions;
+    }
+
+    private static Map<String, byte[]> descriptions() {
+        final var descriptions = new HashMap<String, byte[]>();
+        final var anyOrderId = new UUID(0L, 0L);
+        for (int mask = 1; mask < DESCRIPTIONS_BY_MASK.length; mask++) {
+            descriptions.put(PancakeRecipe.of(anyOrderId, PancakeIngredient.ofMask(mask)).description(), DESCRIPTIONS_BY_MASK[mask]);
+        }
+        return Map.copyOf(descriptions);
+    }
+
+    private static byte[] ascii(String fragment) {
+        return fragment.getBytes(StandardCharsets.US_ASCII);
+    }
+}
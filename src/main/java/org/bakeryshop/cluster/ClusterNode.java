@@ -0,0 +1,263 @@
+package org.bakeryshop.cluster;
+
+import org.bakeryshop.api.binary.BinaryProtocolClient;
+import org.bakeryshop.api.binary.BinaryProtocolServer;
+import org.bakeryshop.api.binary.ClusterCommands;
+import org.bakeryshop.common.config.Configuration;
+import org.bakeryshop.domain.model.order.OrderIdGenerator;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.repository.address.BuildingRepository;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepositoryFactory;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.SimplePancakeService;
+import org.bakeryshop.util.ParameterArguments;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A node of a cluster partitioning the orders by id with a {@link ConsistentHashRing}, serving its partition over the
+ * {@link org.bakeryshop.api.binary.BinaryProtocol}.
+ * <p>
+ * The node creates only order ids it owns, drawing ids until one falls into its partition, and answers the calls
+ * of the orders of other partitions with {@code wrong_owner}, so the clients of old members fetch the new ones.
+ * When the members change it moves the orders it does not own anymore to their owners: every order is removed first,
+ * so it is not changed while moving, then imported by its owner. A failed import is sent again on a new connection,
+ * the owner keeps an order it imported already, so a move whose response was lost does not leave the order
+ * on both nodes. The order is restored only when the owner can not be reached, it is not served by the node
+ * and moves again with the next change of the members.
+ * While an order moves its requests to the new owner fail with {@code order_not_found}.
+ * An order created during the change of the members may stay on its old owner until the members change again.
+ */
+public final class ClusterNode implements ClusterCommands, AutoCloseable {
+
+    public static final int VIRTUAL_NODES = 128;
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterNode.class);
+
+    private final String nodeId;
+    private final InMemoryPancakesOrderRepository repository;
+    private final PancakeService pancakeService;
+    private BinaryProtocolServer server;
+
+    private volatile ConsistentHashRing ring;
+    private volatile Map<String, InetSocketAddress> members = Map.of();
+
+    private ClusterNode(String nodeId, BuildingRepository buildingRepository) {
+        this.nodeId = nodeId;
+        this.ring = ConsistentHashRing.of(Set.of(nodeId), VIRTUAL_NODES);
+        this.repository = new InMemoryPancakesOrderRepository(Duration.ofMillis(100L), false, 1024, this::nextOrderId);
+        this.pancakeService = new SimplePancakeService(repository, buildingRepository);
+    }
+
+    /**
+     * Starts the node as the only member of its cluster, until its members are updated.
+     *
+     * @param address The address to listen on, port 0 picks a free port
+     */
+    public static ClusterNode start(String nodeId, InetSocketAddress address, BuildingRepository buildingRepository)
+            throws IOException {
+        ParameterArguments.requireNotBlankParameterArgument(nodeId, "nodeId");
+        ParameterArguments.requireNotNullParameterArgument(address, "address");
+        ParameterArguments.requireNotNullParameterArgument(buildingRepository, "buildingRepository");
+        final var node = new ClusterNode(nodeId, buildingRepository);
+        node.server = BinaryProtocolServer.start(node.pancakeService, node, address);
+        return node;
+    }
+
+    /**
+     * Runs a node on localhost until its standard input is closed:
+     * {@code ClusterNode <nodeId> <port>}, the buildings are configured by {@code bakery.buildings}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: ClusterNode <nodeId> <port>");
+            System.exit(2);
+        }
+        final var buildingRepository = new FixedSetBuildingRepositoryFactory().create(Configuration.load());
+        try (var node = start(args[0], new InetSocketAddress("localhost", Integer.parseInt(args[1])), buildingRepository)) {
+            System.out.printf("ClusterNode %s listening on %s:%d%n",
+                    node.nodeId(), node.address().getHostString(), node.address().getPort());
+            System.out.flush();
+            while (System.in.read() >= 0) {
+                // runs until the parent process closes the input
+            }
+        }
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public InetSocketAddress address() {
+        return server.address();
+    }
+
+    public PancakeService pancakeService() {
+        return pancakeService;
+    }
+
+    public ConsistentHashRing ring() {
+        return ring;
+    }
+
+    /**
+     * @return the amount of orders held by the node
+     */
+    public int orderCount() {
+        return repository.orderIds().size();
+    }
+
+    @Override
+    public void importOrder(PancakesOrderSnapshot order) {
+        ParameterArguments.requireNotNullParameterArgument(order, "order");
+        if (repository.restore(order).isEmpty()) {
+            logger.info("Node {} holds order {} already, it was imported before.", nodeId, order.id());
+        }
+    }
+
+    @Override
+    public synchronized void updateMembers(Map<String, InetSocketAddress> members) {
+        ParameterArguments.requireNotNullParameterArgument(members, "members");
+        this.members = Map.copyOf(members);
+        this.ring = ConsistentHashRing.of(members.keySet(), VIRTUAL_NODES);
+        rebalance();
+    }
+
+    @Override
+    public Map<String, InetSocketAddress> members() {
+        return members;
+    }
+
+    @Override
+    public boolean owns(UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        final var current = ring;
+        return current.nodeIds().isEmpty() || nodeId.equals(current.ownerOf(orderId));
+    }
+
+    @Override
+    public void close() {
+        server.close();
+    }
+
+    private UUID nextOrderId() {
+        final var current = ring;
+        if (!current.contains(nodeId)) {
+            // leaving the cluster, the order moves with the others
+            return OrderIdGenerator.random().nextId();
+        }
+        UUID orderId;
+        do {
+            orderId = OrderIdGenerator.random().nextId();
+        } while (!nodeId.equals(current.ownerOf(orderId)));
+        return orderId;
+    }
+
+    /**
+     * Moves the orders owned by the other members, the imports of an owner are pipelined on one connection.
+     */
+    private void rebalance() {
+        final var current = ring;
+        if (current.nodeIds().isEmpty()) {
+            return;
+        }
+        final var peers = new HashMap<String, BinaryProtocolClient>();
+        final var imports = new LinkedHashMap<PancakesOrderSnapshot, CompletableFuture<Void>>();
+        try {
+            for (final var orderId : repository.orderIds()) {
+                final var owner = current.ownerOf(orderId);
+                if (owner.equals(nodeId)) {
+                    continue;
+                }
+                final var removed = repository.remove(orderId);
+                if (removed.isEmpty()) {
+                    continue;
+                }
+                final var order = removed.get().snapshot();
+                try {
+                    imports.put(order, peers.computeIfAbsent(owner, this::connect).importOrderAsync(order));
+                } catch (RuntimeException e) {
+                    imports.put(order, CompletableFuture.failedFuture(e));
+                }
+            }
+            final var failedByOwner = new HashMap<String, List<PancakesOrderSnapshot>>();
+            for (final var moving : imports.entrySet()) {
+                try {
+                    moving.getValue().join();
+                } catch (CompletionException e) {
+                    failedByOwner.computeIfAbsent(current.ownerOf(moving.getKey().id()), owner -> new ArrayList<>())
+                            .add(moving.getKey());
+                }
+            }
+            int failed = 0;
+            for (final var owner : failedByOwner.entrySet()) {
+                failed += importAgain(owner.getKey(), owner.getValue());
+            }
+            logger.info("Node {} moved {} orders to the members {}, {} failed.",
+                    nodeId, imports.size() - failed, current.nodeIds(), failed);
+        } finally {
+            peers.values().forEach(BinaryProtocolClient::close);
+        }
+    }
+
+    /**
+     * Sends the failed imports again on a new connection, the owner confirms the orders it imported already.
+     * The orders the owner does not confirm are restored.
+     *
+     * @return the amount of restored orders
+     */
+    private int importAgain(String owner, List<PancakesOrderSnapshot> orders) {
+        final var imports = new LinkedHashMap<PancakesOrderSnapshot, CompletableFuture<Void>>();
+        BinaryProtocolClient client = null;
+        try {
+            client = connect(owner);
+            for (final var order : orders) {
+                imports.put(order, client.importOrderAsync(order));
+            }
+        } catch (RuntimeException e) {
+            orders.forEach(order -> imports.putIfAbsent(order, CompletableFuture.failedFuture(e)));
+        }
+        int restored = 0;
+        try {
+            for (final var moving : imports.entrySet()) {
+                try {
+                    moving.getValue().join();
+                } catch (CompletionException e) {
+                    logger.warn("Node {} failed to move order {} to node {}.",
+                            nodeId, moving.getKey().id(), owner, e.getCause());
+                    repository.restore(moving.getKey());
+                    restored++;
+                }
+            }
+        } finally {
+            if (client != null) {
+                client.close();
+            }
+        }
+        return restored;
+    }
+
+    private BinaryProtocolClient connect(String owner) {
+        final var address = members.get(owner);
+        try {
+            return BinaryProtocolClient.connect(address);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to connect to node %s at %s.".formatted(owner, address), e);
+        }
+    }
+}
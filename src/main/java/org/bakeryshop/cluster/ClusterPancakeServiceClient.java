@@ -0,0 +1,404 @@
+package org.bakeryshop.cluster;
+
+import org.bakeryshop.api.binary.BinaryProtocolClient;
+import org.bakeryshop.api.binary.WrongOwnerException;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.service.PancakeOrderOperations;
+import org.bakeryshop.service.usecase.cancel.CancelOrderResult;
+import org.bakeryshop.service.usecase.complete.CompleteOrderResult;
+import org.bakeryshop.service.usecase.create.CreateOrderResult;
+import org.bakeryshop.service.usecase.delivery.BatchDeliveryResult;
+import org.bakeryshop.service.usecase.delivery.OrderDeliveryResult;
+import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
+import org.bakeryshop.service.usecase.pancake.RemovePancakeResult;
+import org.bakeryshop.service.usecase.prepare.PrepareOrderResult;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * The {@link PancakeOrderOperations} of a cluster of {@link ClusterNode}s, sending every call to the node owning its order.
+ * <p>
+ * The new orders are created round robin, the node picks an id it owns. The idempotent creations go to the node
+ * owning the hash of their request id, so the duplicates meet their original, the other idempotent requests are
+ * remembered by the node owning their order, until it moves. The batch deliveries are split by owner and their results
+ * merged, the listings are the union of the listings of all nodes.
+ * <p>
+ * {@link #join(String, InetSocketAddress)} and {@link #leave(String)} send the new members to every old and new node,
+ * which move their orders to the new owners before answering, then route the following calls by the new members.
+ * The membership is changed by one client at a time. The other clients learn the new members when a node answers
+ * {@code wrong_owner}: they fetch the members from that node and send the call again, up to {@value #MAX_ATTEMPTS}
+ * times in all. The blocking hand-offs and the order listeners are not offered, as by {@link BinaryProtocolClient}.
+ */
+public final class ClusterPancakeServiceClient implements PancakeOrderOperations, AutoCloseable {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private final AtomicInteger nextNode = new AtomicInteger();
+
+    private volatile Topology topology;
+
+    private ClusterPancakeServiceClient(Topology topology) {
+        this.topology = topology;
+    }
+
+    /**
+     * Connects to the nodes and sends them their members.
+     *
+     * @param members The addresses of the nodes by node id
+     */
+    public static ClusterPancakeServiceClient connect(Map<String, InetSocketAddress> members) {
+        ParameterArguments.requireNotNullParameterArgument(members, "members");
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("Cluster should have a node.");
+        }
+        final var topology = Topology.connect(members, Topology.EMPTY);
+        try {
+            topology.updateMembers(topology.clients.values());
+        } catch (RuntimeException e) {
+            topology.close(Map.of());
+            throw e;
+        }
+        return new ClusterPancakeServiceClient(topology);
+    }
+
+    /**
+     * Adds a node, the members move the orders it owns to it.
+     */
+    public synchronized void join(String nodeId, InetSocketAddress address) {
+        ParameterArguments.requireNotBlankParameterArgument(nodeId, "nodeId");
+        ParameterArguments.requireNotNullParameterArgument(address, "address");
+        final var members = new HashMap<>(topology.members);
+        members.put(nodeId, address);
+        changeMembers(members);
+    }
+
+    /**
+     * Removes a node, it moves its orders to the remaining members.
+     */
+    public synchronized void leave(String nodeId) {
+        ParameterArguments.requireNotNullParameterArgument(nodeId, "nodeId");
+        if (!topology.members.containsKey(nodeId)) {
+            throw new IllegalArgumentException("Node %s is not a member.".formatted(nodeId));
+        }
+        if (topology.members.size() == 1) {
+            throw new IllegalArgumentException("Node %s is the last member.".formatted(nodeId));
+        }
+        final var members = new HashMap<>(topology.members);
+        members.remove(nodeId);
+        changeMembers(members);
+    }
+
+    /**
+     * @return the members by node id
+     */
+    public Map<String, InetSocketAddress> members() {
+        return topology.members;
+    }
+
+    public ConsistentHashRing ring() {
+        return topology.ring;
+    }
+
+    private void changeMembers(Map<String, InetSocketAddress> members) {
+        final var previous = topology;
+        final var next = Topology.connect(members, previous);
+        final var notified = new ArrayList<>(next.clients.values());
+        previous.clients.forEach((nodeId, client) -> {
+            if (!members.containsKey(nodeId)) {
+                notified.add(client);
+            }
+        });
+        try {
+            next.updateMembers(notified);
+        } catch (RuntimeException e) {
+            next.close(previous.clients);
+            throw e;
+        }
+        topology = next;
+        previous.close(next.clients);
+    }
+
+    @Override
+    public CreateOrderResult createOrder(int buildingNr, int room) {
+        final var current = topology;
+        final var nodeIds = current.ring.nodeIds().toArray(String[]::new);
+        final var nodeId = nodeIds[Math.floorMod(nextNode.getAndIncrement(), nodeIds.length)];
+        return current.clients.get(nodeId).createOrder(buildingNr, room);
+    }
+
+    @Override
+    public CreateOrderResult createOrder(String requestId, int buildingNr, int room) {
+        ParameterArguments.requireNotBlankParameterArgument(requestId, "requestId");
+        final var requestKey = UUID.nameUUIDFromBytes(requestId.getBytes(StandardCharsets.UTF_8));
+        return ownerOf(requestKey).createOrder(requestId, buildingNr, room);
+    }
+
+    @Override
+    public AddPancakeResult addPancakes(UUID orderId, int count, Set<PancakeIngredient> ingredients) {
+        return route(orderId, node -> node.addPancakes(orderId, count, ingredients));
+    }
+
+    @Override
+    public AddPancakeResult addPancakes(String requestId, UUID orderId, int count, Set<PancakeIngredient> ingredients) {
+        return route(orderId, node -> node.addPancakes(requestId, orderId, count, ingredients));
+    }
+
+    @Override
+    public RemovePancakeResult removePancakes(UUID orderId, String description, int count) {
+        return route(orderId, node -> node.removePancakes(orderId, description, count));
+    }
+
+    @Override
+    public RemovePancakeResult removePancakes(String requestId, UUID orderId, String description, int count) {
+        return route(orderId, node -> node.removePancakes(requestId, orderId, description, count));
+    }
+
+    @Override
+    public CancelOrderResult cancelOrder(UUID orderId) {
+        return route(orderId, node -> node.cancelOrder(orderId));
+    }
+
+    @Override
+    public CancelOrderResult cancelOrder(String requestId, UUID orderId) {
+        return route(orderId, node -> node.cancelOrder(requestId, orderId));
+    }
+
+    @Override
+    public CompleteOrderResult completeOrder(UUID orderId) {
+        return route(orderId, node -> node.completeOrder(orderId));
+    }
+
+    @Override
+    public CompleteOrderResult completeOrder(String requestId, UUID orderId) {
+        return route(orderId, node -> node.completeOrder(requestId, orderId));
+    }
+
+    @Override
+    public PrepareOrderResult prepareOrder(UUID orderId) {
+        return route(orderId, node -> node.prepareOrder(orderId));
+    }
+
+    @Override
+    public PrepareOrderResult prepareOrder(String requestId, UUID orderId) {
+        return route(orderId, node -> node.prepareOrder(requestId, orderId));
+    }
+
+    @Override
+    public OrderDeliveryResult deliverOrder(UUID orderId) {
+        return route(orderId, node -> node.deliverOrder(orderId));
+    }
+
+    @Override
+    public OrderDeliveryResult deliverOrder(String requestId, UUID orderId) {
+        return route(orderId, node -> node.deliverOrder(requestId, orderId));
+    }
+
+    @Override
+    public BatchDeliveryResult deliverOrders(Collection<UUID> orderIds) {
+        return deliverOrders(orderIds, (client, ownedIds) -> client.deliverOrdersAsync(null, ownedIds));
+    }
+
+    @Override
+    public BatchDeliveryResult deliverOrders(String requestId, Collection<UUID> orderIds) {
+        ParameterArguments.requireNotBlankParameterArgument(requestId, "requestId");
+        return deliverOrders(orderIds, (client, ownedIds) -> client.deliverOrdersAsync(requestId, ownedIds));
+    }
+
+    @Override
+    public List<String> viewOrder(UUID orderId) {
+        return route(orderId, node -> node.viewOrder(orderId));
+    }
+
+    @Override
+    public Set<UUID> listCompletedOrders() {
+        return union(BinaryProtocolClient::listCompletedOrdersAsync);
+    }
+
+    @Override
+    public Set<UUID> listPreparedOrders() {
+        return union(BinaryProtocolClient::listPreparedOrdersAsync);
+    }
+
+    @Override
+    public synchronized void close() {
+        topology.close(Map.of());
+    }
+
+    private BinaryProtocolClient ownerOf(UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        final var current = topology;
+        return current.clients.get(current.ring.ownerOf(orderId));
+    }
+
+    /**
+     * Calls the owner of the order, by the members fetched from the node answering {@code wrong_owner}.
+     */
+    private <R> R route(UUID orderId, Function<BinaryProtocolClient, R> call) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        for (int attempt = 1; ; attempt++) {
+            final var current = topology;
+            final var owner = current.clients.get(current.ring.ownerOf(orderId));
+            try {
+                return call.apply(owner);
+            } catch (WrongOwnerException e) {
+                if (attempt == MAX_ATTEMPTS || !refreshMembers(current, owner)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the members by the ones of the node, unless they were replaced since the stale topology was read.
+     *
+     * @return false when the node has the same members, so calling again would not help
+     */
+    private synchronized boolean refreshMembers(Topology stale, BinaryProtocolClient node) {
+        if (topology != stale) {
+            return true;
+        }
+        final var members = node.members();
+        if (members.isEmpty() || members.equals(stale.members)) {
+            return false;
+        }
+        final var next = Topology.connect(members, stale);
+        topology = next;
+        stale.close(next.clients);
+        return true;
+    }
+
+    private BatchDeliveryResult deliverOrders(
+            Collection<UUID> orderIds,
+            BiFunction<BinaryProtocolClient, List<UUID>, CompletableFuture<BatchDeliveryResult>> delivery) {
+        ParameterArguments.requireNotNullParameterArgument(orderIds, "orderIds");
+        orderIds.forEach(orderId -> ParameterArguments.requireNotNullParameterArgument(orderId, "orderId"));
+        final var deliveredOrders = new ArrayList<PancakesOrderSnapshot>(orderIds.size());
+        final var failures = new HashMap<UUID, OrderDeliveryResult.OrderDeliveryFailure>();
+        Collection<UUID> pending = orderIds;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            final var current = topology;
+            final var orderIdsByOwner = new HashMap<String, List<UUID>>();
+            for (final var orderId : pending) {
+                orderIdsByOwner.computeIfAbsent(current.ring.ownerOf(orderId), owner -> new ArrayList<>()).add(orderId);
+            }
+            final var results = new HashMap<String, CompletableFuture<BatchDeliveryResult>>(orderIdsByOwner.size());
+            orderIdsByOwner.forEach((owner, ownedIds) -> results.put(owner, delivery.apply(current.clients.get(owner), ownedIds)));
+            // a node refuses its whole batch, the batches of the other nodes are delivered
+            final var misrouted = new ArrayList<UUID>();
+            WrongOwnerException wrongOwner = null;
+            BinaryProtocolClient answered = null;
+            for (final var result : results.entrySet()) {
+                try {
+                    final var delivered = join(result.getValue());
+                    deliveredOrders.addAll(delivered.deliveredOrders());
+                    failures.putAll(delivered.failures());
+                } catch (WrongOwnerException e) {
+                    misrouted.addAll(orderIdsByOwner.get(result.getKey()));
+                    wrongOwner = e;
+                    answered = current.clients.get(result.getKey());
+                }
+            }
+            if (wrongOwner != null && (attempt == MAX_ATTEMPTS || !refreshMembers(current, answered))) {
+                throw wrongOwner;
+            }
+            pending = misrouted;
+        }
+        deliveredOrders.sort(Comparator.comparingInt((PancakesOrderSnapshot order) -> order.address().buildingNr())
+                .thenComparingInt(order -> order.address().room()));
+        return new BatchDeliveryResult(deliveredOrders, failures);
+    }
+
+    private Set<UUID> union(Function<BinaryProtocolClient, CompletableFuture<Set<UUID>>> listing) {
+        final var listings = topology.clients.values().stream().map(listing).toList();
+        final var orderIds = new HashSet<UUID>();
+        for (final var result : listings) {
+            orderIds.addAll(join(result));
+        }
+        return Collections.unmodifiableSet(orderIds);
+    }
+
+    private static <R> R join(CompletableFuture<R> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The members, their ring and a client per member, replaced as a whole when the members change.
+     */
+    private record Topology(
+            Map<String, InetSocketAddress> members,
+            ConsistentHashRing ring,
+            Map<String, BinaryProtocolClient> clients
+    ) {
+
+        static final Topology EMPTY = new Topology(Map.of(), ConsistentHashRing.of(Set.of(), 1), Map.of());
+
+        /**
+         * @param previous The topology whose clients are reused for the members at the same address
+         */
+        static Topology connect(Map<String, InetSocketAddress> members, Topology previous) {
+            final var clients = new HashMap<String, BinaryProtocolClient>();
+            try {
+                members.forEach((nodeId, address) -> clients.put(nodeId, address.equals(previous.members.get(nodeId))
+                        ? previous.clients.get(nodeId)
+                        : connect(nodeId, address)));
+            } catch (RuntimeException e) {
+                clients.forEach((nodeId, client) -> {
+                    if (previous.clients.get(nodeId) != client) {
+                        client.close();
+                    }
+                });
+                throw e;
+            }
+            return new Topology(
+                    Map.copyOf(members),
+                    ConsistentHashRing.of(members.keySet(), ClusterNode.VIRTUAL_NODES),
+                    Map.copyOf(clients)
+            );
+        }
+
+        private static BinaryProtocolClient connect(String nodeId, InetSocketAddress address) {
+            try {
+                return BinaryProtocolClient.connect(address);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to connect to node %s at %s.".formatted(nodeId, address), e);
+            }
+        }
+
+        /**
+         * Sends the members to the nodes at once and waits for all of them, so they move their orders concurrently.
+         */
+        void updateMembers(Collection<BinaryProtocolClient> nodes) {
+            final var updates = nodes.stream().map(node -> node.updateMembersAsync(members)).toList();
+            updates.forEach(ClusterPancakeServiceClient::join);
+        }
+
+        /**
+         * Closes the clients, except the ones kept by the next topology.
+         */
+        void close(Map<String, BinaryProtocolClient> kept) {
+            clients.forEach((nodeId, client) -> {
+                if (kept.get(nodeId) != client) {
+                    client.close();
+                }
+            });
+        }
+    }
+}
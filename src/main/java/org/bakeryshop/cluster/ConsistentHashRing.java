@@ -0,0 +1,126 @@
+package org.bakeryshop.cluster;
+
+import org.bakeryshop.util.ParameterArguments;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Immutable consistent hash ring assigning the order ids to the nodes of a cluster.
+ * <p>
+ * Every node is placed on the ring at {@code virtualNodes} points, an order id belongs to the node of the first point
+ * at or after its hash, wrapping around. The points are held as a sorted {@code long[]} with the owner of each point
+ * in a parallel array, so {@link #ownerOf(UUID)} is a binary search without allocation.
+ * Adding or removing a node only moves the order ids of the points it takes or gives back, about
+ * {@code 1 / nodes} of all ids.
+ */
+public final class ConsistentHashRing {
+
+    private final int virtualNodes;
+    private final Set<String> nodeIds;
+    private final long[] points;
+    private final String[] owners;
+
+    private ConsistentHashRing(Set<String> nodeIds, int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+        this.nodeIds = Collections.unmodifiableSet(new TreeSet<>(nodeIds));
+        final var ring = new TreeMap<Long, String>();
+        for (final var nodeId : this.nodeIds) {
+            final long nodeHash = hashOf(nodeId);
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                final long point = mix(nodeHash + replica * 0x9E3779B97F4A7C15L);
+                // on the unlikely collision of two points the lower node id keeps it, on every member alike
+                ring.putIfAbsent(point, nodeId);
+            }
+        }
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        int index = 0;
+        for (final var point : ring.entrySet()) {
+            points[index] = point.getKey();
+            owners[index] = point.getValue();
+            index++;
+        }
+    }
+
+    /**
+     * @param nodeIds      The ids of the nodes, the same set builds the same ring on every member
+     * @param virtualNodes The amount of points of every node, more points spread the ids more evenly
+     */
+    public static ConsistentHashRing of(Collection<String> nodeIds, int virtualNodes) {
+        ParameterArguments.requireNotNullParameterArgument(nodeIds, "nodeIds");
+        ParameterArguments.requirePositiveParameterArgument(virtualNodes, "virtualNodes");
+        for (final var nodeId : nodeIds) {
+            ParameterArguments.requireNotBlankParameterArgument(nodeId, "nodeId");
+        }
+        return new ConsistentHashRing(new HashSet<>(nodeIds), virtualNodes);
+    }
+
+    /**
+     * @return the id of the node owning the order
+     * @throws IllegalStateException when the ring has no node
+     */
+    public String ownerOf(UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        if (points.length == 0) {
+            throw new IllegalStateException("Ring has no node.");
+        }
+        final long hash = mix(mix(orderId.getMostSignificantBits()) ^ orderId.getLeastSignificantBits());
+        final int index = Arrays.binarySearch(points, hash);
+        final int point = index >= 0 ? index : -index - 1;
+        return owners[point == points.length ? 0 : point];
+    }
+
+    public boolean contains(String nodeId) {
+        return nodeIds.contains(nodeId);
+    }
+
+    /**
+     * @return the ids of the nodes, sorted
+     */
+    public Set<String> nodeIds() {
+        return nodeIds;
+    }
+
+    public int virtualNodes() {
+        return virtualNodes;
+    }
+
+    public ConsistentHashRing withNode(String nodeId) {
+        ParameterArguments.requireNotBlankParameterArgument(nodeId, "nodeId");
+        final var joined = new HashSet<>(nodeIds);
+        joined.add(nodeId);
+        return new ConsistentHashRing(joined, virtualNodes);
+    }
+
+    public ConsistentHashRing withoutNode(String nodeId) {
+        ParameterArguments.requireNotNullParameterArgument(nodeId, "nodeId");
+        final var left = new HashSet<>(nodeIds);
+        left.remove(nodeId);
+        return new ConsistentHashRing(left, virtualNodes);
+    }
+
+    /**
+     * FNV-1a of the UTF-8 bytes, so the hash does not depend on {@link String#hashCode()} of the runtime.
+     */
+    private static long hashOf(String nodeId) {
+        long hash = 0xCBF29CE484222325L;
+        for (final byte b : nodeId.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * The 64 bit finalizer of MurmurHash3, spreading close inputs over the whole ring.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
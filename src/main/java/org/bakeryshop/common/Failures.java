@@ -9,4 +9,6 @@ public final class Failures {
 
     public static final Failure ORDER_NOT_FOUND = Failure.of("order_not_found", "Order is missing");
     public static final Failure INVALID_ADDRESS = Failure.of("invalid_address", "Invalid address");
+    public static final Failure OVERLOADED = Failure.of("overloaded", "Service is overloaded, retry later");
+    public static final Failure INSUFFICIENT_STOCK = Failure.of("insufficient_stock", "Ingredients are out of stock");
 }
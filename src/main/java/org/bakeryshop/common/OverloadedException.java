@@ -0,0 +1,8 @@
+package org.bakeryshop.common;
+
+public class OverloadedException extends RuntimeException {
+
+    public OverloadedException(String message) {
+        super(message);
+    }
+}
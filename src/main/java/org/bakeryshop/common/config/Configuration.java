@@ -0,0 +1,149 @@
+package org.bakeryshop.common.config;
+
+import org.bakeryshop.util.ParameterArguments;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Immutable string properties with typed getters, the keys share the {@value #PREFIX} prefix.
+ * <p>
+ * {@link #load()} reads the {@value #RESOURCE} class path resource, then the file of the {@value #FILE_PROPERTY}
+ * system property and then the system properties having the prefix, a later source overriding an earlier one.
+ */
+public final class Configuration {
+
+    public static final String PREFIX = "bakery.";
+    public static final String RESOURCE = "bakery-shop.properties";
+    public static final String FILE_PROPERTY = PREFIX + "config";
+
+    private final Map<String, String> properties;
+
+    private Configuration(Map<String, String> properties) {
+        this.properties = Map.copyOf(properties);
+    }
+
+    public static Configuration of(Map<String, String> properties) {
+        ParameterArguments.requireNotNullParameterArgument(properties, "properties");
+        return new Configuration(properties);
+    }
+
+    public static Configuration load() {
+        final var properties = new HashMap<String, String>();
+        try (var resource = Configuration.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (resource != null) {
+                putAll(properties, resource);
+            }
+            final var file = System.getProperty(FILE_PROPERTY);
+            if (file != null) {
+                try (var input = Files.newInputStream(Path.of(file))) {
+                    putAll(properties, input);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the configuration.", e);
+        }
+        System.getProperties().forEach((key, value) -> {
+            if (key instanceof String name && name.startsWith(PREFIX) && !name.equals(FILE_PROPERTY)) {
+                properties.put(name, (String) value);
+            }
+        });
+        return new Configuration(properties);
+    }
+
+    public Optional<String> get(String key) {
+        return Optional.ofNullable(properties.get(requireKey(key)));
+    }
+
+    public String getString(String key, String defaultValue) {
+        return get(key).map(String::trim).orElse(defaultValue);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the value is not a positive integer
+     */
+    public int getPositiveInt(String key, int defaultValue) {
+        final var value = get(key).map(String::trim).orElse(null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            final int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Property '%s' should be a positive integer, but was '%s'.".formatted(key, value));
+    }
+
+    /**
+     * @param key The key of a duration in milliseconds, ending with {@code Millis} by convention
+     * @throws IllegalArgumentException when the value is not a positive amount of milliseconds
+     */
+    public Duration getMillis(String key, Duration defaultValue) {
+        return get(key).isPresent()
+                ? Duration.ofMillis(getPositiveInt(key, 0))
+                : defaultValue;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the value is neither {@code true} nor {@code false}
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        final var value = get(key).map(String::trim).orElse(null);
+        if (value == null) {
+            return defaultValue;
+        }
+        return switch (value) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw new IllegalArgumentException(
+                    "Property '%s' should be true or false, but was '%s'.".formatted(key, value));
+        };
+    }
+
+    /**
+     * @return the configuration in which the properties of the {@code bakery.<scope>.} prefix override the unscoped ones,
+     * e.g. {@code bakery.tenant.north.orders.lockTimeoutMillis} overrides {@code bakery.orders.lockTimeoutMillis}
+     */
+    public Configuration scoped(String scope) {
+        ParameterArguments.requireNotBlankParameterArgument(scope, "scope");
+        final var scopePrefix = PREFIX + scope + ".";
+        final var scoped = new HashMap<>(properties);
+        properties.forEach((key, value) -> {
+            if (key.startsWith(scopePrefix)) {
+                scoped.put(PREFIX + key.substring(scopePrefix.length()), value);
+            }
+        });
+        return new Configuration(scoped);
+    }
+
+    @Override
+    public String toString() {
+        return "Configuration" + properties;
+    }
+
+    private static String requireKey(String key) {
+        ParameterArguments.requireNotBlankParameterArgument(key, "key");
+        if (!key.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Key '%s' should start with '%s'.".formatted(key, PREFIX));
+        }
+        return key;
+    }
+
+    private static void putAll(Map<String, String> properties, InputStream input) throws IOException {
+        final var loaded = new Properties();
+        loaded.load(input);
+        loaded.stringPropertyNames().forEach(name -> properties.put(name, loaded.getProperty(name)));
+    }
+}
@@ -0,0 +1,44 @@
+package org.bakeryshop.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.util.UUID;
+
+/**
+ * Flight recorder event of a lock of an order not acquired within the lock timeout, disabled by default.
+ * <p>
+ * Recorded regardless of the threshold of {@link OrderLockWaitEvent}, with the stack trace of the waiting thread.
+ */
+@Name(OrderLockTimeoutEvent.NAME)
+@Label("Order Lock Timeout")
+@Category({"Bakery Shop", "Locks"})
+@Description("The read or write lock of an order was not acquired within the lock timeout")
+@Enabled(false)
+public final class OrderLockTimeoutEvent extends Event {
+
+    public static final String NAME = "org.bakeryshop.OrderLockTimeout";
+
+    @Label("Order Id")
+    private String orderId;
+
+    @Label("Lock")
+    @Description("read or write")
+    private String lock;
+
+    @Label("Lock Timeout")
+    @Timespan(Timespan.MILLISECONDS)
+    private long lockTimeout;
+
+    public void commit(UUID orderId, String lock, long lockTimeoutMillis) {
+        this.orderId = orderId == null ? null : orderId.toString();
+        this.lock = lock;
+        this.lockTimeout = lockTimeoutMillis;
+        commit();
+    }
+}
@@ -0,0 +1,47 @@
+package org.bakeryshop.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import java.util.UUID;
+
+/**
+ * Flight recorder event of waiting for the lock of an order, disabled by default.
+ * <p>
+ * Like {@code jdk.JavaMonitorEnter}, only the waits longer than the threshold are recorded.
+ */
+@Name(OrderLockWaitEvent.NAME)
+@Label("Order Lock Wait")
+@Category({"Bakery Shop", "Locks"})
+@Description("Waiting for the read or write lock of an order")
+@Enabled(false)
+@Threshold("10 ms")
+@StackTrace(false)
+public final class OrderLockWaitEvent extends Event {
+
+    public static final String NAME = "org.bakeryshop.OrderLockWait";
+
+    @Label("Order Id")
+    private String orderId;
+
+    @Label("Lock")
+    @Description("read or write")
+    private String lock;
+
+    @Label("Acquired")
+    @Description("False when the wait timed out")
+    private boolean acquired;
+
+    public void commit(UUID orderId, String lock, boolean acquired) {
+        this.orderId = orderId == null ? null : orderId.toString();
+        this.lock = lock;
+        this.acquired = acquired;
+        commit();
+    }
+}
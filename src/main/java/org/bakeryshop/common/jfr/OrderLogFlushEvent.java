@@ -0,0 +1,31 @@
+package org.bakeryshop.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event of writing the buffered order log of an operation, disabled by default.
+ */
+@Name(OrderLogFlushEvent.NAME)
+@Label("Order Log Flush")
+@Category({"Bakery Shop", "Logging"})
+@Description("Writing the buffered order log of an operation")
+@Enabled(false)
+@StackTrace(false)
+public final class OrderLogFlushEvent extends Event {
+
+    public static final String NAME = "org.bakeryshop.OrderLogFlush";
+
+    @Label("Characters")
+    private int characters;
+
+    public void commit(int characters) {
+        this.characters = characters;
+        commit();
+    }
+}
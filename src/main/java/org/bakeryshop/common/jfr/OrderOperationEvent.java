@@ -0,0 +1,61 @@
+package org.bakeryshop.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * Flight recorder event of a {@link org.bakeryshop.service.PancakeService} operation, disabled by default.
+ * <p>
+ * Enable it with {@code jfr configure +org.bakeryshop.OrderOperation#enabled=true}
+ * or {@code -XX:StartFlightRecording:settings=<file>} listing {@value #NAME}.
+ */
+@Name(OrderOperationEvent.NAME)
+@Label("Order Operation")
+@Category({"Bakery Shop", "Orders"})
+@Description("Execution of a pancake service operation")
+@Enabled(false)
+@StackTrace(false)
+public final class OrderOperationEvent extends Event {
+
+    public static final String NAME = "org.bakeryshop.OrderOperation";
+
+    /**
+     * The outcome of the operations completed without failure.
+     */
+    public static final String SUCCESS = "success";
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Order Id")
+    @Description("Empty for the operations not addressing a single order")
+    private String orderId;
+
+    @Label("Building")
+    @Description("Zero when the order is unknown")
+    private int buildingNr;
+
+    @Label("Pancakes")
+    @Description("The pancakes of the order after the operation, the delivered pancakes of a batch delivery")
+    private int pancakes;
+
+    @Label("Outcome")
+    @Description("success, the failure code or the class of the thrown exception")
+    private String outcome;
+
+    public void commit(String operation, UUID orderId, int buildingNr, int pancakes, String outcome) {
+        this.operation = operation;
+        this.orderId = orderId == null ? null : orderId.toString();
+        this.buildingNr = buildingNr;
+        this.pancakes = pancakes;
+        this.outcome = outcome;
+        commit();
+    }
+}
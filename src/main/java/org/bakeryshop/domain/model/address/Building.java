@@ -2,7 +2,9 @@ package org.bakeryshop.domain.model.address;
 
 import org.bakeryshop.util.ParameterArguments;
 
-public record Building(int buildingNr, int amountOfRooms) {
+import java.io.Serializable;
+
+public record Building(int buildingNr, int amountOfRooms) implements Serializable {
 
     public Building {
         ParameterArguments.requirePositiveParameterArgument(buildingNr, "buildingNr");
@@ -2,7 +2,9 @@ package org.bakeryshop.domain.model.address;
 
 import org.bakeryshop.util.ParameterArguments;
 
-public record OrderAddress(Building building, int room) {
+import java.io.Serializable;
+
+public record OrderAddress(Building building, int room) implements Serializable {
 
     public OrderAddress {
         ParameterArguments.requireNotNullParameterArgument(building, "building");
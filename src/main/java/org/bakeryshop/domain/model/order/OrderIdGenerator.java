@@ -0,0 +1,28 @@
+package org.bakeryshop.domain.model.order;
+
+import java.util.UUID;
+
+/**
+ * Generates the ids of the new orders, unique across all threads.
+ */
+@FunctionalInterface
+public interface OrderIdGenerator {
+
+    /**
+     * @return the time ordered ids of {@link TimeOrderedOrderIdGenerator}, guessable by whoever saw an id of the same
+     * moment, so they are to be opted in only where the order ids are not secret
+     */
+    static OrderIdGenerator timeOrdered() {
+        return TimeOrderedOrderIdGenerator.INSTANCE;
+    }
+
+    /**
+     * @return the random ids of {@link UUID#randomUUID()}, drawn from a shared {@link java.security.SecureRandom},
+     * the default
+     */
+    static OrderIdGenerator random() {
+        return UUID::randomUUID;
+    }
+
+    UUID nextId();
+}
@@ -8,8 +8,11 @@ import org.bakeryshop.util.ParameterArguments;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public interface PancakesOrder {
 
@@ -18,13 +21,26 @@ public interface PancakesOrder {
         return new SimplePancakesOrder(pancakesOrder);
     }
 
+    /**
+     * @return the order of the snapshot, e.g. of an order moved from another node, keeping its id and state
+     */
+    static PancakesOrder restoredFrom(PancakesOrderSnapshot snapshot) {
+        ParameterArguments.requireNotNullParameterArgument(snapshot, "snapshot");
+        return new SimplePancakesOrder(snapshot);
+    }
+
     static PancakesOrder newOrder(Building building, int room) {
+        return newOrder(building, room, OrderIdGenerator.random());
+    }
+
+    static PancakesOrder newOrder(Building building, int room, OrderIdGenerator orderIdGenerator) {
         ParameterArguments.requireNotNullParameterArgument(building, "building");
         ParameterArguments.requirePositiveParameterArgument(room, "room");
+        ParameterArguments.requireNotNullParameterArgument(orderIdGenerator, "orderIdGenerator");
         if (!building.hasRoom(room)) {
             throw new IllegalArgumentException("Building does have such room '%d'".formatted(room));
         }
-        return new SimplePancakesOrder(new OrderAddress(building, room));
+        return new SimplePancakesOrder(new OrderAddress(building, room), orderIdGenerator.nextId());
     }
 
     static boolean equals(PancakesOrder thisOrder, PancakesOrder thatOrder) {
@@ -58,6 +74,16 @@ public interface PancakesOrder {
 
     PancakesOrder markAsCompleted();
 
+    /**
+     * Validates and modifies the order without interleaving with the other modifications of the order,
+     * both get this order.
+     *
+     * @param validation   The check of the order, returning the failure refusing the modification
+     * @param modification The modification applied when the validation did not fail
+     * @return the failure of the validation, empty when the order was modified
+     */
+    <F> Optional<F> modifyIf(Function<PancakesOrder, Optional<F>> validation, Consumer<PancakesOrder> modification);
+
     List<String> pancakeDescriptions();
 
     PancakesOrderSnapshot snapshot();
@@ -4,6 +4,7 @@ import org.bakeryshop.domain.model.address.OrderAddress;
 import org.bakeryshop.domain.model.pancakes.PancakeRecipe;
 import org.bakeryshop.util.ParameterArguments;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,7 +13,7 @@ public record PancakesOrderSnapshot(
         OrderState state,
         OrderAddress address,
         List<PancakeRecipe> pancakes
-) {
+) implements Serializable {
 
     public PancakesOrderSnapshot{
         pancakes = List.copyOf(pancakes);
@@ -0,0 +1,168 @@
+package org.bakeryshop.domain.model.order;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.address.OrderAddress;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.model.pancakes.PancakeRecipe;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Versioned binary encoding of a {@link PancakesOrderSnapshot}, written to and read from a {@link ByteBuffer}
+ * at its position:
+ * <pre>
+ * snapshot = version:int8 id:int64,int64 state:int8 buildingNr:varint amountOfRooms:varint room:varint runs:varint run*
+ * run      = ingredients:int8 count:varint
+ * </pre>
+ * The varints are unsigned LEB128, the ingredients the mask of {@link PancakeIngredient#maskOf(java.util.Set)}.
+ * Consecutive pancakes having the same ingredients are encoded as one run, so the order of the pancakes is kept.
+ * An order with a few kinds of pancakes takes about 30 bytes.
+ */
+public final class PancakesOrderSnapshotCodec {
+
+    public static final byte VERSION = 1;
+
+    /**
+     * The most pancakes of a decoded order, the runs of a few bytes would otherwise expand to any amount of pancakes.
+     */
+    public static final int MAX_PANCAKES = 1 << 16;
+
+    private static final OrderState[] ORDER_STATES = OrderState.values();
+
+    private PancakesOrderSnapshotCodec() {
+        super();
+    }
+
+    /**
+     * @return the amount of bytes {@link #encode(PancakesOrderSnapshot, ByteBuffer)} writes
+     */
+    public static int encodedLength(PancakesOrderSnapshot snapshot) {
+        ParameterArguments.requireNotNullParameterArgument(snapshot, "snapshot");
+        final var address = snapshot.address();
+        final var pancakes = snapshot.pancakes();
+        int length = 1 + 16 + 1
+                + varintLength(address.buildingNr())
+                + varintLength(address.building().amountOfRooms())
+                + varintLength(address.room());
+        int runs = 0;
+        for (int start = 0, end; start < pancakes.size(); start = end) {
+            end = endOfRun(pancakes, start);
+            length += 1 + varintLength(end - start);
+            runs++;
+        }
+        return length + varintLength(runs);
+    }
+
+    /**
+     * @throws BufferOverflowException when the buffer has less than {@link #encodedLength(PancakesOrderSnapshot)}
+     *                                 bytes remaining, nothing is written then
+     */
+    public static void encode(PancakesOrderSnapshot snapshot, ByteBuffer buffer) {
+        ParameterArguments.requireNotNullParameterArgument(buffer, "buffer");
+        if (buffer.remaining() < encodedLength(snapshot)) {
+            throw new BufferOverflowException();
+        }
+        final var address = snapshot.address();
+        final var pancakes = snapshot.pancakes();
+        buffer.put(VERSION)
+                .putLong(snapshot.id().getMostSignificantBits())
+                .putLong(snapshot.id().getLeastSignificantBits())
+                .put((byte) snapshot.state().ordinal());
+        putVarint(buffer, address.buildingNr());
+        putVarint(buffer, address.building().amountOfRooms());
+        putVarint(buffer, address.room());
+        putVarint(buffer, runs(pancakes));
+        for (int start = 0, end; start < pancakes.size(); start = end) {
+            end = endOfRun(pancakes, start);
+            buffer.put((byte) PancakeIngredient.maskOf(pancakes.get(start).ingredients()));
+            putVarint(buffer, end - start);
+        }
+    }
+
+    /**
+     * The pancakes of a run share one recipe instance, the recipes are immutable.
+     *
+     * @throws IllegalArgumentException         when the encoding has an unknown version or invalid values,
+     *                                          or more than {@value #MAX_PANCAKES} pancakes
+     * @throws java.nio.BufferUnderflowException when the encoding is truncated
+     */
+    public static PancakesOrderSnapshot decode(ByteBuffer buffer) {
+        ParameterArguments.requireNotNullParameterArgument(buffer, "buffer");
+        final byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unknown snapshot encoding version %d.".formatted(version));
+        }
+        final var id = new UUID(buffer.getLong(), buffer.getLong());
+        final int state = buffer.get();
+        if (state < 0 || state >= ORDER_STATES.length) {
+            throw new IllegalArgumentException("Unknown order state %d.".formatted(state));
+        }
+        final var building = new Building(getVarint(buffer), getVarint(buffer));
+        final var address = new OrderAddress(building, getVarint(buffer));
+        final int runs = getVarint(buffer);
+        final var pancakes = new ArrayList<PancakeRecipe>(Math.min(runs, buffer.remaining() / 2));
+        for (int run = 0; run < runs; run++) {
+            final var recipe = PancakeRecipe.of(id, PancakeIngredient.ofMask(buffer.get() & 0xFF));
+            final int count = getVarint(buffer);
+            if (count > MAX_PANCAKES - pancakes.size()) {
+                throw new IllegalArgumentException("Order has more than %d pancakes.".formatted(MAX_PANCAKES));
+            }
+            for (int i = 0; i < count; i++) {
+                pancakes.add(recipe);
+            }
+        }
+        return new PancakesOrderSnapshot(id, ORDER_STATES[state], address, pancakes);
+    }
+
+    static int varintLength(int value) {
+        return value == 0 ? 1 : (38 - Integer.numberOfLeadingZeros(value)) / 7;
+    }
+
+    static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the varint is longer than 5 bytes or negative
+     */
+    static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte next = buffer.get();
+            value |= (next & 0x7F) << shift;
+            if (next >= 0) {
+                if (value < 0) {
+                    throw new IllegalArgumentException("Negative varint %d.".formatted(value));
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is longer than 5 bytes.");
+    }
+
+    private static int runs(List<PancakeRecipe> pancakes) {
+        int runs = 0;
+        for (int start = 0; start < pancakes.size(); start = endOfRun(pancakes, start)) {
+            runs++;
+        }
+        return runs;
+    }
+
+    private static int endOfRun(List<PancakeRecipe> pancakes, int start) {
+        final var ingredients = pancakes.get(start).ingredients();
+        int end = start + 1;
+        while (end < pancakes.size() && pancakes.get(end).ingredients().equals(ingredients)) {
+            end++;
+        }
+        return end;
+    }
+}
@@ -7,6 +7,8 @@ import org.bakeryshop.service.OrderLog;
 import org.bakeryshop.util.ParameterArguments;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 final class SimplePancakesOrder implements PancakesOrder {
 
@@ -16,8 +18,13 @@ final class SimplePancakesOrder implements PancakesOrder {
     private final List<PancakeRecipe> pancakes;
 
     SimplePancakesOrder(OrderAddress address) {
+        this(address, OrderIdGenerator.random().nextId());
+    }
+
+    SimplePancakesOrder(OrderAddress address, UUID id) {
         ParameterArguments.requireNotNullParameterArgument(address, "order");
-        this.id = UUID.randomUUID();
+        ParameterArguments.requireNotNullParameterArgument(id, "id");
+        this.id = id;
         this.address = address;
         this.state = OrderState.NEW;
         this.pancakes = new ArrayList<>();
@@ -31,6 +38,14 @@ final class SimplePancakesOrder implements PancakesOrder {
         this.pancakes = new ArrayList<>(pancakesOrder.getPancakes());
     }
 
+    SimplePancakesOrder(PancakesOrderSnapshot snapshot) {
+        ParameterArguments.requireNotNullParameterArgument(snapshot, "snapshot");
+        this.id = snapshot.id();
+        this.address = snapshot.address();
+        this.state = snapshot.state();
+        this.pancakes = new ArrayList<>(snapshot.pancakes());
+    }
+
     @Override
     public SimplePancakesOrder addPancakes(int count, Set<PancakeIngredient> ingredients) {
         for (int i = 0; i < count; i++) {
@@ -101,6 +116,15 @@ final class SimplePancakesOrder implements PancakesOrder {
         return this;
     }
 
+    @Override
+    public <F> Optional<F> modifyIf(Function<PancakesOrder, Optional<F>> validation, Consumer<PancakesOrder> modification) {
+        final var failure = validation.apply(this);
+        if (failure.isEmpty()) {
+            modification.accept(this);
+        }
+        return failure;
+    }
+
     @Override
     public UUID getId() {
         return id;
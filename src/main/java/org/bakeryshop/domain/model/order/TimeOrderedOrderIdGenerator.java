@@ -0,0 +1,67 @@
+package org.bakeryshop.domain.model.order;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates UUID version 7 ids: the Unix epoch milliseconds in the 48 high bits, a 12 bit counter
+ * and 62 random bits, so the ids sort by creation time and new ids are appended to a sorted index.
+ * <p>
+ * Every thread has its own clock and counter and draws the random bits from {@link ThreadLocalRandom},
+ * so the threads share no lock nor contended state. The ids of a thread are strictly increasing:
+ * the counter starts at a random value below 2048 every millisecond and when it overflows,
+ * or the clock goes backwards, the thread moves on to the next millisecond of its own clock.
+ * <p>
+ * The random bits make the ids unique, not unguessable, unlike the ids of {@link UUID#randomUUID()}.
+ */
+final class TimeOrderedOrderIdGenerator implements OrderIdGenerator {
+
+    static final TimeOrderedOrderIdGenerator INSTANCE = new TimeOrderedOrderIdGenerator();
+
+    private static final int COUNTER_BITS = 12;
+    private static final int MAX_COUNTER = (1 << COUNTER_BITS) - 1;
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+    private static final long TIMESTAMP_MASK = (1L << 48) - 1L;
+    private static final long VERSION = 7L << COUNTER_BITS;
+    private static final long VARIANT = 1L << 63;
+    private static final long RANDOM_MASK = (1L << 62) - 1L;
+
+    private static final ThreadLocal<Clock> clocks = ThreadLocal.withInitial(Clock::new);
+
+    private TimeOrderedOrderIdGenerator() {
+        super();
+    }
+
+    @Override
+    public UUID nextId() {
+        final var random = ThreadLocalRandom.current();
+        final var clock = clocks.get();
+        final long now = System.currentTimeMillis();
+        if (now > clock.millis) {
+            clock.millis = now;
+            clock.counter = random.nextInt(COUNTER_SEED_BOUND);
+        } else if (clock.counter < MAX_COUNTER) {
+            clock.counter++;
+        } else {
+            clock.millis++;
+            clock.counter = random.nextInt(COUNTER_SEED_BOUND);
+        }
+        return new UUID(
+                (clock.millis & TIMESTAMP_MASK) << 16 | VERSION | clock.counter,
+                VARIANT | random.nextLong() & RANDOM_MASK
+        );
+    }
+
+    /**
+     * @return the milliseconds since the Unix epoch the id was generated at
+     */
+    static long timestampMillisOf(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    private static final class Clock {
+
+        private long millis;
+        private int counter;
+    }
+}
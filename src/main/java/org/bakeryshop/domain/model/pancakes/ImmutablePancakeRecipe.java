@@ -2,11 +2,23 @@ package org.bakeryshop.domain.model.pancakes;
 
 import org.bakeryshop.util.ParameterArguments;
 
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
-final class ImmutablePancakeRecipe implements PancakeRecipe {
+final class ImmutablePancakeRecipe implements PancakeRecipe, Serializable {
+
+    /**
+     * The descriptions by ingredient combination, there are only as many as subsets of ingredients.
+     */
+    private static final Map<Set<PancakeIngredient>, String> descriptions = new ConcurrentHashMap<>();
+
+    @Serial
+    private static final long serialVersionUID = 1L;
 
     private final UUID orderId;
     private final Set<PancakeIngredient> ingredients;
@@ -18,6 +30,17 @@ final class ImmutablePancakeRecipe implements PancakeRecipe {
         this.ingredients = Set.copyOf(ingredients);
     }
 
+    @Override
+    public String description() {
+        final var description = descriptions.get(ingredients);
+        if (Objects.nonNull(description)) {
+            return description;
+        }
+        final var newDescription = PancakeRecipe.super.description();
+        descriptions.putIfAbsent(ingredients, newDescription);
+        return newDescription;
+    }
+
     @Override
     public UUID getOrderId() {
         return orderId;
@@ -1,5 +1,8 @@
 package org.bakeryshop.domain.model.pancakes;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum PancakeIngredient {
 
     DARK_CHOCOLATE("dark chocolate"),
@@ -7,6 +10,11 @@ public enum PancakeIngredient {
     WHIPPED_CREAM("whipped cream"),
     HAZELNUTS("hazelnuts");
 
+    /**
+     * The ingredient sets by mask, so decoding a mask allocates nothing.
+     */
+    private static final Set<PancakeIngredient>[] INGREDIENTS_BY_MASK = ingredientsByMask();
+
     private final String displayName;
 
     PancakeIngredient(String displayName) {
@@ -16,4 +24,42 @@ public enum PancakeIngredient {
     public String getDisplayName() {
         return displayName;
     }
+
+    /**
+     * @return the mask having the bit of the ordinal of every ingredient set
+     */
+    public static int maskOf(Set<PancakeIngredient> ingredients) {
+        int mask = 0;
+        for (final var ingredient : ingredients) {
+            mask |= 1 << ingredient.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * @return the immutable set of the ingredients of the mask
+     * @throws IllegalArgumentException when the mask has bits of unknown ingredients
+     */
+    public static Set<PancakeIngredient> ofMask(int mask) {
+        if (mask < 0 || mask >= INGREDIENTS_BY_MASK.length) {
+            throw new IllegalArgumentException("Unknown ingredients in mask %d.".formatted(mask));
+        }
+        return INGREDIENTS_BY_MASK[mask];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<PancakeIngredient>[] ingredientsByMask() {
+        final var ingredients = values();
+        final var ingredientsByMask = (Set<PancakeIngredient>[]) new Set<?>[1 << ingredients.length];
+        for (int mask = 0; mask < ingredientsByMask.length; mask++) {
+            final var maskIngredients = EnumSet.noneOf(PancakeIngredient.class);
+            for (final var ingredient : ingredients) {
+                if ((mask & (1 << ingredient.ordinal())) != 0) {
+                    maskIngredients.add(ingredient);
+                }
+            }
+            ingredientsByMask[mask] = Set.copyOf(maskIngredients);
+        }
+        return ingredientsByMask;
+    }
 }
@@ -0,0 +1,19 @@
+package org.bakeryshop.domain.repository.address;
+
+/**
+ * @param reloads          The amount of catalog versions published by reloads
+ * @param failedReloads    The amount of reloads which kept the previous version, as the file could not be loaded
+ * @param lastReloadNanos  The time the last reload took, including a failed one
+ * @param maxReloadNanos   The longest time a reload took
+ * @param totalReloadNanos The total time of the reloads
+ * @param buildings        The amount of buildings of the current version
+ */
+public record CatalogReloadMetrics(
+        long reloads,
+        long failedReloads,
+        long lastReloadNanos,
+        long maxReloadNanos,
+        long totalReloadNanos,
+        int buildings
+) {
+}
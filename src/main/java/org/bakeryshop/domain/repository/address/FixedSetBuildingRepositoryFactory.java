@@ -0,0 +1,40 @@
+package org.bakeryshop.domain.repository.address;
+
+import org.bakeryshop.common.config.Configuration;
+import org.bakeryshop.domain.model.address.Building;
+
+import java.util.HashSet;
+
+/**
+ * Creates the {@link FixedSetBuildingRepository} of the buildings listed by {@code bakery.buildings}
+ * as comma separated {@code buildingNr:amountOfRooms} pairs, default {@code 10:20}.
+ */
+public final class FixedSetBuildingRepositoryFactory implements BuildingRepositoryFactory {
+
+    public static final String NAME = "fixed-set";
+
+    static final String BUILDINGS = "bakery.buildings";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public BuildingRepository create(Configuration configuration) {
+        final var buildings = new HashSet<Building>();
+        for (final var building : configuration.getString(BUILDINGS, "10:20").split(",")) {
+            final var parts = building.trim().split(":");
+            try {
+                if (parts.length != 2) {
+                    throw new NumberFormatException();
+                }
+                buildings.add(new Building(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(
+                        "Property '%s' should list buildingNr:amountOfRooms pairs, but had '%s'.".formatted(BUILDINGS, building));
+            }
+        }
+        return new FixedSetBuildingRepository(buildings);
+    }
+}
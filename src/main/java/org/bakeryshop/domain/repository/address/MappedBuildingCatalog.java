@@ -0,0 +1,195 @@
+package org.bakeryshop.domain.repository.address;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Read only {@link BuildingRepository} of a building catalog file, loaded by memory mapping it.
+ * <p>
+ * The file is big endian: the {@value #MAGIC} magic, the {@value #VERSION} version and the building count as ints,
+ * followed by a {@code buildingNr, amountOfRooms} int pair per building, see {@link #write(Collection, Path)}.
+ * <p>
+ * The buildings are held as prebuilt {@link Optional}s, so {@link #find(int)} does not allocate.
+ * When the building numbers are dense they are indexed by {@code buildingNr - lowest buildingNr},
+ * otherwise they are looked up in an open addressing table with linear probing, at most half full.
+ */
+public final class MappedBuildingCatalog implements BuildingRepository {
+
+    static final int MAGIC = 0x424B4354;
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = 3 * Integer.BYTES;
+    static final int ENTRY_LENGTH = 2 * Integer.BYTES;
+
+    /**
+     * The most slots per building of the dense index, a sparser catalog is hashed.
+     */
+    static final int MAX_DENSE_SLOTS_PER_BUILDING = 4;
+
+    private final int size;
+    private final int lowestBuildingNr;
+    private final Optional<Building>[] dense;
+    private final int[] keys;
+    private final Optional<Building>[] values;
+    private final int mask;
+
+    private MappedBuildingCatalog(int[] buildingNrs, int[] amountsOfRooms) {
+        this.size = buildingNrs.length;
+        int lowest = Integer.MAX_VALUE;
+        int highest = 0;
+        for (final int buildingNr : buildingNrs) {
+            lowest = Math.min(lowest, buildingNr);
+            highest = Math.max(highest, buildingNr);
+        }
+        this.lowestBuildingNr = size == 0 ? 1 : lowest;
+        final long slots = size == 0 ? 0L : (long) highest - lowest + 1L;
+        if (slots <= (long) size * MAX_DENSE_SLOTS_PER_BUILDING) {
+            this.dense = newOptionals((int) slots);
+            for (int i = 0; i < size; i++) {
+                final int index = buildingNrs[i] - lowestBuildingNr;
+                if (dense[index] != null) {
+                    throw duplicate(buildingNrs[i]);
+                }
+                dense[index] = Optional.of(new Building(buildingNrs[i], amountsOfRooms[i]));
+            }
+            this.keys = null;
+            this.values = null;
+            this.mask = 0;
+        } else {
+            final int capacity = Integer.highestOneBit(size * 2 - 1) << 1;
+            this.dense = null;
+            this.keys = new int[capacity];
+            this.values = newOptionals(capacity);
+            this.mask = capacity - 1;
+            for (int i = 0; i < size; i++) {
+                int slot = slotOf(buildingNrs[i]);
+                while (keys[slot] != 0) {
+                    if (keys[slot] == buildingNrs[i]) {
+                        throw duplicate(buildingNrs[i]);
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = buildingNrs[i];
+                values[slot] = Optional.of(new Building(buildingNrs[i], amountsOfRooms[i]));
+            }
+        }
+    }
+
+    /**
+     * @throws UncheckedIOException     when the file can not be read
+     * @throws IllegalArgumentException when the file is not a building catalog or lists a building twice
+     */
+    public static MappedBuildingCatalog load(Path file) {
+        ParameterArguments.requireNotNullParameterArgument(file, "file");
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long length = channel.size();
+            if (length < HEADER_LENGTH) {
+                throw malformed(file, "it is shorter than its header");
+            }
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, length);
+            if (buffer.getInt() != MAGIC) {
+                throw malformed(file, "its magic does not match");
+            }
+            final int version = buffer.getInt();
+            if (version != VERSION) {
+                throw malformed(file, "its version %d is not supported".formatted(version));
+            }
+            final int count = buffer.getInt();
+            if (count < 0 || length != HEADER_LENGTH + (long) count * ENTRY_LENGTH) {
+                throw malformed(file, "its length %d does not fit %d buildings".formatted(length, count));
+            }
+            final var buildingNrs = new int[count];
+            final var amountsOfRooms = new int[count];
+            for (int i = 0; i < count; i++) {
+                buildingNrs[i] = buffer.getInt();
+                amountsOfRooms[i] = buffer.getInt();
+                if (buildingNrs[i] <= 0 || amountsOfRooms[i] <= 0) {
+                    throw malformed(file, "building %d of %d rooms is not valid".formatted(buildingNrs[i], amountsOfRooms[i]));
+                }
+            }
+            return new MappedBuildingCatalog(buildingNrs, amountsOfRooms);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the building catalog '%s'.".formatted(file), e);
+        }
+    }
+
+    /**
+     * Writes the buildings as a catalog file, replacing an existing file.
+     *
+     * @throws UncheckedIOException when the file can not be written
+     */
+    public static void write(Collection<Building> buildings, Path file) {
+        ParameterArguments.requireNotNullParameterArgument(buildings, "buildings");
+        ParameterArguments.requireNotNullParameterArgument(file, "file");
+        final var buffer = ByteBuffer.allocate(HEADER_LENGTH + buildings.size() * ENTRY_LENGTH)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(buildings.size());
+        for (final var building : buildings) {
+            buffer.putInt(building.buildingNr())
+                    .putInt(building.amountOfRooms());
+        }
+        try {
+            Files.write(file, buffer.array());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the building catalog '%s'.".formatted(file), e);
+        }
+    }
+
+    @Override
+    public Optional<Building> find(int buildingNumber) {
+        ParameterArguments.requirePositiveParameterArgument(buildingNumber, "buildingNumber");
+        if (dense != null) {
+            final int index = buildingNumber - lowestBuildingNr;
+            if (index < 0 || index >= dense.length) {
+                return Optional.empty();
+            }
+            final var building = dense[index];
+            return building == null ? Optional.empty() : building;
+        }
+        int slot = slotOf(buildingNumber);
+        int key;
+        while ((key = keys[slot]) != 0) {
+            if (key == buildingNumber) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return Optional.empty();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    boolean isDense() {
+        return dense != null;
+    }
+
+    private int slotOf(int buildingNr) {
+        final int hash = buildingNr * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<Building>[] newOptionals(int length) {
+        return (Optional<Building>[]) new Optional<?>[length];
+    }
+
+    private static IllegalArgumentException duplicate(int buildingNr) {
+        return new IllegalArgumentException("Building %d is listed more than once.".formatted(buildingNr));
+    }
+
+    private static IllegalArgumentException malformed(Path file, String reason) {
+        return new IllegalArgumentException("File '%s' is not a building catalog, %s.".formatted(file, reason));
+    }
+}
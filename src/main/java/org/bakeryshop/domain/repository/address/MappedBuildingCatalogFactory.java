@@ -0,0 +1,34 @@
+package org.bakeryshop.domain.repository.address;
+
+import org.bakeryshop.common.config.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Creates the {@link MappedBuildingCatalog} of the catalog file named by {@code bakery.buildings.catalog}.
+ */
+public final class MappedBuildingCatalogFactory implements BuildingRepositoryFactory {
+
+    public static final String NAME = "mapped-catalog";
+
+    static final String CATALOG = "bakery.buildings.catalog";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public BuildingRepository create(Configuration configuration) {
+        return MappedBuildingCatalog.load(catalogOf(configuration));
+    }
+
+    static Path catalogOf(Configuration configuration) {
+        return configuration.get(CATALOG)
+                .map(String::trim)
+                .filter(file -> !file.isEmpty())
+                .map(Path::of)
+                .orElseThrow(() -> new IllegalArgumentException("Property '%s' should name the building catalog file."
+                        .formatted(CATALOG)));
+    }
+}
@@ -0,0 +1,157 @@
+package org.bakeryshop.domain.repository.address;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.util.ParameterArguments;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link BuildingRepository} of a {@link MappedBuildingCatalog} file which can be reloaded while serving lookups.
+ * <p>
+ * Every reload loads the file into a new immutable catalog and publishes it through an {@link AtomicReference},
+ * so {@link #find(int)} reads the current version without a lock and never waits for a reload.
+ * A file which can not be loaded keeps the current version. The reloads are serialized with each other.
+ */
+public final class ReloadableBuildingCatalog implements BuildingRepository, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReloadableBuildingCatalog.class);
+
+    private final Path file;
+    private final AtomicReference<Version> current = new AtomicReference<>();
+
+    private long reloads;
+    private long failedReloads;
+    private long lastReloadNanos;
+    private long maxReloadNanos;
+    private long totalReloadNanos;
+    private ScheduledExecutorService watcher;
+
+    /**
+     * @throws UncheckedIOException     when the file can not be read
+     * @throws IllegalArgumentException when the file is not a building catalog
+     */
+    public ReloadableBuildingCatalog(Path file) {
+        ParameterArguments.requireNotNullParameterArgument(file, "file");
+        this.file = file;
+        final var stamp = stampOf(file);
+        current.set(new Version(MappedBuildingCatalog.load(file), stamp));
+    }
+
+    /**
+     * @param checkInterval The interval of checking the file for modifications, see {@link #reloadIfModified()}
+     * @return a catalog reloading the file on a daemon thread when it is modified, until it is closed
+     */
+    public static ReloadableBuildingCatalog watch(Path file, Duration checkInterval) {
+        ParameterArguments.requireNotNullParameterArgument(checkInterval, "checkInterval");
+        if (checkInterval.toMillis() <= 0L) {
+            throw new IllegalArgumentException("checkInterval should be at least a millisecond");
+        }
+        final var catalog = new ReloadableBuildingCatalog(file);
+        catalog.watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "building-catalog-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        catalog.watcher.scheduleWithFixedDelay(catalog::checkForModification,
+                checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        return catalog;
+    }
+
+    @Override
+    public Optional<Building> find(int buildingNumber) {
+        return current.get().catalog().find(buildingNumber);
+    }
+
+    /**
+     * Loads the file and publishes it as the current version.
+     *
+     * @throws UncheckedIOException     when the file can not be read, the current version is kept
+     * @throws IllegalArgumentException when the file is not a building catalog, the current version is kept
+     */
+    public synchronized void reload() {
+        final long start = System.nanoTime();
+        try {
+            final var stamp = stampOf(file);
+            current.set(new Version(MappedBuildingCatalog.load(file), stamp));
+            reloads++;
+        } catch (RuntimeException e) {
+            failedReloads++;
+            throw e;
+        } finally {
+            lastReloadNanos = System.nanoTime() - start;
+            maxReloadNanos = Math.max(maxReloadNanos, lastReloadNanos);
+            totalReloadNanos += lastReloadNanos;
+        }
+    }
+
+    /**
+     * Reloads the file when its modification time or size differs from the ones of the current version.
+     *
+     * @return whether the file was reloaded
+     */
+    public synchronized boolean reloadIfModified() {
+        if (current.get().stamp().equals(stampOf(file))) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    public synchronized CatalogReloadMetrics reloadMetrics() {
+        return new CatalogReloadMetrics(reloads, failedReloads, lastReloadNanos, maxReloadNanos, totalReloadNanos,
+                current.get().catalog().size());
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * Stops watching the file, the catalog keeps serving the current version.
+     */
+    @Override
+    public void close() {
+        if (Objects.nonNull(watcher)) {
+            watcher.shutdownNow();
+        }
+    }
+
+    private void checkForModification() {
+        try {
+            if (reloadIfModified()) {
+                logger.info("Reloaded building catalog {} of {} buildings.", file, current.get().catalog().size());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to reload building catalog {}, keeping the current version.", file, e);
+        }
+    }
+
+    private static Stamp stampOf(Path file) {
+        try {
+            final var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new Stamp(attributes.lastModifiedTime(), attributes.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the building catalog '%s'.".formatted(file), e);
+        }
+    }
+
+    private record Stamp(FileTime lastModifiedTime, long size) {
+    }
+
+    private record Version(MappedBuildingCatalog catalog, Stamp stamp) {
+    }
+}
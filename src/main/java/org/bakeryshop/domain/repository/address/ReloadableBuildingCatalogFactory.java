@@ -0,0 +1,27 @@
+package org.bakeryshop.domain.repository.address;
+
+import org.bakeryshop.common.config.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Creates the {@link ReloadableBuildingCatalog} of the catalog file named by {@code bakery.buildings.catalog},
+ * checked for modifications every {@code bakery.buildings.reloadCheckMillis}, default 10000.
+ */
+public final class ReloadableBuildingCatalogFactory implements BuildingRepositoryFactory {
+
+    public static final String NAME = "reloadable-catalog";
+
+    static final String RELOAD_CHECK_MILLIS = "bakery.buildings.reloadCheckMillis";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public BuildingRepository create(Configuration configuration) {
+        return ReloadableBuildingCatalog.watch(MappedBuildingCatalogFactory.catalogOf(configuration),
+                configuration.getMillis(RELOAD_CHECK_MILLIS, Duration.ofSeconds(10L)));
+    }
+}
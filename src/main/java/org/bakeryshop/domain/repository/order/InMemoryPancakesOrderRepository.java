@@ -1,22 +1,62 @@
 package org.bakeryshop.domain.repository.order;
 
+import org.bakeryshop.common.TimeoutException;
 import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.order.OrderIdGenerator;
+import org.bakeryshop.domain.model.order.OrderState;
 import org.bakeryshop.domain.model.order.PancakesOrder;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
 import org.bakeryshop.util.ParameterArguments;
 
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
 
 public class InMemoryPancakesOrderRepository implements PancakesOrderRepository {
 
-    private final Map<UUID, ThreadSafePancakesOrder> orders = new ConcurrentHashMap<>();
+    /**
+     * The estimated heap footprint of an order with compressed references: the thread safe wrapper and its locks,
+     * the order, its id, address and pancake list, and the map entry.
+     */
+    static final long ESTIMATED_ORDER_BYTES = 352L;
 
-    private final Duration lockTimeout;
+    /**
+     * The estimated heap footprint of a pancake: the recipe and its slot in the pancake list,
+     * the ingredient sets are shared.
+     */
+    static final long ESTIMATED_PANCAKE_BYTES = 32L;
+
+    private final Map<UUID, ThreadSafePancakesOrder> orders;
+
+    private final OrderLocks orderLocks;
+
+    private final OrderIdGenerator orderIdGenerator;
 
     public InMemoryPancakesOrderRepository(Duration lockTimeout) {
-        this.lockTimeout = lockTimeout;
+        this(lockTimeout, false, 16);
+    }
+
+    /**
+     * @param fairLocks       true to grant the order locks in arrival order, at the cost of throughput under contention
+     * @param initialCapacity The amount of orders held without resizing
+     */
+    public InMemoryPancakesOrderRepository(Duration lockTimeout, boolean fairLocks, int initialCapacity) {
+        this(lockTimeout, fairLocks, initialCapacity, OrderIdGenerator.random());
+    }
+
+    /**
+     * @param orderIdGenerator The generator of the ids of the created orders
+     */
+    public InMemoryPancakesOrderRepository(Duration lockTimeout,
+                                           boolean fairLocks,
+                                           int initialCapacity,
+                                           OrderIdGenerator orderIdGenerator) {
+        ParameterArguments.requirePositiveParameterArgument(initialCapacity, "initialCapacity");
+        ParameterArguments.requireNotNullParameterArgument(orderIdGenerator, "orderIdGenerator");
+        this.orderLocks = new OrderLocks(lockTimeout, fairLocks);
+        this.orders = new ConcurrentHashMap<>(initialCapacity);
+        this.orderIdGenerator = orderIdGenerator;
     }
 
     @Override
@@ -24,11 +64,27 @@ public class InMemoryPancakesOrderRepository implements PancakesOrderRepository
         ParameterArguments.requireNotNullParameterArgument(building, "building");
         ParameterArguments.requirePositiveParameterArgument(room, "room");
 
-        final var panCakesOrder = new ThreadSafePancakesOrder(PancakesOrder.newOrder(building, room), lockTimeout);
+        final var panCakesOrder = new ThreadSafePancakesOrder(PancakesOrder.newOrder(building, room, orderIdGenerator), orderLocks);
         orders.put(panCakesOrder.getId(), panCakesOrder);
         return panCakesOrder;
     }
 
+    /**
+     * Adds the order of the snapshot keeping its id and state, e.g. an order moved from another node.
+     * The check for an order of the same id and the addition are atomic.
+     *
+     * @return the restored order, empty when an order of the same id exists, it is kept then
+     */
+    public Optional<PancakesOrder> restore(PancakesOrderSnapshot order) {
+        ParameterArguments.requireNotNullParameterArgument(order, "order");
+
+        final var restoredOrder = new ThreadSafePancakesOrder(PancakesOrder.restoredFrom(order), orderLocks);
+        if (orders.putIfAbsent(order.id(), restoredOrder) != null) {
+            return Optional.empty();
+        }
+        return Optional.of(restoredOrder);
+    }
+
     @Override
     public PancakesOrder update(PancakesOrder order) {
         ParameterArguments.requireNotNullParameterArgument(order, "order");
@@ -40,7 +96,7 @@ public class InMemoryPancakesOrderRepository implements PancakesOrderRepository
         if (Objects.equals(existing, order)) {
             return existing;
         }
-        final var persistedOrder = new ThreadSafePancakesOrder(order, lockTimeout);
+        final var persistedOrder = new ThreadSafePancakesOrder(order, orderLocks);
         orders.put(order.getId(), persistedOrder);
         return persistedOrder;
     }
@@ -54,25 +110,115 @@ public class InMemoryPancakesOrderRepository implements PancakesOrderRepository
 
     @Override
     public Set<UUID> listCompletedOrdersIds() {
-        return orders.values().stream()
-                .filter(PancakesOrder::isCompleted)
-                .map(PancakesOrder::getId)
-                .collect(Collectors.toUnmodifiableSet());
+        return listOrderIds(PancakesOrder::isCompleted);
     }
 
     @Override
     public Set<UUID> listPreparedOrdersIds() {
-        return orders.values().stream()
-                .filter(PancakesOrder::isPrepared)
-                .map(PancakesOrder::getId)
-                .collect(Collectors.toUnmodifiableSet());
+        return listOrderIds(PancakesOrder::isPrepared);
+    }
+
+    /**
+     * @return the ids of all orders, whatever their state
+     */
+    public Set<UUID> orderIds() {
+        return Set.copyOf(orders.keySet());
     }
 
+    private Set<UUID> listOrderIds(Predicate<PancakesOrder> condition) {
+        final var orderIds = new HashSet<UUID>();
+        for (final var order : orders.values()) {
+            if (condition.test(order)) {
+                orderIds.add(order.getId());
+            }
+        }
+        return Collections.unmodifiableSet(orderIds);
+    }
 
     @Override
     public Optional<PancakesOrder> remove(UUID orderId) {
+        return removeIf(orderId, any -> true);
+    }
+
+    @Override
+    public Optional<PancakesOrder> removeIf(UUID orderId, Predicate<PancakesOrder> condition) {
         ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
-        return Optional.ofNullable(orders.remove(orderId));
+        ParameterArguments.requireNotNullParameterArgument(condition, "condition");
+
+        final var existing = orders.get(orderId);
+        if (Objects.isNull(existing) || !existing.markAsRemoved(condition)) {
+            return Optional.empty();
+        }
+        orders.remove(orderId, existing);
+        return Optional.of(existing);
+    }
+
+    /**
+     * Locks the orders of the batch in the order of their ids, checks the condition on all of them
+     * and then removes the matching ones, see {@link PancakesOrderRepository#removeAll(Collection, Predicate)}.
+     */
+    @Override
+    public List<PancakesOrder> removeAll(Collection<UUID> orderIds, Predicate<PancakesOrder> condition) {
+        ParameterArguments.requireNotNullParameterArgument(orderIds, "orderIds");
+        ParameterArguments.requireNotNullParameterArgument(condition, "condition");
+        final var sortedOrderIds = new TreeSet<UUID>();
+        for (final var orderId : orderIds) {
+            ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+            sortedOrderIds.add(orderId);
+        }
+        final var batch = new ArrayList<ThreadSafePancakesOrder>(sortedOrderIds.size());
+        for (final var orderId : sortedOrderIds) {
+            final var existing = orders.get(orderId);
+            if (Objects.nonNull(existing)) {
+                batch.add(existing);
+            }
+        }
+        return ThreadSafePancakesOrder.markAllAsRemoved(batch, condition,
+                removedOrder -> orders.remove(removedOrder.getId(), removedOrder));
     }
 
+    /**
+     * @return The time to wait for the lock of an order before failing with {@link TimeoutException}
+     */
+    public Duration lockTimeout() {
+        return orderLocks.timeout();
+    }
+
+    /**
+     * Changes the lock timeout of the existing and the new orders.
+     *
+     * @param lockTimeout The positive time to wait for the lock of an order
+     */
+    public void setLockTimeout(Duration lockTimeout) {
+        orderLocks.setTimeout(lockTimeout);
+    }
+
+    public OrderLockMetrics lockMetrics() {
+        return orderLocks.metrics();
+    }
+
+    /**
+     * Counts the orders by state visiting every order, meant for monitoring rather than for the request path.
+     */
+    public OrderStatistics statistics() {
+        final var ordersByState = new EnumMap<OrderState, Integer>(OrderState.class);
+        int orderCount = 0;
+        long pancakes = 0L;
+        for (final var order : orders.values()) {
+            orderCount++;
+            try {
+                final var snapshot = order.snapshot();
+                ordersByState.merge(snapshot.state(), 1, Integer::sum);
+                pancakes += snapshot.pancakes().size();
+            } catch (TimeoutException e) {
+                // locked for longer than the lock timeout, counted as an order only
+            }
+        }
+        return new OrderStatistics(
+                orderCount,
+                ordersByState,
+                pancakes,
+                orderCount * ESTIMATED_ORDER_BYTES + pancakes * ESTIMATED_PANCAKE_BYTES
+        );
+    }
 }
@@ -0,0 +1,49 @@
+package org.bakeryshop.domain.repository.order;
+
+import org.bakeryshop.common.config.Configuration;
+import org.bakeryshop.domain.model.order.OrderIdGenerator;
+
+import java.time.Duration;
+
+/**
+ * Creates the {@link InMemoryPancakesOrderRepository}, configured by:
+ * <pre>
+ * bakery.orders.lockTimeoutMillis  the time an operation waits for the lock of an order, default 100
+ * bakery.orders.fairLocks          true to grant the order locks in arrival order, default false
+ * bakery.orders.initialCapacity    the amount of orders the repository holds without resizing, default 1024
+ * bakery.orders.idGenerator        random for UUID version 4 ids or time-ordered for guessable UUID version 7 ids, default random
+ * </pre>
+ */
+public final class InMemoryPancakesOrderRepositoryFactory implements PancakesOrderRepositoryFactory {
+
+    public static final String NAME = "in-memory";
+
+    static final String LOCK_TIMEOUT_MILLIS = "bakery.orders.lockTimeoutMillis";
+    static final String FAIR_LOCKS = "bakery.orders.fairLocks";
+    static final String INITIAL_CAPACITY = "bakery.orders.initialCapacity";
+    static final String ID_GENERATOR = "bakery.orders.idGenerator";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public PancakesOrderRepository create(Configuration configuration) {
+        return new InMemoryPancakesOrderRepository(
+                configuration.getMillis(LOCK_TIMEOUT_MILLIS, Duration.ofMillis(100L)),
+                configuration.getBoolean(FAIR_LOCKS, false),
+                configuration.getPositiveInt(INITIAL_CAPACITY, 1024),
+                orderIdGenerator(configuration.getString(ID_GENERATOR, "random"))
+        );
+    }
+
+    private static OrderIdGenerator orderIdGenerator(String name) {
+        return switch (name) {
+            case "random" -> OrderIdGenerator.random();
+            case "time-ordered" -> OrderIdGenerator.timeOrdered();
+            default -> throw new IllegalArgumentException(
+                    "Property '%s' should be random or time-ordered, but was '%s'.".formatted(ID_GENERATOR, name));
+        };
+    }
+}
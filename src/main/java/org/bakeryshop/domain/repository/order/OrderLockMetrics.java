@@ -0,0 +1,17 @@
+package org.bakeryshop.domain.repository.order;
+
+/**
+ * @param acquired     The amount of acquired order locks
+ * @param contended    The amount of lock acquisitions which had to wait, including the timed out ones
+ * @param timedOut     The amount of lock acquisitions which timed out
+ * @param waitNanos    The total time the contended acquisitions waited
+ * @param maxWaitNanos The longest time an acquisition waited
+ */
+public record OrderLockMetrics(
+        long acquired,
+        long contended,
+        long timedOut,
+        long waitNanos,
+        long maxWaitNanos
+) {
+}
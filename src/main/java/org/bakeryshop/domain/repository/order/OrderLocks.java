@@ -0,0 +1,81 @@
+package org.bakeryshop.domain.repository.order;
+
+import org.bakeryshop.util.ParameterArguments;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The lock timeout and the lock statistics shared by the orders of a repository,
+ * so the timeout can be changed at runtime for the existing orders too.
+ */
+final class OrderLocks {
+
+    private volatile long timeoutNanos;
+    private final boolean fair;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    OrderLocks(Duration timeout) {
+        this(timeout, false);
+    }
+
+    OrderLocks(Duration timeout, boolean fair) {
+        setTimeout(timeout);
+        this.fair = fair;
+    }
+
+    boolean fair() {
+        return fair;
+    }
+
+    long timeoutNanos() {
+        return timeoutNanos;
+    }
+
+    Duration timeout() {
+        return Duration.ofNanos(timeoutNanos);
+    }
+
+    void setTimeout(Duration timeout) {
+        ParameterArguments.requireNotNullParameterArgument(timeout, "timeout");
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("timeout should be positive");
+        }
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    void recordAcquired() {
+        acquired.increment();
+    }
+
+    /**
+     * @param waited   The time waited for the lock which was not free at once
+     * @param acquired true when the lock was acquired within the timeout
+     */
+    void recordWait(long waited, boolean acquired) {
+        contended.increment();
+        waitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        if (acquired) {
+            this.acquired.increment();
+        } else {
+            timedOut.increment();
+        }
+    }
+
+    OrderLockMetrics metrics() {
+        return new OrderLockMetrics(
+                acquired.sum(),
+                contended.sum(),
+                timedOut.sum(),
+                waitNanos.sum(),
+                maxWaitNanos.get()
+        );
+    }
+}
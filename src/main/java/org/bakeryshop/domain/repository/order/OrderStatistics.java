@@ -0,0 +1,23 @@
+package org.bakeryshop.domain.repository.order;
+
+import org.bakeryshop.domain.model.order.OrderState;
+
+import java.util.Map;
+
+/**
+ * @param orders             The amount of orders in the repository
+ * @param ordersByState      The amount of orders by state, the orders locked for longer than the lock timeout are missing
+ * @param pancakes           The amount of pancakes of the counted orders
+ * @param estimatedHeapBytes The estimated heap footprint of the orders
+ */
+public record OrderStatistics(
+        int orders,
+        Map<OrderState, Integer> ordersByState,
+        long pancakes,
+        long estimatedHeapBytes
+) {
+
+    public OrderStatistics {
+        ordersByState = Map.copyOf(ordersByState);
+    }
+}
@@ -3,9 +3,12 @@ package org.bakeryshop.domain.repository.order;
 import org.bakeryshop.domain.model.address.Building;
 import org.bakeryshop.domain.model.order.PancakesOrder;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 public interface PancakesOrderRepository {
 
@@ -20,4 +23,25 @@ public interface PancakesOrderRepository {
     Set<UUID> listPreparedOrdersIds();
 
     Optional<PancakesOrder> remove(UUID orderId);
+
+    /**
+     * Removes the order only if it matches the condition, the check and the removal are atomic
+     * with respect to the modifications of the order.
+     *
+     * @param orderId   The id of the order to remove
+     * @param condition The condition the order must match at its removal
+     * @return the removed order, empty when the order is missing or does not match the condition
+     */
+    Optional<PancakesOrder> removeIf(UUID orderId, Predicate<PancakesOrder> condition);
+
+    /**
+     * Removes the orders of the batch matching the condition atomically: the condition is checked on all the orders
+     * before any is removed, and no modification of an order of the batch runs in between.
+     * The orders that are missing or do not match the condition are skipped.
+     *
+     * @param orderIds  The ids of orders to remove
+     * @param condition The condition every order must match at its removal
+     * @return the removed orders, every order is removed by exactly one caller
+     */
+    List<PancakesOrder> removeAll(Collection<UUID> orderIds, Predicate<PancakesOrder> condition);
 }
@@ -0,0 +1,20 @@
+package org.bakeryshop.domain.repository.order;
+
+import org.bakeryshop.common.config.Configuration;
+
+/**
+ * Creates a {@link PancakesOrderRepository} implementation, discovered by {@link java.util.ServiceLoader}
+ * and selected by its {@link #name()}.
+ */
+public interface PancakesOrderRepositoryFactory {
+
+    /**
+     * @return the name selecting the implementation, unique among the factories
+     */
+    String name();
+
+    /**
+     * @param configuration The configuration having the tuning properties of the implementation
+     */
+    PancakesOrderRepository create(Configuration configuration);
+}
@@ -1,6 +1,8 @@
 package org.bakeryshop.domain.repository.order;
 
 import org.bakeryshop.common.TimeoutException;
+import org.bakeryshop.common.jfr.OrderLockTimeoutEvent;
+import org.bakeryshop.common.jfr.OrderLockWaitEvent;
 import org.bakeryshop.domain.model.address.OrderAddress;
 import org.bakeryshop.domain.model.order.OrderState;
 import org.bakeryshop.domain.model.order.PancakesOrder;
@@ -9,12 +11,17 @@ import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
 import org.bakeryshop.domain.model.pancakes.PancakeRecipe;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 final class ThreadSafePancakesOrder implements PancakesOrder {
@@ -23,12 +30,22 @@ final class ThreadSafePancakesOrder implements PancakesOrder {
     private final Lock writeLock;
 
     private final PancakesOrder delegate;
-    private final Duration lockTimeout;
+    private final OrderLocks orderLocks;
+
+    /**
+     * Set under the write lock once the order is removed from the repository,
+     * the modifications of a removed order fail, so no change can get lost after its removal.
+     */
+    private boolean removed;
 
     ThreadSafePancakesOrder(PancakesOrder delegate, Duration lockTimeout) {
+        this(delegate, new OrderLocks(lockTimeout));
+    }
+
+    ThreadSafePancakesOrder(PancakesOrder delegate, OrderLocks orderLocks) {
         this.delegate = delegate;
-        this.lockTimeout = lockTimeout;
-        final var readWriteLock = new ReentrantReadWriteLock();
+        this.orderLocks = orderLocks;
+        final var readWriteLock = new ReentrantReadWriteLock(orderLocks.fair());
         this.readLock = readWriteLock.readLock();
         this.writeLock = readWriteLock.writeLock();
     }
@@ -66,12 +83,12 @@ final class ThreadSafePancakesOrder implements PancakesOrder {
 
     @Override
     public boolean isPrepared() {
-        return supplyWithAcquiringReadLock(delegate::isPrepared);
+        return testWithAcquiringReadLock(PancakesOrder::isPrepared);
     }
 
     @Override
     public boolean isCompleted() {
-        return supplyWithAcquiringReadLock(delegate::isCompleted);
+        return testWithAcquiringReadLock(PancakesOrder::isCompleted);
     }
 
     @Override
@@ -86,6 +103,24 @@ final class ThreadSafePancakesOrder implements PancakesOrder {
         return this;
     }
 
+    /**
+     * Holds the write lock, the validation and the modification of this order take its locks again.
+     */
+    @Override
+    public <F> Optional<F> modifyIf(Function<PancakesOrder, Optional<F>> validation, Consumer<PancakesOrder> modification) {
+        acquire(writeLock, "write");
+        try {
+            requireNotRemoved();
+            final var failure = validation.apply(this);
+            if (failure.isEmpty()) {
+                modification.accept(this);
+            }
+            return failure;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
     @Override
     public OrderAddress getAddress() {
         return delegate.getAddress();
@@ -93,12 +128,12 @@ final class ThreadSafePancakesOrder implements PancakesOrder {
 
     @Override
     public OrderState getState() {
-        return delegate.getState();
+        return supplyWithAcquiringReadLock(delegate::getState);
     }
 
     @Override
     public List<PancakeRecipe> getPancakes() {
-        return supplyWithAcquiringReadLock(delegate::getPancakes);
+        return supplyWithAcquiringReadLock(() -> List.copyOf(delegate.getPancakes()));
     }
 
     @Override
@@ -118,33 +153,141 @@ final class ThreadSafePancakesOrder implements PancakesOrder {
         return PancakesOrder.hashCode(delegate);
     }
 
-    private void runWithAcquiringWriteLock(Runnable runnable) {
+    /**
+     * Marks the order as removed if it matches the condition, atomically with respect to its modifications.
+     *
+     * @return true when the order was removed by this call
+     */
+    boolean markAsRemoved(Predicate<PancakesOrder> condition) {
+        return supplyWithAcquiringWriteLock(() -> {
+            if (removed || !condition.test(delegate)) {
+                return false;
+            }
+            removed = true;
+            return true;
+        });
+    }
+
+    /**
+     * Marks the orders matching the condition as removed, all together: the write locks of the whole batch are held
+     * while the condition is checked on every order and the matching ones are removed.
+     *
+     * @param orders  The distinct orders of the batch sorted by id, so concurrent batches lock them in the same order
+     * @param removal The removal of an order from the repository, run for every matching order under the locks
+     * @return the orders removed by this call
+     */
+    static List<PancakesOrder> markAllAsRemoved(List<ThreadSafePancakesOrder> orders,
+                                                Predicate<PancakesOrder> condition,
+                                                Consumer<ThreadSafePancakesOrder> removal) {
+        int locked = 0;
         try {
-            if (writeLock.tryLock(lockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
-                runnable.run();
-            } else {
-                throw new TimeoutException("Timeout while getting write lock.");
+            for (final var order : orders) {
+                order.acquire(order.writeLock, "write");
+                locked++;
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IllegalStateException("Interrupted while getting write lock.");
+            final var matchingOrders = new ArrayList<ThreadSafePancakesOrder>(orders.size());
+            for (final var order : orders) {
+                if (!order.removed && condition.test(order.delegate)) {
+                    matchingOrders.add(order);
+                }
+            }
+            for (final var order : matchingOrders) {
+                order.removed = true;
+                removal.accept(order);
+            }
+            return List.copyOf(matchingOrders);
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                orders.get(i).writeLock.unlock();
+            }
+        }
+    }
+
+    private void runWithAcquiringWriteLock(Runnable runnable) {
+        supplyWithAcquiringWriteLock(() -> {
+            requireNotRemoved();
+            runnable.run();
+            return null;
+        });
+    }
+
+    private void requireNotRemoved() {
+        if (removed) {
+            throw OrderNotFoundException.byId(delegate.getId());
+        }
+    }
+
+    private <T> T supplyWithAcquiringWriteLock(Supplier<T> supplier) {
+        acquire(writeLock, "write");
+        try {
+            return supplier.get();
         } finally {
             writeLock.unlock();
         }
     }
 
+    /**
+     * Takes a non-capturing check of the delegate, so the checks of the listings allocate nothing per order.
+     */
+    private boolean testWithAcquiringReadLock(Predicate<PancakesOrder> check) {
+        acquire(readLock, "read");
+        try {
+            return check.test(delegate);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
     private <T> T supplyWithAcquiringReadLock(Supplier<T> supplier) {
+        acquire(readLock, "read");
         try {
-            if (readLock.tryLock(lockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
-                return supplier.get();
-            } else {
-                throw new TimeoutException("Timeout while getting read lock.");
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IllegalStateException("Interrupted while getting read lock.");
+            return supplier.get();
         } finally {
             readLock.unlock();
         }
     }
+
+    /**
+     * A fair lock is taken at once only when no thread waits for it, {@link Lock#tryLock()} would barge in.
+     */
+    private boolean tryLockAtOnce(Lock lock, String lockName) {
+        if (!orderLocks.fair()) {
+            return lock.tryLock();
+        }
+        try {
+            return lock.tryLock(0L, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while getting %s lock.".formatted(lockName));
+        }
+    }
+
+    private void acquire(Lock lock, String lockName) {
+        if (tryLockAtOnce(lock, lockName)) {
+            orderLocks.recordAcquired();
+            return;
+        }
+        final var lockWaitEvent = new OrderLockWaitEvent();
+        lockWaitEvent.begin();
+        final long lockTimeoutNanos = orderLocks.timeoutNanos();
+        final long start = System.nanoTime();
+        final boolean acquired;
+        try {
+            acquired = lock.tryLock(lockTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while getting %s lock.".formatted(lockName));
+        }
+        orderLocks.recordWait(System.nanoTime() - start, acquired);
+        if (lockWaitEvent.shouldCommit()) {
+            lockWaitEvent.commit(delegate.getId(), lockName, acquired);
+        }
+        if (!acquired) {
+            final var lockTimeoutEvent = new OrderLockTimeoutEvent();
+            if (lockTimeoutEvent.shouldCommit()) {
+                lockTimeoutEvent.commit(delegate.getId(), lockName, TimeUnit.NANOSECONDS.toMillis(lockTimeoutNanos));
+            }
+            throw new TimeoutException("Timeout while getting %s lock.".formatted(lockName));
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package org.bakeryshop.service;
+
+import org.bakeryshop.util.ParameterArguments;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time expiring cache of command results by request id.
+ * <p>
+ * The first command of a request id gets executed, its duplicates get the original result,
+ * duplicates arriving while the original is still executed wait for it.
+ * Commands completed exceptionally are not cached, so the retry of a timed out request is executed again.
+ * A request id reused with other arguments is rejected, rather than answered with the result of the first arguments.
+ * <p>
+ * The entries of running commands are neither evicted nor expired, so the cache may hold more than its maximal
+ * entries while that many commands run.
+ */
+public final class IdempotencyCache {
+
+    private final int maxEntries;
+    private final long timeToLiveNanos;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public IdempotencyCache(int maxEntries, Duration timeToLive) {
+        ParameterArguments.requirePositiveParameterArgument(maxEntries, "maxEntries");
+        ParameterArguments.requireNotNullParameterArgument(timeToLive, "timeToLive");
+        this.maxEntries = maxEntries;
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+    /**
+     * @param operation The name of the operation, request ids are unique per operation
+     * @param requestId The request id chosen by the client, null executes the command without deduplication
+     * @param arguments The fingerprint of the arguments of the command, compared by {@link Object#equals(Object)}
+     * @param command   The command to execute once per request id
+     * @return The result of the command, either executed now or by the original request
+     * @throws IllegalArgumentException when the request id was used with other arguments
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R execute(String operation, String requestId, Object arguments, Supplier<R> command) {
+        ParameterArguments.requireNotBlankParameterArgument(operation, "operation");
+        ParameterArguments.requireNotNullParameterArgument(arguments, "arguments");
+        ParameterArguments.requireNotNullParameterArgument(command, "command");
+        if (requestId == null) {
+            return command.get();
+        }
+        final var key = new Key(operation, requestId);
+        while (true) {
+            final long now = System.nanoTime();
+            final var entry = entries.get(key);
+            if (entry != null && entry.isExpired(now) && entry.result.isDone()) {
+                remove(key, entry);
+                continue;
+            }
+            if (entry != null) {
+                if (!entry.arguments.equals(arguments)) {
+                    throw new IllegalArgumentException(
+                            "Request id '%s' of %s was used with other arguments.".formatted(requestId, operation));
+                }
+                try {
+                    return (R) entry.result.join();
+                } catch (CompletionException e) {
+                    // the original failed and was not cached, the duplicate is executed as a retry
+                    continue;
+                }
+            }
+            final var newEntry = new Entry(key, arguments, now + timeToLiveNanos);
+            if (entries.putIfAbsent(key, newEntry) != null) {
+                continue;
+            }
+            insertionOrder.offer(newEntry);
+            size.incrementAndGet();
+            evict(now);
+            try {
+                final var result = command.get();
+                newEntry.result.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                remove(key, newEntry);
+                newEntry.result.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Entries expire in insertion order, so evicting from the head removes the expired entries first
+     * and the oldest ones when the cache is full. The entries of running commands are moved to the tail instead,
+     * each at most once per eviction.
+     */
+    private void evict(long now) {
+        int running = 0;
+        final int maxRunning = size.get();
+        Entry oldestEntry;
+        while (running <= maxRunning
+                && (oldestEntry = insertionOrder.peek()) != null
+                && (size.get() > maxEntries || oldestEntry.isExpired(now))) {
+            oldestEntry = insertionOrder.poll();
+            if (oldestEntry == null) {
+                continue;
+            }
+            if (!oldestEntry.result.isDone() && entries.get(oldestEntry.key) == oldestEntry) {
+                insertionOrder.offer(oldestEntry);
+                running++;
+                continue;
+            }
+            remove(oldestEntry.key, oldestEntry);
+        }
+    }
+
+    private void remove(Key key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            size.decrementAndGet();
+        }
+    }
+
+    private record Key(String operation, String requestId) {
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final Object arguments;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final long expiresAt;
+
+        private Entry(Key key, Object arguments, long expiresAt) {
+            this.key = key;
+            this.arguments = arguments;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0L;
+        }
+    }
+}
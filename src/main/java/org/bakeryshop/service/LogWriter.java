@@ -2,5 +2,9 @@ package org.bakeryshop.service;
 
 @FunctionalInterface
 public interface LogWriter {
+
+    /**
+     * @param log The buffered log, reused once the call returns, so it must be copied to be retained
+     */
     void write(CharSequence log);
 }
@@ -0,0 +1,14 @@
+package org.bakeryshop.service;
+
+/**
+ * The order lifecycle events of the process holding the orders.
+ */
+public interface OrderEventSource {
+
+    /**
+     * @param orderListener The listener to be notified about order lifecycle events
+     */
+    void addOrderListener(OrderListener orderListener);
+
+    void removeOrderListener(OrderListener orderListener);
+}
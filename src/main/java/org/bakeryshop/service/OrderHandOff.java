@@ -0,0 +1,27 @@
+package org.bakeryshop.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The blocking hand-off of the orders to the workers of the process holding them.
+ */
+public interface OrderHandOff {
+
+    /**
+     * Hands the completed orders to the waiting workers in completion order, each order to exactly one worker.
+     *
+     * @param timeout The maximal time to wait for a completed order
+     * @return The id of the completed order, empty when no order was completed within the timeout
+     */
+    Optional<UUID> takeCompletedOrder(Duration timeout);
+
+    /**
+     * Hands the prepared orders to the waiting workers in preparation order, each order to exactly one worker.
+     *
+     * @param timeout The maximal time to wait for a prepared order
+     * @return The id of the prepared order, empty when no order was prepared within the timeout
+     */
+    Optional<UUID> takePreparedOrder(Duration timeout);
+}
@@ -0,0 +1,87 @@
+package org.bakeryshop.service;
+
+import org.bakeryshop.util.ParameterArguments;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * FIFO hand-off of order ids to the waiting workers.
+ * Every offered id is handed to exactly one taker, ids offered while still queued are ignored.
+ * <p>
+ * The ids of the orders leaving their state are {@link #remove(UUID) removed}: they are dropped from the queued set
+ * at once and their queue entries are purged once the removed entries outnumber the queued ids,
+ * so the queue does not grow when nobody takes.
+ */
+final class OrderHandOffQueue {
+
+    /**
+     * The removed entries kept in the queue before a purge, at least.
+     */
+    static final int MIN_PURGE_THRESHOLD = 64;
+
+    private final BlockingQueue<UUID> queue = new LinkedBlockingQueue<>();
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+
+    void offer(UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        if (queued.add(orderId)) {
+            queue.offer(orderId);
+        }
+    }
+
+    /**
+     * Stops handing the id, e.g. of an order which was cancelled, delivered or moved on to the next state.
+     */
+    void remove(UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        if (queued.remove(orderId) && queue.size() - queued.size() > Math.max(queued.size(), MIN_PURGE_THRESHOLD)) {
+            queue.removeIf(queuedId -> !queued.contains(queuedId));
+        }
+    }
+
+    /**
+     * @return the amount of queue entries, including the removed ones not purged yet
+     */
+    int size() {
+        return queue.size();
+    }
+
+    /**
+     * The timeout bounds the wait for an id only, the queued ids are checked even when it elapsed while skipping.
+     *
+     * @param timeout  The maximal time to wait
+     * @param eligible The check skipping ids of orders which were concurrently moved on (cancelled, delivered etc.)
+     * @return the oldest eligible order id, empty when timeout elapsed
+     */
+    Optional<UUID> take(Duration timeout, Predicate<UUID> eligible) {
+        ParameterArguments.requireNotNullParameterArgument(timeout, "timeout");
+        ParameterArguments.requireNotNullParameterArgument(eligible, "eligible");
+
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        long remaining = timeout.toNanos();
+        try {
+            while (true) {
+                final var orderId = remaining > 0L ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                if (orderId == null) {
+                    return Optional.empty();
+                }
+                // a removed entry, or the older entry of an id offered again, is not queued anymore
+                if (queued.remove(orderId) && eligible.test(orderId)) {
+                    return Optional.of(orderId);
+                }
+                remaining = deadline - System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for order hand-off.");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.bakeryshop.service;
+
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+
+import java.util.UUID;
+
+/**
+ * Receives the order lifecycle events published by {@link PancakeService} after the change was persisted.
+ * Callbacks run on the calling thread, outside any order lock.
+ */
+public interface OrderListener {
+
+    default void orderCreated(PancakesOrderSnapshot order) {
+    }
+
+    /**
+     * @param orderId The id of the order which pancakes or state were changed,
+     *                the current state has to be looked up, as concurrent changes may be published out of order
+     */
+    default void orderChanged(UUID orderId) {
+    }
+
+    /**
+     * Published after {@link #orderChanged(UUID)} when the change moved the order to another state.
+     *
+     * @param previousState The state of the order before the change
+     * @param state         The state of the order after the change
+     */
+    default void orderStateChanged(UUID orderId, OrderState previousState, OrderState state) {
+    }
+
+    default void orderCancelled(PancakesOrderSnapshot order) {
+    }
+
+    default void orderDelivered(PancakesOrderSnapshot order) {
+    }
+}
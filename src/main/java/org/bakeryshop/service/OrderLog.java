@@ -1,5 +1,6 @@
 package org.bakeryshop.service;
 
+import org.bakeryshop.common.jfr.OrderLogFlushEvent;
 import org.bakeryshop.domain.model.order.PancakesOrder;
 import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
 import org.bakeryshop.domain.model.pancakes.PancakeRecipe;
@@ -10,6 +11,11 @@ import java.util.List;
 public final class OrderLog {
     private static final ThreadLocal<StringBuilder> logHolder = ThreadLocal.withInitial(StringBuilder::new);
 
+    /**
+     * The log buffer is reused by the next operation of the thread, unless it grew beyond this capacity.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 8 * 1024;
+
     private static StringBuilder log() {
         return logHolder.get();
     }
@@ -19,9 +25,10 @@ public final class OrderLog {
         ParameterArguments.requireNotBlankParameterArgument(description, "description");
         ParameterArguments.requireNotNullParameterArgument(pancakes, "pancakes");
 
-        log().append("Added pancake with description '%s' ".formatted(description))
-                .append("to order %s containing %d pancakes, ".formatted(order.getId(), pancakes.size()))
-                .append("for building %d, room %d.".formatted(order.getAddress().building().buildingNr(), order.getAddress().room()));
+        log().append("Added pancake with description '").append(description).append("' ")
+                .append("to order ").append(order.getId()).append(" containing ").append(pancakes.size()).append(" pancakes, ")
+                .append("for building ").append(order.getAddress().building().buildingNr())
+                .append(", room ").append(order.getAddress().room()).append('.');
     }
 
     public static void logRemovePancakes(PancakesOrder order, String description, int count, List<PancakeRecipe> pancakes) {
@@ -30,25 +37,44 @@ public final class OrderLog {
         ParameterArguments.requireNotBlankParameterArgument(description, "description");
         ParameterArguments.requireNotNullParameterArgument(pancakes, "pancakes");
 
-        log().append("Removed %d pancake(s) with description '%s' ".formatted(count, description))
-                .append("from order %s now containing %d pancakes, ".formatted(order.getId(), pancakes.size()))
-                .append("for building %d, room %d.".formatted(order.getAddress().buildingNr(), order.getAddress().room()));
+        log().append("Removed ").append(count).append(" pancake(s) with description '").append(description).append("' ")
+                .append("from order ").append(order.getId()).append(" now containing ").append(pancakes.size()).append(" pancakes, ")
+                .append("for building ").append(order.getAddress().buildingNr())
+                .append(", room ").append(order.getAddress().room()).append('.');
     }
 
     public static void logCancelOrder(PancakesOrder order, List<PancakeRecipe> pancakes) {
         ParameterArguments.requireNotNullParameterArgument(order, "order");
         ParameterArguments.requireNotNullParameterArgument(pancakes, "pancakes");
 
-        log().append("Cancelled order %s with %d pancakes ".formatted(order.getId(), pancakes.size()))
-                .append("for building %d, room %d.".formatted(order.getAddress().buildingNr(), order.getAddress().room()));
+        log().append("Cancelled order ").append(order.getId()).append(" with ").append(pancakes.size()).append(" pancakes ")
+                .append("for building ").append(order.getAddress().buildingNr())
+                .append(", room ").append(order.getAddress().room()).append('.');
     }
 
     public static void logDeliverOrder(PancakesOrderSnapshot order, List<PancakeRecipe> pancakes) {
         ParameterArguments.requireNotNullParameterArgument(order, "order");
         ParameterArguments.requireNotNullParameterArgument(pancakes, "pancakes");
 
-        log().append("Order %s with %d pancakes ".formatted(order.id(), order.pancakes().size()))
-                .append("for building %d, room %d out for delivery.".formatted(order.address().buildingNr(), order.address().room()));
+        log().append("Order ").append(order.id()).append(" with ").append(order.pancakes().size()).append(" pancakes ")
+                .append("for building ").append(order.address().buildingNr())
+                .append(", room ").append(order.address().room()).append(" out for delivery.");
+    }
+
+    public static void logDeliverBatch(int buildingNr, List<PancakesOrderSnapshot> orders) {
+        ParameterArguments.requirePositiveParameterArgument(buildingNr, "buildingNr");
+        ParameterArguments.requireNotEmptyParameterArgument(orders, "orders");
+
+        int pancakes = 0;
+        for (final var order : orders) {
+            pancakes += order.pancakes().size();
+        }
+        final var log = log().append("Batch of ").append(orders.size()).append(" order(s) with ").append(pancakes).append(" pancakes ")
+                .append("for building ").append(buildingNr).append(", rooms ");
+        for (int i = 0; i < orders.size(); i++) {
+            log.append(i == 0 ? "" : ", ").append(orders.get(i).address().room());
+        }
+        log.append(" out for delivery.");
     }
 
     public static void flushLogs(LogWriter logWriter) {
@@ -58,8 +84,17 @@ public final class OrderLog {
         if (logBuffer.isEmpty()) {
             return;
         }
+        final var flushEvent = new OrderLogFlushEvent();
+        flushEvent.begin();
         logWriter.write(logBuffer);
-        logHolder.set(new StringBuilder());
+        if (flushEvent.shouldCommit()) {
+            flushEvent.commit(logBuffer.length());
+        }
+        if (logBuffer.capacity() > MAX_RETAINED_CAPACITY) {
+            logHolder.set(new StringBuilder());
+        } else {
+            logBuffer.setLength(0);
+        }
     }
 
 }
@@ -0,0 +1,171 @@
+package org.bakeryshop.service;
+
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.service.usecase.cancel.CancelOrderResult;
+import org.bakeryshop.service.usecase.complete.CompleteOrderResult;
+import org.bakeryshop.service.usecase.create.CreateOrderResult;
+import org.bakeryshop.service.usecase.delivery.BatchDeliveryResult;
+import org.bakeryshop.service.usecase.delivery.OrderDeliveryResult;
+import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
+import org.bakeryshop.service.usecase.pancake.RemovePancakeResult;
+import org.bakeryshop.service.usecase.prepare.PrepareOrderResult;
+
+import java.util.*;
+
+/**
+ * The commands and queries of the pancake orders, served by the local {@link PancakeService}
+ * and by the remote clients alike.
+ */
+public interface PancakeOrderOperations {
+
+    /**
+     * @param buildingNr The building number
+     * @param room       The room
+     * @return object encapsulating the order creation
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    CreateOrderResult createOrder(int buildingNr, int room);
+
+    /**
+     * @param requestId  The idempotency key, the duplicates of a request get the original result
+     * @param buildingNr The building number
+     * @param room       The room
+     * @return object encapsulating the order creation
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    CreateOrderResult createOrder(String requestId, int buildingNr, int room);
+
+    /**
+     * @param orderId     The order id
+     * @param count       The amount of pancakes
+     * @param ingredients The ingredients
+     * @return object encapsulating the order creation
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    AddPancakeResult addPancakes(UUID orderId, int count, Set<PancakeIngredient> ingredients);
+
+    /**
+     * @param requestId   The idempotency key, the duplicates of a request get the original result
+     * @param orderId     The order id
+     * @param count       The amount of pancakes
+     * @param ingredients The ingredients
+     * @return object encapsulating the pancakes addition
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    AddPancakeResult addPancakes(String requestId, UUID orderId, int count, Set<PancakeIngredient> ingredients);
+
+    /**
+     * @param orderId     The order id
+     * @param count       The amount of pancakes
+     * @param description The description of pancakes to remove
+     * @return object encapsulating the pancakes removal
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    RemovePancakeResult removePancakes(UUID orderId, String description, int count);
+
+    /**
+     * @param requestId   The idempotency key, the duplicates of a request get the original result
+     * @param orderId     The order id
+     * @param count       The amount of pancakes
+     * @param description The description of pancakes to remove
+     * @return object encapsulating the pancakes removal
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    RemovePancakeResult removePancakes(String requestId, UUID orderId, String description, int count);
+
+    /**
+     * @param orderId The order id
+     * @return object encapsulating the order cancellation
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    CancelOrderResult cancelOrder(UUID orderId);
+
+    /**
+     * @param requestId The idempotency key, the duplicates of a request get the original result
+     * @param orderId   The order id
+     * @return object encapsulating the order cancellation
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    CancelOrderResult cancelOrder(String requestId, UUID orderId);
+
+    /**
+     * @param orderId The order id
+     * @return object encapsulating the order completion
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    CompleteOrderResult completeOrder(UUID orderId);
+
+    /**
+     * @param requestId The idempotency key, the duplicates of a request get the original result
+     * @param orderId   The order id
+     * @return object encapsulating the order completion
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    CompleteOrderResult completeOrder(String requestId, UUID orderId);
+
+    /**
+     * @param orderId The order id
+     * @return object encapsulating the order preparation
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    PrepareOrderResult prepareOrder(UUID orderId);
+
+    /**
+     * @param requestId The idempotency key, the duplicates of a request get the original result
+     * @param orderId   The order id
+     * @return object encapsulating the order preparation
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    PrepareOrderResult prepareOrder(String requestId, UUID orderId);
+
+    /**
+     * @param orderId The order id
+     * @return object encapsulating the order delivery
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    OrderDeliveryResult deliverOrder(UUID orderId);
+
+    /**
+     * @param requestId The idempotency key, the duplicates of a request get the original result
+     * @param orderId   The order id
+     * @return object encapsulating the order delivery
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    OrderDeliveryResult deliverOrder(String requestId, UUID orderId);
+
+    /**
+     * Delivers the prepared orders at once, logging a single delivery per building.
+     *
+     * @param orderIds The order ids
+     * @return object encapsulating the delivered orders and the failures of orders which could not be delivered
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    BatchDeliveryResult deliverOrders(Collection<UUID> orderIds);
+
+    /**
+     * @param requestId The idempotency key, the duplicates of a request get the original result
+     * @param orderIds  The order ids
+     * @return object encapsulating the delivered orders and the failures of orders which could not be delivered
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    BatchDeliveryResult deliverOrders(String requestId, Collection<UUID> orderIds);
+
+    /**
+     * @param orderId The order id
+     * @return The list  of pancake descriptions
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    List<String> viewOrder(UUID orderId);
+
+    /**
+     * @return The list of completed order ids
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    Set<UUID> listCompletedOrders();
+
+    /**
+     * @return The list of prepared order ids
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    Set<UUID> listPreparedOrders();
+}
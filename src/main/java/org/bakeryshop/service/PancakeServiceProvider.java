@@ -1,21 +1,74 @@
 package org.bakeryshop.service;
 
-import org.bakeryshop.domain.model.address.Building;
-import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.common.config.Configuration;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.address.BuildingRepository;
+import org.bakeryshop.domain.repository.address.BuildingRepositoryFactory;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepositoryFactory;
+import org.bakeryshop.domain.repository.address.ReloadableBuildingCatalog;
 import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepositoryFactory;
+import org.bakeryshop.domain.repository.order.PancakesOrderRepository;
+import org.bakeryshop.domain.repository.order.PancakesOrderRepositoryFactory;
+import org.bakeryshop.service.admission.AdmissionControl;
+import org.bakeryshop.service.admission.AdmissionControlledPancakeService;
+import org.bakeryshop.service.inventory.IngredientInventory;
+import org.bakeryshop.service.jfr.FlightRecordedPancakeService;
+import org.bakeryshop.service.jmx.BuildingCatalogManagement;
+import org.bakeryshop.service.jmx.ManagementBeans;
+import org.bakeryshop.service.jmx.OperationalStatsManagement;
+import org.bakeryshop.service.jmx.PancakeServiceManagement;
+import org.bakeryshop.service.jmx.PancakesOrderRepositoryManagement;
+import org.bakeryshop.service.metrics.MeteredPancakeService;
+import org.bakeryshop.service.metrics.MetricsRegistry;
+import org.bakeryshop.service.metrics.OperationalCounters;
+import org.bakeryshop.util.ParameterArguments;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.Objects;
-import java.util.Set;
+import java.util.ServiceLoader;
+import java.util.function.Function;
 
+/**
+ * Builds the service graph of a {@link Configuration}:
+ * <pre>
+ * bakery.orders.repository                the name of the PancakesOrderRepositoryFactory, default in-memory
+ * bakery.buildings.repository             the name of the BuildingRepositoryFactory, default fixed-set
+ * bakery.admission.maxInFlight            the requests executed at once, default 256
+ * bakery.admission.maxInFlightPerBuilding the requests of a building executed at once, default 32
+ * bakery.admission.maxQueueWaitMillis     the time a request waits for admission, default 10
+ * bakery.idempotency.maxEntries           the results kept for duplicate requests, default 10000
+ * bakery.idempotency.timeToLiveMillis     the time a result is kept for duplicate requests, default 300000
+ * bakery.inventory.stock                  the stock of the tracked ingredients as INGREDIENT:units pairs, default none
+ * </pre>
+ * The repository factories are discovered by {@link ServiceLoader} and have their own properties,
+ * see {@link InMemoryPancakesOrderRepositoryFactory}, {@link FixedSetBuildingRepositoryFactory}
+ * and {@link org.bakeryshop.domain.repository.address.ReloadableBuildingCatalogFactory}.
+ */
 public final class PancakeServiceProvider {
 
+    static final String ORDER_REPOSITORY = "bakery.orders.repository";
+    static final String BUILDING_REPOSITORY = "bakery.buildings.repository";
+    static final String MAX_IN_FLIGHT = "bakery.admission.maxInFlight";
+    static final String MAX_IN_FLIGHT_PER_BUILDING = "bakery.admission.maxInFlightPerBuilding";
+    static final String MAX_QUEUE_WAIT_MILLIS = "bakery.admission.maxQueueWaitMillis";
+    static final String IDEMPOTENCY_MAX_ENTRIES = "bakery.idempotency.maxEntries";
+    static final String IDEMPOTENCY_TIME_TO_LIVE_MILLIS = "bakery.idempotency.timeToLiveMillis";
+    static final String INVENTORY_STOCK = "bakery.inventory.stock";
+
     private PancakeServiceProvider() {
         super();
     }
 
     private static volatile PancakeService service;
+    private static MetricsRegistry metricsRegistry;
+    private static volatile TenantRegistry tenantRegistry;
 
+    /**
+     * @return the service of the {@link Configuration#load() loaded} configuration, its MBeans are registered
+     */
     public static PancakeService pancakeService() {
         if (Objects.nonNull(service)) {
             return service;
@@ -24,11 +77,140 @@ public final class PancakeServiceProvider {
             if (Objects.nonNull(service)) {
                 return service;
             }
-            service = new PancakeService(
-                    new InMemoryPancakesOrderRepository(Duration.ofMillis(100L)),
-                    new FixedSetBuildingRepository(Set.of(new Building(10, 20)))
-            );
+            final var serviceGraph = build(Configuration.load());
+            metricsRegistry = serviceGraph.metricsRegistry();
+            registerManagementBeans(serviceGraph, "");
+            service = serviceGraph.pancakeService();
             return service;
         }
     }
+
+    /**
+     * @return the tenants of the {@link Configuration#load() loaded} configuration, see {@link TenantRegistry},
+     * their MBeans are registered with the {@code tenant} key, e.g. {@code org.bakeryshop:type=PancakeService,tenant=north}
+     */
+    public static TenantRegistry tenantRegistry() {
+        if (Objects.nonNull(tenantRegistry)) {
+            return tenantRegistry;
+        }
+        synchronized (PancakeServiceProvider.class) {
+            if (Objects.isNull(tenantRegistry)) {
+                tenantRegistry = TenantRegistry.build(Configuration.load(),
+                        (tenantId, serviceGraph) -> registerManagementBeans(serviceGraph, ",tenant=" + tenantId));
+            }
+            return tenantRegistry;
+        }
+    }
+
+    /**
+     * @return a new service of the configuration, without MBeans
+     * @throws IllegalArgumentException when a property is invalid or names no discovered factory
+     */
+    public static PancakeService create(Configuration configuration) {
+        return build(configuration).pancakeService();
+    }
+
+    /**
+     * @return the metrics of the service returned by {@link #pancakeService()}
+     */
+    public static MetricsRegistry metricsRegistry() {
+        pancakeService();
+        synchronized (PancakeServiceProvider.class) {
+            return metricsRegistry;
+        }
+    }
+
+    static ServiceGraph build(Configuration configuration) {
+        ParameterArguments.requireNotNullParameterArgument(configuration, "configuration");
+        final var pancakesOrderRepository = factory(PancakesOrderRepositoryFactory.class,
+                PancakesOrderRepositoryFactory::name,
+                configuration.getString(ORDER_REPOSITORY, InMemoryPancakesOrderRepositoryFactory.NAME))
+                .create(configuration);
+        final var buildingRepository = factory(BuildingRepositoryFactory.class,
+                BuildingRepositoryFactory::name,
+                configuration.getString(BUILDING_REPOSITORY, FixedSetBuildingRepositoryFactory.NAME))
+                .create(configuration);
+        final var admissionControl = new AdmissionControl(
+                configuration.getPositiveInt(MAX_IN_FLIGHT, 256),
+                configuration.getPositiveInt(MAX_IN_FLIGHT_PER_BUILDING, 32),
+                configuration.getMillis(MAX_QUEUE_WAIT_MILLIS, Duration.ofMillis(10L)));
+        final var idempotencyCache = new IdempotencyCache(
+                configuration.getPositiveInt(IDEMPOTENCY_MAX_ENTRIES, 10_000),
+                configuration.getMillis(IDEMPOTENCY_TIME_TO_LIVE_MILLIS, Duration.ofMinutes(5L)));
+        final var metricsRegistry = new MetricsRegistry();
+        final var meteredService = new MeteredPancakeService(
+                new FlightRecordedPancakeService(
+                        new AdmissionControlledPancakeService(
+                                new SimplePancakeService(pancakesOrderRepository, buildingRepository, idempotencyCache,
+                                        ingredientInventory(configuration)),
+                                pancakesOrderRepository,
+                                admissionControl
+                        ),
+                        pancakesOrderRepository
+                ),
+                metricsRegistry
+        );
+        return new ServiceGraph(meteredService, pancakesOrderRepository, buildingRepository, admissionControl, metricsRegistry,
+                OperationalCounters.attachedTo(meteredService));
+    }
+
+    /**
+     * @param nameSuffix The keys appended to the object names, empty or starting with a comma
+     */
+    private static void registerManagementBeans(ServiceGraph serviceGraph, String nameSuffix) {
+        if (serviceGraph.pancakesOrderRepository() instanceof InMemoryPancakesOrderRepository inMemoryRepository) {
+            ManagementBeans.register(PancakesOrderRepositoryManagement.OBJECT_NAME + nameSuffix,
+                    new PancakesOrderRepositoryManagement(inMemoryRepository));
+        }
+        if (serviceGraph.buildingRepository() instanceof ReloadableBuildingCatalog buildingCatalog) {
+            ManagementBeans.register(BuildingCatalogManagement.OBJECT_NAME + nameSuffix,
+                    new BuildingCatalogManagement(buildingCatalog));
+        }
+        ManagementBeans.register(PancakeServiceManagement.OBJECT_NAME + nameSuffix,
+                new PancakeServiceManagement(serviceGraph.admissionControl(), serviceGraph.metricsRegistry()));
+        ManagementBeans.register(OperationalStatsManagement.OBJECT_NAME + nameSuffix,
+                new OperationalStatsManagement(serviceGraph.operationalCounters()));
+    }
+
+    private static IngredientInventory ingredientInventory(Configuration configuration) {
+        final var stock = new EnumMap<PancakeIngredient, Long>(PancakeIngredient.class);
+        final var ingredients = configuration.getString(INVENTORY_STOCK, "");
+        if (ingredients.isEmpty()) {
+            return IngredientInventory.unlimited();
+        }
+        for (final var ingredient : ingredients.split(",")) {
+            final var parts = ingredient.trim().split(":");
+            try {
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException();
+                }
+                stock.put(PancakeIngredient.valueOf(parts[0].trim()), Long.parseLong(parts[1].trim()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        "Property '%s' should list INGREDIENT:units pairs, but had '%s'.".formatted(INVENTORY_STOCK, ingredient));
+            }
+        }
+        return new IngredientInventory(stock);
+    }
+
+    private static <F> F factory(Class<F> type, Function<F, String> nameOf, String name) {
+        final var names = new ArrayList<String>();
+        for (final var factory : ServiceLoader.load(type, PancakeServiceProvider.class.getClassLoader())) {
+            if (nameOf.apply(factory).equals(name)) {
+                return factory;
+            }
+            names.add(nameOf.apply(factory));
+        }
+        throw new IllegalArgumentException("No %s named '%s', found %s.".formatted(type.getSimpleName(), name, names));
+    }
+
+    record ServiceGraph(
+            PancakeService pancakeService,
+            PancakesOrderRepository pancakesOrderRepository,
+            BuildingRepository buildingRepository,
+            AdmissionControl admissionControl,
+            MetricsRegistry metricsRegistry,
+            OperationalCounters operationalCounters
+    ) {
+    }
 }
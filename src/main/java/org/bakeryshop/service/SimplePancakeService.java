@@ -0,0 +1,518 @@
+package org.bakeryshop.service;
+
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.domain.model.order.PancakesOrder;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.address.BuildingRepository;
+import org.bakeryshop.domain.repository.order.OrderNotFoundException;
+import org.bakeryshop.domain.repository.order.PancakesOrderRepository;
+import org.bakeryshop.service.inventory.IngredientInventory;
+import org.bakeryshop.service.usecase.Failure;
+import org.bakeryshop.service.usecase.Result;
+import org.bakeryshop.service.usecase.cancel.CancelOrderResult;
+import org.bakeryshop.service.usecase.complete.CompleteOrderResult;
+import org.bakeryshop.service.usecase.create.CreateOrderResult;
+import org.bakeryshop.service.usecase.delivery.BatchDeliveryResult;
+import org.bakeryshop.service.usecase.delivery.OrderDeliveryResult;
+import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
+import org.bakeryshop.service.usecase.pancake.RemovePancakeResult;
+import org.bakeryshop.service.usecase.prepare.PrepareOrderResult;
+import org.bakeryshop.util.ParameterArguments;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+public class SimplePancakeService implements PancakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimplePancakeService.class);
+
+    private final PancakesOrderRepository pancakesOrderRepository;
+    private final BuildingRepository buildingRepository;
+    private final OrderHandOffQueue completedOrders = new OrderHandOffQueue();
+    private final OrderHandOffQueue preparedOrders = new OrderHandOffQueue();
+    private final List<OrderListener> orderListeners = new CopyOnWriteArrayList<>();
+    private final IdempotencyCache idempotencyCache;
+    private final IngredientInventory ingredientInventory;
+
+    public SimplePancakeService(PancakesOrderRepository pancakesOrderRepository,
+                                BuildingRepository buildingRepository) {
+        this(pancakesOrderRepository, buildingRepository, new IdempotencyCache(10_000, Duration.ofMinutes(5L)));
+    }
+
+    public SimplePancakeService(PancakesOrderRepository pancakesOrderRepository,
+                                BuildingRepository buildingRepository,
+                                IdempotencyCache idempotencyCache) {
+        this(pancakesOrderRepository, buildingRepository, idempotencyCache, IngredientInventory.unlimited());
+    }
+
+    /**
+     * @param ingredientInventory The stock the pancakes are reserved from when added, see {@link IngredientInventory}
+     */
+    public SimplePancakeService(PancakesOrderRepository pancakesOrderRepository,
+                                BuildingRepository buildingRepository,
+                                IdempotencyCache idempotencyCache,
+                                IngredientInventory ingredientInventory) {
+        ParameterArguments.requireNotNullParameterArgument(idempotencyCache, "idempotencyCache");
+        ParameterArguments.requireNotNullParameterArgument(ingredientInventory, "ingredientInventory");
+        this.pancakesOrderRepository = pancakesOrderRepository;
+        this.buildingRepository = buildingRepository;
+        this.idempotencyCache = idempotencyCache;
+        this.ingredientInventory = ingredientInventory;
+    }
+
+    @Override
+    public CreateOrderResult createOrder(int buildingNr, int room) {
+        ParameterArguments.requirePositiveParameterArgument(buildingNr, "buildingNr");
+        ParameterArguments.requirePositiveParameterArgument(room, "room");
+        return buildingRepository.find(buildingNr)
+                .filter(thisBuilding -> thisBuilding.hasRoom(room))
+                .map(thisBuilding -> supplyWitFlashingLogs(
+                        () -> pancakesOrderRepository.create(thisBuilding, room)))
+                .map(PancakesOrder::snapshot)
+                .map(createdOrder -> publish(createdOrder, OrderListener::orderCreated))
+                .map(CreateOrderResult::of)
+                .orElseGet(CreateOrderResult::invalidAddress);
+    }
+
+    @Override
+    public CreateOrderResult createOrder(String requestId, int buildingNr, int room) {
+        return idempotencyCache.execute("createOrder", requestId, List.of(buildingNr, room),
+                () -> createOrder(buildingNr, room));
+    }
+
+    @Override
+    public AddPancakeResult addPancakes(UUID orderId, int count, Set<PancakeIngredient> ingredients) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        ParameterArguments.requirePositiveParameterArgument(count, "count");
+
+        // set under the order lock while the reserved stock is not added to the order yet
+        final var reservationPending = new boolean[1];
+        try {
+            return modifyOrder(
+                    orderId,
+                    pancakesOrder -> {
+                        if (!ingredientInventory.tryReserve(ingredients, count)) {
+                            return Optional.of(AddPancakeResult.insufficientStock());
+                        }
+                        reservationPending[0] = true;
+                        return Optional.empty();
+                    },
+                    pancakesOrder -> {
+                        final var modifiedOrder = addReservedPancakes(pancakesOrder, count, ingredients);
+                        reservationPending[0] = false;
+                        return modifiedOrder;
+                    },
+                    any -> AddPancakeResult.success(),
+                    AddPancakeResult::orderNotFound
+            );
+        } finally {
+            if (reservationPending[0]) {
+                // the order was not found or refused the pancakes
+                ingredientInventory.release(ingredients, count);
+            }
+        }
+    }
+
+    @Override
+    public AddPancakeResult addPancakes(String requestId, UUID orderId, int count, Set<PancakeIngredient> ingredients) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        ParameterArguments.requireNotNullParameterArgument(ingredients, "ingredients");
+        return idempotencyCache.execute("addPancakes", requestId, List.of(orderId, count, ingredients),
+                () -> addPancakes(orderId, count, ingredients));
+    }
+
+    @Override
+    public RemovePancakeResult removePancakes(UUID orderId, String description, int count) {
+        ParameterArguments.requireNotBlankParameterArgument(description, "description");
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        ParameterArguments.requirePositiveParameterArgument(count, "count");
+
+        return modifyOrder(
+                orderId,
+                pancakesOrder -> removeReservedPancakes(pancakesOrder, description, count),
+                any -> RemovePancakeResult.success(),
+                RemovePancakeResult::orderNotFound
+        );
+    }
+
+    @Override
+    public RemovePancakeResult removePancakes(String requestId, UUID orderId, String description, int count) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        ParameterArguments.requireNotBlankParameterArgument(description, "description");
+        return idempotencyCache.execute("removePancakes", requestId, List.of(orderId, description, count),
+                () -> removePancakes(orderId, description, count));
+    }
+
+    @Override
+    public CancelOrderResult cancelOrder(UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+
+        return supplyWitFlashingLogs(() -> pancakesOrderRepository.find(orderId)
+                .flatMap(panCakesOrder -> removeReleasingStock(panCakesOrder.getId()))
+                .map(panCakesOrder -> {
+                    panCakesOrder.handleOrderCanceled();
+                    completedOrders.remove(panCakesOrder.getId());
+                    preparedOrders.remove(panCakesOrder.getId());
+                    if (!orderListeners.isEmpty()) {
+                        publish(panCakesOrder.snapshot(), OrderListener::orderCancelled);
+                    }
+                    return CancelOrderResult.success();
+                })
+                .orElseGet(CancelOrderResult::orderNotFound)
+        );
+    }
+
+    @Override
+    public CancelOrderResult cancelOrder(String requestId, UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        return idempotencyCache.execute("cancelOrder", requestId, orderId, () -> cancelOrder(orderId));
+    }
+
+    @Override
+    public CompleteOrderResult completeOrder(UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+
+        // read and written under the order lock, the success runs on the same thread
+        final var previousState = new OrderState[1];
+        return modifyOrder(
+                orderId,
+                pancakesOrder -> {
+                    previousState[0] = pancakesOrder.getState();
+                    final var completedOrder = pancakesOrder.markAsCompleted();
+                    if (previousState[0] == OrderState.PREPARED && !ingredientInventory.isUnlimited()) {
+                        // consumed only while prepared, so preparing it again does not consume twice
+                        ingredientInventory.unconsumeAll(completedOrder.getPancakes());
+                    }
+                    return completedOrder;
+                },
+                completedOrder -> {
+                    publishStateChanged(completedOrder.getId(), previousState[0], OrderState.COMPLETED);
+                    if (previousState[0] == OrderState.PREPARED) {
+                        preparedOrders.remove(completedOrder.getId());
+                    }
+                    completedOrders.offer(completedOrder.getId());
+                    return CompleteOrderResult.success();
+                },
+                CompleteOrderResult::orderNotFound
+        );
+    }
+
+    @Override
+    public CompleteOrderResult completeOrder(String requestId, UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        return idempotencyCache.execute("completeOrder", requestId, orderId, () -> completeOrder(orderId));
+    }
+
+    @Override
+    public PrepareOrderResult prepareOrder(UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+
+        return modifyOrder(
+                orderId,
+                pancakesOrder -> pancakesOrder.isCompleted()
+                        ? Optional.empty()
+                        : Optional.of(PrepareOrderResult.orderNotCompleted()),
+                pancakesOrder -> {
+                    final var preparedOrder = pancakesOrder.markAsPrepared();
+                    if (!ingredientInventory.isUnlimited()) {
+                        ingredientInventory.consumeAll(preparedOrder.getPancakes());
+                    }
+                    return preparedOrder;
+                },
+                preparedOrder -> {
+                    publishStateChanged(preparedOrder.getId(), OrderState.COMPLETED, OrderState.PREPARED);
+                    completedOrders.remove(preparedOrder.getId());
+                    preparedOrders.offer(preparedOrder.getId());
+                    return PrepareOrderResult.success();
+                },
+                PrepareOrderResult::orderNotFound
+        );
+    }
+
+    @Override
+    public PrepareOrderResult prepareOrder(String requestId, UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        return idempotencyCache.execute("prepareOrder", requestId, orderId, () -> prepareOrder(orderId));
+    }
+
+    @Override
+    public OrderDeliveryResult deliverOrder(UUID orderId) {
+        return findOrder(orderId)
+                .map(pancakesOrder -> {
+                    if (!pancakesOrder.isPrepared()) {
+                        return supplyWitFlashingLogs(OrderDeliveryResult::notPrepared);
+                    }
+                    return supplyWitFlashingLogs(() -> pancakesOrderRepository.removeIf(orderId, PancakesOrder::isPrepared)
+                            .map(thisPanCakesOrder -> {
+                                final var orderedForDelivery = thisPanCakesOrder.snapshot();
+                                preparedOrders.remove(orderId);
+                                OrderLog.logDeliverOrder(orderedForDelivery, orderedForDelivery.pancakes());
+                                publish(orderedForDelivery, OrderListener::orderDelivered);
+                                return OrderDeliveryResult.of(orderedForDelivery);
+                            })
+                            .orElseGet(() -> findOrder(orderId).isPresent()
+                                    ? OrderDeliveryResult.notPrepared()
+                                    : OrderDeliveryResult.concurrentlyDelivered()));
+                })
+                .orElseGet(OrderDeliveryResult::orderNotFound);
+    }
+
+    @Override
+    public OrderDeliveryResult deliverOrder(String requestId, UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        return idempotencyCache.execute("deliverOrder", requestId, orderId, () -> deliverOrder(orderId));
+    }
+
+    @Override
+    public BatchDeliveryResult deliverOrders(Collection<UUID> orderIds) {
+        ParameterArguments.requireNotNullParameterArgument(orderIds, "orderIds");
+
+        return supplyWitFlashingLogs(() -> {
+            final var preparedOrderIds = new LinkedHashSet<UUID>(orderIds.size());
+            final var failures = new HashMap<UUID, OrderDeliveryResult.OrderDeliveryFailure>();
+            for (final var orderId : orderIds) {
+                findOrder(orderId).ifPresentOrElse(
+                        pancakesOrder -> {
+                            if (pancakesOrder.isPrepared()) {
+                                preparedOrderIds.add(orderId);
+                            } else {
+                                failures.put(orderId, OrderDeliveryResult.OrderDeliveryFailure.NOT_PREPARED);
+                            }
+                        },
+                        () -> failures.put(orderId, OrderDeliveryResult.OrderDeliveryFailure.ORDER_NOT_FOUND));
+            }
+            final var deliveredOrders = new ArrayList<PancakesOrderSnapshot>(preparedOrderIds.size());
+            for (final var removedOrder : pancakesOrderRepository.removeAll(preparedOrderIds, PancakesOrder::isPrepared)) {
+                preparedOrderIds.remove(removedOrder.getId());
+                preparedOrders.remove(removedOrder.getId());
+                deliveredOrders.add(removedOrder.snapshot());
+            }
+            for (final var orderId : preparedOrderIds) {
+                failures.put(orderId, OrderDeliveryResult.OrderDeliveryFailure.CONCURRENTLY_DELIVERED);
+            }
+            deliveredOrders.sort(Comparator.comparingInt((PancakesOrderSnapshot order) -> order.address().buildingNr())
+                    .thenComparingInt(order -> order.address().room()));
+            logDeliveredBatches(deliveredOrders);
+            for (final var deliveredOrder : deliveredOrders) {
+                publish(deliveredOrder, OrderListener::orderDelivered);
+            }
+            return new BatchDeliveryResult(deliveredOrders, failures);
+        });
+    }
+
+    @Override
+    public BatchDeliveryResult deliverOrders(String requestId, Collection<UUID> orderIds) {
+        ParameterArguments.requireNotNullParameterArgument(orderIds, "orderIds");
+        // the same orders in any order are the same batch
+        return idempotencyCache.execute("deliverOrders", requestId, new HashSet<>(orderIds), () -> deliverOrders(orderIds));
+    }
+
+    @Override
+    public List<String> viewOrder(UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+
+        return supplyWitFlashingLogs(() -> pancakesOrderRepository.find(orderId)
+                .map(PancakesOrder::pancakeDescriptions)
+                .orElse(List.of()));
+    }
+
+    @Override
+    public Set<UUID> listCompletedOrders() {
+        return supplyWitFlashingLogs(pancakesOrderRepository::listCompletedOrdersIds);
+    }
+
+    @Override
+    public Set<UUID> listPreparedOrders() {
+        return supplyWitFlashingLogs(pancakesOrderRepository::listPreparedOrdersIds);
+    }
+
+    @Override
+    public Optional<UUID> takeCompletedOrder(Duration timeout) {
+        return completedOrders.take(timeout, orderId -> findOrder(orderId)
+                .filter(PancakesOrder::isCompleted)
+                .isPresent());
+    }
+
+    @Override
+    public Optional<UUID> takePreparedOrder(Duration timeout) {
+        return preparedOrders.take(timeout, orderId -> findOrder(orderId)
+                .filter(PancakesOrder::isPrepared)
+                .isPresent());
+    }
+
+    /**
+     * Removes the order and releases its stock, unless it was consumed by preparing the order. Whether it was consumed
+     * is read under the order lock together with the removal, so a concurrent preparation consumes before or not at all.
+     */
+    private Optional<PancakesOrder> removeReleasingStock(UUID orderId) {
+        if (ingredientInventory.isUnlimited()) {
+            return pancakesOrderRepository.remove(orderId);
+        }
+        final var consumed = new boolean[1];
+        final var removedOrder = pancakesOrderRepository.removeIf(orderId, pancakesOrder -> {
+            consumed[0] = pancakesOrder.isPrepared();
+            return true;
+        });
+        if (removedOrder.isPresent() && !consumed[0]) {
+            // the removed order can not change anymore, its pancakes are final
+            ingredientInventory.releaseAll(removedOrder.get().getPancakes());
+        }
+        return removedOrder;
+    }
+
+    /**
+     * Adds the pancakes of the reserved stock, the stock of the pancakes added to a prepared order is consumed at once.
+     */
+    private PancakesOrder addReservedPancakes(PancakesOrder pancakesOrder, int count, Set<PancakeIngredient> ingredients) {
+        final var modifiedOrder = pancakesOrder.addPancakes(count, ingredients);
+        if (!ingredientInventory.isUnlimited() && modifiedOrder.isPrepared()) {
+            final var pancakes = modifiedOrder.getPancakes();
+            ingredientInventory.consumeAll(pancakes.subList(pancakes.size() - count, pancakes.size()));
+        }
+        return modifiedOrder;
+    }
+
+    /**
+     * Removes the pancakes and releases their stock, unless it was consumed by preparing the order.
+     */
+    private PancakesOrder removeReservedPancakes(PancakesOrder pancakesOrder, String description, int count) {
+        if (ingredientInventory.isUnlimited() || pancakesOrder.isPrepared()) {
+            return pancakesOrder.removePancakes(description, count);
+        }
+        final var before = pancakesOrder.getPancakes();
+        final var modifiedOrder = pancakesOrder.removePancakes(description, count);
+        final int removed = before.size() - modifiedOrder.getPancakes().size();
+        if (removed > 0) {
+            for (final var pancake : before) {
+                if (pancake.description().equals(description)) {
+                    ingredientInventory.release(pancake.ingredients(), removed);
+                    break;
+                }
+            }
+        }
+        return modifiedOrder;
+    }
+
+    private <F extends Failure, R extends Result<F>> R modifyOrder(
+            UUID orderId,
+            UnaryOperator<PancakesOrder> modifyFunction,
+            Function<PancakesOrder, R> successFunction,
+            Supplier<R> orderNotFoundResultSupplier) {
+        return modifyOrder(
+                orderId,
+                any -> Optional.empty(),
+                modifyFunction,
+                successFunction,
+                orderNotFoundResultSupplier
+        );
+    }
+
+    private <F extends Failure, R extends Result<F>> R modifyOrder(
+            UUID orderId,
+            Function<PancakesOrder, Optional<R>> validateFunction,
+            UnaryOperator<PancakesOrder> modifyFunction,
+            Function<PancakesOrder, R> successFunction,
+            Supplier<R> orderNotFoundResultSupplier) {
+        return supplyWitFlashingLogs(() -> {
+            try {
+                return findOrder(orderId)
+                        .map(pancakesOrder -> {
+                            // the found order is modified in place, its update only checks it was not removed
+                            final var failure = pancakesOrder.modifyIf(validateFunction,
+                                    order -> pancakesOrderRepository.update(modifyFunction.apply(order)));
+                            if (failure.isPresent()) {
+                                return failure.get();
+                            }
+                            return successFunction.apply(publishOrderChanged(pancakesOrder));
+                        })
+                        .orElseGet(orderNotFoundResultSupplier);
+            } catch (OrderNotFoundException e) {
+                // removed between its lookup and its modification
+                return orderNotFoundResultSupplier.get();
+            }
+        });
+    }
+
+    @Override
+    public void addOrderListener(OrderListener orderListener) {
+        ParameterArguments.requireNotNullParameterArgument(orderListener, "orderListener");
+        orderListeners.add(orderListener);
+    }
+
+    @Override
+    public void removeOrderListener(OrderListener orderListener) {
+        orderListeners.remove(orderListener);
+    }
+
+    private PancakesOrder publishOrderChanged(PancakesOrder pancakesOrder) {
+        final var orderId = pancakesOrder.getId();
+        for (final var orderListener : orderListeners) {
+            notifyListener(orderListener, listener -> listener.orderChanged(orderId));
+        }
+        return pancakesOrder;
+    }
+
+    private void publishStateChanged(UUID orderId, OrderState previousState, OrderState state) {
+        if (previousState != state) {
+            for (final var orderListener : orderListeners) {
+                notifyListener(orderListener, listener -> listener.orderStateChanged(orderId, previousState, state));
+            }
+        }
+    }
+
+    private PancakesOrderSnapshot publish(PancakesOrderSnapshot order,
+                                          BiConsumer<OrderListener, PancakesOrderSnapshot> event) {
+        for (final var orderListener : orderListeners) {
+            notifyListener(orderListener, listener -> event.accept(listener, order));
+        }
+        return order;
+    }
+
+    private static void notifyListener(OrderListener orderListener, Consumer<OrderListener> notification) {
+        try {
+            notification.accept(orderListener);
+        } catch (RuntimeException e) {
+            logger.warn("Order listener {} failed.", orderListener, e);
+        }
+    }
+
+    private static void logDeliveredBatches(List<PancakesOrderSnapshot> deliveredOrders) {
+        int from = 0;
+        for (int i = 1; i <= deliveredOrders.size(); i++) {
+            if (i == deliveredOrders.size()
+                    || deliveredOrders.get(i).address().buildingNr() != deliveredOrders.get(from).address().buildingNr()) {
+                OrderLog.logDeliverBatch(deliveredOrders.get(from).address().buildingNr(), deliveredOrders.subList(from, i));
+                from = i;
+            }
+        }
+    }
+
+    private Optional<PancakesOrder> findOrder(UUID orderId) {
+        return pancakesOrderRepository.find(orderId);
+    }
+
+    private <T> T supplyWitFlashingLogs(Supplier<T> supplier) {
+        try {
+            return supplier.get();
+        } finally {
+            flushLogs();
+        }
+    }
+
+    private void flushLogs() {
+        OrderLog.flushLogs(log -> {
+            if (logger.isDebugEnabled()) {
+                logger.debug(log.toString());
+            }
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package org.bakeryshop.service;
+
+import org.bakeryshop.service.admission.AdmissionControl;
+import org.bakeryshop.service.metrics.MetricsRegistry;
+import org.bakeryshop.service.metrics.OperationalCounters;
+
+/**
+ * A bakery of the {@link TenantRegistry} and the parts of its own service graph.
+ *
+ * @param id                  The id of the tenant
+ * @param pancakeService      The service of the tenant
+ * @param admissionControl    The resource limits of the tenant
+ * @param metricsRegistry     The operation metrics of the tenant
+ * @param operationalCounters The live numbers of the tenant
+ */
+public record Tenant(
+        String id,
+        PancakeService pancakeService,
+        AdmissionControl admissionControl,
+        MetricsRegistry metricsRegistry,
+        OperationalCounters operationalCounters
+) {
+}
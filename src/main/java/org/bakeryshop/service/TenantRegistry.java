@@ -0,0 +1,97 @@
+package org.bakeryshop.service;
+
+import org.bakeryshop.common.config.Configuration;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * The bakeries sharing the JVM, configured by:
+ * <pre>
+ * bakery.tenants              the comma separated tenant ids, of lower case letters, digits and dashes
+ * bakery.tenant.&lt;id&gt;.&lt;key&gt;   the property {@code bakery.<key>} of the tenant, overriding the shared one
+ * </pre>
+ * Every tenant gets its own service graph of the {@link PancakeServiceProvider} properties: its order repository
+ * and its order locks, its building repository, its admission control, idempotency cache, inventory and metrics.
+ * Nothing on the request path is shared, so a tenant whose requests wait for order locks or admission
+ * does not hold back the others.
+ * <p>
+ * The tenants are fixed on creation and looked up in an immutable hash map.
+ */
+public final class TenantRegistry {
+
+    static final String TENANTS = "bakery.tenants";
+
+    private static final String TENANT_SCOPE = "tenant.";
+    private static final Pattern TENANT_ID = Pattern.compile("[a-z0-9][a-z0-9-]*");
+
+    private final Map<String, Tenant> tenants;
+
+    private TenantRegistry(Map<String, Tenant> tenants) {
+        this.tenants = Map.copyOf(tenants);
+    }
+
+    /**
+     * @return the tenants of the configuration, without MBeans
+     * @throws IllegalArgumentException when a tenant id or a property of a tenant is invalid
+     */
+    public static TenantRegistry create(Configuration configuration) {
+        return build(configuration, (tenantId, serviceGraph) -> {
+        });
+    }
+
+    static TenantRegistry build(Configuration configuration,
+                                BiConsumer<String, PancakeServiceProvider.ServiceGraph> onBuilt) {
+        ParameterArguments.requireNotNullParameterArgument(configuration, "configuration");
+        final var tenants = new HashMap<String, Tenant>();
+        for (final var id : configuration.getString(TENANTS, "").split(",")) {
+            final var tenantId = id.trim();
+            if (tenantId.isEmpty()) {
+                continue;
+            }
+            if (!TENANT_ID.matcher(tenantId).matches()) {
+                throw new IllegalArgumentException("Property '%s' should list ids of lower case letters, digits and dashes, but had '%s'."
+                        .formatted(TENANTS, tenantId));
+            }
+            if (tenants.containsKey(tenantId)) {
+                throw new IllegalArgumentException("Property '%s' lists tenant '%s' more than once.".formatted(TENANTS, tenantId));
+            }
+            final var serviceGraph = PancakeServiceProvider.build(configuration.scoped(TENANT_SCOPE + tenantId));
+            onBuilt.accept(tenantId, serviceGraph);
+            tenants.put(tenantId, new Tenant(
+                    tenantId,
+                    serviceGraph.pancakeService(),
+                    serviceGraph.admissionControl(),
+                    serviceGraph.metricsRegistry(),
+                    serviceGraph.operationalCounters()
+            ));
+        }
+        return new TenantRegistry(tenants);
+    }
+
+    public Optional<Tenant> find(String tenantId) {
+        ParameterArguments.requireNotNullParameterArgument(tenantId, "tenantId");
+        return Optional.ofNullable(tenants.get(tenantId));
+    }
+
+    /**
+     * @throws IllegalArgumentException when there is no such tenant
+     */
+    public PancakeService pancakeService(String tenantId) {
+        ParameterArguments.requireNotNullParameterArgument(tenantId, "tenantId");
+        final var tenant = tenants.get(tenantId);
+        if (tenant == null) {
+            throw new IllegalArgumentException("Unknown tenant '%s'.".formatted(tenantId));
+        }
+        return tenant.pancakeService();
+    }
+
+    public Set<String> tenantIds() {
+        return tenants.keySet();
+    }
+}
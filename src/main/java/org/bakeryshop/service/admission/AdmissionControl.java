@@ -0,0 +1,138 @@
+package org.bakeryshop.service.admission;
+
+import org.bakeryshop.util.ParameterArguments;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the requests executed at once, globally and per building (bulkhead),
+ * so a few busy buildings can not occupy all threads.
+ * <p>
+ * A request waits for a permit at most the configured queue time and gets rejected afterwards.
+ * <p>
+ * The bulkheads are a fixed array of {@value #BUILDING_STRIPES} semaphores indexed by the building number, so the
+ * building numbers of the requests, validated only later, can not grow it. The buildings numbered
+ * {@value #BUILDING_STRIPES} apart share a bulkhead.
+ */
+public final class AdmissionControl {
+
+    /**
+     * The building number of requests which are not bound to a building, only the global limit applies to them.
+     */
+    public static final int NO_BUILDING = 0;
+
+    static final int BUILDING_STRIPES = 1024;
+
+    private final int maxInFlight;
+    private final int maxInFlightPerBuilding;
+    private final long maxQueueNanos;
+
+    private final Semaphore inFlight;
+    private final Semaphore[] inFlightByBuilding = new Semaphore[BUILDING_STRIPES];
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedGlobally = new LongAdder();
+    private final LongAdder rejectedByBuilding = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder queuedNanos = new LongAdder();
+    private final AtomicLong maxQueuedNanos = new AtomicLong();
+
+    public AdmissionControl(int maxInFlight, int maxInFlightPerBuilding, Duration maxQueueWait) {
+        ParameterArguments.requirePositiveParameterArgument(maxInFlight, "maxInFlight");
+        ParameterArguments.requirePositiveParameterArgument(maxInFlightPerBuilding, "maxInFlightPerBuilding");
+        ParameterArguments.requireNotNullParameterArgument(maxQueueWait, "maxQueueWait");
+        this.maxInFlight = maxInFlight;
+        this.maxInFlightPerBuilding = maxInFlightPerBuilding;
+        this.maxQueueNanos = maxQueueWait.toNanos();
+        this.inFlight = new Semaphore(maxInFlight);
+        for (int stripe = 0; stripe < inFlightByBuilding.length; stripe++) {
+            inFlightByBuilding[stripe] = new Semaphore(maxInFlightPerBuilding);
+        }
+    }
+
+    /**
+     * @param buildingNr The building of the request or {@link #NO_BUILDING}
+     * @return true when the request was admitted, then it has to be {@link #release(int) released} once executed
+     */
+    public boolean tryAdmit(int buildingNr) {
+        final long start = System.nanoTime();
+        final var building = buildingSemaphore(buildingNr);
+        if (building != null && !acquire(building, start)) {
+            rejectedByBuilding.increment();
+            return false;
+        }
+        final boolean admittedGlobally;
+        try {
+            admittedGlobally = acquire(inFlight, start);
+        } catch (RuntimeException e) {
+            if (building != null) {
+                building.release();
+            }
+            throw e;
+        }
+        if (!admittedGlobally) {
+            if (building != null) {
+                building.release();
+            }
+            rejectedGlobally.increment();
+            return false;
+        }
+        admitted.increment();
+        return true;
+    }
+
+    /**
+     * @param buildingNr The building the request was admitted for
+     */
+    public void release(int buildingNr) {
+        inFlight.release();
+        final var building = buildingSemaphore(buildingNr);
+        if (building != null) {
+            building.release();
+        }
+    }
+
+    public AdmissionMetrics metrics() {
+        return new AdmissionMetrics(
+                admitted.sum(),
+                rejectedGlobally.sum(),
+                rejectedByBuilding.sum(),
+                queued.sum(),
+                queuedNanos.sum(),
+                maxQueuedNanos.get(),
+                maxInFlight - inFlight.availablePermits()
+        );
+    }
+
+    private Semaphore buildingSemaphore(int buildingNr) {
+        if (buildingNr <= NO_BUILDING) {
+            return null;
+        }
+        return inFlightByBuilding[buildingNr % BUILDING_STRIPES];
+    }
+
+    private boolean acquire(Semaphore semaphore, long start) {
+        if (semaphore.tryAcquire()) {
+            return true;
+        }
+        final long remaining = start + maxQueueNanos - System.nanoTime();
+        if (remaining <= 0L) {
+            return false;
+        }
+        try {
+            final var acquired = semaphore.tryAcquire(remaining, TimeUnit.NANOSECONDS);
+            final long waited = System.nanoTime() - start;
+            queued.increment();
+            queuedNanos.add(waited);
+            maxQueuedNanos.accumulateAndGet(waited, Math::max);
+            return acquired;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for admission.");
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package org.bakeryshop.service.admission;
+
+import org.bakeryshop.common.OverloadedException;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.order.PancakesOrderRepository;
+import org.bakeryshop.service.OrderListener;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.usecase.cancel.CancelOrderResult;
+import org.bakeryshop.service.usecase.complete.CompleteOrderResult;
+import org.bakeryshop.service.usecase.create.CreateOrderResult;
+import org.bakeryshop.service.usecase.delivery.BatchDeliveryResult;
+import org.bakeryshop.service.usecase.delivery.OrderDeliveryResult;
+import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
+import org.bakeryshop.service.usecase.pancake.RemovePancakeResult;
+import org.bakeryshop.service.usecase.prepare.PrepareOrderResult;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Admits the calls to the delegate through the {@link AdmissionControl}.
+ * <p>
+ * Rejected commands fail fast with the {@code overloaded} failure,
+ * rejected queries throw {@link OverloadedException}.
+ * The blocking hand-off methods are not admission controlled, as waiting for work is not work.
+ */
+public final class AdmissionControlledPancakeService implements PancakeService {
+
+    private final PancakeService delegate;
+    private final PancakesOrderRepository pancakesOrderRepository;
+    private final AdmissionControl admissionControl;
+
+    public AdmissionControlledPancakeService(PancakeService delegate,
+                                             PancakesOrderRepository pancakesOrderRepository,
+                                             AdmissionControl admissionControl) {
+        ParameterArguments.requireNotNullParameterArgument(delegate, "delegate");
+        ParameterArguments.requireNotNullParameterArgument(pancakesOrderRepository, "pancakesOrderRepository");
+        ParameterArguments.requireNotNullParameterArgument(admissionControl, "admissionControl");
+        this.delegate = delegate;
+        this.pancakesOrderRepository = pancakesOrderRepository;
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public CreateOrderResult createOrder(int buildingNr, int room) {
+        return admit(buildingNr, () -> delegate.createOrder(buildingNr, room), CreateOrderResult::overloaded);
+    }
+
+    @Override
+    public CreateOrderResult createOrder(String requestId, int buildingNr, int room) {
+        return admit(buildingNr, () -> delegate.createOrder(requestId, buildingNr, room), CreateOrderResult::overloaded);
+    }
+
+    @Override
+    public AddPancakeResult addPancakes(UUID orderId, int count, Set<PancakeIngredient> ingredients) {
+        return admit(buildingOf(orderId),
+                () -> delegate.addPancakes(orderId, count, ingredients),
+                AddPancakeResult::overloaded);
+    }
+
+    @Override
+    public AddPancakeResult addPancakes(String requestId, UUID orderId, int count, Set<PancakeIngredient> ingredients) {
+        return admit(buildingOf(orderId),
+                () -> delegate.addPancakes(requestId, orderId, count, ingredients),
+                AddPancakeResult::overloaded);
+    }
+
+    @Override
+    public RemovePancakeResult removePancakes(UUID orderId, String description, int count) {
+        return admit(buildingOf(orderId),
+                () -> delegate.removePancakes(orderId, description, count),
+                RemovePancakeResult::overloaded);
+    }
+
+    @Override
+    public RemovePancakeResult removePancakes(String requestId, UUID orderId, String description, int count) {
+        return admit(buildingOf(orderId),
+                () -> delegate.removePancakes(requestId, orderId, description, count),
+                RemovePancakeResult::overloaded);
+    }
+
+    @Override
+    public CancelOrderResult cancelOrder(UUID orderId) {
+        return admit(buildingOf(orderId), () -> delegate.cancelOrder(orderId), CancelOrderResult::overloaded);
+    }
+
+    @Override
+    public CancelOrderResult cancelOrder(String requestId, UUID orderId) {
+        return admit(buildingOf(orderId), () -> delegate.cancelOrder(requestId, orderId), CancelOrderResult::overloaded);
+    }
+
+    @Override
+    public CompleteOrderResult completeOrder(UUID orderId) {
+        return admit(buildingOf(orderId), () -> delegate.completeOrder(orderId), CompleteOrderResult::overloaded);
+    }
+
+    @Override
+    public CompleteOrderResult completeOrder(String requestId, UUID orderId) {
+        return admit(buildingOf(orderId), () -> delegate.completeOrder(requestId, orderId), CompleteOrderResult::overloaded);
+    }
+
+    @Override
+    public PrepareOrderResult prepareOrder(UUID orderId) {
+        return admit(buildingOf(orderId), () -> delegate.prepareOrder(orderId), PrepareOrderResult::overloaded);
+    }
+
+    @Override
+    public PrepareOrderResult prepareOrder(String requestId, UUID orderId) {
+        return admit(buildingOf(orderId), () -> delegate.prepareOrder(requestId, orderId), PrepareOrderResult::overloaded);
+    }
+
+    @Override
+    public OrderDeliveryResult deliverOrder(UUID orderId) {
+        return admit(buildingOf(orderId), () -> delegate.deliverOrder(orderId), OrderDeliveryResult::overloaded);
+    }
+
+    @Override
+    public OrderDeliveryResult deliverOrder(String requestId, UUID orderId) {
+        return admit(buildingOf(orderId), () -> delegate.deliverOrder(requestId, orderId), OrderDeliveryResult::overloaded);
+    }
+
+    @Override
+    public BatchDeliveryResult deliverOrders(Collection<UUID> orderIds) {
+        return admit(AdmissionControl.NO_BUILDING, () -> delegate.deliverOrders(orderIds), () -> overloaded(orderIds));
+    }
+
+    @Override
+    public BatchDeliveryResult deliverOrders(String requestId, Collection<UUID> orderIds) {
+        return admit(AdmissionControl.NO_BUILDING,
+                () -> delegate.deliverOrders(requestId, orderIds),
+                () -> overloaded(orderIds));
+    }
+
+    /**
+     * @throws OverloadedException when the call was not admitted
+     */
+    @Override
+    public List<String> viewOrder(UUID orderId) {
+        return admit(buildingOf(orderId), () -> delegate.viewOrder(orderId), AdmissionControlledPancakeService::reject);
+    }
+
+    /**
+     * @throws OverloadedException when the call was not admitted
+     */
+    @Override
+    public Set<UUID> listCompletedOrders() {
+        return admit(AdmissionControl.NO_BUILDING, delegate::listCompletedOrders, AdmissionControlledPancakeService::reject);
+    }
+
+    /**
+     * @throws OverloadedException when the call was not admitted
+     */
+    @Override
+    public Set<UUID> listPreparedOrders() {
+        return admit(AdmissionControl.NO_BUILDING, delegate::listPreparedOrders, AdmissionControlledPancakeService::reject);
+    }
+
+    @Override
+    public Optional<UUID> takeCompletedOrder(Duration timeout) {
+        return delegate.takeCompletedOrder(timeout);
+    }
+
+    @Override
+    public Optional<UUID> takePreparedOrder(Duration timeout) {
+        return delegate.takePreparedOrder(timeout);
+    }
+
+    @Override
+    public void addOrderListener(OrderListener orderListener) {
+        delegate.addOrderListener(orderListener);
+    }
+
+    @Override
+    public void removeOrderListener(OrderListener orderListener) {
+        delegate.removeOrderListener(orderListener);
+    }
+
+    public AdmissionMetrics metrics() {
+        return admissionControl.metrics();
+    }
+
+    private <R> R admit(int buildingNr, Supplier<R> call, Supplier<R> overloaded) {
+        final var admittedBuildingNr = Math.max(buildingNr, AdmissionControl.NO_BUILDING);
+        if (!admissionControl.tryAdmit(admittedBuildingNr)) {
+            return overloaded.get();
+        }
+        try {
+            return call.get();
+        } finally {
+            admissionControl.release(admittedBuildingNr);
+        }
+    }
+
+    private int buildingOf(UUID orderId) {
+        ParameterArguments.requireNotNullParameterArgument(orderId, "orderId");
+        return pancakesOrderRepository.find(orderId)
+                .map(pancakesOrder -> pancakesOrder.getAddress().buildingNr())
+                .orElse(AdmissionControl.NO_BUILDING);
+    }
+
+    private static BatchDeliveryResult overloaded(Collection<UUID> orderIds) {
+        final var failures = new HashMap<UUID, OrderDeliveryResult.OrderDeliveryFailure>();
+        for (final var orderId : orderIds) {
+            failures.put(orderId, OrderDeliveryResult.OrderDeliveryFailure.OVERLOADED);
+        }
+        return new BatchDeliveryResult(List.of(), failures);
+    }
+
+    private static <R> R reject() {
+        throw new OverloadedException("Service is overloaded, retry later.");
+    }
+}
@@ -0,0 +1,25 @@
+package org.bakeryshop.service.admission;
+
+/**
+ * @param admitted           The amount of admitted requests
+ * @param rejectedGlobally   The amount of requests rejected because of the global in-flight limit
+ * @param rejectedByBuilding The amount of requests rejected because of the building limit
+ * @param queued             The amount of requests which had to wait for a permit
+ * @param queuedNanos        The total time the queued requests waited
+ * @param maxQueuedNanos     The longest time a request waited
+ * @param inFlight           The amount of requests currently executed
+ */
+public record AdmissionMetrics(
+        long admitted,
+        long rejectedGlobally,
+        long rejectedByBuilding,
+        long queued,
+        long queuedNanos,
+        long maxQueuedNanos,
+        int inFlight
+) {
+
+    public long rejected() {
+        return rejectedGlobally + rejectedByBuilding;
+    }
+}
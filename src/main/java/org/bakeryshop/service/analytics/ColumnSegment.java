@@ -0,0 +1,181 @@
+package org.bakeryshop.service.analytics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A segment of the sales rows stored column by column, either the heap segment the rows are appended to
+ * or a sealed segment memory mapped from its file.
+ * <p>
+ * The file is big endian: the {@value #MAGIC} magic, the {@value #VERSION} version, the row count and a reserved int,
+ * followed by the time, building, room and count columns and the ingredients mask and outcome byte columns.
+ * <p>
+ * A single thread appends, the row count is published last, so the readers see every row up to {@link #rows()}.
+ */
+final class ColumnSegment {
+
+    static final int MAGIC = 0x424B5341;
+    static final int VERSION = 1;
+    static final int HEADER_LENGTH = 4 * Integer.BYTES;
+    static final int ROW_LENGTH = Long.BYTES + 3 * Integer.BYTES + 2 * Byte.BYTES;
+
+    private final ByteBuffer times;
+    private final ByteBuffer buildings;
+    private final ByteBuffer rooms;
+    private final ByteBuffer counts;
+    private final ByteBuffer masks;
+    private final ByteBuffer outcomes;
+    private final int capacity;
+
+    /**
+     * The bounds of the capture times, only widened, so a stale read still bounds the published rows.
+     */
+    private long lowestTime = Long.MAX_VALUE;
+    private long highestTime = Long.MIN_VALUE;
+    private volatile int rows;
+
+    private ColumnSegment(ByteBuffer columns, int capacity, int rows) {
+        int offset = columns.position();
+        this.times = columns.slice(offset, capacity * Long.BYTES);
+        this.buildings = columns.slice(offset += capacity * Long.BYTES, capacity * Integer.BYTES);
+        this.rooms = columns.slice(offset += capacity * Integer.BYTES, capacity * Integer.BYTES);
+        this.counts = columns.slice(offset += capacity * Integer.BYTES, capacity * Integer.BYTES);
+        this.masks = columns.slice(offset += capacity * Integer.BYTES, capacity);
+        this.outcomes = columns.slice(offset + capacity, capacity);
+        this.capacity = capacity;
+        for (int row = 0; row < rows; row++) {
+            widenTimes(time(row));
+        }
+        this.rows = rows;
+    }
+
+    static ColumnSegment allocate(int capacity) {
+        return new ColumnSegment(ByteBuffer.allocate(capacity * ROW_LENGTH), capacity, 0);
+    }
+
+    /**
+     * @throws UncheckedIOException     when the file can not be read
+     * @throws IllegalArgumentException when the file is not a sales segment
+     */
+    static ColumnSegment load(Path file) {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long length = channel.size();
+            if (length < HEADER_LENGTH) {
+                throw malformed(file, "it is shorter than its header");
+            }
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, length);
+            if (buffer.getInt() != MAGIC) {
+                throw malformed(file, "its magic does not match");
+            }
+            final int version = buffer.getInt();
+            if (version != VERSION) {
+                throw malformed(file, "its version %d is not supported".formatted(version));
+            }
+            final int rows = buffer.getInt();
+            if (rows < 0 || length != HEADER_LENGTH + (long) rows * ROW_LENGTH) {
+                throw malformed(file, "its length %d does not fit %d rows".formatted(length, rows));
+            }
+            buffer.position(HEADER_LENGTH);
+            return new ColumnSegment(buffer, rows, rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the sales segment '%s'.".formatted(file), e);
+        }
+    }
+
+    void append(long time, int buildingNr, int room, int ingredientsMask, int count, OrderOutcome outcome) {
+        final int row = rows;
+        if (row == capacity) {
+            throw new IllegalStateException("Segment is full.");
+        }
+        times.putLong(row * Long.BYTES, time);
+        buildings.putInt(row * Integer.BYTES, buildingNr);
+        rooms.putInt(row * Integer.BYTES, room);
+        counts.putInt(row * Integer.BYTES, count);
+        masks.put(row, (byte) ingredientsMask);
+        outcomes.put(row, (byte) outcome.ordinal());
+        widenTimes(time);
+        rows = row + 1;
+    }
+
+    /**
+     * Writes the appended rows column by column, so the file is as long as the rows need.
+     */
+    void write(FileChannel channel) throws IOException {
+        final int rows = this.rows;
+        final var header = ByteBuffer.allocate(HEADER_LENGTH)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(rows)
+                .putInt(0)
+                .flip();
+        final ByteBuffer[] columns = {
+                header,
+                times.slice(0, rows * Long.BYTES),
+                buildings.slice(0, rows * Integer.BYTES),
+                rooms.slice(0, rows * Integer.BYTES),
+                counts.slice(0, rows * Integer.BYTES),
+                masks.slice(0, rows),
+                outcomes.slice(0, rows)
+        };
+        long remaining = HEADER_LENGTH + (long) rows * ROW_LENGTH;
+        while (remaining > 0L) {
+            remaining -= channel.write(columns);
+        }
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    boolean isFull() {
+        return rows == capacity;
+    }
+
+    /**
+     * @return false when no row of the segment was captured in the window
+     */
+    boolean overlaps(long fromMillis, long toMillis) {
+        return lowestTime < toMillis && highestTime >= fromMillis;
+    }
+
+    long time(int row) {
+        return times.getLong(row * Long.BYTES);
+    }
+
+    int buildingNr(int row) {
+        return buildings.getInt(row * Integer.BYTES);
+    }
+
+    int room(int row) {
+        return rooms.getInt(row * Integer.BYTES);
+    }
+
+    int count(int row) {
+        return counts.getInt(row * Integer.BYTES);
+    }
+
+    int ingredientsMask(int row) {
+        return masks.get(row);
+    }
+
+    int outcome(int row) {
+        return outcomes.get(row);
+    }
+
+    private void widenTimes(long time) {
+        if (time < lowestTime) {
+            lowestTime = time;
+        }
+        if (time > highestTime) {
+            highestTime = time;
+        }
+    }
+
+    private static IllegalArgumentException malformed(Path file, String reason) {
+        return new IllegalArgumentException("File '%s' is not a sales segment, %s.".formatted(file, reason));
+    }
+}
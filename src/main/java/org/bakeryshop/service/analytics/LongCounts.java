@@ -0,0 +1,92 @@
+package org.bakeryshop.service.analytics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongFunction;
+
+/**
+ * Sums by long key without boxing, an open addressing table with linear probing, at most half full.
+ * Not thread safe, every scan task sums into its own instance and the instances are merged.
+ */
+final class LongCounts {
+
+    private long[] keys = new long[16];
+    private long[] sums = new long[16];
+    private boolean[] used = new boolean[16];
+    private int size;
+
+    void add(long key, long amount) {
+        int slot = slotOf(key, keys.length - 1);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                sums[slot] += amount;
+                return;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        sums[slot] = amount;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    long get(long key) {
+        int slot = slotOf(key, keys.length - 1);
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return sums[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return 0L;
+    }
+
+    /**
+     * Adds the sums of the other counts to these ones.
+     *
+     * @return these counts
+     */
+    LongCounts merge(LongCounts other) {
+        for (int slot = 0; slot < other.keys.length; slot++) {
+            if (other.used[slot]) {
+                add(other.keys[slot], other.sums[slot]);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the sums by their converted key, in key order
+     */
+    <K extends Comparable<K>> Map<K, Long> toSortedMap(LongFunction<K> keyOf) {
+        final var map = new TreeMap<K, Long>();
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                map.put(keyOf.apply(keys[slot]), sums[slot]);
+            }
+        }
+        return map;
+    }
+
+    private void grow() {
+        final var oldKeys = keys;
+        final var oldSums = sums;
+        final var oldUsed = used;
+        keys = new long[oldKeys.length * 2];
+        sums = new long[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        size = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldUsed[slot]) {
+                add(oldKeys[slot], oldSums[slot]);
+            }
+        }
+    }
+
+    private static int slotOf(long key, int mask) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32) & mask;
+    }
+}
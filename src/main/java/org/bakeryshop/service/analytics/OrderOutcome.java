@@ -0,0 +1,10 @@
+package org.bakeryshop.service.analytics;
+
+/**
+ * How an order left the shop, stored as its ordinal.
+ */
+public enum OrderOutcome {
+
+    DELIVERED,
+    CANCELLED
+}
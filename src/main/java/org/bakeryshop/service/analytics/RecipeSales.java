@@ -0,0 +1,12 @@
+package org.bakeryshop.service.analytics;
+
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+
+import java.util.Set;
+
+/**
+ * @param ingredients The ingredient combination of the recipe
+ * @param pancakes    The amount of pancakes of the recipe
+ */
+public record RecipeSales(Set<PancakeIngredient> ingredients, long pancakes) {
+}
@@ -0,0 +1,366 @@
+package org.bakeryshop.service.analytics;
+
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.service.OrderListener;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Captures the delivered and cancelled orders as sales rows and answers aggregates over them.
+ * <p>
+ * Every order is captured as a row per ingredient combination, holding the capture time, the address,
+ * the amount of pancakes and the outcome. The rows are appended to a column store in a local directory:
+ * the rows are appended to a heap segment, which is sealed to a {@code sales-NNNNNNNN.col} file when it is full,
+ * on {@link #flush()} and on {@link #close()}. The sealed segments are memory mapped and loaded again on open.
+ * <p>
+ * The aggregates scan the columns in chunks on the common fork/join pool, every chunk is summed on its own
+ * and the sums are merged. The segments captured entirely outside the queried window are skipped.
+ * A query sees the rows captured before it started.
+ */
+public final class SalesAnalytics implements OrderListener, AutoCloseable {
+
+    static final int DEFAULT_SEGMENT_ROWS = 65_536;
+    static final int CHUNK_ROWS = 16_384;
+
+    private static final String SEGMENT_PREFIX = "sales-";
+    private static final String SEGMENT_SUFFIX = ".col";
+    private static final int INGREDIENT_MASKS = 1 << PancakeIngredient.values().length;
+
+    private final Path directory;
+    private final Clock clock;
+    private final int segmentRows;
+
+    private volatile Segments segments;
+    private int nextSegmentNr;
+    private boolean closed;
+
+    SalesAnalytics(Path directory, Clock clock, int segmentRows) {
+        ParameterArguments.requireNotNullParameterArgument(directory, "directory");
+        ParameterArguments.requireNotNullParameterArgument(clock, "clock");
+        ParameterArguments.requirePositiveParameterArgument(segmentRows, "segmentRows");
+        this.directory = directory;
+        this.clock = clock;
+        this.segmentRows = segmentRows;
+        final var sealed = new ArrayList<ColumnSegment>();
+        try {
+            Files.createDirectories(directory);
+            for (final var file : segmentFiles(directory)) {
+                sealed.add(ColumnSegment.load(file));
+                nextSegmentNr = Math.max(nextSegmentNr, segmentNrOf(file) + 1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open the sales directory '%s'.".formatted(directory), e);
+        }
+        this.segments = new Segments(List.copyOf(sealed), ColumnSegment.allocate(segmentRows));
+    }
+
+    /**
+     * Opens the sales captured in the directory, capturing the new sales with the system clock.
+     *
+     * @throws UncheckedIOException     when the directory can not be read
+     * @throws IllegalArgumentException when the directory holds a malformed segment file
+     */
+    public static SalesAnalytics open(Path directory) {
+        return open(directory, Clock.systemUTC());
+    }
+
+    /**
+     * @param clock The clock of the capture times
+     */
+    public static SalesAnalytics open(Path directory, Clock clock) {
+        return new SalesAnalytics(directory, clock, DEFAULT_SEGMENT_ROWS);
+    }
+
+    /**
+     * Opens the sales captured in the directory and captures the order events of the given service.
+     */
+    public static SalesAnalytics attachedTo(PancakeService pancakeService, Path directory) {
+        ParameterArguments.requireNotNullParameterArgument(pancakeService, "pancakeService");
+        final var salesAnalytics = open(directory);
+        pancakeService.addOrderListener(salesAnalytics);
+        return salesAnalytics;
+    }
+
+    @Override
+    public void orderDelivered(PancakesOrderSnapshot order) {
+        capture(order, OrderOutcome.DELIVERED);
+    }
+
+    @Override
+    public void orderCancelled(PancakesOrderSnapshot order) {
+        capture(order, OrderOutcome.CANCELLED);
+    }
+
+    /**
+     * Captures the pancakes of the order, an order without pancakes is not captured.
+     *
+     * @throws UncheckedIOException  when a full segment can not be sealed, the order is not captured then
+     * @throws IllegalStateException when the analytics are closed
+     */
+    public void capture(PancakesOrderSnapshot order, OrderOutcome outcome) {
+        ParameterArguments.requireNotNullParameterArgument(order, "order");
+        ParameterArguments.requireNotNullParameterArgument(outcome, "outcome");
+        final var pancakesByMask = new int[INGREDIENT_MASKS];
+        for (final var pancake : order.pancakes()) {
+            pancakesByMask[PancakeIngredient.maskOf(pancake.ingredients())]++;
+        }
+        final long time = clock.millis();
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Sales analytics are closed.");
+            }
+            for (int mask = 0; mask < pancakesByMask.length; mask++) {
+                if (pancakesByMask[mask] > 0) {
+                    if (segments.active.isFull()) {
+                        seal();
+                    }
+                    segments.active.append(time, order.address().buildingNr(), order.address().room(),
+                            mask, pancakesByMask[mask], outcome);
+                }
+            }
+        }
+    }
+
+    /**
+     * Seals the captured rows to a segment file.
+     *
+     * @throws UncheckedIOException when the segment can not be written
+     */
+    public synchronized void flush() {
+        if (segments.active.rows() > 0) {
+            seal();
+        }
+    }
+
+    /**
+     * Flushes the captured rows, the analytics capture nothing afterwards but still answer the aggregates.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            flush();
+            closed = true;
+        }
+    }
+
+    /**
+     * @return the amount of captured rows, sealed or not
+     */
+    public long rows() {
+        final var current = segments;
+        long rows = current.active.rows();
+        for (final var segment : current.sealed) {
+            rows += segment.rows();
+        }
+        return rows;
+    }
+
+    public long pancakes(SalesQuery query) {
+        return sum(query, Grouping.NONE, 0L).get(0L);
+    }
+
+    /**
+     * @return the amount of pancakes by building number, in building order
+     */
+    public Map<Integer, Long> pancakesByBuilding(SalesQuery query) {
+        return sum(query, Grouping.BUILDING, 0L).toSortedMap(buildingNr -> (int) buildingNr);
+    }
+
+    /**
+     * @return the amount of pancakes by room number, in room order, mixing the buildings unless the query has one
+     */
+    public Map<Integer, Long> pancakesByRoom(SalesQuery query) {
+        return sum(query, Grouping.ROOM, 0L).toSortedMap(room -> (int) room);
+    }
+
+    /**
+     * @return the amount of pancakes by ingredient combination
+     */
+    public Map<Set<PancakeIngredient>, Long> pancakesByIngredients(SalesQuery query) {
+        final var sums = sum(query, Grouping.INGREDIENTS, 0L);
+        final var pancakes = new HashMap<Set<PancakeIngredient>, Long>();
+        for (int mask = 0; mask < INGREDIENT_MASKS; mask++) {
+            final long count = sums.get(mask);
+            if (count > 0L) {
+                pancakes.put(PancakeIngredient.ofMask(mask), count);
+            }
+        }
+        return pancakes;
+    }
+
+    /**
+     * @return the ingredient combinations having most pancakes, most first
+     */
+    public List<RecipeSales> topRecipes(SalesQuery query, int limit) {
+        ParameterArguments.requirePositiveParameterArgument(limit, "limit");
+        return pancakesByIngredients(query).entrySet().stream()
+                .map(entry -> new RecipeSales(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(RecipeSales::pancakes).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * @param window The length of the time windows, counted from the start of the query or from the epoch
+     * @return the amount of pancakes by the start of their time window, in time order, the empty windows left out
+     */
+    public Map<Instant, Long> pancakesByWindow(SalesQuery query, Duration window) {
+        ParameterArguments.requireNotNullParameterArgument(window, "window");
+        final long windowMillis = window.toMillis();
+        if (windowMillis <= 0L) {
+            throw new IllegalArgumentException("Window should be at least a millisecond.");
+        }
+        final long origin = query.from() == null ? 0L : query.from().toEpochMilli();
+        return sum(query, Grouping.WINDOW, windowMillis)
+                .toSortedMap(windowNr -> Instant.ofEpochMilli(origin + windowNr * windowMillis));
+    }
+
+    private LongCounts sum(SalesQuery query, Grouping grouping, long windowMillis) {
+        ParameterArguments.requireNotNullParameterArgument(query, "query");
+        final var filter = RowFilter.of(query);
+        final long origin = query.from() == null ? 0L : filter.from();
+        return chunksOf(segments, filter.from(), filter.to()).parallelStream()
+                .map(chunk -> {
+                    final var sums = new LongCounts();
+                    final var segment = chunk.segment();
+                    for (int row = chunk.from(); row < chunk.to(); row++) {
+                        final long time = segment.time(row);
+                        final int buildingNr = segment.buildingNr(row);
+                        final int room = segment.room(row);
+                        final int mask = segment.ingredientsMask(row);
+                        if (filter.matches(time, buildingNr, room, mask, segment.outcome(row))) {
+                            final long key = switch (grouping) {
+                                case NONE -> 0L;
+                                case BUILDING -> buildingNr;
+                                case ROOM -> room;
+                                case INGREDIENTS -> mask;
+                                case WINDOW -> Math.floorDiv(time - origin, windowMillis);
+                            };
+                            sums.add(key, segment.count(row));
+                        }
+                    }
+                    return sums;
+                })
+                .reduce(LongCounts::merge)
+                .orElseGet(LongCounts::new);
+    }
+
+    private static List<Chunk> chunksOf(Segments segments, long from, long to) {
+        final var chunks = new ArrayList<Chunk>();
+        for (final var segment : segments.sealed) {
+            addChunks(chunks, segment, segment.rows(), from, to);
+        }
+        addChunks(chunks, segments.active, segments.active.rows(), from, to);
+        return chunks;
+    }
+
+    private static void addChunks(List<Chunk> chunks, ColumnSegment segment, int rows, long from, long to) {
+        if (rows > 0 && segment.overlaps(from, to)) {
+            for (int row = 0; row < rows; row += CHUNK_ROWS) {
+                chunks.add(new Chunk(segment, row, Math.min(row + CHUNK_ROWS, rows)));
+            }
+        }
+    }
+
+    /**
+     * Writes the active segment to a temporary file, moves it in place and maps it, so a crash never leaves
+     * a partial segment file behind.
+     */
+    private void seal() {
+        final var current = segments;
+        final var file = directory.resolve("%s%08d%s".formatted(SEGMENT_PREFIX, nextSegmentNr, SEGMENT_SUFFIX));
+        final var temporaryFile = directory.resolve(file.getFileName() + ".tmp");
+        try {
+            try (var channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                current.active.write(channel);
+                channel.force(true);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the sales segment '%s'.".formatted(file), e);
+        }
+        final var sealed = new ArrayList<>(current.sealed);
+        sealed.add(ColumnSegment.load(file));
+        nextSegmentNr++;
+        segments = new Segments(List.copyOf(sealed), ColumnSegment.allocate(segmentRows));
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        final var name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static int segmentNrOf(Path file) {
+        final var name = file.getFileName().toString();
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("File '%s' is not named as a sales segment.".formatted(file), e);
+        }
+    }
+
+    private enum Grouping {
+        NONE, BUILDING, ROOM, INGREDIENTS, WINDOW
+    }
+
+    /**
+     * The sealed segments and the segment the rows are appended to, replaced as a whole on sealing.
+     */
+    private record Segments(List<ColumnSegment> sealed, ColumnSegment active) {
+    }
+
+    /**
+     * The criteria of a query as the primitives of the columns, -1 and 0 matching any value.
+     */
+    private record RowFilter(long from, long to, int buildingNr, int room, int ingredientsMask, int outcome) {
+
+        static RowFilter of(SalesQuery query) {
+            return new RowFilter(
+                    query.from() == null ? Long.MIN_VALUE : query.from().toEpochMilli(),
+                    query.to() == null ? Long.MAX_VALUE : query.to().toEpochMilli(),
+                    query.buildingNr(),
+                    query.room(),
+                    query.ingredients() == null ? -1 : PancakeIngredient.maskOf(query.ingredients()),
+                    query.outcome() == null ? -1 : query.outcome().ordinal()
+            );
+        }
+
+        boolean matches(long time, int rowBuildingNr, int rowRoom, int rowIngredientsMask, int rowOutcome) {
+            return time >= from && time < to
+                    && (buildingNr == 0 || rowBuildingNr == buildingNr)
+                    && (room == 0 || rowRoom == room)
+                    && (ingredientsMask == -1 || rowIngredientsMask == ingredientsMask)
+                    && (outcome == -1 || rowOutcome == outcome);
+        }
+    }
+
+    private record Chunk(ColumnSegment segment, int from, int to) {
+    }
+}
@@ -0,0 +1,67 @@
+package org.bakeryshop.service.analytics;
+
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * The filter of the pancakes an aggregate of the {@link SalesAnalytics} counts, every criterion being optional.
+ *
+ * @param from        The earliest capture time, inclusive, null for no lower bound
+ * @param to          The latest capture time, exclusive, null for no upper bound
+ * @param buildingNr  The building, 0 for all buildings
+ * @param room        The room, 0 for all rooms
+ * @param ingredients The exact ingredient combination, null for all combinations
+ * @param outcome     The outcome of the orders, null for delivered and cancelled ones
+ */
+public record SalesQuery(
+        Instant from,
+        Instant to,
+        int buildingNr,
+        int room,
+        Set<PancakeIngredient> ingredients,
+        OrderOutcome outcome
+) {
+
+    private static final SalesQuery ALL = new SalesQuery(null, null, 0, 0, null, null);
+
+    public SalesQuery {
+        if (buildingNr < 0 || room < 0) {
+            throw new IllegalArgumentException("Building and room should not be negative.");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Query window from %s to %s is empty.".formatted(from, to));
+        }
+        ingredients = ingredients == null ? null : Set.copyOf(ingredients);
+    }
+
+    public static SalesQuery all() {
+        return ALL;
+    }
+
+    public SalesQuery between(Instant from, Instant to) {
+        return new SalesQuery(from, to, buildingNr, room, ingredients, outcome);
+    }
+
+    public SalesQuery inBuilding(int buildingNr) {
+        ParameterArguments.requirePositiveParameterArgument(buildingNr, "buildingNr");
+        return new SalesQuery(from, to, buildingNr, room, ingredients, outcome);
+    }
+
+    public SalesQuery inRoom(int room) {
+        ParameterArguments.requirePositiveParameterArgument(room, "room");
+        return new SalesQuery(from, to, buildingNr, room, ingredients, outcome);
+    }
+
+    public SalesQuery withIngredients(Set<PancakeIngredient> ingredients) {
+        ParameterArguments.requireNotNullParameterArgument(ingredients, "ingredients");
+        return new SalesQuery(from, to, buildingNr, room, ingredients, outcome);
+    }
+
+    public SalesQuery withOutcome(OrderOutcome outcome) {
+        ParameterArguments.requireNotNullParameterArgument(outcome, "outcome");
+        return new SalesQuery(from, to, buildingNr, room, ingredients, outcome);
+    }
+}
@@ -0,0 +1,19 @@
+package org.bakeryshop.service.delivery;
+
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.util.List;
+
+/**
+ * @param buildingNr The building all orders of the batch are delivered to
+ * @param orders     The orders out for delivery, ordered by room
+ */
+public record DeliveryBatch(int buildingNr, List<PancakesOrderSnapshot> orders) {
+
+    public DeliveryBatch {
+        ParameterArguments.requirePositiveParameterArgument(buildingNr, "buildingNr");
+        ParameterArguments.requireNotEmptyParameterArgument(orders, "orders");
+        orders = List.copyOf(orders);
+    }
+}
@@ -0,0 +1,139 @@
+package org.bakeryshop.service.delivery;
+
+import org.bakeryshop.domain.model.order.PancakesOrder;
+import org.bakeryshop.domain.repository.order.PancakesOrderRepository;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Groups the prepared orders by building and hands them to the couriers as delivery batches.
+ * <p>
+ * A batch is dispatched as soon as it reaches the configured size or its oldest order waited the configured time.
+ * The prepared orders are taken from {@link PancakeService#takePreparedOrder(Duration)},
+ * so every order ends up in exactly one batch.
+ */
+public final class DeliveryDispatcher {
+
+    private final PancakeService pancakeService;
+    private final PancakesOrderRepository pancakesOrderRepository;
+    private final int batchSize;
+    private final long maxWaitNanos;
+
+    private final Lock lock = new ReentrantLock();
+    private final Map<Integer, PendingBatch> pendingBatches = new LinkedHashMap<>();
+
+    public DeliveryDispatcher(PancakeService pancakeService,
+                              PancakesOrderRepository pancakesOrderRepository,
+                              int batchSize,
+                              Duration maxWait) {
+        ParameterArguments.requireNotNullParameterArgument(pancakeService, "pancakeService");
+        ParameterArguments.requireNotNullParameterArgument(pancakesOrderRepository, "pancakesOrderRepository");
+        ParameterArguments.requirePositiveParameterArgument(batchSize, "batchSize");
+        ParameterArguments.requireNotNullParameterArgument(maxWait, "maxWait");
+        this.pancakeService = pancakeService;
+        this.pancakesOrderRepository = pancakesOrderRepository;
+        this.batchSize = batchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * @param timeout The maximal time to wait for a batch to become due
+     * @return The next delivery batch, empty when no batch became due within the timeout
+     * @throws org.bakeryshop.common.TimeoutException when configured timeout was reached
+     */
+    public Optional<DeliveryBatch> nextBatch(Duration timeout) {
+        ParameterArguments.requireNotNullParameterArgument(timeout, "timeout");
+
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            final long now = System.nanoTime();
+            final var dueBatch = takeDueBatch(now);
+            if (dueBatch.isPresent()) {
+                final var result = pancakeService.deliverOrders(dueBatch.get().orderIds);
+                if (!result.isEmpty()) {
+                    return Optional.of(new DeliveryBatch(dueBatch.get().buildingNr, result.deliveredOrders()));
+                }
+                continue;
+            }
+            final long remaining = deadline - now;
+            if (remaining <= 0L) {
+                return Optional.empty();
+            }
+            pancakeService.takePreparedOrder(Duration.ofNanos(Math.min(remaining, nanosUntilNextDue(now))))
+                    .ifPresent(this::enqueue);
+        }
+    }
+
+    private void enqueue(UUID orderId) {
+        pancakesOrderRepository.find(orderId)
+                .map(PancakesOrder::getAddress)
+                .ifPresent(address -> {
+                    lock.lock();
+                    try {
+                        pendingBatches.computeIfAbsent(address.buildingNr(), PendingBatch::new)
+                                .orderIds.add(orderId);
+                    } finally {
+                        lock.unlock();
+                    }
+                });
+    }
+
+    private Optional<PendingBatch> takeDueBatch(long now) {
+        lock.lock();
+        try {
+            for (final var it = pendingBatches.values().iterator(); it.hasNext(); ) {
+                final var pendingBatch = it.next();
+                if (pendingBatch.orderIds.size() >= batchSize) {
+                    final var dueBatch = new PendingBatch(pendingBatch.buildingNr, pendingBatch.since);
+                    final var dueOrderIds = pendingBatch.orderIds.subList(0, batchSize);
+                    dueBatch.orderIds.addAll(dueOrderIds);
+                    dueOrderIds.clear();
+                    if (pendingBatch.orderIds.isEmpty()) {
+                        it.remove();
+                    }
+                    return Optional.of(dueBatch);
+                }
+                if (now - pendingBatch.since >= maxWaitNanos) {
+                    it.remove();
+                    return Optional.of(pendingBatch);
+                }
+            }
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long nanosUntilNextDue(long now) {
+        lock.lock();
+        try {
+            long nanosUntilNextDue = Long.MAX_VALUE;
+            for (final var pendingBatch : pendingBatches.values()) {
+                nanosUntilNextDue = Math.min(nanosUntilNextDue, pendingBatch.since + maxWaitNanos - now);
+            }
+            return Math.max(0L, nanosUntilNextDue);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class PendingBatch {
+        private final int buildingNr;
+        private final long since;
+        private final List<UUID> orderIds = new ArrayList<>();
+
+        private PendingBatch(int buildingNr) {
+            this(buildingNr, System.nanoTime());
+        }
+
+        private PendingBatch(int buildingNr, long since) {
+            this.buildingNr = buildingNr;
+            this.since = since;
+        }
+    }
+}
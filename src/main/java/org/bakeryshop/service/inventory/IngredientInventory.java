@@ -0,0 +1,275 @@
+package org.bakeryshop.service.inventory;
+
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.model.pancakes.PancakeRecipe;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The stock of the tracked ingredients, every pancake takes one unit of each of its ingredients.
+ * The ingredients without stock are not tracked and never run out.
+ * <p>
+ * The stock of a pancake is reserved when it is added to an order, released when it is removed or its order is cancelled
+ * and consumed when its order is prepared. The stock of an order is consumed exactly while the order is prepared,
+ * completing a prepared order again reserves its consumed stock again.
+ * <p>
+ * The available units of an ingredient are striped over padded atomic counters, so the threads reserve and release
+ * mostly on their own counter without a lock. A reservation collects the units stripe by stripe and gives them back
+ * when they are not enough, so the stock never goes below zero, but a reservation may fail while concurrent
+ * reservations hold the units they are about to give back.
+ */
+public final class IngredientInventory {
+
+    private static final PancakeIngredient[] INGREDIENTS = PancakeIngredient.values();
+
+    private static final IngredientInventory UNLIMITED = new IngredientInventory(Map.of());
+
+    private final Stock[] stocks = new Stock[INGREDIENTS.length];
+    private final boolean unlimited;
+
+    /**
+     * @param stock The initial available units of the tracked ingredients
+     */
+    public IngredientInventory(Map<PancakeIngredient, Long> stock) {
+        ParameterArguments.requireNotNullParameterArgument(stock, "stock");
+        final int stripes = stripes();
+        stock.forEach((ingredient, units) -> {
+            ParameterArguments.requireNotNullParameterArgument(ingredient, "ingredient");
+            if (units == null || units < 0L) {
+                throw new IllegalArgumentException("Stock of %s should not be negative.".formatted(ingredient));
+            }
+            stocks[ingredient.ordinal()] = new Stock(stripes, units);
+        });
+        this.unlimited = stock.isEmpty();
+    }
+
+    /**
+     * @return the inventory tracking no ingredient
+     */
+    public static IngredientInventory unlimited() {
+        return UNLIMITED;
+    }
+
+    public boolean isUnlimited() {
+        return unlimited;
+    }
+
+    public boolean isTracked(PancakeIngredient ingredient) {
+        return stocks[ingredient.ordinal()] != null;
+    }
+
+    /**
+     * Reserves the stock of {@code count} pancakes of the ingredients, all or nothing.
+     *
+     * @return false when an ingredient is short, then nothing is reserved
+     */
+    public boolean tryReserve(Set<PancakeIngredient> ingredients, int count) {
+        if (unlimited) {
+            return true;
+        }
+        final int mask = PancakeIngredient.maskOf(ingredients);
+        for (int ordinal = 0; ordinal < stocks.length; ordinal++) {
+            final var stock = stocks[ordinal];
+            if ((mask & (1 << ordinal)) == 0 || stock == null || stock.tryReserve(count)) {
+                continue;
+            }
+            for (int reserved = 0; reserved < ordinal; reserved++) {
+                if ((mask & (1 << reserved)) != 0 && stocks[reserved] != null) {
+                    stocks[reserved].release(count);
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the reserved stock of {@code count} pancakes of the ingredients.
+     */
+    public void release(Set<PancakeIngredient> ingredients, int count) {
+        if (!unlimited) {
+            for (final var ingredient : ingredients) {
+                final var stock = stocks[ingredient.ordinal()];
+                if (stock != null) {
+                    stock.release(count);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the reserved stock of the pancakes, e.g. of a cancelled order.
+     */
+    public void releaseAll(Collection<PancakeRecipe> pancakes) {
+        if (!unlimited) {
+            final var units = unitsOf(pancakes);
+            for (int ordinal = 0; ordinal < stocks.length; ordinal++) {
+                if (units[ordinal] > 0L) {
+                    stocks[ordinal].release(units[ordinal]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Consumes the reserved stock of the pancakes, e.g. of a prepared order.
+     */
+    public void consumeAll(Collection<PancakeRecipe> pancakes) {
+        if (!unlimited) {
+            final var units = unitsOf(pancakes);
+            for (int ordinal = 0; ordinal < stocks.length; ordinal++) {
+                if (units[ordinal] > 0L) {
+                    stocks[ordinal].consume(units[ordinal]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserves the consumed stock of the pancakes again, e.g. of a prepared order which was completed again.
+     */
+    public void unconsumeAll(Collection<PancakeRecipe> pancakes) {
+        if (!unlimited) {
+            final var units = unitsOf(pancakes);
+            for (int ordinal = 0; ordinal < stocks.length; ordinal++) {
+                if (units[ordinal] > 0L) {
+                    stocks[ordinal].unconsume(units[ordinal]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds available units to a tracked ingredient.
+     *
+     * @throws IllegalArgumentException when the ingredient is not tracked
+     */
+    public void restock(PancakeIngredient ingredient, long units) {
+        ParameterArguments.requireNotNullParameterArgument(ingredient, "ingredient");
+        if (units <= 0L) {
+            throw new IllegalArgumentException("Restocked units should be positive.");
+        }
+        requireTracked(ingredient).put(units);
+    }
+
+    /**
+     * @return the stock of a tracked ingredient, the counters are read one after the other
+     * @throws IllegalArgumentException when the ingredient is not tracked
+     */
+    public IngredientStock stock(PancakeIngredient ingredient) {
+        ParameterArguments.requireNotNullParameterArgument(ingredient, "ingredient");
+        final var stock = requireTracked(ingredient);
+        return new IngredientStock(ingredient, stock.available(), stock.reserved.sum(), stock.consumed.sum());
+    }
+
+    private Stock requireTracked(PancakeIngredient ingredient) {
+        final var stock = stocks[ingredient.ordinal()];
+        if (stock == null) {
+            throw new IllegalArgumentException("Ingredient %s is not tracked.".formatted(ingredient));
+        }
+        return stock;
+    }
+
+    private long[] unitsOf(Collection<PancakeRecipe> pancakes) {
+        final var units = new long[stocks.length];
+        for (final var pancake : pancakes) {
+            for (final var ingredient : pancake.ingredients()) {
+                if (stocks[ingredient.ordinal()] != null) {
+                    units[ingredient.ordinal()]++;
+                }
+            }
+        }
+        return units;
+    }
+
+    private static int stripes() {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        return Math.min(Integer.highestOneBit(processors * 2 - 1), Stock.MAX_STRIPES);
+    }
+
+    private static final class Stock {
+
+        static final int MAX_STRIPES = 64;
+
+        /**
+         * The longs per stripe, so every stripe has a cache line of its own.
+         */
+        private static final int PADDING = 8;
+
+        private final AtomicLongArray cells;
+        private final int mask;
+        private final LongAdder reserved = new LongAdder();
+        private final LongAdder consumed = new LongAdder();
+
+        private Stock(int stripes, long units) {
+            this.cells = new AtomicLongArray(stripes * PADDING);
+            this.mask = stripes - 1;
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                cells.set(stripe * PADDING, units / stripes + (stripe < units % stripes ? 1L : 0L));
+            }
+        }
+
+        boolean tryReserve(long units) {
+            final int start = stripe();
+            long taken = 0L;
+            for (int offset = 0; offset <= mask && taken < units; offset++) {
+                final int index = ((start + offset) & mask) * PADDING;
+                long available = cells.get(index);
+                while (available > 0L) {
+                    final long take = Math.min(available, units - taken);
+                    final long witness = cells.compareAndExchange(index, available, available - take);
+                    if (witness == available) {
+                        taken += take;
+                        break;
+                    }
+                    available = witness;
+                }
+            }
+            if (taken < units) {
+                if (taken > 0L) {
+                    cells.getAndAdd(start * PADDING, taken);
+                }
+                return false;
+            }
+            reserved.add(units);
+            return true;
+        }
+
+        void release(long units) {
+            reserved.add(-units);
+            put(units);
+        }
+
+        void consume(long units) {
+            reserved.add(-units);
+            consumed.add(units);
+        }
+
+        void unconsume(long units) {
+            consumed.add(-units);
+            reserved.add(units);
+        }
+
+        void put(long units) {
+            cells.getAndAdd(stripe() * PADDING, units);
+        }
+
+        long available() {
+            long available = 0L;
+            for (int stripe = 0; stripe <= mask; stripe++) {
+                available += cells.get(stripe * PADDING);
+            }
+            return available;
+        }
+
+        private int stripe() {
+            final long hash = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+            return (int) (hash >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.bakeryshop.service.inventory;
+
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+
+/**
+ * @param ingredient The tracked ingredient
+ * @param available  The units which can be reserved
+ * @param reserved   The units reserved by the pancakes of the open orders
+ * @param consumed   The units consumed by the prepared orders
+ */
+public record IngredientStock(
+        PancakeIngredient ingredient,
+        long available,
+        long reserved,
+        long consumed
+) {
+}
@@ -0,0 +1,267 @@
+package org.bakeryshop.service.jfr;
+
+import org.bakeryshop.common.TimeoutException;
+import org.bakeryshop.common.jfr.OrderOperationEvent;
+import org.bakeryshop.domain.model.order.PancakesOrder;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.order.PancakesOrderRepository;
+import org.bakeryshop.service.OrderListener;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.usecase.Failure;
+import org.bakeryshop.service.usecase.Result;
+import org.bakeryshop.service.usecase.cancel.CancelOrderResult;
+import org.bakeryshop.service.usecase.complete.CompleteOrderResult;
+import org.bakeryshop.service.usecase.create.CreateOrderResult;
+import org.bakeryshop.service.usecase.delivery.BatchDeliveryResult;
+import org.bakeryshop.service.usecase.delivery.OrderDeliveryResult;
+import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
+import org.bakeryshop.service.usecase.pancake.RemovePancakeResult;
+import org.bakeryshop.service.usecase.prepare.PrepareOrderResult;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Records an {@link OrderOperationEvent} for every method of the delegate, the idempotent overloads are recorded as their plain method.
+ * <p>
+ * The order is looked up for the building and the pancakes of the event only while the event is enabled,
+ * otherwise the recording costs a disabled event check per call.
+ */
+public final class FlightRecordedPancakeService implements PancakeService {
+
+    private final PancakeService delegate;
+    private final PancakesOrderRepository pancakesOrderRepository;
+
+    public FlightRecordedPancakeService(PancakeService delegate, PancakesOrderRepository pancakesOrderRepository) {
+        ParameterArguments.requireNotNullParameterArgument(delegate, "delegate");
+        ParameterArguments.requireNotNullParameterArgument(pancakesOrderRepository, "pancakesOrderRepository");
+        this.delegate = delegate;
+        this.pancakesOrderRepository = pancakesOrderRepository;
+    }
+
+    @Override
+    public CreateOrderResult createOrder(int buildingNr, int room) {
+        return recordCreate(buildingNr, () -> delegate.createOrder(buildingNr, room));
+    }
+
+    @Override
+    public CreateOrderResult createOrder(String requestId, int buildingNr, int room) {
+        return recordCreate(buildingNr, () -> delegate.createOrder(requestId, buildingNr, room));
+    }
+
+    @Override
+    public AddPancakeResult addPancakes(UUID orderId, int count, Set<PancakeIngredient> ingredients) {
+        return recordCommand("addPancakes", orderId, () -> delegate.addPancakes(orderId, count, ingredients));
+    }
+
+    @Override
+    public AddPancakeResult addPancakes(String requestId, UUID orderId, int count, Set<PancakeIngredient> ingredients) {
+        return recordCommand("addPancakes", orderId, () -> delegate.addPancakes(requestId, orderId, count, ingredients));
+    }
+
+    @Override
+    public RemovePancakeResult removePancakes(UUID orderId, String description, int count) {
+        return recordCommand("removePancakes", orderId, () -> delegate.removePancakes(orderId, description, count));
+    }
+
+    @Override
+    public RemovePancakeResult removePancakes(String requestId, UUID orderId, String description, int count) {
+        return recordCommand("removePancakes", orderId, () -> delegate.removePancakes(requestId, orderId, description, count));
+    }
+
+    @Override
+    public CancelOrderResult cancelOrder(UUID orderId) {
+        return recordCommand("cancelOrder", orderId, () -> delegate.cancelOrder(orderId));
+    }
+
+    @Override
+    public CancelOrderResult cancelOrder(String requestId, UUID orderId) {
+        return recordCommand("cancelOrder", orderId, () -> delegate.cancelOrder(requestId, orderId));
+    }
+
+    @Override
+    public CompleteOrderResult completeOrder(UUID orderId) {
+        return recordCommand("completeOrder", orderId, () -> delegate.completeOrder(orderId));
+    }
+
+    @Override
+    public CompleteOrderResult completeOrder(String requestId, UUID orderId) {
+        return recordCommand("completeOrder", orderId, () -> delegate.completeOrder(requestId, orderId));
+    }
+
+    @Override
+    public PrepareOrderResult prepareOrder(UUID orderId) {
+        return recordCommand("prepareOrder", orderId, () -> delegate.prepareOrder(orderId));
+    }
+
+    @Override
+    public PrepareOrderResult prepareOrder(String requestId, UUID orderId) {
+        return recordCommand("prepareOrder", orderId, () -> delegate.prepareOrder(requestId, orderId));
+    }
+
+    @Override
+    public OrderDeliveryResult deliverOrder(UUID orderId) {
+        return recordCommand("deliverOrder", orderId, () -> delegate.deliverOrder(orderId));
+    }
+
+    @Override
+    public OrderDeliveryResult deliverOrder(String requestId, UUID orderId) {
+        return recordCommand("deliverOrder", orderId, () -> delegate.deliverOrder(requestId, orderId));
+    }
+
+    @Override
+    public BatchDeliveryResult deliverOrders(Collection<UUID> orderIds) {
+        return recordBatch(() -> delegate.deliverOrders(orderIds));
+    }
+
+    @Override
+    public BatchDeliveryResult deliverOrders(String requestId, Collection<UUID> orderIds) {
+        return recordBatch(() -> delegate.deliverOrders(requestId, orderIds));
+    }
+
+    @Override
+    public List<String> viewOrder(UUID orderId) {
+        return record("viewOrder", orderId, () -> delegate.viewOrder(orderId), any -> OrderOperationEvent.SUCCESS);
+    }
+
+    @Override
+    public Set<UUID> listCompletedOrders() {
+        return record("listCompletedOrders", null, delegate::listCompletedOrders, any -> OrderOperationEvent.SUCCESS);
+    }
+
+    @Override
+    public Set<UUID> listPreparedOrders() {
+        return record("listPreparedOrders", null, delegate::listPreparedOrders, any -> OrderOperationEvent.SUCCESS);
+    }
+
+    @Override
+    public Optional<UUID> takeCompletedOrder(Duration timeout) {
+        return record("takeCompletedOrder", null, () -> delegate.takeCompletedOrder(timeout), any -> OrderOperationEvent.SUCCESS);
+    }
+
+    @Override
+    public Optional<UUID> takePreparedOrder(Duration timeout) {
+        return record("takePreparedOrder", null, () -> delegate.takePreparedOrder(timeout), any -> OrderOperationEvent.SUCCESS);
+    }
+
+    @Override
+    public void addOrderListener(OrderListener orderListener) {
+        delegate.addOrderListener(orderListener);
+    }
+
+    @Override
+    public void removeOrderListener(OrderListener orderListener) {
+        delegate.removeOrderListener(orderListener);
+    }
+
+    private <R extends Result<?>> R recordCommand(String operation, UUID orderId, Supplier<R> command) {
+        return record(operation, orderId, command, FlightRecordedPancakeService::outcomeOf);
+    }
+
+    /**
+     * The order is looked up before the call, as the cancelled and the delivered orders are gone afterwards,
+     * its pancakes are counted after the call. The outcome is worked out only for an event being committed.
+     */
+    private <R> R record(String operation, UUID orderId, Supplier<R> call, Function<R, String> outcomeOf) {
+        final var event = new OrderOperationEvent();
+        event.begin();
+        final var pancakesOrder = orderId != null && event.isEnabled()
+                ? pancakesOrderRepository.find(orderId).orElse(null)
+                : null;
+        R result = null;
+        String exception = null;
+        try {
+            result = call.get();
+            return result;
+        } catch (RuntimeException | Error e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.commit(operation, orderId,
+                        pancakesOrder == null ? 0 : pancakesOrder.getAddress().buildingNr(),
+                        pancakesOf(pancakesOrder),
+                        exception == null ? outcomeOf.apply(result) : exception);
+            }
+        }
+    }
+
+    private CreateOrderResult recordCreate(int buildingNr, Supplier<CreateOrderResult> command) {
+        final var event = new OrderOperationEvent();
+        event.begin();
+        CreateOrderResult result = null;
+        String exception = null;
+        try {
+            result = command.get();
+            return result;
+        } catch (RuntimeException | Error e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                event.commit("createOrder",
+                        result == null || result.hasFailure() ? null : result.requireOrder().id(),
+                        buildingNr, 0, exception == null ? outcomeOf(result) : exception);
+            }
+        }
+    }
+
+    private BatchDeliveryResult recordBatch(Supplier<BatchDeliveryResult> command) {
+        final var event = new OrderOperationEvent();
+        event.begin();
+        BatchDeliveryResult result = null;
+        String exception = null;
+        try {
+            result = command.get();
+            return result;
+        } catch (RuntimeException | Error e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            if (event.shouldCommit()) {
+                int pancakes = 0;
+                if (result != null) {
+                    for (final var deliveredOrder : result.deliveredOrders()) {
+                        pancakes += deliveredOrder.pancakes().size();
+                    }
+                }
+                event.commit("deliverOrders", null, 0, pancakes, exception == null ? outcomeOf(result) : exception);
+            }
+        }
+    }
+
+    private static int pancakesOf(PancakesOrder pancakesOrder) {
+        if (pancakesOrder == null) {
+            return 0;
+        }
+        try {
+            return pancakesOrder.getPancakes().size();
+        } catch (TimeoutException e) {
+            // the event must not fail the recorded call
+            return 0;
+        }
+    }
+
+    private static String outcomeOf(Result<?> result) {
+        return result.getFailure()
+                .map(Failure::code)
+                .orElse(OrderOperationEvent.SUCCESS);
+    }
+
+    /**
+     * @return success, or the distinct failure codes of the batch separated by comma
+     */
+    private static String outcomeOf(BatchDeliveryResult result) {
+        if (result.failures().isEmpty()) {
+            return OrderOperationEvent.SUCCESS;
+        }
+        final var failureCodes = new TreeSet<String>();
+        for (final var failure : result.failures().values()) {
+            failureCodes.add(failure.code());
+        }
+        return String.join(",", failureCodes);
+    }
+}
@@ -0,0 +1,27 @@
+package org.bakeryshop.service.jmx;
+
+/**
+ * The current version and the reloads of the {@link org.bakeryshop.domain.repository.address.ReloadableBuildingCatalog},
+ * registered as {@value BuildingCatalogManagement#OBJECT_NAME}.
+ */
+public interface BuildingCatalogMXBean {
+
+    String getFile();
+
+    int getBuildings();
+
+    long getReloads();
+
+    long getFailedReloads();
+
+    long getLastReloadMicros();
+
+    long getMaxReloadMicros();
+
+    long getTotalReloadMicros();
+
+    /**
+     * Reloads the catalog file, keeping the current version when it can not be loaded.
+     */
+    void reload();
+}
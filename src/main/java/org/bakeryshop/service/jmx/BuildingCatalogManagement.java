@@ -0,0 +1,58 @@
+package org.bakeryshop.service.jmx;
+
+import org.bakeryshop.domain.repository.address.ReloadableBuildingCatalog;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.util.concurrent.TimeUnit;
+
+public final class BuildingCatalogManagement implements BuildingCatalogMXBean {
+
+    public static final String OBJECT_NAME = "org.bakeryshop:type=BuildingCatalog";
+
+    private final ReloadableBuildingCatalog buildingCatalog;
+
+    public BuildingCatalogManagement(ReloadableBuildingCatalog buildingCatalog) {
+        ParameterArguments.requireNotNullParameterArgument(buildingCatalog, "buildingCatalog");
+        this.buildingCatalog = buildingCatalog;
+    }
+
+    @Override
+    public String getFile() {
+        return buildingCatalog.file().toString();
+    }
+
+    @Override
+    public int getBuildings() {
+        return buildingCatalog.reloadMetrics().buildings();
+    }
+
+    @Override
+    public long getReloads() {
+        return buildingCatalog.reloadMetrics().reloads();
+    }
+
+    @Override
+    public long getFailedReloads() {
+        return buildingCatalog.reloadMetrics().failedReloads();
+    }
+
+    @Override
+    public long getLastReloadMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(buildingCatalog.reloadMetrics().lastReloadNanos());
+    }
+
+    @Override
+    public long getMaxReloadMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(buildingCatalog.reloadMetrics().maxReloadNanos());
+    }
+
+    @Override
+    public long getTotalReloadMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(buildingCatalog.reloadMetrics().totalReloadNanos());
+    }
+
+    @Override
+    public void reload() {
+        buildingCatalog.reload();
+    }
+}
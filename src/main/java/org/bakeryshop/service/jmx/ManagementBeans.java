@@ -0,0 +1,40 @@
+package org.bakeryshop.service.jmx;
+
+import org.bakeryshop.util.ParameterArguments;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+public final class ManagementBeans {
+
+    private ManagementBeans() {
+        super();
+    }
+
+    /**
+     * Registers the bean in the platform MBean server, replacing the bean registered under the same name before.
+     *
+     * @param objectName The object name, e.g. {@link PancakeServiceManagement#OBJECT_NAME}
+     * @param bean       The MXBean implementation
+     */
+    public static void register(String objectName, Object bean) {
+        ParameterArguments.requireNotBlankParameterArgument(objectName, "objectName");
+        ParameterArguments.requireNotNullParameterArgument(bean, "bean");
+        final var mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final var name = new ObjectName(objectName);
+            if (mBeanServer.isRegistered(name)) {
+                try {
+                    mBeanServer.unregisterMBean(name);
+                } catch (InstanceNotFoundException e) {
+                    // concurrently unregistered
+                }
+            }
+            mBeanServer.registerMBean(bean, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register MBean %s.".formatted(objectName), e);
+        }
+    }
+}
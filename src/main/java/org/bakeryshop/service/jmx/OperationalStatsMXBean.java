@@ -0,0 +1,24 @@
+package org.bakeryshop.service.jmx;
+
+/**
+ * The live numbers of the {@link org.bakeryshop.service.metrics.OperationalCounters} over their sliding window,
+ * registered as {@value OperationalStatsManagement#OBJECT_NAME}.
+ */
+public interface OperationalStatsMXBean {
+
+    long getWindowSeconds();
+
+    double getCreatedOrdersPerMinute();
+
+    double getDeliveredOrdersPerMinute();
+
+    long getCancelledOrders();
+
+    double getAveragePancakesPerOrder();
+
+    long getNewOrders();
+
+    long getCompletedOrders();
+
+    long getPreparedOrders();
+}
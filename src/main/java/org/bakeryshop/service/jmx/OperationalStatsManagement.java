@@ -0,0 +1,57 @@
+package org.bakeryshop.service.jmx;
+
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.service.metrics.OperationalCounters;
+import org.bakeryshop.util.ParameterArguments;
+
+public final class OperationalStatsManagement implements OperationalStatsMXBean {
+
+    public static final String OBJECT_NAME = "org.bakeryshop:type=OperationalStats";
+
+    private final OperationalCounters operationalCounters;
+
+    public OperationalStatsManagement(OperationalCounters operationalCounters) {
+        ParameterArguments.requireNotNullParameterArgument(operationalCounters, "operationalCounters");
+        this.operationalCounters = operationalCounters;
+    }
+
+    @Override
+    public long getWindowSeconds() {
+        return operationalCounters.stats().window().toSeconds();
+    }
+
+    @Override
+    public double getCreatedOrdersPerMinute() {
+        return operationalCounters.stats().createdOrdersPerMinute();
+    }
+
+    @Override
+    public double getDeliveredOrdersPerMinute() {
+        return operationalCounters.stats().deliveredOrdersPerMinute();
+    }
+
+    @Override
+    public long getCancelledOrders() {
+        return operationalCounters.stats().cancelledOrders();
+    }
+
+    @Override
+    public double getAveragePancakesPerOrder() {
+        return operationalCounters.stats().averagePancakesPerOrder();
+    }
+
+    @Override
+    public long getNewOrders() {
+        return operationalCounters.stats().backlog().get(OrderState.NEW);
+    }
+
+    @Override
+    public long getCompletedOrders() {
+        return operationalCounters.stats().backlog().get(OrderState.COMPLETED);
+    }
+
+    @Override
+    public long getPreparedOrders() {
+        return operationalCounters.stats().backlog().get(OrderState.PREPARED);
+    }
+}
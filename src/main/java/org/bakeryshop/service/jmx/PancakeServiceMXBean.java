@@ -0,0 +1,30 @@
+package org.bakeryshop.service.jmx;
+
+/**
+ * The admission control and the operation metrics of the {@link org.bakeryshop.service.PancakeService},
+ * registered as {@value PancakeServiceManagement#OBJECT_NAME}.
+ */
+public interface PancakeServiceMXBean {
+
+    long getAdmittedRequests();
+
+    long getRejectedRequests();
+
+    long getQueuedRequests();
+
+    long getMaxQueuedMillis();
+
+    int getInFlightRequests();
+
+    long getCalls();
+
+    /**
+     * @return The calls failed with a result failure
+     */
+    long getFailures();
+
+    /**
+     * @return The calls failed with an exception, e.g. a lock timeout
+     */
+    long getErrors();
+}
@@ -0,0 +1,78 @@
+package org.bakeryshop.service.jmx;
+
+import org.bakeryshop.service.admission.AdmissionControl;
+import org.bakeryshop.service.metrics.MetricsRegistry;
+import org.bakeryshop.service.metrics.OperationMetrics;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+public final class PancakeServiceManagement implements PancakeServiceMXBean {
+
+    public static final String OBJECT_NAME = "org.bakeryshop:type=PancakeService";
+
+    private final AdmissionControl admissionControl;
+    private final MetricsRegistry metricsRegistry;
+
+    public PancakeServiceManagement(AdmissionControl admissionControl, MetricsRegistry metricsRegistry) {
+        ParameterArguments.requireNotNullParameterArgument(admissionControl, "admissionControl");
+        ParameterArguments.requireNotNullParameterArgument(metricsRegistry, "metricsRegistry");
+        this.admissionControl = admissionControl;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public long getAdmittedRequests() {
+        return admissionControl.metrics().admitted();
+    }
+
+    @Override
+    public long getRejectedRequests() {
+        return admissionControl.metrics().rejected();
+    }
+
+    @Override
+    public long getQueuedRequests() {
+        return admissionControl.metrics().queued();
+    }
+
+    @Override
+    public long getMaxQueuedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(admissionControl.metrics().maxQueuedNanos());
+    }
+
+    @Override
+    public int getInFlightRequests() {
+        return admissionControl.metrics().inFlight();
+    }
+
+    @Override
+    public long getCalls() {
+        return sum(OperationMetrics.Snapshot::calls);
+    }
+
+    @Override
+    public long getFailures() {
+        return sum(operation -> {
+            long failures = 0L;
+            for (final var count : operation.failures().values()) {
+                failures += count;
+            }
+            return failures;
+        });
+    }
+
+    @Override
+    public long getErrors() {
+        return sum(OperationMetrics.Snapshot::errors);
+    }
+
+    private long sum(ToLongFunction<OperationMetrics.Snapshot> metric) {
+        long sum = 0L;
+        for (final var operation : metricsRegistry.snapshot()) {
+            sum += metric.applyAsLong(operation);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,35 @@
+package org.bakeryshop.service.jmx;
+
+import java.util.Map;
+
+/**
+ * The orders and the order locks of the {@link org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository},
+ * registered as {@value PancakesOrderRepositoryManagement#OBJECT_NAME}.
+ */
+public interface PancakesOrderRepositoryMXBean {
+
+    int getOrders();
+
+    Map<String, Integer> getOrdersByState();
+
+    long getPancakes();
+
+    long getEstimatedHeapBytes();
+
+    long getLockAcquisitions();
+
+    long getContendedLockAcquisitions();
+
+    long getLockTimeouts();
+
+    long getLockWaitMillis();
+
+    long getMaxLockWaitMillis();
+
+    long getLockTimeoutMillis();
+
+    /**
+     * @param lockTimeoutMillis The positive lock timeout of the existing and the new orders
+     */
+    void setLockTimeoutMillis(long lockTimeoutMillis);
+}
@@ -0,0 +1,97 @@
+package org.bakeryshop.service.jmx;
+
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.domain.repository.order.OrderStatistics;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The statistics visit every order, so they are computed at most once per {@link #STATISTICS_TIME_TO_LIVE}
+ * for all attributes read by a monitoring console.
+ */
+public final class PancakesOrderRepositoryManagement implements PancakesOrderRepositoryMXBean {
+
+    public static final String OBJECT_NAME = "org.bakeryshop:type=PancakesOrderRepository";
+
+    static final Duration STATISTICS_TIME_TO_LIVE = Duration.ofSeconds(1L);
+
+    private final InMemoryPancakesOrderRepository pancakesOrderRepository;
+
+    private OrderStatistics statistics;
+    private long statisticsExpireAt;
+
+    public PancakesOrderRepositoryManagement(InMemoryPancakesOrderRepository pancakesOrderRepository) {
+        ParameterArguments.requireNotNullParameterArgument(pancakesOrderRepository, "pancakesOrderRepository");
+        this.pancakesOrderRepository = pancakesOrderRepository;
+    }
+
+    @Override
+    public int getOrders() {
+        return statistics().orders();
+    }
+
+    @Override
+    public Map<String, Integer> getOrdersByState() {
+        final var ordersByState = new TreeMap<String, Integer>();
+        statistics().ordersByState().forEach((state, orders) -> ordersByState.put(state.name(), orders));
+        return ordersByState;
+    }
+
+    @Override
+    public long getPancakes() {
+        return statistics().pancakes();
+    }
+
+    @Override
+    public long getEstimatedHeapBytes() {
+        return statistics().estimatedHeapBytes();
+    }
+
+    @Override
+    public long getLockAcquisitions() {
+        return pancakesOrderRepository.lockMetrics().acquired();
+    }
+
+    @Override
+    public long getContendedLockAcquisitions() {
+        return pancakesOrderRepository.lockMetrics().contended();
+    }
+
+    @Override
+    public long getLockTimeouts() {
+        return pancakesOrderRepository.lockMetrics().timedOut();
+    }
+
+    @Override
+    public long getLockWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(pancakesOrderRepository.lockMetrics().waitNanos());
+    }
+
+    @Override
+    public long getMaxLockWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(pancakesOrderRepository.lockMetrics().maxWaitNanos());
+    }
+
+    @Override
+    public long getLockTimeoutMillis() {
+        return pancakesOrderRepository.lockTimeout().toMillis();
+    }
+
+    @Override
+    public void setLockTimeoutMillis(long lockTimeoutMillis) {
+        pancakesOrderRepository.setLockTimeout(Duration.ofMillis(lockTimeoutMillis));
+    }
+
+    private synchronized OrderStatistics statistics() {
+        final long now = System.nanoTime();
+        if (statistics == null || now - statisticsExpireAt >= 0L) {
+            statistics = pancakesOrderRepository.statistics();
+            statisticsExpireAt = now + STATISTICS_TIME_TO_LIVE.toNanos();
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,33 @@
+package org.bakeryshop.service.kitchen;
+
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A batch of identical pancakes to be cooked back to back.
+ *
+ * @param number      The ticket number
+ * @param ingredients The ingredients of every pancake in the batch
+ * @param allocations The amount of pancakes cooked for each order
+ */
+public record CookTicket(long number, Set<PancakeIngredient> ingredients, Map<UUID, Integer> allocations) {
+
+    public CookTicket {
+        ParameterArguments.requireNotEmptyParameterArgument(ingredients, "ingredients");
+        ParameterArguments.requireNotNullParameterArgument(allocations, "allocations");
+        ingredients = Set.copyOf(ingredients);
+        allocations = Map.copyOf(allocations);
+    }
+
+    public int count() {
+        int count = 0;
+        for (final var allocation : allocations.values()) {
+            count += allocation;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,323 @@
+package org.bakeryshop.service.kitchen;
+
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.domain.model.order.PancakesOrder;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.model.pancakes.PancakeRecipe;
+import org.bakeryshop.domain.repository.order.PancakesOrderRepository;
+import org.bakeryshop.service.OrderListener;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregates the outstanding pancakes of all NEW and COMPLETED orders by ingredient combination
+ * and hands them to the cooks as batches of identical pancakes.
+ * <p>
+ * The aggregation is kept up to date from the {@link OrderListener} events of the {@link PancakeService},
+ * every event re-reads only the affected order. Completed orders having all pancakes cooked are marked as prepared.
+ * <p>
+ * The order is read before entering the scheduler monitor, so a slow order lock never holds up the other events.
+ * An event is applied only if no later event of the same order began meanwhile, the later event read a newer state.
+ */
+public final class KitchenScheduler implements OrderListener {
+
+    private final PancakeService pancakeService;
+    private final PancakesOrderRepository pancakesOrderRepository;
+    private final int maxBatchSize;
+
+    private final Map<UUID, KitchenOrder> orders = new HashMap<>();
+    private final Map<Set<PancakeIngredient>, PancakeGroup> groups = new HashMap<>();
+    private final Map<Long, CookTicket> ticketsInProgress = new HashMap<>();
+    private long lastTicketNumber;
+    private final AtomicLong lastEventNumber = new AtomicLong();
+    private final Map<UUID, Long> latestEvents = new ConcurrentHashMap<>();
+
+    public KitchenScheduler(PancakeService pancakeService,
+                            PancakesOrderRepository pancakesOrderRepository,
+                            int maxBatchSize) {
+        ParameterArguments.requireNotNullParameterArgument(pancakeService, "pancakeService");
+        ParameterArguments.requireNotNullParameterArgument(pancakesOrderRepository, "pancakesOrderRepository");
+        ParameterArguments.requirePositiveParameterArgument(maxBatchSize, "maxBatchSize");
+        this.pancakeService = pancakeService;
+        this.pancakesOrderRepository = pancakesOrderRepository;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Creates a scheduler receiving the order events of the given service.
+     */
+    public static KitchenScheduler attachedTo(PancakeService pancakeService,
+                                              PancakesOrderRepository pancakesOrderRepository,
+                                              int maxBatchSize) {
+        final var kitchenScheduler = new KitchenScheduler(pancakeService, pancakesOrderRepository, maxBatchSize);
+        pancakeService.addOrderListener(kitchenScheduler);
+        return kitchenScheduler;
+    }
+
+    @Override
+    public void orderCreated(PancakesOrderSnapshot order) {
+        synchronized (this) {
+            if (!orders.containsKey(order.id())) {
+                update(order.id(), Optional.of(order));
+            }
+        }
+    }
+
+    @Override
+    public void orderChanged(UUID orderId) {
+        final var eventNumber = beginEvent(orderId);
+        final var order = pancakesOrderRepository.find(orderId).map(PancakesOrder::snapshot);
+        final List<UUID> cookedOrders;
+        synchronized (this) {
+            if (!endEvent(orderId, eventNumber)) {
+                return;
+            }
+            update(orderId, order);
+            cookedOrders = takeCookedOrders(List.of(orderId));
+        }
+        prepare(cookedOrders);
+    }
+
+    @Override
+    public void orderCancelled(PancakesOrderSnapshot order) {
+        removed(order.id());
+    }
+
+    @Override
+    public void orderDelivered(PancakesOrderSnapshot order) {
+        removed(order.id());
+    }
+
+    /**
+     * @return the next batch of the ingredient combination having most outstanding pancakes,
+     * empty when nothing is left to cook
+     */
+    public synchronized Optional<CookTicket> nextTicket() {
+        PancakeGroup largestGroup = null;
+        for (final var group : groups.values()) {
+            if (group.outstanding > 0 && (largestGroup == null || group.outstanding > largestGroup.outstanding)) {
+                largestGroup = group;
+            }
+        }
+        if (largestGroup == null) {
+            return Optional.empty();
+        }
+        final var ingredients = largestGroup.ingredients;
+        final var allocations = new LinkedHashMap<UUID, Integer>();
+        int remaining = maxBatchSize;
+        for (Iterator<UUID> it = new ArrayList<>(largestGroup.orderIds).iterator(); remaining > 0 && it.hasNext(); ) {
+            final var orderId = it.next();
+            final var kitchenOrder = orders.get(orderId);
+            final var allocation = Math.min(remaining, kitchenOrder.outstanding(ingredients));
+            change(orderId, kitchenOrder, () -> kitchenOrder.cooking.merge(ingredients, allocation, Integer::sum));
+            allocations.put(orderId, allocation);
+            remaining -= allocation;
+        }
+        final var ticket = new CookTicket(++lastTicketNumber, ingredients, allocations);
+        ticketsInProgress.put(ticket.number(), ticket);
+        return Optional.of(ticket);
+    }
+
+    /**
+     * Marks the pancakes of the ticket as cooked, the completed orders having all pancakes cooked get prepared.
+     *
+     * @param ticket The ticket returned by {@link #nextTicket()}
+     */
+    public void ticketCooked(CookTicket ticket) {
+        final List<UUID> cookedOrders;
+        synchronized (this) {
+            finish(ticket, true);
+            cookedOrders = takeCookedOrders(ticket.allocations().keySet());
+        }
+        prepare(cookedOrders);
+    }
+
+    /**
+     * Returns the pancakes of the ticket to the outstanding ones, e.g. when the batch got burnt.
+     *
+     * @param ticket The ticket returned by {@link #nextTicket()}
+     */
+    public synchronized void ticketAbandoned(CookTicket ticket) {
+        finish(ticket, false);
+    }
+
+    /**
+     * @return The amount of pancakes neither cooked nor being cooked by ingredient combination
+     */
+    public synchronized Map<Set<PancakeIngredient>, Integer> outstandingPancakes() {
+        final var outstandingPancakes = new HashMap<Set<PancakeIngredient>, Integer>();
+        for (final var group : groups.values()) {
+            if (group.outstanding > 0) {
+                outstandingPancakes.put(group.ingredients, group.outstanding);
+            }
+        }
+        return Collections.unmodifiableMap(outstandingPancakes);
+    }
+
+    private void removed(UUID orderId) {
+        final var eventNumber = beginEvent(orderId);
+        synchronized (this) {
+            if (endEvent(orderId, eventNumber)) {
+                update(orderId, Optional.empty());
+            }
+        }
+    }
+
+    private long beginEvent(UUID orderId) {
+        final var eventNumber = lastEventNumber.incrementAndGet();
+        latestEvents.put(orderId, eventNumber);
+        return eventNumber;
+    }
+
+    /**
+     * @return Whether the event is the latest one of the order, otherwise a later event applies a newer state
+     */
+    private boolean endEvent(UUID orderId, long eventNumber) {
+        return latestEvents.remove(orderId, eventNumber);
+    }
+
+    private void finish(CookTicket ticket, boolean cooked) {
+        ParameterArguments.requireNotNullParameterArgument(ticket, "ticket");
+        if (ticketsInProgress.remove(ticket.number()) == null) {
+            throw new IllegalArgumentException("Ticket %d is not in progress".formatted(ticket.number()));
+        }
+        final var ingredients = ticket.ingredients();
+        ticket.allocations().forEach((orderId, count) -> {
+            final var kitchenOrder = orders.get(orderId);
+            if (kitchenOrder == null) {
+                return;
+            }
+            change(orderId, kitchenOrder, () -> {
+                kitchenOrder.cooking.computeIfPresent(ingredients, (any, cooking) -> cooking > count ? cooking - count : null);
+                if (cooked) {
+                    kitchenOrder.cooked.merge(ingredients, count, Integer::sum);
+                }
+            });
+        });
+    }
+
+    private void update(UUID orderId, Optional<PancakesOrderSnapshot> order) {
+        final var kitchenOrder = orders.get(orderId);
+        final var pendingOrder = order.filter(it -> it.state() != OrderState.PREPARED);
+        if (pendingOrder.isEmpty()) {
+            if (kitchenOrder != null) {
+                change(orderId, kitchenOrder, kitchenOrder.required::clear);
+                orders.remove(orderId);
+            }
+            return;
+        }
+        final var thisOrder = kitchenOrder == null ? new KitchenOrder() : kitchenOrder;
+        orders.put(orderId, thisOrder);
+        change(orderId, thisOrder, () -> {
+            thisOrder.state = pendingOrder.get().state();
+            thisOrder.required.clear();
+            for (final PancakeRecipe pancake : pendingOrder.get().pancakes()) {
+                thisOrder.required.merge(pancake.ingredients(), 1, Integer::sum);
+            }
+        });
+    }
+
+    /**
+     * Applies the change to the order and propagates the difference of its outstanding pancakes to the groups.
+     */
+    private void change(UUID orderId, KitchenOrder kitchenOrder, Runnable change) {
+        final var before = kitchenOrder.outstanding();
+        change.run();
+        final var after = kitchenOrder.outstanding();
+        for (final var ingredients : union(before.keySet(), after.keySet())) {
+            final int delta = after.getOrDefault(ingredients, 0) - before.getOrDefault(ingredients, 0);
+            final var group = groups.computeIfAbsent(ingredients, PancakeGroup::new);
+            group.outstanding += delta;
+            if (after.containsKey(ingredients)) {
+                group.orderIds.add(orderId);
+            } else {
+                group.orderIds.remove(orderId);
+            }
+        }
+    }
+
+    private List<UUID> takeCookedOrders(Collection<UUID> orderIds) {
+        final var cookedOrders = new ArrayList<UUID>();
+        for (final var orderId : orderIds) {
+            final var kitchenOrder = orders.get(orderId);
+            if (kitchenOrder != null && !kitchenOrder.preparing && kitchenOrder.isCooked()) {
+                kitchenOrder.preparing = true;
+                cookedOrders.add(orderId);
+            }
+        }
+        return cookedOrders;
+    }
+
+    private void prepare(List<UUID> cookedOrders) {
+        for (final var orderId : cookedOrders) {
+            if (pancakeService.prepareOrder(orderId).hasFailure()) {
+                synchronized (this) {
+                    Optional.ofNullable(orders.get(orderId))
+                            .ifPresent(kitchenOrder -> kitchenOrder.preparing = false);
+                }
+            }
+        }
+    }
+
+    private static Set<Set<PancakeIngredient>> union(Set<Set<PancakeIngredient>> thisSet,
+                                                     Set<Set<PancakeIngredient>> thatSet) {
+        if (thatSet.isEmpty()) {
+            return thisSet;
+        }
+        final var union = new HashSet<>(thisSet);
+        union.addAll(thatSet);
+        return union;
+    }
+
+    private static final class KitchenOrder {
+        private OrderState state = OrderState.NEW;
+        private boolean preparing;
+        private final Map<Set<PancakeIngredient>, Integer> required = new HashMap<>();
+        private final Map<Set<PancakeIngredient>, Integer> cooked = new HashMap<>();
+        private final Map<Set<PancakeIngredient>, Integer> cooking = new HashMap<>();
+
+        private int outstanding(Set<PancakeIngredient> ingredients) {
+            return Math.max(0, required.getOrDefault(ingredients, 0)
+                    - cooked.getOrDefault(ingredients, 0)
+                    - cooking.getOrDefault(ingredients, 0));
+        }
+
+        private Map<Set<PancakeIngredient>, Integer> outstanding() {
+            final var outstanding = new HashMap<Set<PancakeIngredient>, Integer>();
+            for (final var ingredients : required.keySet()) {
+                final var count = outstanding(ingredients);
+                if (count > 0) {
+                    outstanding.put(ingredients, count);
+                }
+            }
+            return outstanding;
+        }
+
+        private boolean isCooked() {
+            if (state != OrderState.COMPLETED || !cooking.isEmpty()) {
+                return false;
+            }
+            for (final var ingredients : required.keySet()) {
+                if (cooked.getOrDefault(ingredients, 0) < required.get(ingredients)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class PancakeGroup {
+        private final Set<PancakeIngredient> ingredients;
+        private final Set<UUID> orderIds = new LinkedHashSet<>();
+        private int outstanding;
+
+        private PancakeGroup(Set<PancakeIngredient> ingredients) {
+            this.ingredients = ingredients;
+        }
+    }
+}
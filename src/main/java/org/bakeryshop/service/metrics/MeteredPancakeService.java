@@ -0,0 +1,212 @@
+package org.bakeryshop.service.metrics;
+
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.service.OrderListener;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.usecase.Result;
+import org.bakeryshop.service.usecase.cancel.CancelOrderResult;
+import org.bakeryshop.service.usecase.complete.CompleteOrderResult;
+import org.bakeryshop.service.usecase.create.CreateOrderResult;
+import org.bakeryshop.service.usecase.delivery.BatchDeliveryResult;
+import org.bakeryshop.service.usecase.delivery.OrderDeliveryResult;
+import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
+import org.bakeryshop.service.usecase.pancake.RemovePancakeResult;
+import org.bakeryshop.service.usecase.prepare.PrepareOrderResult;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Records the calls, the failures, the errors and the latencies of every method of the delegate
+ * in the {@link MetricsRegistry}, the idempotent overloads are recorded as their plain method.
+ * <p>
+ * The latencies of the blocking hand-off methods include the waiting for an order.
+ */
+public final class MeteredPancakeService implements PancakeService {
+
+    private final PancakeService delegate;
+
+    private final OperationMetrics createOrder;
+    private final OperationMetrics addPancakes;
+    private final OperationMetrics removePancakes;
+    private final OperationMetrics cancelOrder;
+    private final OperationMetrics completeOrder;
+    private final OperationMetrics prepareOrder;
+    private final OperationMetrics deliverOrder;
+    private final OperationMetrics deliverOrders;
+    private final OperationMetrics viewOrder;
+    private final OperationMetrics listCompletedOrders;
+    private final OperationMetrics listPreparedOrders;
+    private final OperationMetrics takeCompletedOrder;
+    private final OperationMetrics takePreparedOrder;
+
+    public MeteredPancakeService(PancakeService delegate, MetricsRegistry metricsRegistry) {
+        ParameterArguments.requireNotNullParameterArgument(delegate, "delegate");
+        ParameterArguments.requireNotNullParameterArgument(metricsRegistry, "metricsRegistry");
+        this.delegate = delegate;
+        this.createOrder = metricsRegistry.operation("createOrder");
+        this.addPancakes = metricsRegistry.operation("addPancakes");
+        this.removePancakes = metricsRegistry.operation("removePancakes");
+        this.cancelOrder = metricsRegistry.operation("cancelOrder");
+        this.completeOrder = metricsRegistry.operation("completeOrder");
+        this.prepareOrder = metricsRegistry.operation("prepareOrder");
+        this.deliverOrder = metricsRegistry.operation("deliverOrder");
+        this.deliverOrders = metricsRegistry.operation("deliverOrders");
+        this.viewOrder = metricsRegistry.operation("viewOrder");
+        this.listCompletedOrders = metricsRegistry.operation("listCompletedOrders");
+        this.listPreparedOrders = metricsRegistry.operation("listPreparedOrders");
+        this.takeCompletedOrder = metricsRegistry.operation("takeCompletedOrder");
+        this.takePreparedOrder = metricsRegistry.operation("takePreparedOrder");
+    }
+
+    @Override
+    public CreateOrderResult createOrder(int buildingNr, int room) {
+        return meterCommand(createOrder, () -> delegate.createOrder(buildingNr, room));
+    }
+
+    @Override
+    public CreateOrderResult createOrder(String requestId, int buildingNr, int room) {
+        return meterCommand(createOrder, () -> delegate.createOrder(requestId, buildingNr, room));
+    }
+
+    @Override
+    public AddPancakeResult addPancakes(UUID orderId, int count, Set<PancakeIngredient> ingredients) {
+        return meterCommand(addPancakes, () -> delegate.addPancakes(orderId, count, ingredients));
+    }
+
+    @Override
+    public AddPancakeResult addPancakes(String requestId, UUID orderId, int count, Set<PancakeIngredient> ingredients) {
+        return meterCommand(addPancakes, () -> delegate.addPancakes(requestId, orderId, count, ingredients));
+    }
+
+    @Override
+    public RemovePancakeResult removePancakes(UUID orderId, String description, int count) {
+        return meterCommand(removePancakes, () -> delegate.removePancakes(orderId, description, count));
+    }
+
+    @Override
+    public RemovePancakeResult removePancakes(String requestId, UUID orderId, String description, int count) {
+        return meterCommand(removePancakes, () -> delegate.removePancakes(requestId, orderId, description, count));
+    }
+
+    @Override
+    public CancelOrderResult cancelOrder(UUID orderId) {
+        return meterCommand(cancelOrder, () -> delegate.cancelOrder(orderId));
+    }
+
+    @Override
+    public CancelOrderResult cancelOrder(String requestId, UUID orderId) {
+        return meterCommand(cancelOrder, () -> delegate.cancelOrder(requestId, orderId));
+    }
+
+    @Override
+    public CompleteOrderResult completeOrder(UUID orderId) {
+        return meterCommand(completeOrder, () -> delegate.completeOrder(orderId));
+    }
+
+    @Override
+    public CompleteOrderResult completeOrder(String requestId, UUID orderId) {
+        return meterCommand(completeOrder, () -> delegate.completeOrder(requestId, orderId));
+    }
+
+    @Override
+    public PrepareOrderResult prepareOrder(UUID orderId) {
+        return meterCommand(prepareOrder, () -> delegate.prepareOrder(orderId));
+    }
+
+    @Override
+    public PrepareOrderResult prepareOrder(String requestId, UUID orderId) {
+        return meterCommand(prepareOrder, () -> delegate.prepareOrder(requestId, orderId));
+    }
+
+    @Override
+    public OrderDeliveryResult deliverOrder(UUID orderId) {
+        return meterCommand(deliverOrder, () -> delegate.deliverOrder(orderId));
+    }
+
+    @Override
+    public OrderDeliveryResult deliverOrder(String requestId, UUID orderId) {
+        return meterCommand(deliverOrder, () -> delegate.deliverOrder(requestId, orderId));
+    }
+
+    @Override
+    public BatchDeliveryResult deliverOrders(Collection<UUID> orderIds) {
+        return meterBatch(() -> delegate.deliverOrders(orderIds));
+    }
+
+    @Override
+    public BatchDeliveryResult deliverOrders(String requestId, Collection<UUID> orderIds) {
+        return meterBatch(() -> delegate.deliverOrders(requestId, orderIds));
+    }
+
+    @Override
+    public List<String> viewOrder(UUID orderId) {
+        return meterQuery(viewOrder, () -> delegate.viewOrder(orderId));
+    }
+
+    @Override
+    public Set<UUID> listCompletedOrders() {
+        return meterQuery(listCompletedOrders, delegate::listCompletedOrders);
+    }
+
+    @Override
+    public Set<UUID> listPreparedOrders() {
+        return meterQuery(listPreparedOrders, delegate::listPreparedOrders);
+    }
+
+    @Override
+    public Optional<UUID> takeCompletedOrder(Duration timeout) {
+        return meterQuery(takeCompletedOrder, () -> delegate.takeCompletedOrder(timeout));
+    }
+
+    @Override
+    public Optional<UUID> takePreparedOrder(Duration timeout) {
+        return meterQuery(takePreparedOrder, () -> delegate.takePreparedOrder(timeout));
+    }
+
+    @Override
+    public void addOrderListener(OrderListener orderListener) {
+        delegate.addOrderListener(orderListener);
+    }
+
+    @Override
+    public void removeOrderListener(OrderListener orderListener) {
+        delegate.removeOrderListener(orderListener);
+    }
+
+    private static <R extends Result<?>> R meterCommand(OperationMetrics metrics, Supplier<R> command) {
+        final long start = System.nanoTime();
+        final R result;
+        try {
+            result = command.get();
+        } catch (RuntimeException | Error e) {
+            metrics.recordError(System.nanoTime() - start);
+            throw e;
+        }
+        metrics.recordCall(System.nanoTime() - start, result.getFailure().orElse(null));
+        return result;
+    }
+
+    private BatchDeliveryResult meterBatch(Supplier<BatchDeliveryResult> command) {
+        final var result = meterQuery(deliverOrders, command);
+        for (final var failure : result.failures().values()) {
+            deliverOrders.recordFailure(failure);
+        }
+        return result;
+    }
+
+    private static <R> R meterQuery(OperationMetrics metrics, Supplier<R> query) {
+        final long start = System.nanoTime();
+        final R result;
+        try {
+            result = query.get();
+        } catch (RuntimeException | Error e) {
+            metrics.recordError(System.nanoTime() - start);
+            throw e;
+        }
+        metrics.recordCall(System.nanoTime() - start, null);
+        return result;
+    }
+}
@@ -0,0 +1,53 @@
+package org.bakeryshop.service.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the metrics of a {@link MetricsRegistry} in the Prometheus text format on {@code GET /metrics}.
+ */
+public final class MetricsEndpoint implements AutoCloseable {
+
+    private final HttpServer server;
+
+    private MetricsEndpoint(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * @param address The address to listen on, port 0 picks a free port
+     */
+    public static MetricsEndpoint start(MetricsRegistry metricsRegistry, InetSocketAddress address) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(metricsRegistry, "metricsRegistry");
+        ParameterArguments.requireNotNullParameterArgument(address, "address");
+
+        final var server = HttpServer.create(address, 0);
+        server.createContext("/metrics", exchange -> {
+            try (exchange) {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(405, -1L);
+                    return;
+                }
+                final var body = PrometheusTextFormat.toString(metricsRegistry.snapshot()).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", PrometheusTextFormat.CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        });
+        server.start();
+        return new MetricsEndpoint(server);
+    }
+
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
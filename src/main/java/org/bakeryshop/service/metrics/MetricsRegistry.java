@@ -0,0 +1,34 @@
+package org.bakeryshop.service.metrics;
+
+import org.bakeryshop.util.ParameterArguments;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The metrics of the operations by operation name.
+ */
+public final class MetricsRegistry {
+
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    /**
+     * @return the metrics of the operation, created on first use
+     */
+    public OperationMetrics operation(String operation) {
+        ParameterArguments.requireNotBlankParameterArgument(operation, "operation");
+        return operations.computeIfAbsent(operation, OperationMetrics::new);
+    }
+
+    /**
+     * @return the snapshots of all operations ordered by operation name
+     */
+    public List<OperationMetrics.Snapshot> snapshot() {
+        return operations.values().stream()
+                .map(OperationMetrics::snapshot)
+                .sorted(Comparator.comparing(OperationMetrics.Snapshot::operation))
+                .toList();
+    }
+}
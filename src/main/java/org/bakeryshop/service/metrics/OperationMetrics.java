@@ -0,0 +1,81 @@
+package org.bakeryshop.service.metrics;
+
+import org.bakeryshop.service.usecase.Failure;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The calls, the failures by {@link Failure#code()}, the errors and the latencies of one operation.
+ */
+public final class OperationMetrics {
+
+    private final String operation;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    OperationMetrics(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Records a call which returned, with a failure or without.
+     *
+     * @param failure The failure of the result, null for a successful call
+     */
+    public void recordCall(long latencyNanos, Failure failure) {
+        calls.increment();
+        latencies.record(latencyNanos);
+        if (failure != null) {
+            recordFailure(failure);
+        }
+    }
+
+    /**
+     * Records a call which threw an exception.
+     */
+    public void recordError(long latencyNanos) {
+        calls.increment();
+        errors.increment();
+        latencies.record(latencyNanos);
+    }
+
+    /**
+     * Records a failure without counting a call, e.g. one of the failures of a batch.
+     */
+    public void recordFailure(Failure failure) {
+        var failureCount = failures.get(failure.code());
+        if (failureCount == null) {
+            failureCount = failures.computeIfAbsent(failure.code(), any -> new LongAdder());
+        }
+        failureCount.increment();
+    }
+
+    public Snapshot snapshot() {
+        final var failureCounts = new TreeMap<String, Long>();
+        failures.forEach((code, count) -> failureCounts.put(code, count.sum()));
+        return new Snapshot(operation, calls.sum(), errors.sum(), failureCounts, latencies.snapshot());
+    }
+
+    /**
+     * @param operation The name of the operation
+     * @param calls     The amount of calls, including the failed and the erroneous ones
+     * @param errors    The amount of calls which threw an exception
+     * @param failures  The amount of failures by failure code
+     * @param latencies The latencies of all calls in nanoseconds
+     */
+    public record Snapshot(String operation,
+                           long calls,
+                           long errors,
+                           Map<String, Long> failures,
+                           LatencyHistogram.Snapshot latencies) {
+
+        public Snapshot {
+            failures = Map.copyOf(failures);
+        }
+    }
+}
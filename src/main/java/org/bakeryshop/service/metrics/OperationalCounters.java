@@ -0,0 +1,111 @@
+package org.bakeryshop.service.metrics;
+
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.service.OrderListener;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the created, cancelled and delivered orders in {@link SlidingWindowCounter}s and the open orders by state
+ * from the {@link OrderListener} events of the {@link PancakeService}, so the {@link #stats()} neither lock
+ * nor visit the orders.
+ * <p>
+ * The backlog counts the orders created since the counters were attached. The events of an order may be published
+ * out of order, every event applies a commutative change, so the backlog is exact once the events are published.
+ * <p>
+ * Counters {@link #attachedTo(PancakeService) attached} to a service already holding orders seed the backlog with its
+ * completed and prepared orders. Its new orders can not be listed, their later events would count them below zero,
+ * so the backlog of a state is clamped at zero and is a lower bound until the orders present at attaching are gone.
+ */
+public final class OperationalCounters implements OrderListener {
+
+    public static final Duration DEFAULT_WINDOW = Duration.ofMinutes(1L);
+
+    static final int BUCKETS = 60;
+
+    private static final OrderState[] STATES = OrderState.values();
+
+    private final SlidingWindowCounter createdOrders;
+    private final SlidingWindowCounter cancelledOrders;
+    private final SlidingWindowCounter deliveredOrders;
+    private final SlidingWindowCounter deliveredPancakes;
+    private final LongAdder[] backlog = new LongAdder[STATES.length];
+
+    /**
+     * @param window The length of the sliding window, split in {@value #BUCKETS} buckets
+     */
+    public OperationalCounters(Duration window, Clock clock) {
+        this.createdOrders = new SlidingWindowCounter(window, BUCKETS, clock);
+        this.cancelledOrders = new SlidingWindowCounter(window, BUCKETS, clock);
+        this.deliveredOrders = new SlidingWindowCounter(window, BUCKETS, clock);
+        this.deliveredPancakes = new SlidingWindowCounter(window, BUCKETS, clock);
+        for (int state = 0; state < backlog.length; state++) {
+            backlog[state] = new LongAdder();
+        }
+    }
+
+    /**
+     * Creates counters of the {@link #DEFAULT_WINDOW} receiving the order events of the given service,
+     * their backlog starts with the completed and prepared orders of the service.
+     * The orders changing while the counters are attached may be counted off by one.
+     */
+    public static OperationalCounters attachedTo(PancakeService pancakeService) {
+        ParameterArguments.requireNotNullParameterArgument(pancakeService, "pancakeService");
+        final var operationalCounters = new OperationalCounters(DEFAULT_WINDOW, Clock.systemUTC());
+        pancakeService.addOrderListener(operationalCounters);
+        operationalCounters.backlog[OrderState.COMPLETED.ordinal()].add(pancakeService.listCompletedOrders().size());
+        operationalCounters.backlog[OrderState.PREPARED.ordinal()].add(pancakeService.listPreparedOrders().size());
+        return operationalCounters;
+    }
+
+    @Override
+    public void orderCreated(PancakesOrderSnapshot order) {
+        createdOrders.increment();
+        backlog[order.state().ordinal()].increment();
+    }
+
+    @Override
+    public void orderStateChanged(UUID orderId, OrderState previousState, OrderState state) {
+        backlog[previousState.ordinal()].decrement();
+        backlog[state.ordinal()].increment();
+    }
+
+    @Override
+    public void orderCancelled(PancakesOrderSnapshot order) {
+        cancelledOrders.increment();
+        backlog[order.state().ordinal()].decrement();
+    }
+
+    @Override
+    public void orderDelivered(PancakesOrderSnapshot order) {
+        deliveredOrders.increment();
+        deliveredPancakes.add(order.pancakes().size());
+        backlog[order.state().ordinal()].decrement();
+    }
+
+    /**
+     * @return the current numbers, read one after the other
+     */
+    public OperationalStats stats() {
+        final var backlogByState = new EnumMap<OrderState, Long>(OrderState.class);
+        for (final var state : STATES) {
+            // below zero when the orders present at attaching left the state
+            backlogByState.put(state, Math.max(backlog[state.ordinal()].sum(), 0L));
+        }
+        return new OperationalStats(
+                createdOrders.window(),
+                createdOrders.sum(),
+                cancelledOrders.sum(),
+                deliveredOrders.sum(),
+                deliveredPancakes.sum(),
+                backlogByState
+        );
+    }
+}
@@ -0,0 +1,49 @@
+package org.bakeryshop.service.metrics;
+
+import org.bakeryshop.domain.model.order.OrderState;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The live numbers of the shop, the rates over the sliding window and the backlog at the moment of the snapshot.
+ *
+ * @param window            The length of the window of the counts
+ * @param createdOrders     The orders created within the window
+ * @param cancelledOrders   The orders cancelled within the window
+ * @param deliveredOrders   The orders delivered within the window
+ * @param deliveredPancakes The pancakes of the orders delivered within the window
+ * @param backlog           The open orders by state
+ */
+public record OperationalStats(
+        Duration window,
+        long createdOrders,
+        long cancelledOrders,
+        long deliveredOrders,
+        long deliveredPancakes,
+        Map<OrderState, Long> backlog
+) {
+
+    public OperationalStats {
+        backlog = Map.copyOf(backlog);
+    }
+
+    public double createdOrdersPerMinute() {
+        return perMinute(createdOrders);
+    }
+
+    public double deliveredOrdersPerMinute() {
+        return perMinute(deliveredOrders);
+    }
+
+    /**
+     * @return the average pancakes of the orders delivered within the window, 0 without deliveries
+     */
+    public double averagePancakesPerOrder() {
+        return deliveredOrders == 0L ? 0.0 : (double) deliveredPancakes / deliveredOrders;
+    }
+
+    private double perMinute(long count) {
+        return count * 60_000.0 / window.toMillis();
+    }
+}
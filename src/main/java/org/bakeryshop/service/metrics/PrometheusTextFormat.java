@@ -0,0 +1,106 @@
+package org.bakeryshop.service.metrics;
+
+import org.bakeryshop.util.ParameterArguments;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Writes the snapshots of a {@link MetricsRegistry} in the Prometheus text exposition format,
+ * the latencies as summaries in seconds.
+ */
+public final class PrometheusTextFormat {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5d, 0.9d, 0.99d, 0.999d};
+
+    private PrometheusTextFormat() {
+        super();
+    }
+
+    public static void write(List<OperationMetrics.Snapshot> snapshots, Appendable out) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(snapshots, "snapshots");
+        ParameterArguments.requireNotNullParameterArgument(out, "out");
+
+        header(out, "bakery_operation_calls_total", "counter", "Calls by operation, including failures and errors.");
+        for (final var snapshot : snapshots) {
+            sample(out, "bakery_operation_calls_total", snapshot.operation(), snapshot.calls());
+        }
+        header(out, "bakery_operation_errors_total", "counter", "Calls by operation which threw an exception.");
+        for (final var snapshot : snapshots) {
+            sample(out, "bakery_operation_errors_total", snapshot.operation(), snapshot.errors());
+        }
+        header(out, "bakery_operation_failures_total", "counter", "Failures by operation and failure code.");
+        for (final var snapshot : snapshots) {
+            for (final var failure : snapshot.failures().entrySet()) {
+                out.append("bakery_operation_failures_total{operation=\"").append(snapshot.operation())
+                        .append("\",failure=\"").append(escape(failure.getKey())).append("\"} ")
+                        .append(Long.toString(failure.getValue())).append('\n');
+            }
+        }
+        header(out, "bakery_operation_latency_seconds", "summary", "Latencies by operation.");
+        for (final var snapshot : snapshots) {
+            final var latencies = snapshot.latencies();
+            for (final var quantile : QUANTILES) {
+                out.append("bakery_operation_latency_seconds{operation=\"").append(snapshot.operation())
+                        .append("\",quantile=\"").append(Double.toString(quantile)).append("\"} ")
+                        .append(seconds(latencies.valueAt(quantile * 100.0d))).append('\n');
+            }
+            out.append("bakery_operation_latency_seconds_sum{operation=\"").append(snapshot.operation()).append("\"} ")
+                    .append(seconds(latencies.sum())).append('\n');
+            out.append("bakery_operation_latency_seconds_count{operation=\"").append(snapshot.operation()).append("\"} ")
+                    .append(Long.toString(latencies.count())).append('\n');
+        }
+    }
+
+    public static String toString(List<OperationMetrics.Snapshot> snapshots) {
+        final var out = new StringBuilder();
+        try {
+            write(snapshots, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Replaces the file atomically, so a scraper never reads a partially written file.
+     */
+    public static void writeTo(List<OperationMetrics.Snapshot> snapshots, Path file) throws IOException {
+        ParameterArguments.requireNotNullParameterArgument(file, "file");
+        final var directory = file.toAbsolutePath().getParent();
+        final var temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                write(snapshots, writer);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static void header(Appendable out, String name, String type, String help) throws IOException {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(Appendable out, String name, String operation, long value) throws IOException {
+        out.append(name).append("{operation=\"").append(operation).append("\"} ").append(Long.toString(value)).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9d);
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
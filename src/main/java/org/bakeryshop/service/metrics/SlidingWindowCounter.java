@@ -0,0 +1,96 @@
+package org.bakeryshop.service.metrics;
+
+import org.bakeryshop.util.ParameterArguments;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sum of the amounts added within a sliding time window, kept in a ring of time buckets.
+ * <p>
+ * Every bucket is a single long holding its epoch, the number of bucket widths since the creation of the counter,
+ * in the high half and its sum in the low half, so an add either increments the current bucket or claims
+ * a stale one with a single compare and swap. The sum covers the current bucket and the previous ones,
+ * so it spans between {@code buckets - 1} and {@code buckets} bucket widths, and reads every bucket once
+ * without resetting any. A bucket sums at most 2<sup>32</sup> - 1.
+ */
+public final class SlidingWindowCounter {
+
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    private final Clock clock;
+    private final long bucketMillis;
+    private final long originMillis;
+    private final AtomicLongArray buckets;
+
+    /**
+     * @param window  The length of the window, split in buckets of at least a millisecond
+     * @param buckets The number of buckets of the window
+     */
+    public SlidingWindowCounter(Duration window, int buckets, Clock clock) {
+        ParameterArguments.requireNotNullParameterArgument(window, "window");
+        ParameterArguments.requirePositiveParameterArgument(buckets, "buckets");
+        ParameterArguments.requireNotNullParameterArgument(clock, "clock");
+        this.bucketMillis = window.toMillis() / buckets;
+        if (bucketMillis <= 0L) {
+            throw new IllegalArgumentException("Window should be at least a millisecond per bucket.");
+        }
+        this.clock = clock;
+        this.originMillis = clock.millis();
+        this.buckets = new AtomicLongArray(buckets);
+    }
+
+    public void increment() {
+        add(1L);
+    }
+
+    /**
+     * @param amount The non-negative amount, added to the bucket of the current time
+     */
+    public void add(long amount) {
+        if (amount < 0L || amount > COUNT_MASK) {
+            throw new IllegalArgumentException("Amount should be between 0 and %d.".formatted(COUNT_MASK));
+        }
+        final int epoch = epochOf(clock.millis());
+        final int slot = Math.floorMod(epoch, buckets.length());
+        long bucket = buckets.get(slot);
+        while (true) {
+            final int bucketEpoch = (int) (bucket >>> 32);
+            if (bucketEpoch - epoch > 0) {
+                // the slot moved on to a later epoch while this thread was stalled for a whole window
+                return;
+            }
+            final long next = bucketEpoch == epoch ? bucket + amount : (long) epoch << 32 | amount;
+            final long witness = buckets.compareAndExchange(slot, bucket, next);
+            if (witness == bucket) {
+                return;
+            }
+            bucket = witness;
+        }
+    }
+
+    /**
+     * @return the sum of the window, the amounts added while summing may be partially included
+     */
+    public long sum() {
+        final int epoch = epochOf(clock.millis());
+        long sum = 0L;
+        for (int slot = 0; slot < buckets.length(); slot++) {
+            final long bucket = buckets.get(slot);
+            final int age = epoch - (int) (bucket >>> 32);
+            if (age >= 0 && age < buckets.length()) {
+                sum += bucket & COUNT_MASK;
+            }
+        }
+        return sum;
+    }
+
+    public Duration window() {
+        return Duration.ofMillis(bucketMillis * buckets.length());
+    }
+
+    private int epochOf(long millis) {
+        return (int) Math.floorDiv(millis - originMillis, bucketMillis);
+    }
+}
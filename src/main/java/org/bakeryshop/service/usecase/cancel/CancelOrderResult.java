@@ -14,6 +14,9 @@ public final class CancelOrderResult implements Result<CancelOrderResult.CancelO
     public static final CancelOrderResult ORDER_NOT_FOUND_RESULT
             = new CancelOrderResult(CancelOrderFailure.ORDER_NOT_FOUND);
 
+    public static final CancelOrderResult OVERLOADED_RESULT
+            = new CancelOrderResult(CancelOrderFailure.OVERLOADED);
+
     private final CancelOrderFailure failure;
 
     private CancelOrderResult(CancelOrderFailure failure) {
@@ -28,6 +31,10 @@ public final class CancelOrderResult implements Result<CancelOrderResult.CancelO
         return ORDER_NOT_FOUND_RESULT;
     }
 
+    public static CancelOrderResult overloaded() {
+        return OVERLOADED_RESULT;
+    }
+
     @Override
     public Optional<CancelOrderFailure> getFailure() {
         return Optional.ofNullable(failure);
@@ -53,7 +60,8 @@ public final class CancelOrderResult implements Result<CancelOrderResult.CancelO
 
     public enum CancelOrderFailure implements Failure {
 
-        ORDER_NOT_FOUND(Failures.ORDER_NOT_FOUND);
+        ORDER_NOT_FOUND(Failures.ORDER_NOT_FOUND),
+        OVERLOADED(Failures.OVERLOADED);
 
         private final String code;
         private final String reason;
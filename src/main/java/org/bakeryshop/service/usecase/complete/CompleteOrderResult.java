@@ -14,6 +14,9 @@ public final class CompleteOrderResult implements Result<CompleteOrderResult.Com
     public static final CompleteOrderResult ORDER_NOT_FOUND_RESULT
             = new CompleteOrderResult(CompleteOrderFailure.ORDER_NOT_FOUND);
 
+    public static final CompleteOrderResult OVERLOADED_RESULT
+            = new CompleteOrderResult(CompleteOrderFailure.OVERLOADED);
+
     private final CompleteOrderFailure failure;
 
     private CompleteOrderResult(CompleteOrderFailure failure) {
@@ -28,6 +31,10 @@ public final class CompleteOrderResult implements Result<CompleteOrderResult.Com
         return ORDER_NOT_FOUND_RESULT;
     }
 
+    public static CompleteOrderResult overloaded() {
+        return OVERLOADED_RESULT;
+    }
+
     @Override
     public Optional<CompleteOrderFailure> getFailure() {
         return Optional.ofNullable(failure);
@@ -53,7 +60,8 @@ public final class CompleteOrderResult implements Result<CompleteOrderResult.Com
 
     public enum CompleteOrderFailure implements Failure {
 
-        ORDER_NOT_FOUND(Failures.ORDER_NOT_FOUND);
+        ORDER_NOT_FOUND(Failures.ORDER_NOT_FOUND),
+        OVERLOADED(Failures.OVERLOADED);
 
         private final String code;
         private final String reason;
@@ -13,6 +13,9 @@ public final class CreateOrderResult implements Result<CreateOrderResult.CreateO
     public static final CreateOrderResult INVALID_ADDRESS_RESULT
             = new CreateOrderResult(null, CreateOrderFailure.INVALID_ADDRESS);
 
+    public static final CreateOrderResult OVERLOADED_RESULT
+            = new CreateOrderResult(null, CreateOrderFailure.OVERLOADED);
+
     private final PancakesOrderSnapshot order;
 
     private final CreateOrderFailure failure;
@@ -30,6 +33,10 @@ public final class CreateOrderResult implements Result<CreateOrderResult.CreateO
         return INVALID_ADDRESS_RESULT;
     }
 
+    public static CreateOrderResult overloaded() {
+        return OVERLOADED_RESULT;
+    }
+
     @Override
     public Optional<CreateOrderFailure> getFailure() {
         return Optional.ofNullable(failure);
@@ -62,7 +69,8 @@ public final class CreateOrderResult implements Result<CreateOrderResult.CreateO
 
     public enum CreateOrderFailure implements Failure {
 
-        INVALID_ADDRESS(Failures.INVALID_ADDRESS);
+        INVALID_ADDRESS(Failures.INVALID_ADDRESS),
+        OVERLOADED(Failures.OVERLOADED);
 
         private final String code;
         private final String reason;
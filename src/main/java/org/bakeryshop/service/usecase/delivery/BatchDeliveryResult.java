@@ -0,0 +1,29 @@
+package org.bakeryshop.service.usecase.delivery;
+
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.util.ParameterArguments;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * @param deliveredOrders The orders out for delivery, ordered by building and room
+ * @param failures        The failures of orders which could not be delivered
+ */
+public record BatchDeliveryResult(
+        List<PancakesOrderSnapshot> deliveredOrders,
+        Map<UUID, OrderDeliveryResult.OrderDeliveryFailure> failures
+) {
+
+    public BatchDeliveryResult {
+        ParameterArguments.requireNotNullParameterArgument(deliveredOrders, "deliveredOrders");
+        ParameterArguments.requireNotNullParameterArgument(failures, "failures");
+        deliveredOrders = List.copyOf(deliveredOrders);
+        failures = Map.copyOf(failures);
+    }
+
+    public boolean isEmpty() {
+        return deliveredOrders.isEmpty();
+    }
+}
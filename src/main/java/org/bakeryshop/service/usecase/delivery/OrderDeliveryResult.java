@@ -18,6 +18,9 @@ public final class OrderDeliveryResult implements Result<OrderDeliveryResult.Ord
     public static final OrderDeliveryResult CONCURRENTLY_DELIVERED_RESULT
             = new OrderDeliveryResult(null, OrderDeliveryFailure.CONCURRENTLY_DELIVERED);
 
+    public static final OrderDeliveryResult OVERLOADED_RESULT
+            = new OrderDeliveryResult(null, OrderDeliveryFailure.OVERLOADED);
+
     private final PancakesOrderSnapshot order;
     private final OrderDeliveryFailure failure;
 
@@ -35,6 +38,10 @@ public final class OrderDeliveryResult implements Result<OrderDeliveryResult.Ord
         return ORDER_NOT_FOUND_RESULT;
     }
 
+    public static OrderDeliveryResult overloaded() {
+        return OVERLOADED_RESULT;
+    }
+
     public static OrderDeliveryResult notPrepared() {
         return NOT_PREPARED_RESULT;
     }
@@ -82,7 +89,8 @@ public final class OrderDeliveryResult implements Result<OrderDeliveryResult.Ord
     public enum OrderDeliveryFailure implements Failure {
         ORDER_NOT_FOUND(Failures.ORDER_NOT_FOUND),
         NOT_PREPARED("order_not_prepared", "Order not prepared"),
-        CONCURRENTLY_DELIVERED("order_concurrently_delivered", "Order was concurrently delivered prepared");
+        CONCURRENTLY_DELIVERED("order_concurrently_delivered", "Order was concurrently delivered prepared"),
+        OVERLOADED(Failures.OVERLOADED);
 
         private final String code;
         private final String reason;
@@ -14,6 +14,12 @@ public final class AddPancakeResult implements Result<AddPancakeResult.AddPancak
     public static final AddPancakeResult ORDER_NOT_FOUND_RESULT
             = new AddPancakeResult(AddPancakeFailure.ORDER_NOT_FOUND);
 
+    public static final AddPancakeResult OVERLOADED_RESULT
+            = new AddPancakeResult(AddPancakeFailure.OVERLOADED);
+
+    public static final AddPancakeResult INSUFFICIENT_STOCK_RESULT
+            = new AddPancakeResult(AddPancakeFailure.INSUFFICIENT_STOCK);
+
     private final AddPancakeFailure failure;
 
     private AddPancakeResult(AddPancakeFailure failure) {
@@ -28,6 +34,14 @@ public final class AddPancakeResult implements Result<AddPancakeResult.AddPancak
         return ORDER_NOT_FOUND_RESULT;
     }
 
+    public static AddPancakeResult overloaded() {
+        return OVERLOADED_RESULT;
+    }
+
+    public static AddPancakeResult insufficientStock() {
+        return INSUFFICIENT_STOCK_RESULT;
+    }
+
     @Override
     public Optional<AddPancakeFailure> getFailure() {
         return Optional.ofNullable(failure);
@@ -53,7 +67,9 @@ public final class AddPancakeResult implements Result<AddPancakeResult.AddPancak
 
     public enum AddPancakeFailure implements Failure {
 
-        ORDER_NOT_FOUND(Failures.ORDER_NOT_FOUND);
+        ORDER_NOT_FOUND(Failures.ORDER_NOT_FOUND),
+        OVERLOADED(Failures.OVERLOADED),
+        INSUFFICIENT_STOCK(Failures.INSUFFICIENT_STOCK);
 
         private final String code;
         private final String reason;
@@ -14,6 +14,9 @@ public final class RemovePancakeResult implements Result<RemovePancakeResult.Rem
     public static final RemovePancakeResult ORDER_NOT_FOUND_RESULT
             = new RemovePancakeResult(RemovePancakeFailure.ORDER_NOT_FOUND);
 
+    public static final RemovePancakeResult OVERLOADED_RESULT
+            = new RemovePancakeResult(RemovePancakeFailure.OVERLOADED);
+
     private final RemovePancakeFailure failure;
 
     private RemovePancakeResult(RemovePancakeFailure failure) {
@@ -28,6 +31,10 @@ public final class RemovePancakeResult implements Result<RemovePancakeResult.Rem
         return ORDER_NOT_FOUND_RESULT;
     }
 
+    public static RemovePancakeResult overloaded() {
+        return OVERLOADED_RESULT;
+    }
+
     @Override
     public Optional<RemovePancakeFailure> getFailure() {
         return Optional.ofNullable(failure);
@@ -53,7 +60,8 @@ public final class RemovePancakeResult implements Result<RemovePancakeResult.Rem
 
     public enum RemovePancakeFailure implements Failure {
 
-        ORDER_NOT_FOUND(Failures.ORDER_NOT_FOUND);
+        ORDER_NOT_FOUND(Failures.ORDER_NOT_FOUND),
+        OVERLOADED(Failures.OVERLOADED);
 
         private final String code;
         private final String reason;
@@ -17,6 +17,9 @@ public final class PrepareOrderResult implements Result<PrepareOrderResult.Prepa
     public static final PrepareOrderResult ORDER_NOT_FOUND_RESULT
             = new PrepareOrderResult(PrepareOrderFailure.ORDER_NOT_FOUND);
 
+    public static final PrepareOrderResult OVERLOADED_RESULT
+            = new PrepareOrderResult(PrepareOrderFailure.OVERLOADED);
+
     private final PrepareOrderFailure failure;
 
     private PrepareOrderResult(PrepareOrderFailure failure) {
@@ -35,6 +38,10 @@ public final class PrepareOrderResult implements Result<PrepareOrderResult.Prepa
         return ORDER_NOT_COMPLETED_RESULT;
     }
 
+    public static PrepareOrderResult overloaded() {
+        return OVERLOADED_RESULT;
+    }
+
     @Override
     public Optional<PrepareOrderFailure> getFailure() {
         return Optional.ofNullable(failure);
@@ -61,7 +68,8 @@ public final class PrepareOrderResult implements Result<PrepareOrderResult.Prepa
     public enum PrepareOrderFailure implements Failure {
 
         ORDER_NOT_FOUND(Failures.ORDER_NOT_FOUND),
-        ORDER_NOT_COMPLETED("order_not_completed", "Order not completed");
+        ORDER_NOT_COMPLETED("order_not_completed", "Order not completed"),
+        OVERLOADED(Failures.OVERLOADED);
 
         private final String code;
         private final String reason;
@@ -0,0 +1,252 @@
+package org.bakeryshop.api.binary;
+
+import org.bakeryshop.common.TimeoutException;
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.PancakeOrderOperations;
+import org.bakeryshop.service.SimplePancakeService;
+import org.bakeryshop.service.usecase.create.CreateOrderResult;
+import org.bakeryshop.service.usecase.delivery.BatchDeliveryResult;
+import org.bakeryshop.service.usecase.delivery.OrderDeliveryResult;
+import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BinaryProtocolServerTest {
+
+    private static final int PIPELINED_REQUESTS = 1_000;
+    private static final int BUSY_PIPELINED_REQUESTS = 10_000;
+
+    private BinaryProtocolServer binaryProtocolServer;
+    private BinaryProtocolClient binaryProtocolClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        final var pancakeService = new SimplePancakeService(
+                new InMemoryPancakesOrderRepository(Duration.ofSeconds(1L)),
+                new FixedSetBuildingRepository(Set.of(new Building(3, 5)))
+        );
+        binaryProtocolServer = BinaryProtocolServer.start(pancakeService, new InetSocketAddress("localhost", 0));
+        binaryProtocolClient = BinaryProtocolClient.connect(binaryProtocolServer.address());
+    }
+
+    @AfterEach
+    void tearDown() {
+        binaryProtocolClient.close();
+        binaryProtocolServer.close();
+    }
+
+    @Test
+    @DisplayName("BinaryProtocolServer: should create, fill, complete, prepare and deliver an order")
+    void shouldDeliverOrder() {
+        // setup
+        final var created = binaryProtocolClient.createOrder(3, 2).requireOrder();
+        final var orderId = created.id();
+        // exercise
+        final var added = binaryProtocolClient.addPancakes(
+                orderId, 2, Set.of(PancakeIngredient.HAZELNUTS, PancakeIngredient.MILK_CHOCOLATE));
+        final var viewed = binaryProtocolClient.viewOrder(orderId);
+        final var completed = binaryProtocolClient.completeOrder(orderId);
+        final var listed = binaryProtocolClient.listCompletedOrders();
+        final var prepared = binaryProtocolClient.prepareOrder(orderId);
+        final var delivered = binaryProtocolClient.deliverOrder(orderId);
+        // verify
+        assertThat(created.state())
+                .isEqualTo(OrderState.NEW);
+        assertThat(created.address().room())
+                .isEqualTo(2);
+        assertThat(added.hasFailure())
+                .isFalse();
+        assertThat(viewed)
+                .hasSize(2)
+                .allSatisfy(description -> assertThat(description).contains("hazelnuts"));
+        assertThat(completed.hasFailure())
+                .isFalse();
+        assertThat(listed)
+                .containsExactly(orderId);
+        assertThat(prepared.hasFailure())
+                .isFalse();
+        final var deliveredOrder = delivered.requireOrder();
+        assertThat(deliveredOrder.id())
+                .isEqualTo(orderId);
+        assertThat(deliveredOrder.pancakes())
+                .hasSize(2)
+                .allSatisfy(pancake -> assertThat(pancake.ingredients())
+                        .containsExactlyInAnyOrder(PancakeIngredient.HAZELNUTS, PancakeIngredient.MILK_CHOCOLATE));
+    }
+
+    @Test
+    @DisplayName("BinaryProtocolServer: should answer pipelined requests in request order")
+    void shouldAnswerPipelinedRequests() {
+        // setup
+        final var orderId = binaryProtocolClient.createOrder(3, 2).requireOrder().id();
+        final var additions = new ArrayList<CompletableFuture<AddPancakeResult>>();
+        // exercise
+        for (int i = 0; i < PIPELINED_REQUESTS; i++) {
+            additions.add(binaryProtocolClient.addPancakesAsync(null, orderId, 1, Set.of(PancakeIngredient.WHIPPED_CREAM)));
+        }
+        final var viewed = binaryProtocolClient.viewOrderAsync(orderId);
+        // verify
+        assertThat(additions)
+                .allSatisfy(addition -> assertThat(addition.join()).isEqualTo(AddPancakeResult.success()));
+        assertThat(viewed.join())
+                .as("the view is executed after the pipelined additions")
+                .hasSize(PIPELINED_REQUESTS);
+        assertThat(binaryProtocolClient.pendingRequests())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("BinaryProtocolServer: should answer the failures with their result")
+    void shouldAnswerFailures() {
+        // setup
+        final var orderId = binaryProtocolClient.createOrder(3, 2).requireOrder().id();
+        final var missingOrderId = new UUID(0L, 1L);
+        // exercise
+        final var invalidAddress = binaryProtocolClient.createOrder(4, 2);
+        final var missingOrder = binaryProtocolClient.cancelOrder(missingOrderId);
+        final var notPrepared = binaryProtocolClient.deliverOrder(orderId);
+        final var batch = binaryProtocolClient.deliverOrders(List.of(orderId, missingOrderId));
+        // verify
+        assertThat(invalidAddress)
+                .isEqualTo(CreateOrderResult.invalidAddress());
+        assertThat(missingOrder.requireFailure().code())
+                .isEqualTo("order_not_found");
+        assertThat(notPrepared)
+                .isEqualTo(OrderDeliveryResult.notPrepared());
+        assertThat(batch.deliveredOrders())
+                .isEmpty();
+        assertThat(batch.failures())
+                .containsEntry(orderId, OrderDeliveryResult.OrderDeliveryFailure.NOT_PREPARED)
+                .containsEntry(missingOrderId, OrderDeliveryResult.OrderDeliveryFailure.ORDER_NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("BinaryProtocolServer: should reject invalid arguments and keep serving the connection")
+    void shouldRejectInvalidArguments() {
+        // setup
+        final var orderId = binaryProtocolClient.createOrder(3, 2).requireOrder().id();
+        // exercise & verify
+        assertThatThrownBy(() -> binaryProtocolClient.addPancakes(orderId, 0, Set.of(PancakeIngredient.HAZELNUTS)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("count");
+        assertThat(binaryProtocolClient.viewOrder(orderId))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("BinaryProtocolServer: should answer the duplicates of an idempotent request with the original result")
+    void shouldAnswerDuplicatesWithOriginalResult() {
+        // exercise
+        final var created = binaryProtocolClient.createOrder("create-1", 3, 2).requireOrder();
+        final var duplicate = binaryProtocolClient.createOrder("create-1", 3, 2).requireOrder();
+        // verify
+        assertThat(duplicate.id())
+                .isEqualTo(created.id());
+    }
+
+    @Test
+    @DisplayName("BinaryProtocolServer: should reject the cluster commands when it is not a cluster node")
+    void shouldRejectClusterCommands() {
+        // setup
+        final var order = binaryProtocolClient.createOrder(3, 2).requireOrder();
+        // exercise & verify
+        assertThatThrownBy(() -> binaryProtocolClient.importOrder(order))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cluster node");
+        assertThatThrownBy(() -> binaryProtocolClient.updateMembers(Map.of("a", binaryProtocolServer.address())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cluster node");
+    }
+
+    @Test
+    @DisplayName("BinaryProtocolServer: should stop reading a connection while its requests wait for the busy workers")
+    void shouldStopReadingWhileRequestsWait() throws Exception {
+        // setup
+        final var release = new CountDownLatch(1);
+        final var busyService = mock(PancakeOrderOperations.class);
+        when(busyService.deliverOrders(anyCollection())).thenAnswer(invocation -> {
+            release.await(10L, TimeUnit.SECONDS);
+            return new BatchDeliveryResult(List.of(), Map.of());
+        });
+        final var orderIds = IntStream.range(0, 100).mapToObj(any -> UUID.randomUUID()).toList();
+        final var sent = new AtomicInteger();
+        final var deliveries = new ConcurrentLinkedQueue<CompletableFuture<BatchDeliveryResult>>();
+        try (var busyServer = BinaryProtocolServer.start(busyService, new InetSocketAddress("localhost", 0));
+             var busyClient = BinaryProtocolClient.connect(busyServer.address())) {
+            // far more than the pending requests and the socket buffers can hold
+            final var sender = new Thread(() -> {
+                for (int i = 0; i < BUSY_PIPELINED_REQUESTS; i++) {
+                    deliveries.add(busyClient.deliverOrdersAsync(null, orderIds));
+                    sent.incrementAndGet();
+                }
+            });
+            sender.start();
+            // exercise
+            int stalledAt;
+            do {
+                stalledAt = sent.get();
+                Thread.sleep(500L);
+            } while (sent.get() != stalledAt);
+            release.countDown();
+            sender.join(10_000L);
+            // verify
+            assertThat(stalledAt)
+                    .as("the sender is blocked by the server not reading")
+                    .isLessThan(BUSY_PIPELINED_REQUESTS);
+            assertThat(deliveries)
+                    .hasSize(BUSY_PIPELINED_REQUESTS)
+                    .allSatisfy(delivery -> assertThat(delivery.join().deliveredOrders()).isEmpty());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("BinaryProtocolClient: should fail a request not answered within the response timeout")
+    void shouldFailRequestNotAnsweredWithinResponseTimeout() throws Exception {
+        // setup
+        final var release = new CountDownLatch(1);
+        final var busyService = mock(PancakeOrderOperations.class);
+        when(busyService.listPreparedOrders()).thenAnswer(invocation -> {
+            release.await(10L, TimeUnit.SECONDS);
+            return Set.of();
+        });
+        try (var busyServer = BinaryProtocolServer.start(busyService, new InetSocketAddress("localhost", 0));
+             var busyClient = BinaryProtocolClient.connect(busyServer.address(), Duration.ofMillis(100L))) {
+            // exercise & verify
+            assertThatThrownBy(busyClient::listPreparedOrders)
+                    .isInstanceOf(TimeoutException.class);
+            assertThat(busyClient.pendingRequests())
+                    .isZero();
+        } finally {
+            release.countDown();
+        }
+    }
+}
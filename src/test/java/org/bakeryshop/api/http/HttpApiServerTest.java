@@ -0,0 +1,158 @@
+package org.bakeryshop.api.http;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.SimplePancakeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpApiServerTest {
+
+    private static final Pattern ORDER_ID = Pattern.compile("\"id\":\"([0-9a-f-]{36})\"");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private SimplePancakeService pancakeService;
+    private HttpApiServer httpApiServer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pancakeService = new SimplePancakeService(
+                new InMemoryPancakesOrderRepository(Duration.ofSeconds(1L)),
+                new FixedSetBuildingRepository(Set.of(new Building(3, 5)))
+        );
+        httpApiServer = HttpApiServer.start(pancakeService, new InetSocketAddress("localhost", 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        httpApiServer.close();
+    }
+
+    @Test
+    @DisplayName("HttpApiServer: should create, fill, complete, prepare and deliver an order")
+    void shouldDeliverOrder() throws IOException, InterruptedException {
+        // setup
+        final var created = send("POST", "/orders?building=3&room=2", null);
+        final var orderId = orderIdOf(created.body());
+        // exercise
+        final var added = send("POST", "/orders/%s/pancakes?count=2&ingredients=HAZELNUTS,MILK_CHOCOLATE".formatted(orderId), null);
+        final var viewed = send("GET", "/orders/" + orderId, null);
+        final var completed = send("POST", "/orders/%s/complete".formatted(orderId), null);
+        final var listed = send("GET", "/orders?state=COMPLETED", null);
+        final var taken = send("POST", "/hand-offs/completed?timeoutMillis=1000", null);
+        final var prepared = send("POST", "/orders/%s/prepare".formatted(orderId), null);
+        final var delivered = send("POST", "/orders/%s/deliver".formatted(orderId), null);
+        // verify
+        assertThat(created.statusCode())
+                .isEqualTo(201);
+        assertThat(created.body())
+                .isEqualTo("{\"id\":\"%s\",\"state\":\"NEW\",\"building\":3,\"room\":2,\"pancakes\":[]}".formatted(orderId));
+        assertThat(added.statusCode())
+                .isEqualTo(200);
+        assertThat(viewed.body())
+                .startsWith("[\"")
+                .contains("hazelnuts");
+        assertThat(completed.statusCode())
+                .isEqualTo(200);
+        assertThat(listed.body())
+                .isEqualTo("[\"%s\"]".formatted(orderId));
+        assertThat(taken.body())
+                .isEqualTo("{\"id\":\"%s\"}".formatted(orderId));
+        assertThat(prepared.statusCode())
+                .isEqualTo(200);
+        assertThat(delivered.statusCode())
+                .isEqualTo(200);
+        assertThat(delivered.body())
+                .startsWith("{\"id\":\"%s\",\"state\":\"PREPARED\",\"building\":3,\"room\":2,\"pancakes\":[\"".formatted(orderId));
+    }
+
+    @Test
+    @DisplayName("HttpApiServer: should answer the failures with their code and status")
+    void shouldAnswerFailures() throws IOException, InterruptedException {
+        // exercise
+        final var invalidAddress = send("POST", "/orders?building=4&room=2", null);
+        final var missingOrder = send("DELETE", "/orders/" + "00000000-0000-0000-0000-000000000001", null);
+        final var badRequest = send("POST", "/orders?building=three&room=2", null);
+        final var unknownResource = send("GET", "/bakeries", null);
+        // verify
+        assertThat(invalidAddress.statusCode())
+                .isEqualTo(422);
+        assertThat(invalidAddress.body())
+                .isEqualTo("{\"code\":\"invalid_address\",\"reason\":\"Invalid address\"}");
+        assertThat(missingOrder.statusCode())
+                .isEqualTo(404);
+        assertThat(missingOrder.body())
+                .contains("\"code\":\"order_not_found\"");
+        assertThat(badRequest.statusCode())
+                .isEqualTo(400);
+        assertThat(unknownResource.statusCode())
+                .isEqualTo(404);
+    }
+
+    @Test
+    @DisplayName("HttpApiServer: should answer the duplicates of an idempotent request with the original result")
+    void shouldAnswerDuplicatesWithOriginalResult() throws IOException, InterruptedException {
+        // exercise
+        final var created = send("POST", "/orders?building=3&room=2", "create-1");
+        final var duplicate = send("POST", "/orders?building=3&room=2", "create-1");
+        // verify
+        assertThat(duplicate.body())
+                .isEqualTo(created.body());
+    }
+
+    @Test
+    @DisplayName("HttpApiServer: should stream a listing longer than the response buffer and keep the connection")
+    void shouldStreamLongListing() throws IOException, InterruptedException {
+        // setup
+        final int orders = 500;
+        for (int i = 0; i < orders; i++) {
+            pancakeService.completeOrder(pancakeService.createOrder(3, 1 + i % 5).requireOrder().id());
+        }
+        // exercise
+        final var listed = send("GET", "/orders?state=COMPLETED", null);
+        final var next = send("GET", "/orders?state=PREPARED", null);
+        // verify
+        assertThat(listed.headers().firstValue("Content-Length"))
+                .isEmpty();
+        assertThat(Pattern.compile("\"[0-9a-f-]{36}\"").matcher(listed.body()).results())
+                .hasSize(orders);
+        assertThat(next.body())
+                .isEqualTo("[]");
+    }
+
+    private HttpResponse<String> send(String method, String pathAndQuery, String idempotencyKey)
+            throws IOException, InterruptedException {
+        final var request = HttpRequest.newBuilder(URI.create("http://localhost:%d%s"
+                        .formatted(httpApiServer.address().getPort(), pathAndQuery)))
+                .method(method, HttpRequest.BodyPublishers.noBody());
+        if (idempotencyKey != null) {
+            request.header(PancakeServiceHandler.IDEMPOTENCY_KEY, idempotencyKey);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String orderIdOf(String json) {
+        final var matcher = ORDER_ID.matcher(json);
+        assertThat(matcher.find())
+                .isTrue();
+        return matcher.group(1);
+    }
+}
@@ -0,0 +1,184 @@
+package org.bakeryshop.api.json;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.address.OrderAddress;
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.model.pancakes.PancakeRecipe;
+import org.bakeryshop.service.usecase.Failure;
+import org.bakeryshop.service.usecase.delivery.BatchDeliveryResult;
+import org.bakeryshop.service.usecase.delivery.OrderDeliveryResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonWriterTest {
+
+    private static final UUID ORDER_ID = UUID.fromString("0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0");
+
+    @Test
+    @DisplayName("order: should write the order with the descriptions of its pancakes")
+    void orderShouldWriteOrder() throws IOException {
+        // setup
+        final var pancake = PancakeRecipe.of(ORDER_ID, Set.of(PancakeIngredient.HAZELNUTS, PancakeIngredient.WHIPPED_CREAM));
+        final var order = new PancakesOrderSnapshot(ORDER_ID, OrderState.COMPLETED,
+                new OrderAddress(new Building(12, 345), 301), List.of(pancake, pancake));
+        // exercise
+        final var json = write(writer -> writer.order(order));
+        // verify
+        assertThat(json)
+                .isEqualTo("{\"id\":\"%s\",\"state\":\"COMPLETED\",\"building\":12,\"room\":301,\"pancakes\":[\"%s\",\"%s\"]}"
+                        .formatted(ORDER_ID, pancake.description(), pancake.description()));
+    }
+
+    @Test
+    @DisplayName("batch: should write the delivered orders and the failures")
+    void batchShouldWriteDeliveredOrdersAndFailures() throws IOException {
+        // setup
+        final var result = new BatchDeliveryResult(List.of(),
+                Map.of(ORDER_ID, OrderDeliveryResult.OrderDeliveryFailure.NOT_PREPARED));
+        // exercise
+        final var json = write(writer -> writer.batch(result));
+        // verify
+        assertThat(json)
+                .isEqualTo("{\"delivered\":[],\"failures\":{\"%s\":{\"code\":\"order_not_prepared\",\"reason\":\"Order not prepared\"}}}"
+                        .formatted(ORDER_ID));
+    }
+
+    @Test
+    @DisplayName("failure: should write the code and the escaped reason of any failure")
+    void failureShouldWriteCodeAndReason() throws IOException {
+        // exercise
+        final var json = write(writer -> writer.failure(Failure.of("sold_out", "No \"crème\" left")));
+        // verify
+        assertThat(json)
+                .isEqualTo("{\"code\":\"sold_out\",\"reason\":\"No \\\"crème\\\" left\"}");
+    }
+
+    @Test
+    @DisplayName("string: should escape quotes, backslashes and control characters")
+    void stringShouldEscapeSpecialCharacters() throws IOException {
+        // exercise
+        final var json = write(writer -> writer.string("a \"b\" \\ c\n\u0001"));
+        // verify
+        assertThat(json)
+                .isEqualTo("\"a \\\"b\\\" \\\\ c\\n\\u0001\"");
+    }
+
+    @Test
+    @DisplayName("string: should encode the non ASCII characters as UTF-8")
+    void stringShouldEncodeNonAsciiCharacters() throws IOException {
+        // exercise
+        final var json = write(writer -> writer.string("crème 🥞"));
+        // verify
+        assertThat(json)
+                .isEqualTo("\"crème 🥞\"");
+    }
+
+    @Test
+    @DisplayName("orderIds: should stream the ids in chunks ending at character boundaries")
+    void orderIdsShouldStreamInChunks() throws IOException {
+        // setup
+        final var orderIds = new ArrayList<UUID>();
+        for (int i = 0; i < 1_000; i++) {
+            orderIds.add(new UUID(i, -i));
+        }
+        final var chunks = new ArrayList<Integer>();
+        final var output = new StringWriter();
+        final var writer = JsonWriter.to((bytes, offset, length) -> {
+            chunks.add(length);
+            output.write(new String(bytes, offset, length, StandardCharsets.UTF_8));
+        }, 100);
+        // exercise
+        writer.orderIds(orderIds).string("é").flush();
+        // verify
+        assertThat(chunks)
+                .hasSizeGreaterThan(300)
+                .allSatisfy(length -> assertThat(length).isLessThanOrEqualTo(100));
+        assertThat(output.toString())
+                .startsWith("[\"00000000-0000-0000-0000-000000000000\",\"00000000-0000-0001-ffff-ffffffffffff\",")
+                .endsWith("\"00000000-0000-03e7-ffff-fffffffffc19\"]\"é\"")
+                .hasSize(2 + 1_000 * 39 - 1 + 3);
+    }
+
+    @Test
+    @DisplayName("orderIds: should not iterate the ids ahead of writing them")
+    void orderIdsShouldNotBufferIds() throws IOException {
+        // setup
+        final int[] written = new int[1];
+        final var writer = JsonWriter.to((bytes, offset, length) -> written[0] += length, 64);
+        final Iterable<UUID> orderIds = () -> new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < 1_000_000;
+            }
+
+            @Override
+            public UUID next() {
+                assertThat(written[0])
+                        .as("the ids written before are handed to the sink")
+                        .isGreaterThan(next * 39 - 64);
+                return new UUID(0L, next++);
+            }
+        };
+        // exercise
+        writer.orderIds(orderIds).flush();
+        // verify
+        assertThat(written[0])
+                .isEqualTo(2 + 1_000_000 * 39 - 1);
+    }
+
+    @Test
+    @DisplayName("to: should write to a writer, a stream and a byte buffer")
+    void toShouldWriteToTargets() throws IOException {
+        // setup
+        final var stringWriter = new StringWriter();
+        final var stream = new ByteArrayOutputStream();
+        final var byteBuffer = ByteBuffer.allocate(16);
+        // exercise
+        JsonWriter.to(stringWriter).orderId(null).flush();
+        JsonWriter.to(stream).strings(List.of("crème")).flush();
+        JsonWriter.to(byteBuffer).emptyObject().flush();
+        // verify
+        assertThat(stringWriter.toString())
+                .isEqualTo("{\"id\":null}");
+        assertThat(stream.toString(StandardCharsets.UTF_8))
+                .isEqualTo("[\"crème\"]");
+        assertThat(new String(byteBuffer.array(), 0, byteBuffer.position(), StandardCharsets.UTF_8))
+                .isEqualTo("{}");
+        assertThatThrownBy(() -> JsonWriter.to(ByteBuffer.allocate(8)).orderId(ORDER_ID).flush())
+                .isInstanceOf(BufferOverflowException.class);
+    }
+
+    private static String write(JsonWrite write) throws IOException {
+        final var output = new ByteArrayOutputStream();
+        final var writer = JsonWriter.to(output);
+        write.to(writer);
+        writer.flush();
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface JsonWrite {
+
+        void to(JsonWriter writer) throws IOException;
+    }
+}
@@ -0,0 +1,103 @@
+package org.bakeryshop.cluster;
+
+import org.bakeryshop.api.binary.BinaryProtocolClient;
+import org.bakeryshop.api.binary.WrongOwnerException;
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.util.Concurrently;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClusterNodeTest {
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Collections.reverse(resources);
+        for (final var resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    @DisplayName("importOrder: should keep the order imported before when its import is sent again")
+    void importOrderShouldKeepOrderImportedBefore() throws IOException {
+        // setup
+        final var a = startNode("a");
+        final var b = startNode("b");
+        final var order = b.pancakeService().createOrder(1, 1).requireOrder();
+        a.importOrder(order);
+        a.pancakeService().addPancakes(order.id(), 1, Set.of(PancakeIngredient.HAZELNUTS));
+        // exercise
+        a.importOrder(order);
+        // verify
+        assertThat(a.orderCount())
+                .isOne();
+        assertThat(a.pancakeService().viewOrder(order.id()))
+                .hasSize(1);
+    }
+
+    @RepeatedTest(5)
+    @DisplayName("importOrder: should import the order once when its imports arrive concurrently")
+    void importOrderShouldImportOnceConcurrently() throws IOException {
+        // setup
+        final var a = startNode("a");
+        final var b = startNode("b");
+        final var order = b.pancakeService().createOrder(1, 1).requireOrder();
+        // exercise
+        Concurrently.run(4, () -> {
+            a.importOrder(order);
+            return null;
+        });
+        // verify
+        assertThat(a.orderCount())
+                .isOne();
+    }
+
+    @Test
+    @DisplayName("BinaryProtocolServer: should answer the calls of the orders of other nodes with wrong owner")
+    void shouldAnswerCallsOfOrdersOfOtherNodesWithWrongOwner() throws IOException {
+        // setup
+        final var a = startNode("a");
+        final var b = startNode("b");
+        final var members = Map.of("a", a.address(), "b", b.address());
+        final var cluster = ClusterPancakeServiceClient.connect(members);
+        resources.add(cluster);
+        final var orderId = cluster.createOrder(1, 1).requireOrder().id();
+        cluster.completeOrder(orderId);
+        final var nonOwner = "a".equals(cluster.ring().ownerOf(orderId)) ? b : a;
+        final var client = BinaryProtocolClient.connect(nonOwner.address());
+        resources.add(client);
+        // exercise & verify
+        assertThatThrownBy(() -> client.viewOrder(orderId))
+                .isInstanceOf(WrongOwnerException.class);
+        assertThatThrownBy(() -> client.deliverOrders(List.of(orderId)))
+                .isInstanceOf(WrongOwnerException.class);
+        assertThat(client.listCompletedOrders())
+                .isEmpty();
+        assertThat(client.members())
+                .isEqualTo(members);
+    }
+
+    private ClusterNode startNode(String nodeId) throws IOException {
+        final var node = ClusterNode.start(nodeId, new InetSocketAddress("localhost", 0),
+                new FixedSetBuildingRepository(Set.of(new Building(1, 10))));
+        resources.add(node);
+        return node;
+    }
+}
@@ -0,0 +1,181 @@
+package org.bakeryshop.cluster;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.service.usecase.delivery.BatchDeliveryResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClusterPancakeServiceClientTest {
+
+    private static final int ORDERS = 200;
+
+    private static final Pattern LISTENING = Pattern.compile("ClusterNode (\\S+) listening on (\\S+):(\\d+)");
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Collections.reverse(resources);
+        for (final var resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    @DisplayName("join, leave: should move the orders to their new owners and keep routing every call to its order")
+    void shouldRebalanceOrdersOnJoinAndLeave() throws IOException {
+        // setup
+        final var a = startNode("a");
+        final var b = startNode("b");
+        final var client = connect(Map.of("a", a.address(), "b", b.address()));
+        final var orderIds = createOrders(client);
+        final var c = startNode("c");
+        // exercise
+        client.join("c", c.address());
+        final int joinedOrderCount = c.orderCount();
+        client.leave("a");
+        // verify
+        assertThat(joinedOrderCount)
+                .isPositive();
+        assertThat(a.orderCount())
+                .isZero();
+        assertThat(b.orderCount() + c.orderCount())
+                .isEqualTo(ORDERS);
+        for (final var orderId : orderIds) {
+            assertThat(client.viewOrder(orderId))
+                    .hasSize(1);
+        }
+        assertThat(client.listCompletedOrders())
+                .containsExactlyInAnyOrderElementsOf(orderIds);
+        assertThat(deliver(client, orderIds).deliveredOrders())
+                .hasSize(ORDERS);
+        assertThat(b.orderCount() + c.orderCount())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("route: should fetch the new members from a node answering wrong owner and call the new owner")
+    void shouldFetchNewMembersOnWrongOwner() throws IOException {
+        // setup
+        final var a = startNode("a");
+        final var b = startNode("b");
+        final var client = connect(Map.of("a", a.address(), "b", b.address()));
+        final var staleClient = connect(Map.of("a", a.address(), "b", b.address()));
+        final var orderIds = createOrders(client);
+        final var c = startNode("c");
+        client.join("c", c.address());
+        client.leave("a");
+        // exercise
+        final var viewed = orderIds.stream().filter(orderId -> staleClient.viewOrder(orderId).size() == 1).count();
+        final var delivered = deliver(staleClient, orderIds);
+        // verify
+        assertThat(viewed)
+                .isEqualTo(ORDERS);
+        assertThat(delivered.deliveredOrders())
+                .hasSize(ORDERS);
+        assertThat(delivered.failures())
+                .isEmpty();
+        assertThat(staleClient.members())
+                .containsOnlyKeys("b", "c");
+    }
+
+    @Test
+    @DisplayName("join, leave: should partition the orders over node processes on localhost")
+    void shouldPartitionOrdersOverNodeProcesses() throws IOException {
+        // setup
+        final var a = startNodeProcess("a");
+        final var b = startNodeProcess("b");
+        final var c = startNodeProcess("c");
+        final var client = connect(Map.of("a", a, "b", b));
+        final var orderIds = createOrders(client);
+        // exercise
+        client.join("c", c);
+        client.leave("a");
+        // verify
+        assertThat(client.members())
+                .containsOnlyKeys("b", "c");
+        assertThat(client.listCompletedOrders())
+                .containsExactlyInAnyOrderElementsOf(orderIds);
+        final var delivered = deliver(client, orderIds);
+        assertThat(delivered.deliveredOrders())
+                .hasSize(ORDERS);
+        assertThat(delivered.failures())
+                .isEmpty();
+    }
+
+    private List<UUID> createOrders(ClusterPancakeServiceClient client) {
+        final var orderIds = new ArrayList<UUID>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            final var orderId = client.createOrder(1, 1 + i % 10).requireOrder().id();
+            client.addPancakes(orderId, 1, Set.of(PancakeIngredient.HAZELNUTS));
+            client.completeOrder(orderId);
+            orderIds.add(orderId);
+        }
+        return orderIds;
+    }
+
+    private static BatchDeliveryResult deliver(ClusterPancakeServiceClient client, List<UUID> orderIds) {
+        orderIds.forEach(client::prepareOrder);
+        return client.deliverOrders(orderIds);
+    }
+
+    private ClusterPancakeServiceClient connect(Map<String, InetSocketAddress> members) {
+        final var client = ClusterPancakeServiceClient.connect(members);
+        resources.add(client);
+        return client;
+    }
+
+    private ClusterNode startNode(String nodeId) throws IOException {
+        final var node = ClusterNode.start(nodeId, new InetSocketAddress("localhost", 0),
+                new FixedSetBuildingRepository(Set.of(new Building(1, 10))));
+        resources.add(node);
+        return node;
+    }
+
+    /**
+     * Starts a node in a JVM of its own, stopped by closing its standard input.
+     */
+    private InetSocketAddress startNodeProcess(String nodeId) throws IOException {
+        final var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        final var process = new ProcessBuilder(java,
+                "-cp", System.getProperty("java.class.path"),
+                "-Dbakery.buildings=1:10",
+                ClusterNode.class.getName(), nodeId, "0")
+                .redirectErrorStream(true)
+                .start();
+        resources.add(() -> {
+            process.getOutputStream().close();
+            if (!process.waitFor(10L, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        });
+        final var output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = output.readLine()) != null) {
+            final var listening = LISTENING.matcher(line);
+            if (listening.find()) {
+                final var drain = new Thread(() -> output.lines().forEach(ignored -> {
+                }), "cluster-node-" + nodeId + "-output");
+                drain.setDaemon(true);
+                drain.start();
+                return new InetSocketAddress(listening.group(2), Integer.parseInt(listening.group(3)));
+            }
+        }
+        throw new IllegalStateException("Node %s exited with %d.".formatted(nodeId, process.onExit().join().exitValue()));
+    }
+}
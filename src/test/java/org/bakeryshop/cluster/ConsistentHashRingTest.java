@@ -0,0 +1,94 @@
+package org.bakeryshop.cluster;
+
+import org.bakeryshop.domain.model.order.OrderIdGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+
+    private final List<UUID> orderIds = IntStream.range(0, KEYS)
+            .mapToObj(i -> OrderIdGenerator.timeOrdered().nextId())
+            .toList();
+
+    @Test
+    @DisplayName("ownerOf: should spread the order ids evenly over the nodes")
+    void ownerOfShouldSpreadOrderIdsEvenly() {
+        // setup
+        final var ring = ConsistentHashRing.of(Set.of("a", "b", "c", "d"), ClusterNode.VIRTUAL_NODES);
+        // exercise
+        final var countsByNode = new HashMap<String, Integer>();
+        orderIds.forEach(orderId -> countsByNode.merge(ring.ownerOf(orderId), 1, Integer::sum));
+        // verify
+        assertThat(countsByNode)
+                .containsOnlyKeys("a", "b", "c", "d");
+        assertThat(countsByNode.values())
+                .allSatisfy(count -> assertThat(count).isBetween(KEYS / 4 * 80 / 100, KEYS / 4 * 120 / 100));
+    }
+
+    @Test
+    @DisplayName("withNode: should move order ids to the joining node only")
+    void withNodeShouldMoveOrderIdsToJoiningNodeOnly() {
+        // setup
+        final var ring = ConsistentHashRing.of(Set.of("a", "b", "c"), ClusterNode.VIRTUAL_NODES);
+        // exercise
+        final var joined = ring.withNode("d");
+        // verify
+        int moved = 0;
+        for (final var orderId : orderIds) {
+            final var owner = ring.ownerOf(orderId);
+            final var newOwner = joined.ownerOf(orderId);
+            if (!owner.equals(newOwner)) {
+                assertThat(newOwner)
+                        .isEqualTo("d");
+                moved++;
+            }
+        }
+        assertThat(moved)
+                .isBetween(KEYS / 4 * 80 / 100, KEYS / 4 * 120 / 100);
+    }
+
+    @Test
+    @DisplayName("withoutNode: should move the order ids of the leaving node only")
+    void withoutNodeShouldMoveOrderIdsOfLeavingNodeOnly() {
+        // setup
+        final var ring = ConsistentHashRing.of(Set.of("a", "b", "c", "d"), ClusterNode.VIRTUAL_NODES);
+        // exercise
+        final var left = ring.withoutNode("b");
+        // verify
+        for (final var orderId : orderIds) {
+            final var owner = ring.ownerOf(orderId);
+            if (!owner.equals("b")) {
+                assertThat(left.ownerOf(orderId))
+                        .isEqualTo(owner);
+            }
+        }
+        assertThat(left.nodeIds())
+                .containsExactly("a", "c", "d");
+    }
+
+    @Test
+    @DisplayName("of: should build the same ring of the same nodes in any order")
+    void ofShouldBuildSameRingOfSameNodes() {
+        // setup
+        final var ring = ConsistentHashRing.of(List.of("a", "b", "c"), 16);
+        final var same = ConsistentHashRing.of(List.of("c", "a", "b"), 16);
+        // exercise & verify
+        for (final var orderId : orderIds.subList(0, 1_000)) {
+            assertThat(same.ownerOf(orderId))
+                    .isEqualTo(ring.ownerOf(orderId));
+        }
+        assertThatThrownBy(() -> ConsistentHashRing.of(Set.of(), 16).ownerOf(orderIds.get(0)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
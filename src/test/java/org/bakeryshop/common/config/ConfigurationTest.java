@@ -0,0 +1,114 @@
+package org.bakeryshop.common.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConfigurationTest {
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(Configuration.FILE_PROPERTY);
+        System.clearProperty("bakery.test.fromSystem");
+        System.clearProperty("bakery.test.overridden");
+    }
+
+    @Test
+    @DisplayName("get: should return the typed values and the defaults of missing properties")
+    void getShouldReturnTypedValues() {
+        // setup
+        final var configuration = Configuration.of(Map.of(
+                "bakery.test.count", " 42 ",
+                "bakery.test.timeoutMillis", "250",
+                "bakery.test.enabled", "true",
+                "bakery.test.name", "fixed-set"
+        ));
+        // exercise & verify
+        assertThat(configuration.getPositiveInt("bakery.test.count", 1))
+                .isEqualTo(42);
+        assertThat(configuration.getMillis("bakery.test.timeoutMillis", Duration.ZERO))
+                .isEqualTo(Duration.ofMillis(250L));
+        assertThat(configuration.getBoolean("bakery.test.enabled", false))
+                .isTrue();
+        assertThat(configuration.getString("bakery.test.name", "in-memory"))
+                .isEqualTo("fixed-set");
+        assertThat(configuration.getPositiveInt("bakery.test.missing", 7))
+                .isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("get: should reject invalid values and keys without the prefix")
+    void getShouldRejectInvalidValues() {
+        // setup
+        final var configuration = Configuration.of(Map.of(
+                "bakery.test.count", "-1",
+                "bakery.test.timeoutMillis", "soon",
+                "bakery.test.enabled", "yes"
+        ));
+        // exercise & verify
+        assertThatThrownBy(() -> configuration.getPositiveInt("bakery.test.count", 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("bakery.test.count");
+        assertThatThrownBy(() -> configuration.getMillis("bakery.test.timeoutMillis", Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("soon");
+        assertThatThrownBy(() -> configuration.getBoolean("bakery.test.enabled", false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> configuration.get("test.count"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("scoped: should override the unscoped properties by the properties of the scope")
+    void scopedShouldOverrideByScopeProperties() {
+        // setup
+        final var configuration = Configuration.of(Map.of(
+                "bakery.test.count", "1",
+                "bakery.test.name", "shared",
+                "bakery.tenant.north.test.count", "2",
+                "bakery.tenant.south.test.count", "3"
+        ));
+        // exercise
+        final var north = configuration.scoped("tenant.north");
+        // verify
+        assertThat(north.getPositiveInt("bakery.test.count", 0))
+                .isEqualTo(2);
+        assertThat(north.getString("bakery.test.name", null))
+                .isEqualTo("shared");
+        assertThat(configuration.getPositiveInt("bakery.test.count", 0))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("load: should override the file properties by the system properties")
+    void loadShouldOverrideFileBySystemProperties() throws IOException {
+        // setup
+        final var file = Files.createTempFile("bakery-shop", ".properties");
+        try {
+            Files.writeString(file, "bakery.test.fromFile=file\nbakery.test.overridden=file\n");
+            System.setProperty(Configuration.FILE_PROPERTY, file.toString());
+            System.setProperty("bakery.test.fromSystem", "system");
+            System.setProperty("bakery.test.overridden", "system");
+            // exercise
+            final var configuration = Configuration.load();
+            // verify
+            assertThat(configuration.get("bakery.test.fromFile"))
+                    .contains("file");
+            assertThat(configuration.get("bakery.test.fromSystem"))
+                    .contains("system");
+            assertThat(configuration.get("bakery.test.overridden"))
+                    .contains("system");
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
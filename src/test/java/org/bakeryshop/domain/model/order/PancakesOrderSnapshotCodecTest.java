@@ -0,0 +1,159 @@
+package org.bakeryshop.domain.model.order;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.address.OrderAddress;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.model.pancakes.PancakeRecipe;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PancakesOrderSnapshotCodecTest {
+
+    private static final int MAX_PANCAKES = 300;
+
+    @ParameterizedTest(name = "seed {0}")
+    @MethodSource("seeds")
+    @DisplayName("decode: should return the encoded snapshot")
+    void decodeShouldReturnEncodedSnapshot(long seed) {
+        // setup
+        final var random = new Random(seed);
+        final var snapshot = anySnapshot(random);
+        final int offset = random.nextInt(16);
+        final var buffer = ByteBuffer.allocate(offset + PancakesOrderSnapshotCodec.encodedLength(snapshot))
+                .position(offset);
+        // exercise
+        PancakesOrderSnapshotCodec.encode(snapshot, buffer);
+        final var decoded = PancakesOrderSnapshotCodec.decode(buffer.flip().position(offset));
+        // verify
+        assertThat(decoded)
+                .isEqualTo(snapshot);
+        assertThat(buffer.hasRemaining())
+                .as("the decoding read exactly the encoded length")
+                .isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 127, 128, 16_383, 16_384, 2_097_152, Integer.MAX_VALUE})
+    @DisplayName("getVarint: should return the value written by putVarint in varintLength bytes")
+    void getVarintShouldReturnPutValue(int value) {
+        // setup
+        final var buffer = ByteBuffer.allocate(5);
+        // exercise
+        PancakesOrderSnapshotCodec.putVarint(buffer, value);
+        // verify
+        assertThat(buffer.position())
+                .isEqualTo(PancakesOrderSnapshotCodec.varintLength(value));
+        assertThat(PancakesOrderSnapshotCodec.getVarint(buffer.flip()))
+                .isEqualTo(value);
+    }
+
+    @Test
+    @DisplayName("encode: should encode consecutive pancakes with the same ingredients as one run")
+    void encodeShouldEncodeRuns() {
+        // setup
+        final var orderId = UUID.randomUUID();
+        final var hazelnuts = PancakeRecipe.of(orderId, Set.of(PancakeIngredient.HAZELNUTS));
+        final var cream = PancakeRecipe.of(orderId, Set.of(PancakeIngredient.WHIPPED_CREAM));
+        final var snapshot = new PancakesOrderSnapshot(orderId, OrderState.NEW,
+                new OrderAddress(new Building(300, 2), 1),
+                List.of(hazelnuts, hazelnuts, hazelnuts, cream, hazelnuts));
+        // exercise
+        final int length = PancakesOrderSnapshotCodec.encodedLength(snapshot);
+        // verify
+        assertThat(length)
+                .as("version, id, state, building of 2 bytes, rooms, room, runs and 3 runs of 2 bytes")
+                .isEqualTo(1 + 16 + 1 + 2 + 1 + 1 + 1 + 3 * 2);
+    }
+
+    @Test
+    @DisplayName("encode: should write nothing when the buffer is too small")
+    void encodeShouldRejectTooSmallBuffer() {
+        // setup
+        final var snapshot = anySnapshot(new Random(1L));
+        final var buffer = ByteBuffer.allocate(PancakesOrderSnapshotCodec.encodedLength(snapshot) - 1);
+        // exercise & verify
+        assertThatThrownBy(() -> PancakesOrderSnapshotCodec.encode(snapshot, buffer))
+                .isInstanceOf(BufferOverflowException.class);
+        assertThat(buffer.position())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("decode: should reject an unknown version")
+    void decodeShouldRejectUnknownVersion() {
+        // setup
+        final var snapshot = anySnapshot(new Random(2L));
+        final var buffer = ByteBuffer.allocate(PancakesOrderSnapshotCodec.encodedLength(snapshot));
+        PancakesOrderSnapshotCodec.encode(snapshot, buffer);
+        buffer.put(0, (byte) (PancakesOrderSnapshotCodec.VERSION + 1));
+        // exercise & verify
+        assertThatThrownBy(() -> PancakesOrderSnapshotCodec.decode(buffer.flip()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version");
+    }
+
+    @Test
+    @DisplayName("decode: should reject runs of more pancakes than an order may have")
+    void decodeShouldRejectTooManyPancakes() {
+        // setup
+        final var buffer = ByteBuffer.allocate(64)
+                .put(PancakesOrderSnapshotCodec.VERSION)
+                .putLong(1L)
+                .putLong(2L)
+                .put((byte) OrderState.NEW.ordinal());
+        PancakesOrderSnapshotCodec.putVarint(buffer, 1);
+        PancakesOrderSnapshotCodec.putVarint(buffer, 1);
+        PancakesOrderSnapshotCodec.putVarint(buffer, 1);
+        PancakesOrderSnapshotCodec.putVarint(buffer, 2);
+        buffer.put((byte) PancakeIngredient.maskOf(Set.of(PancakeIngredient.HAZELNUTS)));
+        PancakesOrderSnapshotCodec.putVarint(buffer, PancakesOrderSnapshotCodec.MAX_PANCAKES);
+        buffer.put((byte) PancakeIngredient.maskOf(Set.of(PancakeIngredient.HAZELNUTS)));
+        PancakesOrderSnapshotCodec.putVarint(buffer, Integer.MAX_VALUE);
+        // exercise & verify
+        assertThatThrownBy(() -> PancakesOrderSnapshotCodec.decode(buffer.flip()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("pancakes");
+    }
+
+    private static LongStream seeds() {
+        return LongStream.range(0L, 200L);
+    }
+
+    private static PancakesOrderSnapshot anySnapshot(Random random) {
+        final var orderId = new UUID(random.nextLong(), random.nextLong());
+        final var building = new Building(1 + random.nextInt(random.nextBoolean() ? 100 : Integer.MAX_VALUE),
+                1 + random.nextInt(1_000));
+        final var address = new OrderAddress(building, 1 + random.nextInt(building.amountOfRooms()));
+        final var states = OrderState.values();
+        final int pancakeCount = random.nextInt(MAX_PANCAKES);
+        final var pancakes = new ArrayList<PancakeRecipe>(pancakeCount);
+        var ingredients = anyIngredients(random);
+        for (int i = 0; i < pancakeCount; i++) {
+            if (random.nextInt(4) == 0) {
+                ingredients = anyIngredients(random);
+            }
+            pancakes.add(PancakeRecipe.of(orderId, ingredients));
+        }
+        return new PancakesOrderSnapshot(orderId, states[random.nextInt(states.length)], address, pancakes);
+    }
+
+    private static Set<PancakeIngredient> anyIngredients(Random random) {
+        final int allIngredients = (1 << PancakeIngredient.values().length) - 1;
+        return PancakeIngredient.ofMask(1 + random.nextInt(allIngredients));
+    }
+}
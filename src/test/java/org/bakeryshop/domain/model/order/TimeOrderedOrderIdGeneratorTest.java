@@ -0,0 +1,70 @@
+package org.bakeryshop.domain.model.order;
+
+import org.bakeryshop.util.Concurrently;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedOrderIdGeneratorTest {
+
+    private static final int IDS = 20_000;
+
+    private final OrderIdGenerator orderIdGenerator = OrderIdGenerator.timeOrdered();
+
+    @Test
+    @DisplayName("nextId: should generate version 7 ids of the current time")
+    void nextIdShouldGenerateVersion7IdsOfCurrentTime() {
+        // setup
+        final long before = System.currentTimeMillis();
+        // exercise
+        final var id = orderIdGenerator.nextId();
+        // verify
+        assertThat(id.version())
+                .isEqualTo(7);
+        assertThat(id.variant())
+                .isEqualTo(2);
+        assertThat(TimeOrderedOrderIdGenerator.timestampMillisOf(id))
+                .isBetween(before, System.currentTimeMillis() + 1L);
+        assertThat(UUID.fromString(id.toString()))
+                .isEqualTo(id);
+    }
+
+    @Test
+    @DisplayName("nextId: should generate strictly increasing ids on a thread, also beyond 4096 ids per millisecond")
+    void nextIdShouldGenerateIncreasingIdsOnThread() {
+        // exercise
+        final var ids = generate();
+        // verify
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i))
+                    .isGreaterThan(ids.get(i - 1));
+        }
+    }
+
+    @RepeatedTest(3)
+    @DisplayName("nextId: should generate unique ids on concurrent threads")
+    void nextIdShouldGenerateUniqueIdsConcurrently() {
+        // exercise
+        final var results = Concurrently.run(this::generate, this::generate, this::generate, this::generate);
+        // verify
+        final var ids = new HashSet<UUID>();
+        results.forEach(ids::addAll);
+        assertThat(ids)
+                .hasSize(4 * IDS);
+    }
+
+    private List<UUID> generate() {
+        final var ids = new ArrayList<UUID>(IDS);
+        for (int i = 0; i < IDS; i++) {
+            ids.add(orderIdGenerator.nextId());
+        }
+        return ids;
+    }
+}
@@ -177,6 +177,65 @@ class InMemoryPancakesOrderAddressRepositoryTest {
                 .isEmpty();
     }
 
+    @Test
+    @DisplayName("removeAll: should remove the matching orders and skip the missing and the other ones")
+    void removeAllShouldRemoveMatchingOrders() {
+        // setup
+        final var completedOrder = repository.create(new Building(1, 2), 2).markAsCompleted();
+        final var newOrder = repository.create(new Building(1, 2), 2);
+        // exercise
+        assertThat(repository.removeAll(List.of(completedOrder.getId(), newOrder.getId(), UUID.randomUUID()),
+                PancakesOrder::isCompleted))
+                .containsExactly(completedOrder);
+        // verify
+        assertThat(repository.find(completedOrder.getId()))
+                .isEmpty();
+        assertThat(repository.find(newOrder.getId()))
+                .contains(newOrder);
+    }
+
+    @Test
+    @DisplayName("removeAll: should remove none of the orders when checking the condition of one fails")
+    void removeAllShouldRemoveNoneWhenConditionFails() {
+        // setup
+        final var orders = Stream.generate(() -> repository.create(new Building(1, 2), 2))
+                .limit(4)
+                .toList();
+        final var failingOrderId = orders.stream().map(PancakesOrder::getId).max(Comparator.naturalOrder()).orElseThrow();
+        // exercise
+        assertThatThrownBy(() -> repository.removeAll(orders.stream().map(PancakesOrder::getId).toList(), order -> {
+            if (order.getId().equals(failingOrderId)) {
+                throw new IllegalStateException("Condition failed.");
+            }
+            return true;
+        }))
+                .isInstanceOf(IllegalStateException.class);
+        // verify
+        assertThat(orders)
+                .allSatisfy(order -> assertThat(repository.find(order.getId())).contains(order));
+    }
+
+    @Timeout(5)
+    @RepeatedTest(value = 64, failureThreshold = 1)
+    @DisplayName("removeAll: concurrently removal of overlapping batches should remove every order once")
+    void removeAllConcurrentlyShouldRemoveEveryOrderOnce() throws Exception {
+        // setup
+        final var orderIds = Stream.generate(() -> repository.create(new Building(1, 2), 2).getId())
+                .limit(8)
+                .collect(Collectors.toCollection(ArrayList::new));
+        final var reversedOrderIds = new ArrayList<>(orderIds);
+        Collections.reverse(reversedOrderIds);
+        // exercise
+        final var removed = CompletableFuture.supplyAsync(() -> repository.removeAll(orderIds, any -> true), executorService)
+                .thenCombine(CompletableFuture.supplyAsync(() -> repository.removeAll(reversedOrderIds, any -> true), executorService),
+                        (thisList, thatList) -> addAll(newMutableList(thisList.toArray(PancakesOrder[]::new)), thatList))
+                .get(5L, TimeUnit.SECONDS);
+        // verify
+        assertThat(removed)
+                .extracting(PancakesOrder::getId)
+                .containsExactlyInAnyOrderElementsOf(orderIds);
+    }
+
     @Test
     void listCompletedOrdersIds() {
         // setup
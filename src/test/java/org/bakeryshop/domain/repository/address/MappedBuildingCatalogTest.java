@@ -0,0 +1,119 @@
+package org.bakeryshop.domain.repository.address;
+
+import org.bakeryshop.common.config.Configuration;
+import org.bakeryshop.domain.model.address.Building;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedBuildingCatalogTest {
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 1_000_003})
+    @DisplayName("find: should return the buildings of the catalog file and nothing for the others")
+    void findShouldReturnBuildingsOfCatalogFile(int step) {
+        // setup
+        final var buildings = new ArrayList<Building>();
+        for (int i = 0; i < 1_000; i++) {
+            buildings.add(new Building(7 + i * step, 1 + i % 40));
+        }
+        final var file = directory.resolve("buildings.catalog");
+        MappedBuildingCatalog.write(buildings, file);
+        // exercise
+        final var catalog = MappedBuildingCatalog.load(file);
+        // verify
+        assertThat(catalog.size())
+                .isEqualTo(buildings.size());
+        assertThat(catalog.isDense())
+                .isEqualTo(step <= MappedBuildingCatalog.MAX_DENSE_SLOTS_PER_BUILDING);
+        for (final var building : buildings) {
+            assertThat(catalog.find(building.buildingNr()))
+                    .contains(building);
+            assertThat(catalog.find(building.buildingNr() + 1).isPresent())
+                    .isEqualTo(step == 1 && building.buildingNr() + 1 < 7 + buildings.size());
+        }
+        assertThat(catalog.find(6))
+                .isEmpty();
+        assertThat(catalog.find(Integer.MAX_VALUE))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("find: should return nothing from an empty catalog")
+    void findShouldReturnNothingFromEmptyCatalog() {
+        // setup
+        final var file = directory.resolve("empty.catalog");
+        MappedBuildingCatalog.write(List.of(), file);
+        // exercise
+        final var catalog = MappedBuildingCatalog.load(file);
+        // verify
+        assertThat(catalog.find(1))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("load: should reject a file that is not a valid catalog")
+    void loadShouldRejectInvalidFile() throws IOException {
+        // setup
+        final var padded = directory.resolve("padded.catalog");
+        MappedBuildingCatalog.write(List.of(new Building(1, 2), new Building(2, 2)), padded);
+        Files.write(padded, Files.readAllBytes(padded), StandardOpenOption.APPEND);
+        final var duplicate = directory.resolve("duplicate.catalog");
+        MappedBuildingCatalog.write(List.of(new Building(1, 2), new Building(1, 3)), duplicate);
+        final var text = directory.resolve("text.catalog");
+        Files.writeString(text, "10:20,11:8,12:16");
+        final var version = directory.resolve("version.catalog");
+        Files.write(version, ByteBuffer.allocate(MappedBuildingCatalog.HEADER_LENGTH)
+                .putInt(MappedBuildingCatalog.MAGIC)
+                .putInt(MappedBuildingCatalog.VERSION + 1)
+                .array());
+        // exercise & verify
+        assertThatThrownBy(() -> MappedBuildingCatalog.load(padded))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not fit");
+        assertThatThrownBy(() -> MappedBuildingCatalog.load(duplicate))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Building 1");
+        assertThatThrownBy(() -> MappedBuildingCatalog.load(text))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("magic");
+        assertThatThrownBy(() -> MappedBuildingCatalog.load(version))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version 2");
+    }
+
+    @Test
+    @DisplayName("create: should load the catalog file named by the configuration")
+    void createShouldLoadConfiguredCatalog() {
+        // setup
+        final var file = directory.resolve("buildings.catalog");
+        MappedBuildingCatalog.write(Set.of(new Building(12, 4)), file);
+        final var factory = new MappedBuildingCatalogFactory();
+        // exercise
+        final var catalog = factory.create(Configuration.of(Map.of(MappedBuildingCatalogFactory.CATALOG, file.toString())));
+        // verify
+        assertThat(catalog.find(12))
+                .contains(new Building(12, 4));
+        assertThatThrownBy(() -> factory.create(Configuration.of(Map.of())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(MappedBuildingCatalogFactory.CATALOG);
+    }
+}
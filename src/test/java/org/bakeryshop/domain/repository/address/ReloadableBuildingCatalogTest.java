@@ -0,0 +1,141 @@
+package org.bakeryshop.domain.repository.address;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.util.Concurrently;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReloadableBuildingCatalogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("reload: should publish the buildings of the modified file")
+    void reloadShouldPublishModifiedFile() {
+        // setup
+        final var file = directory.resolve("buildings.catalog");
+        MappedBuildingCatalog.write(List.of(new Building(1, 4), new Building(2, 8)), file);
+        final var catalog = new ReloadableBuildingCatalog(file);
+        MappedBuildingCatalog.write(List.of(new Building(2, 9), new Building(3, 1)), file);
+        // exercise
+        catalog.reload();
+        // verify
+        assertThat(catalog.find(1))
+                .isEmpty();
+        assertThat(catalog.find(2))
+                .contains(new Building(2, 9));
+        assertThat(catalog.find(3))
+                .contains(new Building(3, 1));
+        assertThat(catalog.reloadMetrics())
+                .satisfies(metrics -> {
+                    assertThat(metrics.reloads()).isEqualTo(1L);
+                    assertThat(metrics.failedReloads()).isZero();
+                    assertThat(metrics.lastReloadNanos()).isPositive();
+                    assertThat(metrics.buildings()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    @DisplayName("reload: should keep the current version when the file can not be loaded")
+    void reloadShouldKeepCurrentVersionOnFailure() throws IOException {
+        // setup
+        final var file = directory.resolve("buildings.catalog");
+        MappedBuildingCatalog.write(List.of(new Building(1, 4)), file);
+        final var catalog = new ReloadableBuildingCatalog(file);
+        Files.writeString(file, "1:4,2:8,3:16,4:32");
+        // exercise & verify
+        assertThatThrownBy(catalog::reload)
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(catalog.find(1))
+                .contains(new Building(1, 4));
+        assertThat(catalog.reloadMetrics().failedReloads())
+                .isEqualTo(1L);
+        assertThat(catalog.reloadMetrics().reloads())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("reloadIfModified: should reload only a modified file")
+    void reloadIfModifiedShouldReloadOnlyModifiedFile() {
+        // setup
+        final var file = directory.resolve("buildings.catalog");
+        MappedBuildingCatalog.write(List.of(new Building(1, 4)), file);
+        final var catalog = new ReloadableBuildingCatalog(file);
+        // exercise
+        final var unmodified = catalog.reloadIfModified();
+        MappedBuildingCatalog.write(List.of(new Building(1, 4), new Building(5, 5)), file);
+        final var modified = catalog.reloadIfModified();
+        // verify
+        assertThat(unmodified)
+                .isFalse();
+        assertThat(modified)
+                .isTrue();
+        assertThat(catalog.find(5))
+                .contains(new Building(5, 5));
+    }
+
+    @Test
+    @DisplayName("watch: should reload the file replaced while serving lookups")
+    void watchShouldReloadReplacedFile() throws IOException, InterruptedException {
+        // setup
+        final var file = directory.resolve("buildings.catalog");
+        MappedBuildingCatalog.write(buildings(1, 100), file);
+        try (var catalog = ReloadableBuildingCatalog.watch(file, Duration.ofMillis(5L))) {
+            final var replaced = new AtomicBoolean();
+            // exercise
+            final var lookups = Concurrently.<Object>run(
+                    () -> {
+                        int misses = 0;
+                        for (int i = 0; !replaced.get() || catalog.find(200).isEmpty(); i++) {
+                            if (catalog.find(1 + i % 100).isEmpty()) {
+                                misses++;
+                            }
+                        }
+                        return misses;
+                    },
+                    () -> {
+                        final var replacement = directory.resolve("buildings.catalog.tmp");
+                        MappedBuildingCatalog.write(buildings(1, 200), replacement);
+                        Files.move(replacement, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                        replaced.set(true);
+                        return true;
+                    }
+            );
+            // verify
+            assertThat(lookups.get(0))
+                    .as("every building is found before, while and after the reload")
+                    .isEqualTo(0);
+            assertThat(catalog.find(150))
+                    .contains(new Building(150, 3));
+            assertThat(catalog.reloadMetrics().reloads())
+                    .isEqualTo(1L);
+            TimeUnit.MILLISECONDS.sleep(20L);
+            assertThat(catalog.reloadMetrics().reloads())
+                    .as("an unmodified file is not reloaded")
+                    .isEqualTo(1L);
+        }
+    }
+
+    private static List<Building> buildings(int from, int to) {
+        final var buildings = new ArrayList<Building>();
+        for (int buildingNr = from; buildingNr <= to; buildingNr++) {
+            buildings.add(new Building(buildingNr, 3));
+        }
+        return buildings;
+    }
+}
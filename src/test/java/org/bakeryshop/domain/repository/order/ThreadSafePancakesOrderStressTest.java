@@ -0,0 +1,177 @@
+package org.bakeryshop.domain.repository.order;
+
+import org.bakeryshop.common.TimeoutException;
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.domain.model.order.PancakesOrder;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.util.Concurrently;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ThreadSafePancakesOrderStressTest {
+
+    private static final int OPERATIONS = 1_000;
+    private static final Duration LOCK_TIMEOUT = Duration.ofSeconds(5L);
+
+    private static final List<Set<PancakeIngredient>> INGREDIENTS = List.of(
+            Set.of(PancakeIngredient.DARK_CHOCOLATE),
+            Set.of(PancakeIngredient.MILK_CHOCOLATE),
+            Set.of(PancakeIngredient.WHIPPED_CREAM),
+            Set.of(PancakeIngredient.HAZELNUTS)
+    );
+
+    private final PancakesOrder pancakesOrder = new ThreadSafePancakesOrder(
+            PancakesOrder.newOrder(new Building(1, 2), 2), LOCK_TIMEOUT);
+
+    @RepeatedTest(5)
+    @DisplayName("addPancakes: should not lose pancakes added concurrently while being read")
+    void addPancakesShouldNotLosePancakesAddedConcurrently() {
+        // exercise
+        Concurrently.<Object>run(
+                () -> addPancakes(0),
+                () -> addPancakes(1),
+                () -> addPancakes(2),
+                this::readPancakes
+        );
+        // verify
+        assertThat(pancakesOrder.getPancakes())
+                .hasSize(3 * OPERATIONS);
+        assertThat(pancakesOrder.snapshot().pancakes())
+                .hasSize(3 * OPERATIONS);
+    }
+
+    @RepeatedTest(5)
+    @DisplayName("removePancakes: should remove exactly the pancakes added concurrently")
+    void removePancakesShouldRemoveExactlyThePancakesAddedConcurrently() {
+        // exercise
+        Concurrently.<Object>run(
+                () -> addAndRemovePancakes(0),
+                () -> addAndRemovePancakes(1),
+                () -> addAndRemovePancakes(2),
+                () -> addAndRemovePancakes(3)
+        );
+        // verify
+        assertThat(pancakesOrder.getPancakes())
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("snapshot: should time out without releasing a lock it does not hold")
+    void snapshotShouldTimeOutWhileWriteLockIsHeld() throws InterruptedException {
+        // setup
+        final var entered = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var delegate = mock(PancakesOrder.class);
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await(10L, TimeUnit.SECONDS);
+            return delegate;
+        }).when(delegate).markAsCompleted();
+        final var slowOrder = new ThreadSafePancakesOrder(delegate, Duration.ofMillis(20L));
+        final var writer = new Thread(slowOrder::markAsCompleted);
+        writer.start();
+        assertThat(entered.await(10L, TimeUnit.SECONDS))
+                .isTrue();
+        // exercise
+        try {
+            assertThatThrownBy(slowOrder::snapshot)
+                    .isInstanceOf(TimeoutException.class);
+            assertThatThrownBy(slowOrder::markAsPrepared)
+                    .isInstanceOf(TimeoutException.class);
+        } finally {
+            release.countDown();
+            writer.join();
+        }
+        // verify
+        assertThat(slowOrder.isCompleted())
+                .as("the locks are usable after the timeouts")
+                .isFalse();
+    }
+
+    @RepeatedTest(20)
+    @DisplayName("markAsRemoved: should remove the order exactly once and reject modifications afterwards")
+    void markAsRemovedShouldRemoveOnceAndRejectLaterModifications() {
+        // setup
+        final var threadSafeOrder = (ThreadSafePancakesOrder) pancakesOrder;
+        threadSafeOrder.markAsCompleted();
+        // exercise
+        final var results = Concurrently.<Object>run(
+                () -> threadSafeOrder.markAsRemoved(PancakesOrder::isCompleted),
+                () -> threadSafeOrder.markAsRemoved(PancakesOrder::isCompleted),
+                () -> {
+                    try {
+                        threadSafeOrder.markAsPrepared();
+                        return OrderState.PREPARED;
+                    } catch (OrderNotFoundException e) {
+                        return e;
+                    }
+                }
+        );
+        // verify
+        final var prepared = results.get(2) == OrderState.PREPARED;
+        assertThat(results.subList(0, 2))
+                .filteredOn(Boolean.TRUE::equals)
+                .hasSize(prepared ? 0 : 1);
+        assertThat(threadSafeOrder.getState())
+                .isEqualTo(prepared ? OrderState.PREPARED : OrderState.COMPLETED);
+        if (!prepared) {
+            assertThatThrownBy(() -> threadSafeOrder.addPancakes(1, INGREDIENTS.get(0)))
+                    .isInstanceOf(OrderNotFoundException.class);
+        }
+    }
+
+    private Object addPancakes(int thread) {
+        for (int i = 0; i < OPERATIONS; i++) {
+            pancakesOrder.addPancakes(1, INGREDIENTS.get(thread));
+        }
+        return null;
+    }
+
+    private Object addAndRemovePancakes(int thread) {
+        final var ingredients = INGREDIENTS.get(thread);
+        final var description = PancakeDescriptions.of(ingredients);
+        for (int i = 0; i < OPERATIONS; i++) {
+            pancakesOrder.addPancakes(2, ingredients);
+            pancakesOrder.removePancakes(description, 1);
+        }
+        for (int i = 0; i < OPERATIONS; i++) {
+            pancakesOrder.removePancakes(description, 1);
+        }
+        return null;
+    }
+
+    private Object readPancakes() {
+        int pancakes = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            for (final var ignored : pancakesOrder.getPancakes()) {
+                pancakes++;
+            }
+            pancakes += pancakesOrder.snapshot().pancakes().size();
+            pancakes += pancakesOrder.pancakeDescriptions().size();
+        }
+        return pancakes;
+    }
+
+    private static final class PancakeDescriptions {
+
+        private static String of(Set<PancakeIngredient> ingredients) {
+            return PancakesOrder.newOrder(new Building(1, 1), 1)
+                    .addPancakes(1, ingredients)
+                    .pancakeDescriptions()
+                    .get(0);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.bakeryshop.domain.repository.order;
+
+import org.bakeryshop.common.TimeoutException;
+import org.bakeryshop.common.jfr.OrderLockTimeoutEvent;
+import org.bakeryshop.common.jfr.OrderLockWaitEvent;
+import org.bakeryshop.domain.model.order.PancakesOrder;
+import org.bakeryshop.util.FlightRecordings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ThreadSafePancakesOrderTest {
+
+    @Test
+    @DisplayName("snapshot: should record the lock wait and the lock timeout while the write lock is held")
+    void snapshotShouldRecordLockTimeout() throws InterruptedException {
+        // setup
+        final var orderId = UUID.randomUUID();
+        final var entered = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var delegate = mock(PancakesOrder.class);
+        when(delegate.getId()).thenReturn(orderId);
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await(10L, TimeUnit.SECONDS);
+            return delegate;
+        }).when(delegate).markAsCompleted();
+        final var slowOrder = new ThreadSafePancakesOrder(delegate, Duration.ofMillis(20L));
+        final var writer = new Thread(slowOrder::markAsCompleted);
+        writer.start();
+        assertThat(entered.await(10L, TimeUnit.SECONDS))
+                .isTrue();
+        // exercise
+        final var events = FlightRecordings.record(() -> {
+            try {
+                assertThatThrownBy(slowOrder::snapshot)
+                        .isInstanceOf(TimeoutException.class);
+            } finally {
+                release.countDown();
+            }
+        }, OrderLockWaitEvent.NAME, OrderLockTimeoutEvent.NAME);
+        writer.join();
+        // verify
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals(OrderLockWaitEvent.NAME))
+                .extracting(event -> event.getString("orderId"), event -> event.getString("lock"), event -> event.getBoolean("acquired"))
+                .contains(tuple(orderId.toString(), "read", false));
+        assertThat(events)
+                .filteredOn(event -> event.getEventType().getName().equals(OrderLockTimeoutEvent.NAME))
+                .extracting(event -> event.getString("orderId"), event -> event.getString("lock"), event -> event.getLong("lockTimeout"))
+                .containsExactly(tuple(orderId.toString(), "read", 20L));
+    }
+
+    @Test
+    @DisplayName("markAsPrepared: should time out after the lock timeout changed for the existing order and count the timeout")
+    void markAsPreparedShouldUseChangedLockTimeout() throws InterruptedException {
+        // setup
+        final var entered = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var delegate = mock(PancakesOrder.class);
+        doAnswer(invocation -> {
+            entered.countDown();
+            release.await(10L, TimeUnit.SECONDS);
+            return delegate;
+        }).when(delegate).markAsCompleted();
+        final var orderLocks = new OrderLocks(Duration.ofSeconds(10L));
+        final var slowOrder = new ThreadSafePancakesOrder(delegate, orderLocks);
+        final var writer = new Thread(slowOrder::markAsCompleted);
+        writer.start();
+        assertThat(entered.await(10L, TimeUnit.SECONDS))
+                .isTrue();
+        // exercise
+        orderLocks.setTimeout(Duration.ofMillis(20L));
+        try {
+            assertThatThrownBy(slowOrder::markAsPrepared)
+                    .isInstanceOf(TimeoutException.class);
+        } finally {
+            release.countDown();
+            writer.join();
+        }
+        // verify
+        final var metrics = orderLocks.metrics();
+        assertThat(metrics.acquired())
+                .isEqualTo(1L);
+        assertThat(metrics.contended())
+                .isEqualTo(1L);
+        assertThat(metrics.timedOut())
+                .isEqualTo(1L);
+        assertThat(metrics.maxWaitNanos())
+                .isGreaterThanOrEqualTo(Duration.ofMillis(20L).toNanos());
+    }
+
+    @Test
+    @DisplayName("modifyIf: should time out while another modification holds the write lock")
+    void modifyIfShouldTimeOutWhileWriteLockIsHeld() throws InterruptedException {
+        // setup
+        final var entered = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var delegate = mock(PancakesOrder.class);
+        final var slowOrder = new ThreadSafePancakesOrder(delegate, Duration.ofMillis(20L));
+        final var writer = new Thread(() -> slowOrder.modifyIf(order -> Optional.empty(), order -> {
+            entered.countDown();
+            try {
+                release.await(10L, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        writer.start();
+        assertThat(entered.await(10L, TimeUnit.SECONDS))
+                .isTrue();
+        // exercise & verify
+        try {
+            assertThatThrownBy(() -> slowOrder.modifyIf(order -> Optional.empty(), PancakesOrder::markAsCompleted))
+                    .isInstanceOf(TimeoutException.class);
+        } finally {
+            release.countDown();
+            writer.join();
+        }
+        verify(delegate, never()).markAsCompleted();
+    }
+
+    @Test
+    @DisplayName("modifyIf: should return the failure of the validation without modifying and fail on a removed order")
+    void modifyIfShouldNotModifyWhenValidationFails() {
+        // setup
+        final var orderId = UUID.randomUUID();
+        final var delegate = mock(PancakesOrder.class);
+        when(delegate.getId()).thenReturn(orderId);
+        final var order = new ThreadSafePancakesOrder(delegate, Duration.ofSeconds(1L));
+        // exercise
+        final var failure = order.modifyIf(any -> Optional.of("failure"), PancakesOrder::markAsCompleted);
+        final var success = order.modifyIf(any -> Optional.empty(), PancakesOrder::markAsCompleted);
+        order.markAsRemoved(any -> true);
+        // verify
+        assertThat(failure)
+                .contains("failure");
+        assertThat(success)
+                .isEmpty();
+        verify(delegate).markAsCompleted();
+        assertThatThrownBy(() -> order.modifyIf(any -> Optional.empty(), PancakesOrder::markAsCompleted))
+                .isInstanceOf(OrderNotFoundException.class);
+    }
+}
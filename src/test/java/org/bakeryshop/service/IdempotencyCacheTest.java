@@ -0,0 +1,133 @@
+package org.bakeryshop.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyCacheTest {
+
+    @Test
+    @DisplayName("execute: should execute command once per operation and request id")
+    void executeShouldExecuteCommandOncePerOperationAndRequestId() {
+        final var cache = new IdempotencyCache(16, Duration.ofMinutes(1L));
+        final var executions = new AtomicInteger();
+
+        assertThat(cache.execute("add", "r1", "a", executions::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.execute("add", "r1", "a", executions::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.execute("remove", "r1", "a", executions::incrementAndGet)).isEqualTo(2);
+        assertThat(cache.execute("add", null, "a", executions::incrementAndGet)).isEqualTo(3);
+        assertThat(cache.execute("add", null, "a", executions::incrementAndGet)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("execute: should execute command again once the entry expired")
+    void executeShouldExecuteCommandAgainOnceTheEntryExpired() throws InterruptedException {
+        final var cache = new IdempotencyCache(16, Duration.ofMillis(20L));
+        final var executions = new AtomicInteger();
+
+        assertThat(cache.execute("add", "r1", "a", executions::incrementAndGet)).isEqualTo(1);
+        TimeUnit.MILLISECONDS.sleep(40L);
+        assertThat(cache.execute("add", "r1", "a", executions::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("execute: should evict oldest entries when full")
+    void executeShouldEvictOldestEntriesWhenFull() {
+        final var cache = new IdempotencyCache(2, Duration.ofMinutes(1L));
+        final var executions = new AtomicInteger();
+
+        cache.execute("add", "r1", "a", executions::incrementAndGet);
+        cache.execute("add", "r2", "a", executions::incrementAndGet);
+        cache.execute("add", "r3", "a", executions::incrementAndGet);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.execute("add", "r3", "a", executions::incrementAndGet)).isEqualTo(3);
+        assertThat(cache.execute("add", "r1", "a", executions::incrementAndGet)).isEqualTo(4);
+    }
+
+    @Test
+    @Timeout(5)
+    @DisplayName("execute: should let concurrent duplicates wait for the original result")
+    void executeShouldLetConcurrentDuplicatesWaitForTheOriginalResult() throws Exception {
+        final var cache = new IdempotencyCache(16, Duration.ofMinutes(1L));
+        final var executions = new AtomicInteger();
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var executor = Executors.newFixedThreadPool(2);
+        try {
+            final var original = executor.submit(() -> cache.execute("add", "r1", "a", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return executions.incrementAndGet();
+            }));
+            started.await();
+            final var duplicate = executor.submit(() -> cache.execute("add", "r1", "a", executions::incrementAndGet));
+            release.countDown();
+
+            assertThat(original.get()).isEqualTo(1);
+            assertThat(duplicate.get()).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("execute: should reject a request id reused with other arguments")
+    void executeShouldRejectRequestIdReusedWithOtherArguments() {
+        final var cache = new IdempotencyCache(16, Duration.ofMinutes(1L));
+        final var executions = new AtomicInteger();
+
+        assertThat(cache.execute("add", "r1", List.of(1, 2), executions::incrementAndGet)).isEqualTo(1);
+        assertThatThrownBy(() -> cache.execute("add", "r1", List.of(1, 3), executions::incrementAndGet))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("r1");
+        assertThat(cache.execute("add", "r1", List.of(1, 2), executions::incrementAndGet)).isEqualTo(1);
+    }
+
+    @Test
+    @Timeout(5)
+    @DisplayName("execute: should not evict the entry of a running command when full")
+    void executeShouldNotEvictRunningEntryWhenFull() throws Exception {
+        final var cache = new IdempotencyCache(1, Duration.ofMinutes(1L));
+        final var executions = new AtomicInteger();
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var executor = Executors.newFixedThreadPool(2);
+        try {
+            final var original = executor.submit(() -> cache.execute("add", "r1", "a", () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return executions.incrementAndGet();
+            }));
+            started.await();
+            cache.execute("add", "r2", "a", executions::incrementAndGet);
+            cache.execute("add", "r3", "a", executions::incrementAndGet);
+            final var duplicate = executor.submit(() -> cache.execute("add", "r1", "a", executions::incrementAndGet));
+            release.countDown();
+
+            assertThat(original.get()).isEqualTo(3);
+            assertThat(duplicate.get()).isEqualTo(3);
+            assertThat(executions).hasValue(3);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
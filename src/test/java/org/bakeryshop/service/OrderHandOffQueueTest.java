@@ -0,0 +1,110 @@
+package org.bakeryshop.service;
+
+import org.bakeryshop.util.Concurrently;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderHandOffQueueTest {
+
+    private final OrderHandOffQueue orderHandOffQueue = new OrderHandOffQueue();
+
+    @Test
+    @DisplayName("take: should hand every offered id to exactly one of the concurrent workers")
+    void takeShouldHandEveryIdToExactlyOneWorker() {
+        // setup
+        final var orderIds = IntStream.range(0, 10_000).mapToObj(any -> UUID.randomUUID()).toList();
+        final var eligible = ConcurrentHashMap.<UUID>newKeySet();
+        // exercise
+        final var taken = Concurrently.<List<UUID>>run(
+                () -> {
+                    for (final var orderId : orderIds) {
+                        eligible.add(orderId);
+                        orderHandOffQueue.offer(orderId);
+                    }
+                    return List.of();
+                },
+                () -> takeAll(eligible),
+                () -> takeAll(eligible),
+                () -> takeAll(eligible),
+                () -> takeAll(eligible)
+        );
+        // verify
+        final var allTaken = taken.stream().flatMap(List::stream).toList();
+        assertThat(allTaken)
+                .doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(orderIds);
+    }
+
+    @Test
+    @DisplayName("offer: should ignore the ids offered again while queued and hand the ids offered again after their take")
+    void offerShouldIgnoreIdsOfferedAgainWhileQueued() {
+        // setup
+        final var orderId = UUID.randomUUID();
+        // exercise
+        orderHandOffQueue.offer(orderId);
+        orderHandOffQueue.offer(orderId);
+        final var firstTake = orderHandOffQueue.take(Duration.ZERO, any -> true);
+        final var secondTake = orderHandOffQueue.take(Duration.ZERO, any -> true);
+        orderHandOffQueue.offer(orderId);
+        final var takeAfterOfferedAgain = orderHandOffQueue.take(Duration.ZERO, any -> true);
+        // verify
+        assertThat(firstTake)
+                .contains(orderId);
+        assertThat(secondTake)
+                .isEmpty();
+        assertThat(takeAfterOfferedAgain)
+                .contains(orderId);
+    }
+
+    @Test
+    @DisplayName("remove: should not hand the removed ids and purge their entries")
+    void removeShouldNotHandRemovedIds() {
+        // setup
+        final var orderIds = IntStream.range(0, 1_000).mapToObj(any -> UUID.randomUUID()).toList();
+        orderIds.forEach(orderHandOffQueue::offer);
+        // exercise
+        orderIds.subList(0, 999).forEach(orderHandOffQueue::remove);
+        // verify
+        assertThat(orderHandOffQueue.size())
+                .isLessThanOrEqualTo(OrderHandOffQueue.MIN_PURGE_THRESHOLD + 1);
+        assertThat(orderHandOffQueue.take(Duration.ZERO, any -> true))
+                .contains(orderIds.get(999));
+        assertThat(orderHandOffQueue.take(Duration.ZERO, any -> true))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("take: should keep skipping ineligible ids after the timeout elapsed while ids are queued")
+    void takeShouldSkipIneligibleIdsAfterTimeout() {
+        // setup
+        final var staleId = UUID.randomUUID();
+        final var eligibleId = UUID.randomUUID();
+        orderHandOffQueue.offer(staleId);
+        orderHandOffQueue.offer(eligibleId);
+        // exercise
+        final var taken = orderHandOffQueue.take(Duration.ZERO, Set.of(eligibleId)::contains);
+        // verify
+        assertThat(taken)
+                .contains(eligibleId);
+    }
+
+    private List<UUID> takeAll(Set<UUID> eligible) {
+        final var taken = new ArrayList<UUID>();
+        Optional<UUID> orderId;
+        while ((orderId = orderHandOffQueue.take(Duration.ofMillis(200L), eligible::contains)).isPresent()) {
+            taken.add(orderId.get());
+        }
+        return taken;
+    }
+}
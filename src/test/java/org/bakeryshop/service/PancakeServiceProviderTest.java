@@ -0,0 +1,110 @@
+package org.bakeryshop.service;
+
+import org.bakeryshop.common.config.Configuration;
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.repository.address.BuildingRepository;
+import org.bakeryshop.domain.repository.address.BuildingRepositoryFactory;
+import org.bakeryshop.service.usecase.create.CreateOrderResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PancakeServiceProviderTest {
+
+    @Test
+    @DisplayName("create: should build the service of the configured buildings")
+    void createShouldBuildServiceOfConfiguredBuildings() {
+        // setup
+        final var configuration = Configuration.of(Map.of(
+                "bakery.buildings", "3:5, 4:1",
+                "bakery.orders.lockTimeoutMillis", "50",
+                "bakery.orders.fairLocks", "true",
+                "bakery.admission.maxInFlight", "8"
+        ));
+        // exercise
+        final var pancakeService = PancakeServiceProvider.create(configuration);
+        // verify
+        assertThat(pancakeService.createOrder(3, 5).hasFailure())
+                .isFalse();
+        assertThat(pancakeService.createOrder(4, 1).hasFailure())
+                .isFalse();
+        assertThat(pancakeService.createOrder(10, 1))
+                .isEqualTo(CreateOrderResult.invalidAddress());
+    }
+
+    @Test
+    @DisplayName("create: should use the repository factory discovered by its name")
+    void createShouldUseDiscoveredFactory() {
+        // setup
+        final var configuration = Configuration.of(Map.of(
+                PancakeServiceProvider.BUILDING_REPOSITORY, AnyBuildingRepositoryFactory.NAME
+        ));
+        // exercise
+        final var pancakeService = PancakeServiceProvider.create(configuration);
+        // verify
+        assertThat(pancakeService.createOrder(12_345, 2).hasFailure())
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("create: should give the orders random ids unless the time ordered ids are opted in")
+    void createShouldGiveOrdersRandomIdsByDefault() {
+        // setup
+        final var defaults = Configuration.of(Map.of("bakery.buildings", "3:5"));
+        final var timeOrdered = Configuration.of(Map.of(
+                "bakery.buildings", "3:5",
+                "bakery.orders.idGenerator", "time-ordered"
+        ));
+        // exercise
+        final var randomId = PancakeServiceProvider.create(defaults).createOrder(3, 1).requireOrder().id();
+        final var timeOrderedId = PancakeServiceProvider.create(timeOrdered).createOrder(3, 1).requireOrder().id();
+        // verify
+        assertThat(randomId.version())
+                .isEqualTo(4);
+        assertThat(timeOrderedId.version())
+                .isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("create: should reject an unknown repository and invalid properties")
+    void createShouldRejectInvalidConfiguration() {
+        // exercise & verify
+        assertThatThrownBy(() -> PancakeServiceProvider.create(Configuration.of(Map.of(
+                PancakeServiceProvider.ORDER_REPOSITORY, "cassandra"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cassandra")
+                .hasMessageContaining("in-memory");
+        assertThatThrownBy(() -> PancakeServiceProvider.create(Configuration.of(Map.of(
+                "bakery.buildings", "10"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("bakery.buildings");
+        assertThatThrownBy(() -> PancakeServiceProvider.create(Configuration.of(Map.of(
+                PancakeServiceProvider.INVENTORY_STOCK, "HAZELNUTS:10,TRUFFLES:2"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("TRUFFLES");
+    }
+
+    /**
+     * Registered in the test META-INF/services.
+     */
+    public static final class AnyBuildingRepositoryFactory implements BuildingRepositoryFactory {
+
+        static final String NAME = "any-building";
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public BuildingRepository create(Configuration configuration) {
+            final int rooms = configuration.getPositiveInt("bakery.buildings.rooms", 10);
+            return buildingNumber -> Optional.of(new Building(buildingNumber, rooms));
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package org.bakeryshop.service;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.domain.repository.order.PancakesOrderRepository;
+import org.bakeryshop.service.usecase.Result;
+import org.bakeryshop.service.usecase.delivery.BatchDeliveryResult;
+import org.bakeryshop.service.usecase.delivery.OrderDeliveryResult;
+import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
+import org.bakeryshop.util.Concurrently;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers the same orders from several threads and checks the outcomes are the ones of some sequential order
+ * of the concurrent calls.
+ */
+class PancakeServiceStressTest {
+
+    private static final int ROUNDS = 200;
+    private static final Set<PancakeIngredient> INGREDIENTS = Set.of(PancakeIngredient.DARK_CHOCOLATE);
+
+    private final Map<UUID, AtomicInteger> removalEvents = new ConcurrentHashMap<>();
+
+    private final PancakesOrderRepository pancakesOrderRepository = new InMemoryPancakesOrderRepository(Duration.ofSeconds(5L));
+
+    private PancakeService pancakeService;
+
+    @BeforeEach
+    void setUp() {
+        pancakeService = new SimplePancakeService(
+                pancakesOrderRepository,
+                new FixedSetBuildingRepository(Set.of(new Building(1, 10)))
+        );
+        pancakeService.addOrderListener(new OrderListener() {
+            @Override
+            public void orderCancelled(PancakesOrderSnapshot order) {
+                removalEvents.computeIfAbsent(order.id(), any -> new AtomicInteger()).incrementAndGet();
+            }
+
+            @Override
+            public void orderDelivered(PancakesOrderSnapshot order) {
+                removalEvents.computeIfAbsent(order.id(), any -> new AtomicInteger()).incrementAndGet();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("deliverOrder: should either deliver or cancel an order raced by cancelOrder")
+    void deliverOrderShouldEitherDeliverOrCancel() {
+        for (int round = 0; round < ROUNDS; round++) {
+            // setup
+            final var orderId = preparedOrder();
+            // exercise
+            final var results = Concurrently.<Result<?>>run(
+                    () -> pancakeService.deliverOrder(orderId),
+                    () -> pancakeService.cancelOrder(orderId)
+            );
+            // verify
+            assertThat(results)
+                    .filteredOn(result -> !result.hasFailure())
+                    .hasSize(1);
+            assertThat(removalEvents.get(orderId))
+                    .hasValue(1);
+        }
+    }
+
+    @Test
+    @DisplayName("prepareOrder: should prepare an order exactly once when raced by itself")
+    void prepareOrderShouldPrepareExactlyOnce() {
+        for (int round = 0; round < ROUNDS; round++) {
+            // setup
+            final var orderId = completedOrder();
+            // exercise
+            final var results = Concurrently.run(4, () -> pancakeService.prepareOrder(orderId));
+            // verify
+            assertThat(results)
+                    .filteredOn(result -> !result.hasFailure())
+                    .hasSize(1);
+            assertThat(pancakeService.takePreparedOrder(Duration.ZERO))
+                    .contains(orderId);
+            assertThat(pancakeService.deliverOrder(orderId).hasFailure())
+                    .isFalse();
+        }
+        assertThat(pancakeService.takePreparedOrder(Duration.ZERO))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("takeCompletedOrder: should hand every completed order to exactly one of the concurrent workers")
+    void takeCompletedOrderShouldHandEveryOrderToExactlyOneWorker() {
+        // setup
+        final var orderIds = new ArrayList<UUID>();
+        for (int round = 0; round < ROUNDS; round++) {
+            orderIds.add(completedOrder());
+        }
+        // exercise
+        final var taken = Concurrently.run(4, () -> {
+            final var takenIds = new ArrayList<UUID>();
+            var orderId = pancakeService.takeCompletedOrder(Duration.ZERO);
+            while (orderId.isPresent()) {
+                takenIds.add(orderId.get());
+                orderId = pancakeService.takeCompletedOrder(Duration.ZERO);
+            }
+            return takenIds;
+        });
+        // verify
+        assertThat(taken.stream().flatMap(List::stream).toList())
+                .doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(orderIds);
+    }
+
+    @Test
+    @DisplayName("takePreparedOrder: should not hand the orders delivered or cancelled before anyone took them")
+    void takePreparedOrderShouldNotHandRemovedOrders() {
+        // setup
+        final var deliveredId = completedOrder();
+        pancakeService.prepareOrder(deliveredId);
+        final var cancelledId = completedOrder();
+        pancakeService.prepareOrder(cancelledId);
+        final var preparedId = completedOrder();
+        pancakeService.prepareOrder(preparedId);
+        // exercise
+        pancakeService.deliverOrder(deliveredId);
+        pancakeService.cancelOrder(cancelledId);
+        // verify
+        assertThat(pancakeService.takeCompletedOrder(Duration.ZERO))
+                .isEmpty();
+        assertThat(pancakeService.takePreparedOrder(Duration.ZERO))
+                .contains(preparedId);
+    }
+
+    @Test
+    @DisplayName("deliverOrder: should deliver only prepared orders when raced by completeOrder")
+    void deliverOrderShouldDeliverOnlyPreparedOrders() {
+        for (int round = 0; round < ROUNDS; round++) {
+            // setup
+            final var orderId = preparedOrder();
+            // exercise
+            final var results = Concurrently.<Result<?>>run(
+                    () -> pancakeService.deliverOrder(orderId),
+                    () -> pancakeService.completeOrder(orderId)
+            );
+            // verify
+            final var delivery = (OrderDeliveryResult) results.get(0);
+            assertThat(results)
+                    .filteredOn(result -> !result.hasFailure())
+                    .hasSize(1);
+            if (!delivery.hasFailure()) {
+                assertThat(delivery.order().orElseThrow().state())
+                        .isEqualTo(OrderState.PREPARED);
+            } else {
+                assertThat(pancakeService.cancelOrder(orderId).hasFailure())
+                        .isFalse();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("addPancakes: should not lose pancakes added while the order is delivered")
+    void addPancakesShouldNotLosePancakesAddedWhileDelivered() {
+        for (int round = 0; round < ROUNDS; round++) {
+            // setup
+            final var orderId = preparedOrder();
+            // exercise
+            final var results = Concurrently.<Result<?>>run(
+                    () -> pancakeService.deliverOrder(orderId),
+                    () -> pancakeService.addPancakes(orderId, 1, INGREDIENTS)
+            );
+            // verify
+            final var delivery = (OrderDeliveryResult) results.get(0);
+            final var addition = (AddPancakeResult) results.get(1);
+            assertThat(delivery.hasFailure())
+                    .isFalse();
+            assertThat(delivery.order().orElseThrow().pancakes())
+                    .hasSize(addition.hasFailure() ? 1 : 2);
+        }
+    }
+
+    @Test
+    @DisplayName("deliverOrders: should deliver every order exactly once when raced by deliverOrder")
+    void deliverOrdersShouldDeliverEveryOrderExactlyOnce() {
+        for (int round = 0; round < ROUNDS; round++) {
+            // setup
+            final var orderIds = List.of(preparedOrder(), preparedOrder(), preparedOrder());
+            // exercise
+            final var results = Concurrently.<Object>run(
+                    () -> pancakeService.deliverOrders(orderIds),
+                    () -> pancakeService.deliverOrder(orderIds.get(1)),
+                    () -> pancakeService.deliverOrders(orderIds.subList(1, 3))
+            );
+            // verify
+            final var deliveredOrders = new ArrayList<UUID>();
+            for (final var result : results) {
+                if (result instanceof BatchDeliveryResult batch) {
+                    batch.deliveredOrders().forEach(order -> deliveredOrders.add(order.id()));
+                } else if (!((OrderDeliveryResult) result).hasFailure()) {
+                    deliveredOrders.add(orderIds.get(1));
+                }
+            }
+            assertThat(deliveredOrders)
+                    .containsExactlyInAnyOrderElementsOf(orderIds);
+        }
+    }
+
+    @Test
+    @DisplayName("all operations: should remove every order at most once under random concurrent load")
+    void allOperationsShouldRemoveEveryOrderAtMostOnce() {
+        // setup
+        final var orderIds = new ArrayList<UUID>();
+        for (int i = 0; i < 16; i++) {
+            orderIds.add(pancakeService.createOrder(1, 1 + i % 10).requireOrder().id());
+        }
+        // exercise
+        Concurrently.run(8, () -> {
+            final var random = ThreadLocalRandom.current();
+            for (int i = 0; i < 5_000; i++) {
+                final var orderId = orderIds.get(random.nextInt(orderIds.size()));
+                switch (random.nextInt(9)) {
+                    case 0 -> pancakeService.addPancakes(orderId, 1 + random.nextInt(3), INGREDIENTS);
+                    case 1 -> pancakeService.removePancakes(orderId, description(), 1);
+                    case 2 -> pancakeService.completeOrder(orderId);
+                    case 3 -> pancakeService.prepareOrder(orderId);
+                    case 4 -> pancakeService.deliverOrder(orderId);
+                    case 5 -> pancakeService.deliverOrders(List.of(orderId, orderIds.get(random.nextInt(orderIds.size()))));
+                    case 6 -> pancakeService.viewOrder(orderId);
+                    case 7 -> pancakeService.listPreparedOrders();
+                    default -> {
+                        if (random.nextInt(20) == 0) {
+                            pancakeService.cancelOrder(orderId);
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+        // verify
+        for (final var orderId : orderIds) {
+            final var removed = pancakesOrderRepository.find(orderId).isEmpty();
+            assertThat(removalEvents.getOrDefault(orderId, new AtomicInteger()))
+                    .hasValue(removed ? 1 : 0);
+        }
+    }
+
+    private UUID completedOrder() {
+        final var orderId = pancakeService.createOrder(1, 1).requireOrder().id();
+        pancakeService.addPancakes(orderId, 1, INGREDIENTS);
+        pancakeService.completeOrder(orderId);
+        return orderId;
+    }
+
+    private UUID preparedOrder() {
+        final var orderId = completedOrder();
+        pancakeService.prepareOrder(orderId);
+        pancakeService.takePreparedOrder(Duration.ZERO);
+        return orderId;
+    }
+
+    private static String description() {
+        return "Delicious pancake with dark chocolate!";
+    }
+}
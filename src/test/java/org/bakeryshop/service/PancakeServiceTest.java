@@ -1,5 +1,6 @@
 package org.bakeryshop.service;
 
+import org.bakeryshop.common.TimeoutException;
 import org.bakeryshop.domain.model.address.Building;
 import org.bakeryshop.domain.model.order.PancakesOrder;
 import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
@@ -15,25 +16,27 @@ import org.bakeryshop.service.usecase.delivery.OrderDeliveryResult;
 import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
 import org.bakeryshop.service.usecase.pancake.RemovePancakeResult;
 import org.bakeryshop.service.usecase.prepare.PrepareOrderResult;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class PancakeServiceTest {
 
-    @InjectMocks
     private PancakeService pancakeService;
 
     @Mock
@@ -42,6 +45,12 @@ class PancakeServiceTest {
     @Mock
     private BuildingRepository buildingRepository;
 
+    @BeforeEach
+    void prepareTestSubject() {
+        pancakeService = new SimplePancakeService(pancakesOrderRepository, buildingRepository,
+                new IdempotencyCache(16, Duration.ofMinutes(1L)));
+    }
+
     @Test
     @DisplayName("createOrder: should fail with invalid address when building not found")
     void createOrderShouldFailWithInvalidAddressWhenBuildingIsMissing() {
@@ -347,7 +356,7 @@ class PancakeServiceTest {
         pancakesOrder.markAsPrepared();
         when(pancakesOrderRepository.find(pancakesOrder.getId()))
                 .thenReturn(Optional.of(pancakesOrder));
-        when(pancakesOrderRepository.remove(pancakesOrder.getId()))
+        when(pancakesOrderRepository.removeIf(eq(pancakesOrder.getId()), any()))
                 .thenReturn(Optional.of(pancakesOrder));
         // exercise
         assertThat(pancakeService.deliverOrder(pancakesOrder.getId()))
@@ -360,8 +369,113 @@ class PancakeServiceTest {
                 )));
         // verify
         verify(pancakesOrderRepository).find(pancakesOrder.getId());
-        verify(pancakesOrderRepository).remove(pancakesOrder.getId());
+        verify(pancakesOrderRepository).removeIf(eq(pancakesOrder.getId()), any());
         verifyNoMoreInteractions(buildingRepository, pancakesOrderRepository);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("takeCompletedOrder: should hand completed order to exactly one worker")
+    void takeCompletedOrderShouldHandCompletedOrderOnce() {
+        // setup
+        final var pancakesOrder = PancakesOrder.newOrder(new Building(1, 2), 2);
+        when(pancakesOrderRepository.find(pancakesOrder.getId()))
+                .thenReturn(Optional.of(pancakesOrder));
+        when(pancakesOrderRepository.update(pancakesOrder))
+                .thenReturn(pancakesOrder);
+        pancakeService.completeOrder(pancakesOrder.getId());
+        // exercise
+        assertThat(pancakeService.takeCompletedOrder(Duration.ZERO))
+                .contains(pancakesOrder.getId());
+        assertThat(pancakeService.takeCompletedOrder(Duration.ofMillis(10L)))
+                .isEmpty();
+        // verify
+        verify(pancakesOrderRepository, times(2)).find(pancakesOrder.getId());
+        verify(pancakesOrderRepository).update(pancakesOrder);
+        verifyNoMoreInteractions(buildingRepository, pancakesOrderRepository);
+    }
+
+    @Test
+    @DisplayName("takePreparedOrder: should hand prepared orders in preparation order")
+    void takePreparedOrderShouldHandPreparedOrdersInPreparationOrder() {
+        // setup
+        final var firstOrder = PancakesOrder.newOrder(new Building(1, 2), 2).markAsCompleted();
+        final var secondOrder = PancakesOrder.newOrder(new Building(1, 2), 1).markAsCompleted();
+        for (final var pancakesOrder : List.of(secondOrder, firstOrder)) {
+            when(pancakesOrderRepository.find(pancakesOrder.getId()))
+                    .thenReturn(Optional.of(pancakesOrder));
+            when(pancakesOrderRepository.update(pancakesOrder))
+                    .thenReturn(pancakesOrder);
+            pancakeService.prepareOrder(pancakesOrder.getId());
+        }
+        // exercise
+        assertThat(List.of(
+                pancakeService.takePreparedOrder(Duration.ZERO),
+                pancakeService.takePreparedOrder(Duration.ZERO)
+        )).containsExactly(Optional.of(secondOrder.getId()), Optional.of(firstOrder.getId()));
+    }
+
+    @Test
+    @DisplayName("takePreparedOrder: should skip orders delivered in the meantime")
+    void takePreparedOrderShouldSkipOrdersDeliveredInTheMeantime() {
+        // setup
+        final var pancakesOrder = PancakesOrder.newOrder(new Building(1, 2), 2).markAsCompleted();
+        when(pancakesOrderRepository.find(pancakesOrder.getId()))
+                .thenReturn(Optional.of(pancakesOrder))
+                .thenReturn(Optional.empty());
+        when(pancakesOrderRepository.update(pancakesOrder))
+                .thenReturn(pancakesOrder);
+        pancakeService.prepareOrder(pancakesOrder.getId());
+        // exercise
+        assertThat(pancakeService.takePreparedOrder(Duration.ofMillis(10L)))
+                .isEmpty();
+        // verify
+        verify(pancakesOrderRepository, times(2)).find(pancakesOrder.getId());
+        verify(pancakesOrderRepository).update(pancakesOrder);
+        verifyNoMoreInteractions(buildingRepository, pancakesOrderRepository);
+    }
+
+    @Test
+    @DisplayName("addPancakes: should return original result for duplicate request without touching the order")
+    void addPancakesShouldReturnOriginalResultForDuplicateRequest() {
+        // setup
+        final var pancakesOrder = PancakesOrder.newOrder(new Building(1, 2), 2);
+        final var requestId = "add-pancakes-1";
+        when(pancakesOrderRepository.find(pancakesOrder.getId()))
+                .thenReturn(Optional.of(pancakesOrder));
+        when(pancakesOrderRepository.update(pancakesOrder))
+                .thenReturn(pancakesOrder);
+        // exercise
+        for (int i = 0; i < 3; i++) {
+            assertThat(pancakeService.addPancakes(requestId, pancakesOrder.getId(), 2, Set.of(PancakeIngredient.HAZELNUTS)))
+                    .isEqualTo(AddPancakeResult.success());
+        }
+        // verify
+        assertThat(pancakesOrder.getPancakes()).hasSize(2);
+        verify(pancakesOrderRepository).find(pancakesOrder.getId());
+        verify(pancakesOrderRepository).update(pancakesOrder);
+        verifyNoMoreInteractions(buildingRepository, pancakesOrderRepository);
+    }
+
+    @Test
+    @DisplayName("addPancakes: should execute retry of request which timed out")
+    void addPancakesShouldExecuteRetryOfRequestWhichTimedOut() {
+        // setup
+        final var pancakesOrder = PancakesOrder.newOrder(new Building(1, 2), 2);
+        final var requestId = "add-pancakes-2";
+        when(pancakesOrderRepository.find(pancakesOrder.getId()))
+                .thenThrow(new TimeoutException("Timeout while getting read lock."))
+                .thenReturn(Optional.of(pancakesOrder));
+        when(pancakesOrderRepository.update(pancakesOrder))
+                .thenReturn(pancakesOrder);
+        // exercise
+        assertThatThrownBy(() -> pancakeService.addPancakes(requestId, pancakesOrder.getId(), 2, Set.of(PancakeIngredient.HAZELNUTS)))
+                .isInstanceOf(TimeoutException.class);
+        assertThat(pancakeService.addPancakes(requestId, pancakesOrder.getId(), 2, Set.of(PancakeIngredient.HAZELNUTS)))
+                .isEqualTo(AddPancakeResult.success());
+        // verify
+        assertThat(pancakesOrder.getPancakes()).hasSize(2);
+        verify(pancakesOrderRepository, times(2)).find(pancakesOrder.getId());
+        verify(pancakesOrderRepository).update(pancakesOrder);
+        verifyNoMoreInteractions(buildingRepository, pancakesOrderRepository);
+    }
+}
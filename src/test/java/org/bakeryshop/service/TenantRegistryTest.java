@@ -0,0 +1,105 @@
+package org.bakeryshop.service;
+
+import org.bakeryshop.common.config.Configuration;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.service.usecase.create.CreateOrderResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TenantRegistryTest {
+
+    private final TenantRegistry tenantRegistry = TenantRegistry.create(Configuration.of(Map.of(
+            TenantRegistry.TENANTS, "north, south",
+            "bakery.buildings", "1:5",
+            "bakery.tenant.north.buildings", "2:3",
+            "bakery.tenant.north.admission.maxInFlight", "1",
+            "bakery.tenant.north.admission.maxQueueWaitMillis", "1"
+    )));
+
+    @Test
+    @DisplayName("create: should build a service graph per tenant of its own and the shared properties")
+    void createShouldBuildServiceGraphPerTenant() {
+        // setup
+        final var north = tenantRegistry.pancakeService("north");
+        final var south = tenantRegistry.pancakeService("south");
+        // exercise
+        final var northOrderId = north.createOrder(2, 3).requireOrder().id();
+        final var southOrder = south.createOrder(2, 3);
+        // verify
+        assertThat(tenantRegistry.tenantIds())
+                .containsExactlyInAnyOrder("north", "south");
+        assertThat(southOrder)
+                .isEqualTo(CreateOrderResult.invalidAddress());
+        assertThat(south.viewOrder(northOrderId))
+                .isEmpty();
+        assertThat(tenantRegistry.find("north").orElseThrow().operationalCounters().stats().createdOrders())
+                .isEqualTo(1L);
+        assertThat(tenantRegistry.find("south").orElseThrow().operationalCounters().stats().createdOrders())
+                .isZero();
+        assertThat(tenantRegistry.find("east"))
+                .isEmpty();
+        assertThatThrownBy(() -> tenantRegistry.pancakeService("east"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("east");
+    }
+
+    @Test
+    @DisplayName("pancakeService: should keep serving a tenant while another one is at its admission limit")
+    void pancakeServiceShouldServeTenantWhileAnotherIsAtLimit() throws Exception {
+        // setup
+        final var north = tenantRegistry.pancakeService("north");
+        final var south = tenantRegistry.pancakeService("south");
+        final var entered = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        north.addOrderListener(new OrderListener() {
+            @Override
+            public void orderCreated(PancakesOrderSnapshot order) {
+                entered.countDown();
+                try {
+                    release.await(10L, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        final var blocked = CompletableFuture.supplyAsync(() -> north.createOrder(2, 1));
+        assertThat(entered.await(10L, TimeUnit.SECONDS))
+                .isTrue();
+        try {
+            // exercise
+            final var northOrder = north.createOrder(2, 2);
+            final var southOrder = south.createOrder(1, 1);
+            // verify
+            assertThat(northOrder)
+                    .isEqualTo(CreateOrderResult.overloaded());
+            assertThat(southOrder.hasFailure())
+                    .isFalse();
+        } finally {
+            release.countDown();
+        }
+        assertThat(blocked.get(10L, TimeUnit.SECONDS).hasFailure())
+                .isFalse();
+    }
+
+    @Test
+    @DisplayName("create: should reject invalid and duplicate tenant ids")
+    void createShouldRejectInvalidTenantIds() {
+        // exercise & verify
+        assertThatThrownBy(() -> TenantRegistry.create(Configuration.of(Map.of(TenantRegistry.TENANTS, "north,North"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("North");
+        assertThatThrownBy(() -> TenantRegistry.create(Configuration.of(Map.of(TenantRegistry.TENANTS, "north,north"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("more than once");
+        assertThat(TenantRegistry.create(Configuration.of(Map.of())).tenantIds())
+                .isEmpty();
+    }
+}
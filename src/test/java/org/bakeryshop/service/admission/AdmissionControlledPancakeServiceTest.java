@@ -0,0 +1,155 @@
+package org.bakeryshop.service.admission;
+
+import org.bakeryshop.common.OverloadedException;
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.SimplePancakeService;
+import org.bakeryshop.service.usecase.Result;
+import org.bakeryshop.service.usecase.create.CreateOrderResult;
+import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionControlledPancakeServiceTest {
+
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private AdmissionControl admissionControl;
+    private PancakeService pancakeService;
+
+    @BeforeEach
+    void prepareTestSubject() {
+        final var pancakesOrderRepository = new InMemoryPancakesOrderRepository(Duration.ofSeconds(5L));
+        final var buildingRepository = new FixedSetBuildingRepository(Set.of(new Building(1, 4), new Building(2, 4)));
+        admissionControl = new AdmissionControl(2, 1, Duration.ZERO);
+        pancakeService = new AdmissionControlledPancakeService(
+                new SimplePancakeService(pancakesOrderRepository, buildingNumber -> {
+                    if (buildingNumber == 1) {
+                        entered.countDown();
+                        awaitQuietly(release);
+                    }
+                    return buildingRepository.find(buildingNumber);
+                }),
+                pancakesOrderRepository,
+                admissionControl
+        );
+    }
+
+    @AfterEach
+    void dispose() {
+        release.countDown();
+        executorService.shutdown();
+    }
+
+    @Test
+    @Timeout(5)
+    @DisplayName("should reject calls for a building at its limit while serving other buildings")
+    void shouldRejectCallsForBuildingAtItsLimitWhileServingOtherBuildings() throws Exception {
+        // setup
+        final var blockedCall = blockInBuildingOne();
+        // exercise
+        assertThat(pancakeService.createOrder(1, 2))
+                .extracting(Result::requireFailure)
+                .isEqualTo(CreateOrderResult.CreateOrderFailure.OVERLOADED);
+        final var otherBuildingOrder = pancakeService.createOrder(2, 2);
+        // verify
+        assertThat(otherBuildingOrder).matches(Predicate.not(Result::hasFailure));
+        assertThat(pancakeService.addPancakes(otherBuildingOrder.requireOrder().id(), 1, Set.of(PancakeIngredient.HAZELNUTS)))
+                .isEqualTo(AddPancakeResult.success());
+        release.countDown();
+        assertThat(blockedCall.get()).matches(Predicate.not(Result::hasFailure));
+        assertThat(admissionControl.metrics())
+                .hasFieldOrPropertyWithValue("rejectedByBuilding", 1L)
+                .hasFieldOrPropertyWithValue("rejectedGlobally", 0L)
+                .hasFieldOrPropertyWithValue("inFlight", 0);
+    }
+
+    @Test
+    @DisplayName("tryAdmit: should reject once the global limit is reached")
+    void tryAdmitShouldRejectOnceTheGlobalLimitIsReached() {
+        // setup
+        final var globalLimit = new AdmissionControl(1, 1, Duration.ZERO);
+        // exercise
+        assertThat(globalLimit.tryAdmit(AdmissionControl.NO_BUILDING)).isTrue();
+        assertThat(globalLimit.tryAdmit(2)).isFalse();
+        globalLimit.release(AdmissionControl.NO_BUILDING);
+        // verify
+        assertThat(globalLimit.tryAdmit(2)).isTrue();
+        assertThat(globalLimit.metrics())
+                .hasFieldOrPropertyWithValue("admitted", 2L)
+                .hasFieldOrPropertyWithValue("rejectedGlobally", 1L)
+                .hasFieldOrPropertyWithValue("inFlight", 1);
+    }
+
+    @Test
+    @DisplayName("tryAdmit: should share the bulkheads of the building numbers one stripe count apart")
+    void tryAdmitShouldShareBulkheadsOfBuildingsOneStripeCountApart() {
+        // setup
+        final var buildingLimit = new AdmissionControl(10, 1, Duration.ZERO);
+        // exercise
+        assertThat(buildingLimit.tryAdmit(1)).isTrue();
+        assertThat(buildingLimit.tryAdmit(2)).isTrue();
+        assertThat(buildingLimit.tryAdmit(1 + AdmissionControl.BUILDING_STRIPES)).isFalse();
+        assertThat(buildingLimit.tryAdmit(Integer.MAX_VALUE)).isTrue();
+        buildingLimit.release(1);
+        // verify
+        assertThat(buildingLimit.tryAdmit(1 + AdmissionControl.BUILDING_STRIPES)).isTrue();
+        assertThat(buildingLimit.metrics())
+                .hasFieldOrPropertyWithValue("admitted", 4L)
+                .hasFieldOrPropertyWithValue("rejectedByBuilding", 1L);
+    }
+
+    @Test
+    @Timeout(5)
+    @DisplayName("listPreparedOrders: should throw when overloaded")
+    void listPreparedOrdersShouldThrowWhenOverloaded() throws Exception {
+        // setup
+        final var saturated = new AdmissionControlledPancakeService(pancakeService,
+                new InMemoryPancakesOrderRepository(Duration.ofSeconds(1L)),
+                new AdmissionControl(1, 1, Duration.ofMillis(20L)));
+        final var blockedCall = executorService.submit(() -> saturated.createOrder(1, 1));
+        entered.await();
+        // exercise
+        assertThatThrownBy(saturated::listPreparedOrders)
+                .isInstanceOf(OverloadedException.class);
+        // verify
+        assertThat(saturated.metrics())
+                .hasFieldOrPropertyWithValue("queued", 1L)
+                .matches(metrics -> metrics.maxQueuedNanos() >= Duration.ofMillis(20L).toNanos());
+        release.countDown();
+        blockedCall.get();
+    }
+
+    private Future<CreateOrderResult> blockInBuildingOne() throws InterruptedException {
+        final var blockedCall = executorService.submit(() -> pancakeService.createOrder(1, 1));
+        entered.await();
+        return blockedCall;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.bakeryshop.service.allocation;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the maximal amount of bytes a use case may allocate per call once warmed up,
+ * the test method gets an {@link AllocationMeter} enforcing it.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(AllocationBudgetExtension.class)
+public @interface AllocationBudget {
+
+    long bytesPerCall();
+
+    int warmupCalls() default 20_000;
+
+    int measuredCalls() default 10_000;
+}
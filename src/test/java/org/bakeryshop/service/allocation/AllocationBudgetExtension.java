@@ -0,0 +1,24 @@
+package org.bakeryshop.service.allocation;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+class AllocationBudgetExtension implements ParameterResolver {
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == AllocationMeter.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        final var budget = extensionContext.getRequiredTestMethod().getAnnotation(AllocationBudget.class);
+        if (budget == null) {
+            throw new ParameterResolutionException("%s should be annotated with @AllocationBudget"
+                    .formatted(extensionContext.getRequiredTestMethod()));
+        }
+        return new AllocationMeter(budget);
+    }
+}
@@ -0,0 +1,65 @@
+package org.bakeryshop.service.allocation;
+
+import org.junit.jupiter.api.Assumptions;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the bytes allocated by the current thread per call of a use case with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}, after warming the call up.
+ */
+public final class AllocationMeter {
+
+    private final AllocationBudget budget;
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    AllocationMeter(AllocationBudget budget) {
+        this.budget = budget;
+        final var threadMXBean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean sunThreadMXBean
+                        && sunThreadMXBean.isThreadAllocatedMemorySupported(),
+                "thread allocated memory should be supported");
+        this.threadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        this.threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * @param call The use case call, having no state to prepare
+     */
+    public void assertWithinBudget(Runnable call) {
+        assertWithinBudget(() -> null, any -> call.run());
+    }
+
+    /**
+     * @param setup The preparation of every call, its allocations are not measured
+     * @param call  The use case call
+     */
+    public <T> void assertWithinBudget(Supplier<T> setup, Consumer<T> call) {
+        for (int i = 0; i < budget.warmupCalls(); i++) {
+            call.accept(setup.get());
+        }
+        final var threadId = Thread.currentThread().getId();
+        final var overhead = measure(threadId, () -> null, any -> {
+        });
+        final var allocated = measure(threadId, setup, call);
+        final var bytesPerCall = Math.max(0L, allocated - overhead) / budget.measuredCalls();
+        assertThat(bytesPerCall)
+                .as("bytes allocated per call")
+                .isLessThanOrEqualTo(budget.bytesPerCall());
+    }
+
+    private <T> long measure(long threadId, Supplier<T> setup, Consumer<T> call) {
+        long allocated = 0L;
+        for (int i = 0; i < budget.measuredCalls(); i++) {
+            final var argument = setup.get();
+            final var before = threadMXBean.getThreadAllocatedBytes(threadId);
+            call.accept(argument);
+            allocated += threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        }
+        return allocated;
+    }
+}
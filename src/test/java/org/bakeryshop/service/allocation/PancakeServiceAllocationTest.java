@@ -0,0 +1,184 @@
+package org.bakeryshop.service.allocation;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.SimplePancakeService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * The allocation budgets of the use cases, with the order logs built but not written.
+ */
+class PancakeServiceAllocationTest {
+
+    private static final Set<PancakeIngredient> INGREDIENTS = Set.of(PancakeIngredient.DARK_CHOCOLATE);
+    private static final String DESCRIPTION = "Delicious pancake with dark chocolate!";
+    /**
+     * The listing of 100 of 200 orders allocates 5.3 KiB without relying on escape analysis:
+     * the tables of the id set growing to 256 buckets (2 KiB together) and its 100 entries (3.1 KiB), 1/8 is left for the JVM.
+     */
+    private static final int LISTING_BUDGET = 6144;
+
+    private static final Logger serviceLogger = (Logger) LoggerFactory.getLogger(SimplePancakeService.class);
+    private static Level serviceLogLevel;
+
+    private PancakeService pancakeService;
+    private UUID orderId;
+
+    @BeforeAll
+    static void disableOrderLogWriting() {
+        serviceLogLevel = serviceLogger.getLevel();
+        serviceLogger.setLevel(Level.INFO);
+    }
+
+    @AfterAll
+    static void restoreOrderLogWriting() {
+        serviceLogger.setLevel(serviceLogLevel);
+    }
+
+    @BeforeEach
+    void setUp() {
+        pancakeService = new SimplePancakeService(
+                new InMemoryPancakesOrderRepository(Duration.ofSeconds(1L)),
+                new FixedSetBuildingRepository(Set.of(new Building(1, 10)))
+        );
+        orderId = newOrder();
+    }
+
+    @Test
+    @AllocationBudget(bytesPerCall = 1024)
+    @DisplayName("createOrder: should stay within its allocation budget")
+    void createOrder(AllocationMeter allocationMeter) {
+        allocationMeter.assertWithinBudget(() -> pancakeService.createOrder(1, 2));
+    }
+
+    @Test
+    @AllocationBudget(bytesPerCall = 384)
+    @DisplayName("addPancakes: should stay within its allocation budget")
+    void addPancakes(AllocationMeter allocationMeter) {
+        allocationMeter.assertWithinBudget(this::newOrder, id -> pancakeService.addPancakes(id, 1, INGREDIENTS));
+    }
+
+    @Test
+    @AllocationBudget(bytesPerCall = 448)
+    @DisplayName("removePancakes: should stay within its allocation budget")
+    void removePancakes(AllocationMeter allocationMeter) {
+        allocationMeter.assertWithinBudget(
+                () -> pancakeService.addPancakes(orderId, 1, INGREDIENTS),
+                any -> pancakeService.removePancakes(orderId, DESCRIPTION, 1));
+    }
+
+    @Test
+    @AllocationBudget(bytesPerCall = 448)
+    @DisplayName("cancelOrder: should stay within its allocation budget")
+    void cancelOrder(AllocationMeter allocationMeter) {
+        allocationMeter.assertWithinBudget(this::newOrder, pancakeService::cancelOrder);
+    }
+
+    @Test
+    @AllocationBudget(bytesPerCall = 256)
+    @DisplayName("completeOrder: should stay within its allocation budget")
+    void completeOrder(AllocationMeter allocationMeter) {
+        allocationMeter.assertWithinBudget(() -> pancakeService.completeOrder(orderId));
+    }
+
+    @Test
+    @AllocationBudget(bytesPerCall = 448)
+    @DisplayName("prepareOrder: should stay within its allocation budget")
+    void prepareOrder(AllocationMeter allocationMeter) {
+        allocationMeter.assertWithinBudget(
+                () -> pancakeService.completeOrder(orderId),
+                any -> pancakeService.prepareOrder(orderId));
+    }
+
+    @Test
+    @AllocationBudget(bytesPerCall = 768)
+    @DisplayName("deliverOrder: should stay within its allocation budget")
+    void deliverOrder(AllocationMeter allocationMeter) {
+        allocationMeter.assertWithinBudget(this::newPreparedOrder, pancakeService::deliverOrder);
+    }
+
+    @Test
+    @AllocationBudget(bytesPerCall = 6144, warmupCalls = 5_000, measuredCalls = 2_000)
+    @DisplayName("deliverOrders: should stay within its allocation budget for a batch of 8 orders")
+    void deliverOrders(AllocationMeter allocationMeter) {
+        allocationMeter.assertWithinBudget(
+                () -> IntStream.range(0, 8).mapToObj(any -> newPreparedOrder()).toList(),
+                pancakeService::deliverOrders);
+    }
+
+    @Test
+    @AllocationBudget(bytesPerCall = 640)
+    @DisplayName("viewOrder: should stay within its allocation budget for an order of 3 pancakes")
+    void viewOrder(AllocationMeter allocationMeter) {
+        allocationMeter.assertWithinBudget(() -> pancakeService.viewOrder(orderId));
+    }
+
+    @Test
+    @AllocationBudget(bytesPerCall = LISTING_BUDGET, warmupCalls = 5_000, measuredCalls = 2_000)
+    @DisplayName("listCompletedOrders: should stay within its allocation budget for 100 of 200 orders")
+    void listCompletedOrders(AllocationMeter allocationMeter) {
+        // setup
+        final var orderIds = newOrders(200);
+        for (int i = 0; i < orderIds.size(); i += 2) {
+            pancakeService.completeOrder(orderIds.get(i));
+        }
+        // exercise
+        allocationMeter.assertWithinBudget(pancakeService::listCompletedOrders);
+    }
+
+    @Test
+    @AllocationBudget(bytesPerCall = LISTING_BUDGET, warmupCalls = 5_000, measuredCalls = 2_000)
+    @DisplayName("listPreparedOrders: should stay within its allocation budget for 100 of 200 orders")
+    void listPreparedOrders(AllocationMeter allocationMeter) {
+        // setup
+        final var orderIds = newOrders(200);
+        for (int i = 0; i < orderIds.size(); i += 2) {
+            pancakeService.completeOrder(orderIds.get(i));
+            pancakeService.prepareOrder(orderIds.get(i));
+        }
+        // exercise
+        allocationMeter.assertWithinBudget(pancakeService::listPreparedOrders);
+    }
+
+    @Test
+    @AllocationBudget(bytesPerCall = 128)
+    @DisplayName("takeCompletedOrder: should stay within its allocation budget")
+    void takeCompletedOrder(AllocationMeter allocationMeter) {
+        allocationMeter.assertWithinBudget(
+                () -> pancakeService.completeOrder(orderId),
+                any -> pancakeService.takeCompletedOrder(Duration.ZERO));
+    }
+
+    private UUID newOrder() {
+        final var id = pancakeService.createOrder(1, 2).requireOrder().id();
+        pancakeService.addPancakes(id, 3, INGREDIENTS);
+        return id;
+    }
+
+    private List<UUID> newOrders(int count) {
+        return IntStream.range(0, count).mapToObj(any -> newOrder()).toList();
+    }
+
+    private UUID newPreparedOrder() {
+        final var id = newOrder();
+        pancakeService.completeOrder(id);
+        pancakeService.prepareOrder(id);
+        return id;
+    }
+}
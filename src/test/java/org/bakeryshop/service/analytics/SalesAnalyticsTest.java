@@ -0,0 +1,187 @@
+package org.bakeryshop.service.analytics;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.address.OrderAddress;
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.model.pancakes.PancakeRecipe;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.SimplePancakeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.bakeryshop.domain.model.pancakes.PancakeIngredient.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SalesAnalyticsTest {
+
+    private static final Instant START = Instant.parse("2026-10-19T08:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private final Clock clock = mock(Clock.class);
+
+    @Test
+    @DisplayName("pancakes: should aggregate the rows of the sealed and the active segments")
+    void pancakesShouldAggregateSealedAndActiveSegments() {
+        // setup
+        final var salesAnalytics = new SalesAnalytics(directory, clock, 4);
+        captureAt(salesAnalytics, 0, 1, 2, OrderOutcome.DELIVERED, Set.of(DARK_CHOCOLATE), 3, Set.of(HAZELNUTS), 1);
+        captureAt(salesAnalytics, 10, 1, 3, OrderOutcome.DELIVERED, Set.of(DARK_CHOCOLATE), 2);
+        captureAt(salesAnalytics, 70, 2, 2, OrderOutcome.CANCELLED, Set.of(DARK_CHOCOLATE), 5);
+        captureAt(salesAnalytics, 90, 2, 1, OrderOutcome.DELIVERED,
+                Set.of(MILK_CHOCOLATE, WHIPPED_CREAM), 4, Set.of(HAZELNUTS), 2);
+        // exercise
+        final var all = SalesQuery.all();
+        final var delivered = all.withOutcome(OrderOutcome.DELIVERED);
+        // verify
+        assertThat(salesAnalytics.rows())
+                .isEqualTo(6L);
+        assertThat(salesAnalytics.pancakes(all))
+                .isEqualTo(17L);
+        assertThat(salesAnalytics.pancakes(delivered))
+                .isEqualTo(12L);
+        assertThat(salesAnalytics.pancakesByBuilding(delivered))
+                .containsExactly(entry(1, 6L), entry(2, 6L));
+        assertThat(salesAnalytics.pancakesByRoom(all.inBuilding(1)))
+                .containsExactly(entry(2, 4L), entry(3, 2L));
+        assertThat(salesAnalytics.pancakesByIngredients(all))
+                .containsOnly(
+                        entry(Set.of(DARK_CHOCOLATE), 10L),
+                        entry(Set.of(HAZELNUTS), 3L),
+                        entry(Set.of(MILK_CHOCOLATE, WHIPPED_CREAM), 4L)
+                );
+        assertThat(salesAnalytics.pancakes(all.inBuilding(2).inRoom(2).withIngredients(Set.of(DARK_CHOCOLATE))))
+                .isEqualTo(5L);
+        assertThat(salesAnalytics.topRecipes(delivered, 2))
+                .containsExactly(
+                        new RecipeSales(Set.of(DARK_CHOCOLATE), 5L),
+                        new RecipeSales(Set.of(MILK_CHOCOLATE, WHIPPED_CREAM), 4L)
+                );
+    }
+
+    @Test
+    @DisplayName("pancakesByWindow: should count the pancakes of the queried time windows only")
+    void pancakesByWindowShouldCountQueriedWindows() {
+        // setup
+        final var salesAnalytics = new SalesAnalytics(directory, clock, 2);
+        captureAt(salesAnalytics, 0, 1, 1, OrderOutcome.DELIVERED, Set.of(DARK_CHOCOLATE), 1);
+        captureAt(salesAnalytics, 30, 1, 1, OrderOutcome.DELIVERED, Set.of(DARK_CHOCOLATE), 2);
+        captureAt(salesAnalytics, 65, 1, 1, OrderOutcome.DELIVERED, Set.of(DARK_CHOCOLATE), 4);
+        captureAt(salesAnalytics, 200, 1, 1, OrderOutcome.DELIVERED, Set.of(DARK_CHOCOLATE), 8);
+        final var query = SalesQuery.all().between(START.plusSeconds(10 * 60), START.plusSeconds(120 * 60));
+        // exercise
+        final var pancakesByWindow = salesAnalytics.pancakesByWindow(query, Duration.ofMinutes(30L));
+        // verify
+        assertThat(pancakesByWindow)
+                .containsExactly(
+                        entry(START.plusSeconds(10 * 60), 2L),
+                        entry(START.plusSeconds(40 * 60), 4L)
+                );
+        assertThat(salesAnalytics.pancakes(query))
+                .isEqualTo(6L);
+    }
+
+    @Test
+    @DisplayName("open: should load the segments sealed on close")
+    void openShouldLoadSegmentsSealedOnClose() throws IOException {
+        // setup
+        final var salesAnalytics = new SalesAnalytics(directory, clock, 3);
+        for (int order = 0; order < 4; order++) {
+            captureAt(salesAnalytics, order, 1, 1 + order, OrderOutcome.DELIVERED, Set.of(DARK_CHOCOLATE), 1,
+                    Set.of(HAZELNUTS), 1);
+        }
+        salesAnalytics.close();
+        // exercise
+        final var reopened = SalesAnalytics.open(directory, clock);
+        // verify
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                    .containsExactly("sales-00000000.col", "sales-00000001.col", "sales-00000002.col");
+        }
+        assertThat(reopened.rows())
+                .isEqualTo(8L);
+        assertThat(reopened.pancakesByRoom(SalesQuery.all().withIngredients(Set.of(HAZELNUTS))))
+                .containsExactly(entry(1, 1L), entry(2, 1L), entry(3, 1L), entry(4, 1L));
+        assertThatThrownBy(() -> salesAnalytics.capture(snapshot(1, 1, Set.of(HAZELNUTS), 1), OrderOutcome.DELIVERED))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("open: should reject a malformed segment file")
+    void openShouldRejectMalformedSegment() throws IOException {
+        // setup
+        Files.writeString(directory.resolve("sales-00000000.col"), "not a sales segment");
+        // exercise
+        // verify
+        assertThatThrownBy(() -> SalesAnalytics.open(directory, clock))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("magic");
+    }
+
+    @Test
+    @DisplayName("attachedTo: should capture the delivered and the cancelled orders of the service")
+    void attachedToShouldCaptureDeliveredAndCancelledOrders() {
+        // setup
+        final var pancakeService = new SimplePancakeService(
+                new InMemoryPancakesOrderRepository(Duration.ofSeconds(1L)),
+                new FixedSetBuildingRepository(Set.of(new Building(3, 5)))
+        );
+        final var salesAnalytics = SalesAnalytics.attachedTo(pancakeService, directory);
+        final var deliveredOrderId = pancakeService.createOrder(3, 2).requireOrder().id();
+        final var cancelledOrderId = pancakeService.createOrder(3, 4).requireOrder().id();
+        pancakeService.addPancakes(deliveredOrderId, 2, Set.of(HAZELNUTS, MILK_CHOCOLATE));
+        pancakeService.addPancakes(cancelledOrderId, 1, Set.of(WHIPPED_CREAM));
+        pancakeService.completeOrder(deliveredOrderId);
+        pancakeService.prepareOrder(deliveredOrderId);
+        // exercise
+        pancakeService.deliverOrder(deliveredOrderId);
+        pancakeService.cancelOrder(cancelledOrderId);
+        // verify
+        assertThat(salesAnalytics.pancakesByRoom(SalesQuery.all().withOutcome(OrderOutcome.DELIVERED)))
+                .containsExactly(entry(2, 2L));
+        assertThat(salesAnalytics.pancakesByIngredients(SalesQuery.all().withOutcome(OrderOutcome.CANCELLED)))
+                .containsExactly(entry(Set.of(WHIPPED_CREAM), 1L));
+    }
+
+    /**
+     * Captures an order of the alternating ingredient combinations and pancake counts at the given minute.
+     */
+    private void captureAt(SalesAnalytics salesAnalytics, int minute, int buildingNr, int room, OrderOutcome outcome,
+                           Object... ingredientsAndCounts) {
+        when(clock.millis()).thenReturn(START.plusSeconds(minute * 60L).toEpochMilli());
+        salesAnalytics.capture(snapshot(buildingNr, room, ingredientsAndCounts), outcome);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PancakesOrderSnapshot snapshot(int buildingNr, int room, Object... ingredientsAndCounts) {
+        final var orderId = UUID.randomUUID();
+        final var pancakes = new ArrayList<PancakeRecipe>();
+        for (int i = 0; i < ingredientsAndCounts.length; i += 2) {
+            final var ingredients = (Set<PancakeIngredient>) ingredientsAndCounts[i];
+            for (int count = 0; count < (int) ingredientsAndCounts[i + 1]; count++) {
+                pancakes.add(PancakeRecipe.of(orderId, ingredients));
+            }
+        }
+        return new PancakesOrderSnapshot(orderId, OrderState.PREPARED, new OrderAddress(new Building(buildingNr, 10), room),
+                pancakes);
+    }
+}
@@ -0,0 +1,99 @@
+package org.bakeryshop.service.delivery;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.order.PancakesOrderSnapshot;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.domain.repository.order.PancakesOrderRepository;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.SimplePancakeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeliveryDispatcherTest {
+
+    private PancakesOrderRepository pancakesOrderRepository;
+    private PancakeService pancakeService;
+    private DeliveryDispatcher deliveryDispatcher;
+
+    @BeforeEach
+    void prepareTestSubject() {
+        pancakesOrderRepository = new InMemoryPancakesOrderRepository(Duration.ofSeconds(5L));
+        pancakeService = new SimplePancakeService(
+                pancakesOrderRepository,
+                new FixedSetBuildingRepository(Set.of(new Building(1, 8), new Building(2, 8)))
+        );
+        deliveryDispatcher = new DeliveryDispatcher(pancakeService, pancakesOrderRepository, 3, Duration.ofMillis(50L));
+    }
+
+    @Test
+    @Timeout(5)
+    @DisplayName("nextBatch: should dispatch full batch of a building ordered by room")
+    void nextBatchShouldDispatchFullBatchOrderedByRoom() {
+        // setup
+        final var thirdRoomOrderId = prepareOrder(1, 3);
+        final var secondBuildingOrderId = prepareOrder(2, 1);
+        final var firstRoomOrderId = prepareOrder(1, 1);
+        final var secondRoomOrderId = prepareOrder(1, 2);
+        // exercise
+        assertThat(deliveryDispatcher.nextBatch(Duration.ofSeconds(1L)))
+                .hasValueSatisfying(batch -> {
+                    assertThat(batch.buildingNr()).isEqualTo(1);
+                    assertThat(batch.orders())
+                            .extracting(PancakesOrderSnapshot::id)
+                            .containsExactly(firstRoomOrderId, secondRoomOrderId, thirdRoomOrderId);
+                });
+        // verify
+        assertThat(pancakesOrderRepository.find(firstRoomOrderId)).isEmpty();
+        assertThat(pancakeService.listPreparedOrders()).containsExactly(secondBuildingOrderId);
+    }
+
+    @Test
+    @Timeout(5)
+    @DisplayName("nextBatch: should dispatch incomplete batch once max wait elapsed")
+    void nextBatchShouldDispatchIncompleteBatchOnceMaxWaitElapsed() {
+        // setup
+        final var orderId = prepareOrder(2, 1);
+        // exercise
+        assertThat(deliveryDispatcher.nextBatch(Duration.ofMillis(10L))).isEmpty();
+        assertThat(deliveryDispatcher.nextBatch(Duration.ofSeconds(1L)))
+                .hasValueSatisfying(batch -> assertThat(batch.orders())
+                        .extracting(PancakesOrderSnapshot::id)
+                        .containsExactly(orderId));
+        // verify
+        assertThat(pancakeService.listPreparedOrders()).isEmpty();
+    }
+
+    @Test
+    @Timeout(5)
+    @DisplayName("nextBatch: should skip orders cancelled while waiting for the batch")
+    void nextBatchShouldSkipCancelledOrders() {
+        // setup
+        final var cancelledOrderId = prepareOrder(1, 1);
+        final var orderId = prepareOrder(1, 2);
+        assertThat(deliveryDispatcher.nextBatch(Duration.ofMillis(10L))).isEmpty();
+        pancakeService.cancelOrder(cancelledOrderId);
+        // exercise
+        assertThat(deliveryDispatcher.nextBatch(Duration.ofSeconds(1L)))
+                .hasValueSatisfying(batch -> assertThat(batch.orders())
+                        .extracting(PancakesOrderSnapshot::id)
+                        .containsExactly(orderId));
+    }
+
+    private UUID prepareOrder(int buildingNr, int room) {
+        final var orderId = pancakeService.createOrder(buildingNr, room).requireOrder().id();
+        pancakeService.addPancakes(orderId, 2, Set.of(PancakeIngredient.WHIPPED_CREAM));
+        pancakeService.completeOrder(orderId);
+        pancakeService.prepareOrder(orderId);
+        return orderId;
+    }
+}
@@ -0,0 +1,217 @@
+package org.bakeryshop.service.inventory;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.IdempotencyCache;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.SimplePancakeService;
+import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
+import org.bakeryshop.service.usecase.prepare.PrepareOrderResult;
+import org.bakeryshop.util.Concurrently;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IngredientInventoryTest {
+
+    private static final Set<PancakeIngredient> HAZELNUT_CHOCOLATE =
+            Set.of(PancakeIngredient.HAZELNUTS, PancakeIngredient.MILK_CHOCOLATE);
+    private static final String HAZELNUT_CHOCOLATE_DESCRIPTION = "Delicious pancake with hazelnuts, milk chocolate!";
+    private static final int ORDERS = 200;
+
+    private final IngredientInventory ingredientInventory = new IngredientInventory(Map.of(
+            PancakeIngredient.HAZELNUTS, 10L,
+            PancakeIngredient.MILK_CHOCOLATE, 4L
+    ));
+
+    @Test
+    @DisplayName("tryReserve: should reserve all ingredients or none")
+    void tryReserveShouldReserveAllOrNone() {
+        // exercise
+        final var reserved = ingredientInventory.tryReserve(HAZELNUT_CHOCOLATE, 3);
+        final var shortOfStock = ingredientInventory.tryReserve(HAZELNUT_CHOCOLATE, 2);
+        final var untracked = ingredientInventory.tryReserve(Set.of(PancakeIngredient.WHIPPED_CREAM), 1_000);
+        // verify
+        assertThat(reserved)
+                .isTrue();
+        assertThat(shortOfStock)
+                .isFalse();
+        assertThat(untracked)
+                .isTrue();
+        assertThat(ingredientInventory.stock(PancakeIngredient.HAZELNUTS))
+                .isEqualTo(new IngredientStock(PancakeIngredient.HAZELNUTS, 7L, 3L, 0L));
+        assertThat(ingredientInventory.stock(PancakeIngredient.MILK_CHOCOLATE))
+                .isEqualTo(new IngredientStock(PancakeIngredient.MILK_CHOCOLATE, 1L, 3L, 0L));
+        assertThatThrownBy(() -> ingredientInventory.stock(PancakeIngredient.WHIPPED_CREAM))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @RepeatedTest(5)
+    @DisplayName("tryReserve: should never reserve more than the stock concurrently")
+    void tryReserveShouldNotOversellConcurrently() {
+        // setup
+        final int stock = 1_500;
+        final var inventory = new IngredientInventory(Map.of(PancakeIngredient.HAZELNUTS, (long) stock));
+        // exercise
+        final var reservations = Concurrently.run(
+                () -> reserve(inventory, 500),
+                () -> reserve(inventory, 500),
+                () -> reserve(inventory, 500),
+                () -> reserve(inventory, 500)
+        );
+        // verify
+        final int reserved = reservations.stream().mapToInt(Integer::intValue).sum();
+        assertThat(reserved)
+                .isLessThanOrEqualTo(stock);
+        assertThat(inventory.stock(PancakeIngredient.HAZELNUTS))
+                .isEqualTo(new IngredientStock(PancakeIngredient.HAZELNUTS, stock - reserved, reserved, 0L));
+    }
+
+    @Test
+    @DisplayName("addPancakes: should fail with insufficient stock and release it on remove, cancel and consume it on prepare")
+    void addPancakesShouldReserveStockOfPancakes() {
+        // setup
+        final var pancakeService = pancakeService();
+        final var firstOrder = pancakeService.createOrder(1, 1).requireOrder().id();
+        final var secondOrder = pancakeService.createOrder(1, 2).requireOrder().id();
+        // exercise & verify
+        assertThat(pancakeService.addPancakes(firstOrder, 3, HAZELNUT_CHOCOLATE))
+                .isEqualTo(AddPancakeResult.success());
+        assertThat(pancakeService.addPancakes(secondOrder, 2, HAZELNUT_CHOCOLATE))
+                .isEqualTo(AddPancakeResult.insufficientStock());
+        assertThat(pancakeService.viewOrder(secondOrder))
+                .isEmpty();
+
+        pancakeService.removePancakes(firstOrder, HAZELNUT_CHOCOLATE_DESCRIPTION, 1);
+        assertThat(ingredientInventory.stock(PancakeIngredient.MILK_CHOCOLATE))
+                .isEqualTo(new IngredientStock(PancakeIngredient.MILK_CHOCOLATE, 2L, 2L, 0L));
+
+        assertThat(pancakeService.addPancakes(secondOrder, 2, HAZELNUT_CHOCOLATE))
+                .isEqualTo(AddPancakeResult.success());
+        pancakeService.cancelOrder(secondOrder);
+        assertThat(ingredientInventory.stock(PancakeIngredient.MILK_CHOCOLATE))
+                .isEqualTo(new IngredientStock(PancakeIngredient.MILK_CHOCOLATE, 2L, 2L, 0L));
+
+        pancakeService.completeOrder(firstOrder);
+        pancakeService.prepareOrder(firstOrder);
+        pancakeService.cancelOrder(firstOrder);
+        assertThat(ingredientInventory.stock(PancakeIngredient.MILK_CHOCOLATE))
+                .isEqualTo(new IngredientStock(PancakeIngredient.MILK_CHOCOLATE, 2L, 0L, 2L));
+        assertThat(ingredientInventory.stock(PancakeIngredient.HAZELNUTS))
+                .isEqualTo(new IngredientStock(PancakeIngredient.HAZELNUTS, 8L, 0L, 2L));
+    }
+
+    @Test
+    @DisplayName("addPancakes: should not reserve stock for a missing order")
+    void addPancakesShouldNotReserveStockForMissingOrder() {
+        // setup
+        final var pancakeService = pancakeService();
+        // exercise
+        final var result = pancakeService.addPancakes(UUID.randomUUID(), 1, HAZELNUT_CHOCOLATE);
+        // verify
+        assertThat(result)
+                .isEqualTo(AddPancakeResult.orderNotFound());
+        assertThat(ingredientInventory.stock(PancakeIngredient.HAZELNUTS).available())
+                .isEqualTo(10L);
+    }
+
+    @RepeatedTest(5)
+    @DisplayName("cancelOrder: should either release or consume the stock of an order prepared concurrently")
+    void cancelOrderShouldReleaseOrConsumeStockOnceConcurrentlyWithPrepare() {
+        // setup
+        final var inventory = new IngredientInventory(Map.of(PancakeIngredient.HAZELNUTS, 1_000L));
+        final var pancakeService = pancakeService(inventory, new Building(1, ORDERS));
+        final var orderIds = completedOrders(pancakeService);
+        // exercise
+        final var prepared = Concurrently.run(
+                () -> orderIds.stream()
+                        .filter(orderId -> pancakeService.prepareOrder(orderId).equals(PrepareOrderResult.success()))
+                        .count(),
+                () -> {
+                    orderIds.forEach(pancakeService::cancelOrder);
+                    return 0L;
+                }
+        ).get(0);
+        // verify
+        assertThat(inventory.stock(PancakeIngredient.HAZELNUTS))
+                .isEqualTo(new IngredientStock(PancakeIngredient.HAZELNUTS, 1_000L - prepared, 0L, prepared));
+    }
+
+    @RepeatedTest(5)
+    @DisplayName("prepareOrder: should consume the stock of a prepared order completed again concurrently only once")
+    void prepareOrderShouldConsumeStockOnceConcurrentlyWithComplete() {
+        // setup
+        final var inventory = new IngredientInventory(Map.of(PancakeIngredient.HAZELNUTS, 1_000L));
+        final var pancakeService = pancakeService(inventory, new Building(1, ORDERS));
+        final var orderIds = completedOrders(pancakeService);
+        orderIds.forEach(pancakeService::prepareOrder);
+        // exercise
+        Concurrently.run(
+                () -> {
+                    orderIds.forEach(pancakeService::completeOrder);
+                    return null;
+                },
+                () -> {
+                    orderIds.forEach(pancakeService::prepareOrder);
+                    return null;
+                }
+        );
+        // verify
+        final long prepared = pancakeService.listPreparedOrders().size();
+        final long completed = pancakeService.listCompletedOrders().size();
+        assertThat(prepared + completed)
+                .isEqualTo(ORDERS);
+        assertThat(inventory.stock(PancakeIngredient.HAZELNUTS))
+                .isEqualTo(new IngredientStock(PancakeIngredient.HAZELNUTS, 1_000L - ORDERS, completed, prepared));
+    }
+
+    private PancakeService pancakeService() {
+        return pancakeService(ingredientInventory, new Building(1, 2));
+    }
+
+    private static PancakeService pancakeService(IngredientInventory inventory, Building building) {
+        return new SimplePancakeService(
+                new InMemoryPancakesOrderRepository(Duration.ofSeconds(1L)),
+                new FixedSetBuildingRepository(Set.of(building)),
+                new IdempotencyCache(16, Duration.ofMinutes(1L)),
+                inventory
+        );
+    }
+
+    private static List<UUID> completedOrders(PancakeService pancakeService) {
+        final var orderIds = new ArrayList<UUID>(ORDERS);
+        for (int room = 1; room <= ORDERS; room++) {
+            final var orderId = pancakeService.createOrder(1, room).requireOrder().id();
+            pancakeService.addPancakes(orderId, 1, Set.of(PancakeIngredient.HAZELNUTS));
+            pancakeService.completeOrder(orderId);
+            orderIds.add(orderId);
+        }
+        return orderIds;
+    }
+
+    private static int reserve(IngredientInventory inventory, int attempts) {
+        int reserved = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (inventory.tryReserve(Set.of(PancakeIngredient.HAZELNUTS), 1)) {
+                reserved++;
+            }
+            if (i % 3 == 0 && reserved > 0) {
+                inventory.release(Set.of(PancakeIngredient.HAZELNUTS), 1);
+                reserved--;
+            }
+        }
+        return reserved;
+    }
+}
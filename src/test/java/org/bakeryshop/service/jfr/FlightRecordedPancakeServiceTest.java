@@ -0,0 +1,100 @@
+package org.bakeryshop.service.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import org.bakeryshop.common.jfr.OrderLogFlushEvent;
+import org.bakeryshop.common.jfr.OrderOperationEvent;
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.SimplePancakeService;
+import org.bakeryshop.util.FlightRecordings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class FlightRecordedPancakeServiceTest {
+
+    private PancakeService pancakeService;
+
+    @BeforeEach
+    void setUp() {
+        final var pancakesOrderRepository = new InMemoryPancakesOrderRepository(Duration.ofSeconds(1L));
+        pancakeService = new FlightRecordedPancakeService(
+                new SimplePancakeService(
+                        pancakesOrderRepository,
+                        new FixedSetBuildingRepository(Set.of(new Building(3, 5)))
+                ),
+                pancakesOrderRepository
+        );
+    }
+
+    @Test
+    @DisplayName("FlightRecordedPancakeService: should record the order, building, pancakes and outcome of every operation")
+    void shouldRecordOperationEvents() {
+        // setup
+        final var orderId = pancakeService.createOrder(3, 2).requireOrder().id();
+        final var missingOrderId = UUID.randomUUID();
+        // exercise
+        final var events = FlightRecordings.record(() -> {
+            pancakeService.createOrder(3, 4);
+            pancakeService.addPancakes(orderId, 2, Set.of(PancakeIngredient.HAZELNUTS));
+            pancakeService.completeOrder(missingOrderId);
+            pancakeService.cancelOrder(orderId);
+        }, OrderOperationEvent.NAME);
+        // verify
+        assertThat(events)
+                .extracting(
+                        event -> event.getString("operation"),
+                        event -> event.getString("orderId"),
+                        event -> event.getInt("buildingNr"),
+                        event -> event.getInt("pancakes"),
+                        event -> event.getString("outcome"))
+                .containsExactly(
+                        tuple("createOrder", events.get(0).getString("orderId"), 3, 0, "success"),
+                        tuple("addPancakes", orderId.toString(), 3, 2, "success"),
+                        tuple("completeOrder", missingOrderId.toString(), 0, 0, "order_not_found"),
+                        tuple("cancelOrder", orderId.toString(), 3, 2, "success")
+                );
+        assertThat(events.get(0).getString("orderId"))
+                .isNotNull();
+    }
+
+    @Test
+    @DisplayName("FlightRecordedPancakeService: should record nothing while the events are disabled")
+    void shouldNotRecordDisabledEvents() {
+        // exercise
+        final var events = FlightRecordings.record(() -> pancakeService.createOrder(3, 4));
+        // verify
+        assertThat(events)
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("OrderLog: should record the flush of the order log")
+    void shouldRecordLogFlushEvents() {
+        // setup
+        final var orderId = pancakeService.createOrder(3, 2).requireOrder().id();
+        // exercise
+        final var events = FlightRecordings.record(
+                () -> pancakeService.addPancakes(orderId, 1, Set.of(PancakeIngredient.HAZELNUTS)),
+                OrderLogFlushEvent.NAME);
+        // verify
+        assertThat(events)
+                .hasSize(1)
+                .first()
+                .extracting(event -> event.getInt("characters"))
+                .satisfies(characters -> assertThat(characters).isPositive());
+        assertThat(events)
+                .map(RecordedEvent::getThread)
+                .allMatch(thread -> thread.getJavaThreadId() == Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,109 @@
+package org.bakeryshop.service.jmx;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.pancakes.PancakeIngredient;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PancakesOrderRepositoryManagementTest {
+
+    private static final String OBJECT_NAME = "org.bakeryshop:type=PancakesOrderRepository,name=test";
+
+    private final InMemoryPancakesOrderRepository pancakesOrderRepository
+            = new InMemoryPancakesOrderRepository(Duration.ofMillis(100L));
+
+    @BeforeEach
+    void setUp() {
+        ManagementBeans.register(OBJECT_NAME, new PancakesOrderRepositoryManagement(pancakesOrderRepository));
+    }
+
+    @AfterEach
+    void tearDown() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+    }
+
+    @Test
+    @DisplayName("PancakesOrderRepositoryMXBean: should expose the amount of orders by state and their pancakes")
+    void shouldExposeOrderStatistics() throws JMException {
+        // setup
+        final var building = new Building(1, 3);
+        pancakesOrderRepository.create(building, 1)
+                .addPancakes(2, Set.of(PancakeIngredient.HAZELNUTS));
+        pancakesOrderRepository.create(building, 2)
+                .addPancakes(1, Set.of(PancakeIngredient.HAZELNUTS))
+                .markAsCompleted();
+        pancakesOrderRepository.create(building, 3);
+        // exercise
+        final var orders = getAttribute("Orders");
+        final var ordersByState = (TabularData) getAttribute("OrdersByState");
+        final var pancakes = getAttribute("Pancakes");
+        final var estimatedHeapBytes = getAttribute("EstimatedHeapBytes");
+        // verify
+        assertThat(orders)
+                .isEqualTo(3);
+        assertThat(toMap(ordersByState))
+                .isEqualTo(Map.of("NEW", 2, "COMPLETED", 1));
+        assertThat(pancakes)
+                .isEqualTo(3L);
+        assertThat((long) estimatedHeapBytes)
+                .isPositive();
+    }
+
+    @Test
+    @DisplayName("PancakesOrderRepositoryMXBean: should change the lock timeout of the repository")
+    void shouldChangeLockTimeout() throws JMException {
+        // exercise
+        ManagementFactory.getPlatformMBeanServer()
+                .setAttribute(new ObjectName(OBJECT_NAME), new Attribute("LockTimeoutMillis", 250L));
+        // verify
+        assertThat(pancakesOrderRepository.lockTimeout())
+                .isEqualTo(Duration.ofMillis(250L));
+        assertThat(getAttribute("LockTimeoutMillis"))
+                .isEqualTo(250L);
+    }
+
+    @Test
+    @DisplayName("PancakesOrderRepositoryMXBean: should count the lock acquisitions")
+    void shouldCountLockAcquisitions() throws JMException {
+        // setup
+        pancakesOrderRepository.create(new Building(1, 3), 1)
+                .addPancakes(1, Set.of(PancakeIngredient.HAZELNUTS));
+        // exercise
+        final var lockAcquisitions = getAttribute("LockAcquisitions");
+        final var lockTimeouts = getAttribute("LockTimeouts");
+        // verify
+        assertThat((long) lockAcquisitions)
+                .isPositive();
+        assertThat(lockTimeouts)
+                .isEqualTo(0L);
+    }
+
+    private static Object getAttribute(String attribute) throws JMException {
+        return ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName(OBJECT_NAME), attribute);
+    }
+
+    private static Map<String, Integer> toMap(TabularData tabularData) {
+        final var map = new HashMap<String, Integer>();
+        for (final var row : tabularData.values()) {
+            final var compositeData = (CompositeData) row;
+            map.put((String) compositeData.get("key"), (Integer) compositeData.get("value"));
+        }
+        return map;
+    }
+}
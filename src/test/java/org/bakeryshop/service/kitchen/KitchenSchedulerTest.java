@@ -0,0 +1,140 @@
+package org.bakeryshop.service.kitchen;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.domain.repository.order.PancakesOrderRepository;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.SimplePancakeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.bakeryshop.domain.model.pancakes.PancakeIngredient.*;
+
+class KitchenSchedulerTest {
+
+    private PancakeService pancakeService;
+    private KitchenScheduler kitchenScheduler;
+
+    @BeforeEach
+    void prepareTestSubject() {
+        final var pancakesOrderRepository = new InMemoryPancakesOrderRepository(Duration.ofSeconds(5L));
+        pancakeService = new SimplePancakeService(
+                pancakesOrderRepository,
+                new FixedSetBuildingRepository(Set.of(new Building(1, 4)))
+        );
+        kitchenScheduler = KitchenScheduler.attachedTo(pancakeService, pancakesOrderRepository, 4);
+    }
+
+    @Test
+    @DisplayName("nextTicket: should batch identical pancakes across orders")
+    void nextTicketShouldBatchIdenticalPancakesAcrossOrders() {
+        // setup
+        final var firstOrderId = createOrder();
+        final var secondOrderId = createOrder();
+        pancakeService.addPancakes(firstOrderId, 3, Set.of(DARK_CHOCOLATE));
+        pancakeService.addPancakes(firstOrderId, 1, Set.of(MILK_CHOCOLATE, HAZELNUTS));
+        pancakeService.addPancakes(secondOrderId, 2, Set.of(DARK_CHOCOLATE));
+        // exercise
+        assertThat(kitchenScheduler.nextTicket())
+                .hasValueSatisfying(ticket -> {
+                    assertThat(ticket.ingredients()).containsExactly(DARK_CHOCOLATE);
+                    assertThat(ticket.allocations()).containsOnly(entry(firstOrderId, 3), entry(secondOrderId, 1));
+                });
+        // verify
+        assertThat(kitchenScheduler.outstandingPancakes())
+                .containsOnly(entry(Set.of(DARK_CHOCOLATE), 1), entry(Set.of(MILK_CHOCOLATE, HAZELNUTS), 1));
+    }
+
+    @Test
+    @DisplayName("outstandingPancakes: should follow removed pancakes and cancelled orders")
+    void outstandingPancakesShouldFollowRemovedPancakesAndCancelledOrders() {
+        // setup
+        final var firstOrderId = createOrder();
+        final var secondOrderId = createOrder();
+        pancakeService.addPancakes(firstOrderId, 3, Set.of(DARK_CHOCOLATE));
+        pancakeService.addPancakes(secondOrderId, 2, Set.of(WHIPPED_CREAM));
+        // exercise
+        pancakeService.removePancakes(firstOrderId, "Delicious pancake with dark chocolate!", 2);
+        pancakeService.cancelOrder(secondOrderId);
+        // verify
+        assertThat(kitchenScheduler.outstandingPancakes())
+                .containsExactly(entry(Set.of(DARK_CHOCOLATE), 1));
+    }
+
+    @Test
+    @DisplayName("ticketCooked: should prepare completed orders having all pancakes cooked")
+    void ticketCookedShouldPrepareCompletedOrdersHavingAllPancakesCooked() {
+        // setup
+        final var firstOrderId = createOrder();
+        final var secondOrderId = createOrder();
+        pancakeService.addPancakes(firstOrderId, 3, Set.of(DARK_CHOCOLATE));
+        pancakeService.addPancakes(firstOrderId, 1, Set.of(MILK_CHOCOLATE));
+        pancakeService.addPancakes(secondOrderId, 2, Set.of(DARK_CHOCOLATE));
+        pancakeService.completeOrder(firstOrderId);
+        // exercise
+        kitchenScheduler.ticketCooked(kitchenScheduler.nextTicket().orElseThrow());
+        // verify
+        assertThat(pancakeService.listPreparedOrders()).isEmpty();
+        // exercise
+        kitchenScheduler.nextTicket().ifPresent(kitchenScheduler::ticketAbandoned);
+        kitchenScheduler.nextTicket().ifPresent(kitchenScheduler::ticketCooked);
+        kitchenScheduler.nextTicket().ifPresent(kitchenScheduler::ticketCooked);
+        // verify
+        assertThat(kitchenScheduler.nextTicket()).isEmpty();
+        assertThat(pancakeService.listPreparedOrders()).containsExactly(firstOrderId);
+        // exercise
+        pancakeService.completeOrder(secondOrderId);
+        // verify
+        assertThat(pancakeService.listPreparedOrders()).containsExactlyInAnyOrder(firstOrderId, secondOrderId);
+        assertThat(kitchenScheduler.outstandingPancakes()).isEqualTo(Map.of());
+    }
+
+    @Test
+    @DisplayName("orderChanged: should read the order without holding up the other events")
+    void orderChangedShouldReadOrderWithoutHoldingUpOtherEvents() throws Exception {
+        // setup
+        final var entered = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var slowRepository = mock(PancakesOrderRepository.class);
+        final var orderId = UUID.randomUUID();
+        when(slowRepository.find(orderId)).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await(10L, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        final var scheduler = new KitchenScheduler(pancakeService, slowRepository, 4);
+        try {
+            final var slowEvent = CompletableFuture.runAsync(() -> scheduler.orderChanged(orderId));
+            assertThat(entered.await(10L, TimeUnit.SECONDS)).isTrue();
+            // exercise & verify
+            assertTimeoutPreemptively(Duration.ofSeconds(5L), () -> {
+                scheduler.orderCancelled(pancakeService.createOrder(1, 1).requireOrder());
+                assertThat(scheduler.nextTicket()).isEmpty();
+            });
+            release.countDown();
+            slowEvent.get(10L, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private UUID createOrder() {
+        return pancakeService.createOrder(1, 2).requireOrder().id();
+    }
+}
@@ -0,0 +1,62 @@
+package org.bakeryshop.service.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 1L, 127L, 128L, 129L, 1_000L, 123_456_789L, Long.MAX_VALUE})
+    @DisplayName("indexOf: should map values to buckets whose highest value is at most 1.6% higher")
+    void indexOfShouldMapValuesToBucketsWithBoundedError(long value) {
+        // exercise
+        final var highestValue = LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(value));
+        // verify
+        assertThat(LatencyHistogram.indexOf(value))
+                .isBetween(0, LatencyHistogram.BUCKETS - 1);
+        assertThat(highestValue)
+                .isGreaterThanOrEqualTo(value);
+        assertThat((double) highestValue - value)
+                .isLessThanOrEqualTo(value / 64.0d);
+    }
+
+    @Test
+    @DisplayName("snapshot: should return percentiles, sum and max of recorded values")
+    void snapshotShouldReturnPercentiles() {
+        // setup
+        final var histogram = new LatencyHistogram();
+        for (long value = 1L; value <= 10_000L; value++) {
+            histogram.record(value * 1_000L);
+        }
+        // exercise
+        final var snapshot = histogram.snapshot();
+        // verify
+        assertThat(snapshot.count())
+                .isEqualTo(10_000L);
+        assertThat(snapshot.sum())
+                .isEqualTo(50_005_000_000L);
+        assertThat(snapshot.max())
+                .isEqualTo(10_000_000L);
+        assertThat((double) snapshot.valueAt(50.0d))
+                .isCloseTo(5_000_000.0d, within(5_000_000.0d / 64.0d));
+        assertThat((double) snapshot.valueAt(99.9d))
+                .isCloseTo(9_990_000.0d, within(9_990_000.0d / 64.0d));
+        assertThat(snapshot.valueAt(100.0d))
+                .isEqualTo(10_000_000L);
+    }
+
+    @Test
+    @DisplayName("snapshot: should return zero percentiles when nothing was recorded")
+    void snapshotShouldReturnZeroWhenEmpty() {
+        // exercise
+        final var snapshot = new LatencyHistogram().snapshot();
+        // verify
+        assertThat(snapshot.valueAt(99.0d))
+                .isZero();
+    }
+}
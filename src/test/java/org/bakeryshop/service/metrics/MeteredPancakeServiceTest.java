@@ -0,0 +1,127 @@
+package org.bakeryshop.service.metrics;
+
+import org.bakeryshop.common.OverloadedException;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.usecase.delivery.BatchDeliveryResult;
+import org.bakeryshop.service.usecase.delivery.OrderDeliveryResult;
+import org.bakeryshop.service.usecase.pancake.AddPancakeResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MeteredPancakeServiceTest {
+
+    @Mock
+    private PancakeService delegate;
+
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+
+    private PancakeService pancakeService;
+
+    @BeforeEach
+    void setUp() {
+        pancakeService = new MeteredPancakeService(delegate, metricsRegistry);
+    }
+
+    @Test
+    @DisplayName("addPancakes: should count calls and failures by failure code")
+    void addPancakesShouldCountCallsAndFailures() {
+        // setup
+        final var orderId = UUID.randomUUID();
+        when(delegate.addPancakes(orderId, 1, Set.of()))
+                .thenReturn(AddPancakeResult.success())
+                .thenReturn(AddPancakeResult.orderNotFound());
+        // exercise
+        pancakeService.addPancakes(orderId, 1, Set.of());
+        pancakeService.addPancakes(orderId, 1, Set.of());
+        // verify
+        final var snapshot = metricsRegistry.operation("addPancakes").snapshot();
+        assertThat(snapshot.calls())
+                .isEqualTo(2L);
+        assertThat(snapshot.errors())
+                .isZero();
+        assertThat(snapshot.failures())
+                .isEqualTo(Map.of(AddPancakeResult.orderNotFound().requireFailure().code(), 1L));
+        assertThat(snapshot.latencies().count())
+                .isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("listCompletedOrders: should count errors and rethrow them")
+    void listCompletedOrdersShouldCountErrors() {
+        // setup
+        when(delegate.listCompletedOrders())
+                .thenThrow(new OverloadedException("overloaded"));
+        // exercise
+        assertThatThrownBy(pancakeService::listCompletedOrders)
+                .isInstanceOf(OverloadedException.class);
+        // verify
+        final var snapshot = metricsRegistry.operation("listCompletedOrders").snapshot();
+        assertThat(snapshot.calls())
+                .isEqualTo(1L);
+        assertThat(snapshot.errors())
+                .isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("deliverOrders: should count the failure of every order of the batch")
+    void deliverOrdersShouldCountFailuresOfBatch() {
+        // setup
+        final var orderIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(delegate.deliverOrders(orderIds))
+                .thenReturn(new BatchDeliveryResult(List.of(), Map.of(
+                        orderIds.get(0), OrderDeliveryResult.OrderDeliveryFailure.NOT_PREPARED,
+                        orderIds.get(1), OrderDeliveryResult.OrderDeliveryFailure.NOT_PREPARED)));
+        // exercise
+        pancakeService.deliverOrders(orderIds);
+        // verify
+        final var snapshot = metricsRegistry.operation("deliverOrders").snapshot();
+        assertThat(snapshot.calls())
+                .isEqualTo(1L);
+        assertThat(snapshot.failures())
+                .isEqualTo(Map.of(OrderDeliveryResult.OrderDeliveryFailure.NOT_PREPARED.code(), 2L));
+    }
+
+    @Test
+    @DisplayName("PrometheusTextFormat: should write calls, failures and latency summaries to a file")
+    void prometheusTextFormatShouldWriteMetricsToFile(@TempDir Path directory) throws IOException {
+        // setup
+        final var orderId = UUID.randomUUID();
+        when(delegate.addPancakes(orderId, 1, Set.of()))
+                .thenReturn(AddPancakeResult.orderNotFound());
+        pancakeService.addPancakes(orderId, 1, Set.of());
+        final var file = directory.resolve("bakery.prom");
+        // exercise
+        PrometheusTextFormat.writeTo(metricsRegistry.snapshot(), file);
+        // verify
+        assertThat(Files.readAllLines(file))
+                .contains(
+                        "# TYPE bakery_operation_calls_total counter",
+                        "bakery_operation_calls_total{operation=\"addPancakes\"} 1",
+                        "bakery_operation_calls_total{operation=\"createOrder\"} 0",
+                        "bakery_operation_failures_total{operation=\"addPancakes\",failure=\"%s\"} 1"
+                                .formatted(AddPancakeResult.orderNotFound().requireFailure().code()),
+                        "bakery_operation_latency_seconds_count{operation=\"addPancakes\"} 1"
+                )
+                .anyMatch(line -> line.startsWith("bakery_operation_latency_seconds{operation=\"addPancakes\",quantile=\"0.99\"} "));
+        assertThat(directory.toFile().list())
+                .containsExactly("bakery.prom");
+    }
+}
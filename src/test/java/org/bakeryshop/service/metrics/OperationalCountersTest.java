@@ -0,0 +1,122 @@
+package org.bakeryshop.service.metrics;
+
+import org.bakeryshop.domain.model.address.Building;
+import org.bakeryshop.domain.model.order.OrderState;
+import org.bakeryshop.domain.repository.address.FixedSetBuildingRepository;
+import org.bakeryshop.domain.repository.order.InMemoryPancakesOrderRepository;
+import org.bakeryshop.service.PancakeService;
+import org.bakeryshop.service.SimplePancakeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.bakeryshop.domain.model.pancakes.PancakeIngredient.HAZELNUTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OperationalCountersTest {
+
+    private final Clock clock = mock(Clock.class);
+
+    private PancakeService pancakeService;
+    private OperationalCounters operationalCounters;
+
+    @BeforeEach
+    void setUp() {
+        when(clock.millis()).thenReturn(0L);
+        pancakeService = new SimplePancakeService(
+                new InMemoryPancakesOrderRepository(Duration.ofSeconds(1L)),
+                new FixedSetBuildingRepository(Set.of(new Building(1, 5)))
+        );
+        operationalCounters = new OperationalCounters(Duration.ofMinutes(1L), clock);
+        pancakeService.addOrderListener(operationalCounters);
+    }
+
+    @Test
+    @DisplayName("stats: should follow the orders through their states")
+    void statsShouldFollowOrdersThroughStates() {
+        // setup
+        final var deliveredOrderId = createOrder(3);
+        final var otherDeliveredOrderId = createOrder(1);
+        final var completedOrderId = createOrder(1);
+        final var cancelledOrderId = createOrder(2);
+        createOrder(1);
+        for (final var orderId : Set.of(deliveredOrderId, otherDeliveredOrderId, completedOrderId)) {
+            pancakeService.completeOrder(orderId);
+        }
+        pancakeService.completeOrder(completedOrderId);
+        pancakeService.prepareOrder(deliveredOrderId);
+        pancakeService.prepareOrder(otherDeliveredOrderId);
+        // exercise
+        pancakeService.deliverOrder(deliveredOrderId);
+        pancakeService.deliverOrder(otherDeliveredOrderId);
+        pancakeService.cancelOrder(cancelledOrderId);
+        final var stats = operationalCounters.stats();
+        // verify
+        assertThat(stats.createdOrders())
+                .isEqualTo(5L);
+        assertThat(stats.cancelledOrders())
+                .isEqualTo(1L);
+        assertThat(stats.deliveredOrders())
+                .isEqualTo(2L);
+        assertThat(stats.averagePancakesPerOrder())
+                .isEqualTo(2.0);
+        assertThat(stats.createdOrdersPerMinute())
+                .isEqualTo(5.0);
+        assertThat(stats.backlog())
+                .containsOnly(entry(OrderState.NEW, 1L), entry(OrderState.COMPLETED, 1L), entry(OrderState.PREPARED, 0L));
+    }
+
+    @Test
+    @DisplayName("stats: should count the orders of the sliding window only, keeping the backlog")
+    void statsShouldCountSlidingWindowOnly() {
+        // setup
+        createOrder(1);
+        when(clock.millis()).thenReturn(30_000L);
+        createOrder(1);
+        // exercise
+        when(clock.millis()).thenReturn(60_000L);
+        final var stats = operationalCounters.stats();
+        // verify
+        assertThat(stats.createdOrders())
+                .isEqualTo(1L);
+        assertThat(stats.backlog())
+                .containsEntry(OrderState.NEW, 2L);
+    }
+
+    @Test
+    @DisplayName("attachedTo: should seed the backlog with the orders of the service and never count it below zero")
+    void attachedToShouldSeedBacklogWithOrdersOfService() {
+        // setup
+        final var newOrderId = createOrder(1);
+        final var completedOrderId = createOrder(1);
+        final var preparedOrderId = createOrder(1);
+        pancakeService.completeOrder(completedOrderId);
+        pancakeService.completeOrder(preparedOrderId);
+        pancakeService.prepareOrder(preparedOrderId);
+        final var attachedCounters = OperationalCounters.attachedTo(pancakeService);
+        // exercise
+        pancakeService.completeOrder(newOrderId);
+        pancakeService.cancelOrder(completedOrderId);
+        pancakeService.deliverOrder(preparedOrderId);
+        final var stats = attachedCounters.stats();
+        // verify
+        assertThat(stats.backlog())
+                .containsOnly(entry(OrderState.NEW, 0L), entry(OrderState.COMPLETED, 1L), entry(OrderState.PREPARED, 0L));
+        assertThat(stats.createdOrders())
+                .isZero();
+    }
+
+    private UUID createOrder(int pancakes) {
+        final var orderId = pancakeService.createOrder(1, 1).requireOrder().id();
+        pancakeService.addPancakes(orderId, pancakes, Set.of(HAZELNUTS));
+        return orderId;
+    }
+}
@@ -0,0 +1,81 @@
+package org.bakeryshop.service.metrics;
+
+import org.bakeryshop.util.Concurrently;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlidingWindowCounterTest {
+
+    private final Clock clock = mock(Clock.class);
+
+    @Test
+    @DisplayName("sum: should drop the buckets leaving the window")
+    void sumShouldDropBucketsLeavingWindow() {
+        // setup
+        when(clock.millis()).thenReturn(1_000L);
+        final var counter = new SlidingWindowCounter(Duration.ofSeconds(10L), 10, clock);
+        counter.add(3L);
+        when(clock.millis()).thenReturn(5_500L);
+        counter.add(4L);
+        // exercise
+        when(clock.millis()).thenReturn(10_999L);
+        final var bothBuckets = counter.sum();
+        when(clock.millis()).thenReturn(11_000L);
+        final var laterBucket = counter.sum();
+        when(clock.millis()).thenReturn(15_000L);
+        final var noBucket = counter.sum();
+        // verify
+        assertThat(bothBuckets)
+                .isEqualTo(7L);
+        assertThat(laterBucket)
+                .isEqualTo(4L);
+        assertThat(noBucket)
+                .isZero();
+        assertThat(counter.window())
+                .isEqualTo(Duration.ofSeconds(10L));
+    }
+
+    @Test
+    @DisplayName("add: should reuse the slot of a bucket a whole window later")
+    void addShouldReuseSlotWholeWindowLater() {
+        // setup
+        when(clock.millis()).thenReturn(0L);
+        final var counter = new SlidingWindowCounter(Duration.ofSeconds(4L), 4, clock);
+        counter.add(5L);
+        // exercise
+        when(clock.millis()).thenReturn(4_000L);
+        counter.increment();
+        // verify
+        assertThat(counter.sum())
+                .isEqualTo(1L);
+        assertThatThrownBy(() -> counter.add(-1L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("add: should not lose concurrent increments")
+    void addShouldNotLoseConcurrentIncrements() {
+        // setup
+        final var counter = new SlidingWindowCounter(Duration.ofMinutes(1L), 60, Clock.systemUTC());
+        final int threads = 4;
+        final int increments = 100_000;
+        // exercise
+        Concurrently.run(threads, () -> {
+            for (int i = 0; i < increments; i++) {
+                counter.increment();
+            }
+            return null;
+        });
+        // verify
+        assertThat(counter.sum())
+                .isEqualTo((long) threads * increments);
+    }
+}
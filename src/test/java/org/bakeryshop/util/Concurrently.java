@@ -0,0 +1,80 @@
+package org.bakeryshop.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the tasks of a stress test round on their own threads, released at the same time.
+ * <p>
+ * The threads spin until all of them arrived, a blocking barrier would wake them up one after the other,
+ * often far enough apart for the tasks not to overlap at all. The races are only likely on a multi-core machine,
+ * on a single core the spinning threads yield to let the others arrive.
+ */
+public final class Concurrently {
+
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        final var thread = new Thread(runnable, "stress-test");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Concurrently() {
+        super();
+    }
+
+    /**
+     * @return the results of the tasks in task order
+     * @throws AssertionError when a task failed or did not finish within ten seconds
+     */
+    @SafeVarargs
+    public static <T> List<T> run(Callable<T>... tasks) {
+        final var arrived = new AtomicInteger();
+        final var futures = new ArrayList<Future<T>>(tasks.length);
+        for (final var task : tasks) {
+            futures.add(executor.submit(() -> {
+                arrived.incrementAndGet();
+                for (int spins = 0; arrived.get() < tasks.length; spins++) {
+                    if (spins < 1_000) {
+                        Thread.onSpinWait();
+                    } else {
+                        Thread.yield();
+                    }
+                }
+                return task.call();
+            }));
+        }
+        final var results = new ArrayList<T>(tasks.length);
+        for (final var future : futures) {
+            try {
+                results.add(future.get(10L, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                throw new AssertionError("Task failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError("Interrupted while waiting for the task", e);
+            } catch (TimeoutException e) {
+                throw new AssertionError("Task did not finish in time", e);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs the same task on the given amount of threads.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> run(int threads, Callable<T> task) {
+        final Callable<T>[] tasks = new Callable[threads];
+        Arrays.fill(tasks, task);
+        return run(tasks);
+    }
+}
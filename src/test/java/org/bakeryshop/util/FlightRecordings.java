@@ -0,0 +1,49 @@
+package org.bakeryshop.util;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Records the flight recorder events emitted while running an action.
+ */
+public final class FlightRecordings {
+
+    private FlightRecordings() {
+        super();
+    }
+
+    /**
+     * @param action     The action emitting the events
+     * @param eventNames The events to enable without threshold
+     * @return The recorded events of the given names, in commit order of every thread
+     */
+    public static List<RecordedEvent> record(Runnable action, String... eventNames) {
+        try (final var recording = new Recording()) {
+            for (final var eventName : eventNames) {
+                recording.enable(eventName).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            final var file = Files.createTempFile("bakery", ".jfr");
+            try {
+                recording.dump(file);
+                final var eventNameList = List.of(eventNames);
+                return RecordingFile.readAllEvents(file).stream()
+                        .filter(event -> eventNameList.contains(event.getEventType().getName()))
+                        .toList();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}